@@ -87,6 +87,14 @@ public class AppProperties extends Properties {
         return propFile;
     }
 
+    /**
+     * @return directory of the settings file. Other app data files go here
+     * too.
+     */
+    public File getConfigDir() {
+        return propFile.getParentFile();
+    }
+
     private static File initPropFile() {
         final String os = System.getProperty("os.name");
         if (os != null && os.startsWith("Mac")) {
@@ -16,29 +16,29 @@
  */
 package com.maehem.mangocad.model;
 
-import com.maehem.mangocad.model.eaglecad.EagleCADLibraryFileException;
 import com.maehem.mangocad.model.eaglecad.EagleCADUtils;
 import com.maehem.mangocad.model.element.drawing.Board;
-import com.maehem.mangocad.view.ControlPanel;
 import java.io.File;
-import java.io.IOException;
-import java.util.ArrayList;
-import java.util.logging.Level;
-import java.util.logging.Logger;
 
 /**
+ * Recently used boards. See {@link DesignCache}.
  *
  * @author Mark J Koch ( @maehem on GitHub )
  */
-public class BoardCache extends ArrayList<Board> {
+public class BoardCache extends DesignCache<Board> {
 
-    private static final Logger LOGGER = ControlPanel.LOGGER;
+    /**
+     * Default limit, in bytes of board files.
+     */
+    public static final long MAX_WEIGHT = 64 * 1024 * 1024;
 
     private static BoardCache instance = null;
 
-    private BoardCache() {}
+    private BoardCache() {
+        super("Board", EagleCADUtils::importBRD, MAX_WEIGHT);
+    }
 
-    public static BoardCache getInstance() {
+    public static synchronized BoardCache getInstance() {
         if (instance == null) {
             instance = new BoardCache();
         }
@@ -47,26 +47,6 @@ public class BoardCache extends ArrayList<Board> {
     }
 
     public Board getBoard(File f) {
-        for (Board brd : this) {
-            if (brd.getFilePath().equals(f.getAbsolutePath())) {
-                LOGGER.log(Level.FINER, "Found cached Board: " + brd.getFilePath());
-                return brd;
-            }
-        }
-
-        try {
-            Board brd = EagleCADUtils.importBRD(f);
-            add(brd);
-            LOGGER.log(Level.FINER, "Cached new Board: " + brd.getFilePath());
-            return brd;
-        } catch (IOException ex) {
-            Logger.getLogger(getClass().getName()).log(Level.SEVERE, null, ex);
-        } catch (EagleCADLibraryFileException ex) {
-            LOGGER.log(Level.SEVERE, ex.toString());
-            LOGGER.log(Level.SEVERE, "Error importing Board: " + f.getAbsolutePath(), ex);
-        }
-
-        LOGGER.log(Level.SEVERE, "ERROR: Could not find or load requested file!");
-        return null;
+        return get(f);
     }
 }
@@ -0,0 +1,343 @@
+/*
+    Licensed to the Apache Software Foundation (ASF) under one or more
+    contributor license agreements.  See the NOTICE file distributed with this
+    work for additional information regarding copyright ownership.  The ASF
+    licenses this file to you under the Apache License, Version 2.0
+    (the "License"); you may not use this file except in compliance with the
+    License.  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+    License for the specific language governing permissions and limitations
+    under the License.
+ */
+package com.maehem.mangocad.model;
+
+import com.maehem.mangocad.model.eaglecad.EagleCADLibraryFileException;
+import com.maehem.mangocad.view.ControlPanel;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Cache of designs loaded from files, looked up by absolute path.
+ *
+ * Each entry is weighed by the size of its file, a cheap stand in for the
+ * size of its model. When the total weight passes the limit, the least
+ * recently used entries are dropped. An entry whose file has changed size or
+ * time stamp is stale and is loaded again.
+ *
+ * Safe to use from many threads. When several threads ask for the same file,
+ * one loads it and the others wait for that result. A load that finishes
+ * after its file was invalidated is handed back but not cached.
+ *
+ * @author Mark J Koch ( @maehem on GitHub )
+ * @param <T> type of design
+ */
+public class DesignCache<T> {
+
+    private static final Logger LOGGER = ControlPanel.LOGGER;
+
+    /**
+     * Loads a design from its file.
+     *
+     * @param <T> type of design
+     */
+    public interface Loader<T> {
+
+        T load(File f) throws IOException, EagleCADLibraryFileException;
+    }
+
+    private static class Entry<T> {
+
+        private final T design;
+        private final long fileSize;
+        private final long lastModified;
+
+        Entry(T design, long fileSize, long lastModified) {
+            this.design = design;
+            this.fileSize = fileSize;
+            this.lastModified = lastModified;
+        }
+
+        long getWeight() {
+            return Math.max(1, fileSize);
+        }
+
+        boolean isCurrent(File f) {
+            return f.length() == fileSize && f.lastModified() == lastModified;
+        }
+    }
+
+    private final String name;
+    private final Loader<T> loader;
+    private long maxWeight;
+
+    // Access ordered, so the eldest entry is the least recently used.
+    private final LinkedHashMap<String, Entry<T>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, CompletableFuture<T>> loading = new HashMap<>();
+    // Reloads under way. Invalidating a file withdraws its token.
+    private final Map<String, Object> reloading = new HashMap<>();
+    private long weight = 0;
+
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+    private long invalidations = 0;
+
+    /**
+     * @param name for log messages.
+     * @param loader loads a design on a cache miss.
+     * @param maxWeight total file bytes to keep.
+     */
+    public DesignCache(String name, Loader<T> loader, long maxWeight) {
+        this.name = name;
+        this.loader = loader;
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * Get the design for a file, loading it if it is not cached or the file
+     * has changed.
+     *
+     * @param f design file
+     * @return the design or null if it could not be loaded.
+     */
+    public T get(File f) {
+        String key = f.getAbsolutePath();
+        CompletableFuture<T> future;
+        CompletableFuture<T> pending;
+        synchronized (this) {
+            Entry<T> entry = entries.get(key);
+            if (entry != null) {
+                if (entry.isCurrent(f)) {
+                    hits++;
+                    return entry.design;
+                }
+                LOGGER.log(Level.FINE, "{0} cache: file changed, reloading: {1}", new Object[]{name, key});
+                removeEntry(key);
+                invalidations++;
+            }
+            misses++;
+            pending = loading.get(key);
+            future = null;
+            if (pending == null) {
+                future = new CompletableFuture<>();
+                loading.put(key, future);
+            }
+        }
+        if (pending != null) {
+            // Someone else is loading it.
+            return pending.join();
+        }
+
+        T design = null;
+        try {
+            // Stamp before loading so a change made while loading is noticed next time.
+            long fileSize = f.length();
+            long lastModified = f.lastModified();
+            design = loader.load(f);
+            synchronized (this) {
+                // Not if the file was invalidated while it loaded.
+                if (design != null && loading.get(key) == future) {
+                    putEntry(key, new Entry<>(design, fileSize, lastModified));
+                    LOGGER.log(Level.FINER, "{0} cache: cached new design: {1}", new Object[]{name, key});
+                }
+            }
+        } catch (IOException ex) {
+            LOGGER.log(Level.SEVERE, null, ex);
+        } catch (EagleCADLibraryFileException ex) {
+            LOGGER.log(Level.SEVERE, name + " cache: error importing: " + key, ex);
+        } catch (RuntimeException ex) {
+            LOGGER.log(Level.SEVERE, name + " cache: error loading: " + key, ex);
+        } finally {
+            synchronized (this) {
+                loading.remove(key, future);
+            }
+            future.complete(design);
+        }
+
+        if (design == null) {
+            LOGGER.log(Level.SEVERE, "ERROR: Could not find or load requested file: {0}", key);
+        }
+        return design;
+    }
+
+    /**
+     * Put a design loaded elsewhere into the cache, replacing any entry for
+     * the same file in one step.
+     *
+     * @param f design file
+     * @param design loaded from the file as it is now.
+     */
+    public synchronized void put(File f, T design) {
+        putEntry(f.getAbsolutePath(), new Entry<>(design, f.length(), f.lastModified()));
+    }
+
+    /**
+     * Load a cached file again and swap the new design in with one put.
+     * Readers get the old design until the new one is in place. If the load
+     * fails, the old entry is dropped so the next get() tries again.
+     *
+     * @param f design file
+     * @return the new design, or null if the file was not cached or could
+     * not be loaded.
+     */
+    public T reload(File f) {
+        String key = f.getAbsolutePath();
+        Object token = new Object();
+        synchronized (this) {
+            if (!entries.containsKey(key)) {
+                return null; // Never asked for. Nothing to refresh.
+            }
+            reloading.put(key, token);
+        }
+        boolean current;
+        try {
+            long fileSize = f.length();
+            long lastModified = f.lastModified();
+            T design = loader.load(f);
+            if (design != null) {
+                synchronized (this) {
+                    // Not if the file was invalidated, or reloaded again, meanwhile.
+                    if (reloading.get(key) == token) {
+                        putEntry(key, new Entry<>(design, fileSize, lastModified));
+                        LOGGER.log(Level.FINE, "{0} cache: reloaded: {1}", new Object[]{name, key});
+                    }
+                }
+                return design;
+            }
+        } catch (IOException ex) {
+            LOGGER.log(Level.SEVERE, null, ex);
+        } catch (EagleCADLibraryFileException ex) {
+            LOGGER.log(Level.SEVERE, name + " cache: error reloading: " + key, ex);
+        } catch (RuntimeException ex) {
+            LOGGER.log(Level.SEVERE, name + " cache: error reloading: " + key, ex);
+        } finally {
+            synchronized (this) {
+                current = reloading.remove(key, token);
+            }
+        }
+        if (current) {
+            invalidate(f);
+        }
+        return null;
+    }
+
+    /**
+     * @param f design file
+     * @return true if a current design for the file is cached.
+     */
+    public synchronized boolean contains(File f) {
+        Entry<T> entry = entries.get(f.getAbsolutePath());
+        return entry != null && entry.isCurrent(f);
+    }
+
+    /**
+     * Drop the entry for a file. The next get() loads it again.
+     *
+     * @param f design file
+     */
+    public synchronized void invalidate(File f) {
+        String key = f.getAbsolutePath();
+        // Loads under way finish, but their results are not cached.
+        loading.remove(key);
+        reloading.remove(key);
+        if (removeEntry(key) != null) {
+            invalidations++;
+        }
+    }
+
+    public synchronized void clear() {
+        loading.clear();
+        reloading.clear();
+        entries.clear();
+        weight = 0;
+    }
+
+    private Entry<T> removeEntry(String key) {
+        Entry<T> old = entries.remove(key);
+        if (old != null) {
+            weight -= old.getWeight();
+        }
+        return old;
+    }
+
+    private void putEntry(String key, Entry<T> entry) {
+        removeEntry(key);
+        entries.put(key, entry);
+        weight += entry.getWeight();
+        evict();
+    }
+
+    /**
+     * Drop least recently used entries until under the limit. The newest
+     * entry is always kept, even if it alone is over the limit.
+     */
+    private void evict() {
+        Iterator<Map.Entry<String, Entry<T>>> it = entries.entrySet().iterator();
+        while (weight > maxWeight && entries.size() > 1 && it.hasNext()) {
+            Map.Entry<String, Entry<T>> eldest = it.next();
+            it.remove();
+            weight -= eldest.getValue().getWeight();
+            evictions++;
+            LOGGER.log(Level.FINE, "{0} cache: evicted: {1}", new Object[]{name, eldest.getKey()});
+        }
+    }
+
+    public synchronized long getMaxWeight() {
+        return maxWeight;
+    }
+
+    /**
+     * @param maxWeight total file bytes to keep. Evicts right away if the
+     * cache is over the new limit.
+     */
+    public synchronized void setMaxWeight(long maxWeight) {
+        this.maxWeight = maxWeight;
+        evict();
+    }
+
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return entries dropped because their file changed or on request.
+     */
+    public synchronized long getInvalidations() {
+        return invalidations;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return name + " cache: " + entries.size() + " designs, " + weight + "/" + maxWeight + " bytes, "
+                + hits + " hits, " + misses + " misses, " + evictions + " evictions, "
+                + invalidations + " invalidations";
+    }
+}
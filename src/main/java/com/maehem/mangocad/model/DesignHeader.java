@@ -0,0 +1,172 @@
+/*
+    Licensed to the Apache Software Foundation (ASF) under one or more
+    contributor license agreements.  See the NOTICE file distributed with this
+    work for additional information regarding copyright ownership.  The ASF
+    licenses this file to you under the Apache License, Version 2.0
+    (the "License"); you may not use this file except in compliance with the
+    License.  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+    License for the specific language governing permissions and limitations
+    under the License.
+ */
+package com.maehem.mangocad.model;
+
+import com.maehem.mangocad.model.element.enums.DesignType;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Just enough of a design file to list it: the description, the names and
+ * pin counts of the library items and the sheet count. Reading one is much cheaper than a
+ * full ingest, so the control panel can show many files without building
+ * their models.
+ *
+ * @author Mark J Koch ( @maehem on GitHub )
+ */
+public class DesignHeader {
+
+    /**
+     * Name and description of one package, symbol, deviceset or 3D package.
+     */
+    public static class Entry {
+
+        private final String name;
+        private final String description;
+        private final int pinCount;
+
+        public Entry(String name, String description, int pinCount) {
+            this.name = name;
+            this.description = description;
+            this.pinCount = pinCount;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        /**
+         * @return number of pads and SMDs of a package, or pins of a symbol.
+         * Zero for other items.
+         */
+        public int getPinCount() {
+            return pinCount;
+        }
+    }
+
+    private final String filePath;
+    private final DesignType type;
+    private final long fileSize;
+    private final long lastModified;
+    private String description = "";
+    private int sheetCount = 0;
+
+    private final List<Entry> packages = new ArrayList<>();
+    private final List<Entry> packages3d = new ArrayList<>();
+    private final List<Entry> symbols = new ArrayList<>();
+    private final List<Entry> deviceSets = new ArrayList<>();
+
+    /**
+     * @param filePath absolute path of the file.
+     * @param type of design in the file.
+     * @param fileSize file length when it was read.
+     * @param lastModified file time stamp when it was read.
+     */
+    public DesignHeader(String filePath, DesignType type, long fileSize, long lastModified) {
+        this.filePath = filePath;
+        this.type = type;
+        this.fileSize = fileSize;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * @return absolute path of the file this was read from.
+     */
+    public String getFilePath() {
+        return filePath;
+    }
+
+    public DesignType getType() {
+        return type;
+    }
+
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * @param f the file this header was read from.
+     * @return true if the file has not changed since it was read.
+     */
+    public boolean isCurrent(File f) {
+        return f.length() == fileSize && f.lastModified() == lastModified;
+    }
+
+    /**
+     * @return the description, same as the full model would report it.
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    /**
+     * @return number of sheets. Only set for schematics.
+     */
+    public int getSheetCount() {
+        return sheetCount;
+    }
+
+    public void setSheetCount(int sheetCount) {
+        this.sheetCount = sheetCount;
+    }
+
+    public List<Entry> getPackages() {
+        return packages;
+    }
+
+    public List<Entry> getPackages3d() {
+        return packages3d;
+    }
+
+    public List<Entry> getSymbols() {
+        return symbols;
+    }
+
+    public List<Entry> getDeviceSets() {
+        return deviceSets;
+    }
+
+    /**
+     * Find the description of a library item by name.
+     *
+     * @param name of symbol, package, 3D package or deviceset.
+     * @return the description or null if no item has that name.
+     */
+    public String getEntryDescription(String name) {
+        for (List<Entry> list : List.of(symbols, packages, packages3d, deviceSets)) {
+            for (Entry e : list) {
+                if (e.getName().equals(name)) {
+                    return e.getDescription();
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,126 @@
+/*
+    Licensed to the Apache Software Foundation (ASF) under one or more
+    contributor license agreements.  See the NOTICE file distributed with this
+    work for additional information regarding copyright ownership.  The ASF
+    licenses this file to you under the Apache License, Version 2.0
+    (the "License"); you may not use this file except in compliance with the
+    License.  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+    License for the specific language governing permissions and limitations
+    under the License.
+ */
+package com.maehem.mangocad.model;
+
+import com.maehem.mangocad.AppProperties;
+import com.maehem.mangocad.model.eaglecad.EagleCADLibraryFileException;
+import com.maehem.mangocad.model.eaglecad.EagleCADUtils;
+import com.maehem.mangocad.view.ControlPanel;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Headers of library, schematic and board files, read without a full
+ * ingest. See {@link DesignHeader}.
+ *
+ * The headers are kept on disk in a {@link DesignIndexStore} under the
+ * settings directory. A stored header is used as long as its file has the
+ * same size and time stamp, so a warm start reads no XML for unchanged
+ * files.
+ *
+ * @author Mark J Koch ( @maehem on GitHub )
+ */
+public class DesignHeaderCache {
+
+    private static final Logger LOGGER = ControlPanel.LOGGER;
+
+    public static final String INDEX_FILE_NAME = "mangoCAD-design-index.dat";
+
+    private static DesignHeaderCache instance = null;
+
+    private final Map<String, DesignHeader> headers = new HashMap<>();
+    private final DesignIndexStore store;
+    private boolean dirty = false;
+
+    private DesignHeaderCache() {
+        store = new DesignIndexStore(new File(AppProperties.getInstance().getConfigDir(), INDEX_FILE_NAME));
+        headers.putAll(store.load());
+    }
+
+    public static synchronized DesignHeaderCache getInstance() {
+        if (instance == null) {
+            instance = new DesignHeaderCache();
+        }
+
+        return instance;
+    }
+
+    public DesignHeader getHeader(File f) {
+        DesignHeader cached = findCached(f);
+        if (cached != null) {
+            return cached;
+        }
+
+        try {
+            DesignHeader header = EagleCADUtils.readHeader(f);
+            synchronized (this) {
+                // Another thread may have read it while we were parsing.
+                cached = findCached(f);
+                if (cached != null) {
+                    return cached;
+                }
+                headers.put(header.getFilePath(), header);
+                dirty = true;
+            }
+            LOGGER.log(Level.FINER, "Cached new header: " + header.getFilePath());
+            return header;
+        } catch (IOException ex) {
+            LOGGER.log(Level.SEVERE, null, ex);
+        } catch (EagleCADLibraryFileException ex) {
+            LOGGER.log(Level.SEVERE, "Error reading header: " + f.getAbsolutePath(), ex);
+        }
+
+        LOGGER.log(Level.SEVERE, "ERROR: Could not read header for requested file!");
+        return null;
+    }
+
+    /**
+     * Forget the header of a file, like one that was deleted.
+     *
+     * @param f file
+     */
+    public synchronized void invalidate(File f) {
+        if (headers.remove(f.getAbsolutePath()) != null) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Write the headers to disk if any were read since the last save.
+     * Headers of files that no longer exist are dropped.
+     */
+    public synchronized void save() {
+        if (!dirty) {
+            return;
+        }
+        headers.values().removeIf((h) -> !new File(h.getFilePath()).exists());
+        store.save(headers.values());
+        dirty = false;
+    }
+
+    private synchronized DesignHeader findCached(File f) {
+        DesignHeader h = headers.get(f.getAbsolutePath());
+        if (h != null && h.isCurrent(f)) {
+            return h;
+        }
+        return null; // Unknown or stale.
+    }
+}
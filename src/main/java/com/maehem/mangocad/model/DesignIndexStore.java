@@ -0,0 +1,199 @@
+/*
+    Licensed to the Apache Software Foundation (ASF) under one or more
+    contributor license agreements.  See the NOTICE file distributed with this
+    work for additional information regarding copyright ownership.  The ASF
+    licenses this file to you under the Apache License, Version 2.0
+    (the "License"); you may not use this file except in compliance with the
+    License.  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+    License for the specific language governing permissions and limitations
+    under the License.
+ */
+package com.maehem.mangocad.model;
+
+import com.maehem.mangocad.model.element.enums.DesignType;
+import com.maehem.mangocad.view.ControlPanel;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Binary file of {@link DesignHeader}s so the control panel can list design
+ * files on the next launch without parsing any XML. Each header carries the
+ * size and time stamp of its file, so callers can tell when it is stale.
+ *
+ * A file that is missing, of another version or damaged loads as empty. It
+ * is rebuilt on the next save.
+ *
+ * @author Mark J Koch ( @maehem on GitHub )
+ */
+public class DesignIndexStore {
+
+    private static final Logger LOGGER = ControlPanel.LOGGER;
+
+    private static final int MAGIC = 0x4D434958; // "MCIX"
+    private static final int VERSION = 1;
+
+    private final File file;
+
+    public DesignIndexStore(File file) {
+        this.file = file;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * @return headers by absolute file path. Empty if there is no usable
+     * index file.
+     */
+    public Map<String, DesignHeader> load() {
+        Map<String, DesignHeader> headers = new HashMap<>();
+        if (!file.isFile()) {
+            return headers;
+        }
+        try {
+            ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+            if (buf.getInt() != MAGIC || buf.getInt() != VERSION) {
+                LOGGER.log(Level.WARNING, "Design index is not a known version. Ignoring: {0}", file.getAbsolutePath());
+                return headers;
+            }
+            int count = buf.getInt();
+            for (int i = 0; i < count; i++) {
+                DesignHeader header = readHeader(buf);
+                headers.put(header.getFilePath(), header);
+            }
+            LOGGER.log(Level.CONFIG, "Loaded {0} design headers from: {1}", new Object[]{count, file.getAbsolutePath()});
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Could not read design index: " + file.getAbsolutePath(), ex);
+            headers.clear();
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException ex) {
+            LOGGER.log(Level.WARNING, "Design index is damaged. Ignoring: {0}", file.getAbsolutePath());
+            headers.clear();
+        }
+        return headers;
+    }
+
+    /**
+     * Replace the index file with these headers. The file is written beside
+     * the old one and moved over it, so a crash never leaves half a file.
+     *
+     * @param headers to write.
+     */
+    public void save(Collection<DesignHeader> headers) {
+        File tmp = new File(file.getPath() + ".tmp");
+        file.getParentFile().mkdirs();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(headers.size());
+            for (DesignHeader header : headers) {
+                writeHeader(out, header);
+            }
+        } catch (IOException ex) {
+            LOGGER.log(Level.SEVERE, "Could not write design index: " + tmp.getAbsolutePath(), ex);
+            return;
+        }
+        try {
+            try {
+                Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            LOGGER.log(Level.CONFIG, "Saved {0} design headers to: {1}", new Object[]{headers.size(), file.getAbsolutePath()});
+        } catch (IOException ex) {
+            LOGGER.log(Level.SEVERE, "Could not replace design index: " + file.getAbsolutePath(), ex);
+        }
+    }
+
+    private static DesignHeader readHeader(ByteBuffer buf) {
+        String filePath = readString(buf);
+        DesignType type = DesignType.values()[buf.get()];
+        long fileSize = buf.getLong();
+        long lastModified = buf.getLong();
+        DesignHeader header = new DesignHeader(filePath, type, fileSize, lastModified);
+        header.setDescription(readString(buf));
+        header.setSheetCount(buf.getInt());
+        readEntries(buf, header.getPackages());
+        readEntries(buf, header.getPackages3d());
+        readEntries(buf, header.getSymbols());
+        readEntries(buf, header.getDeviceSets());
+
+        return header;
+    }
+
+    private static void writeHeader(DataOutputStream out, DesignHeader header) throws IOException {
+        writeString(out, header.getFilePath());
+        out.writeByte(header.getType().ordinal());
+        out.writeLong(header.getFileSize());
+        out.writeLong(header.getLastModified());
+        writeString(out, header.getDescription());
+        out.writeInt(header.getSheetCount());
+        writeEntries(out, header.getPackages());
+        writeEntries(out, header.getPackages3d());
+        writeEntries(out, header.getSymbols());
+        writeEntries(out, header.getDeviceSets());
+    }
+
+    private static void readEntries(ByteBuffer buf, List<DesignHeader.Entry> entries) {
+        int count = buf.getInt();
+        for (int i = 0; i < count; i++) {
+            String name = readString(buf);
+            String description = readString(buf);
+            entries.add(new DesignHeader.Entry(name, description, buf.getInt()));
+        }
+    }
+
+    private static void writeEntries(DataOutputStream out, List<DesignHeader.Entry> entries) throws IOException {
+        out.writeInt(entries.size());
+        for (DesignHeader.Entry e : entries) {
+            writeString(out, e.getName());
+            writeString(out, e.getDescription());
+            out.writeInt(e.getPinCount());
+        }
+    }
+
+    /**
+     * Length prefixed UTF-8. DataOutput.writeUTF() is limited to 64K, which
+     * a long description can pass. A length of -1 is null.
+     */
+    private static String readString(ByteBuffer buf) {
+        int length = buf.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String s = new String(buf.array(), buf.position(), length, StandardCharsets.UTF_8);
+        buf.position(buf.position() + length);
+        return s;
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+}
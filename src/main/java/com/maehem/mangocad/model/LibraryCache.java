@@ -16,58 +16,37 @@
  */
 package com.maehem.mangocad.model;
 
-import com.maehem.mangocad.model.element.drawing.Library;
-import com.maehem.mangocad.model.eaglecad.EagleCADLibraryFileException;
 import com.maehem.mangocad.model.eaglecad.EagleCADUtils;
-import com.maehem.mangocad.view.ControlPanel;
+import com.maehem.mangocad.model.element.drawing.Library;
 import java.io.File;
-import java.io.IOException;
-import java.util.ArrayList;
-import java.util.logging.Level;
-import java.util.logging.Logger;
 
 /**
+ * Recently used libraries. See {@link DesignCache}.
  *
  * @author Mark J Koch ( @maehem on GitHub )
  */
-public class LibraryCache extends ArrayList<Library> {
-    private static final Logger LOGGER = ControlPanel.LOGGER;
+public class LibraryCache extends DesignCache<Library> {
+
+    /**
+     * Default limit, in bytes of library files.
+     */
+    public static final long MAX_WEIGHT = 128 * 1024 * 1024;
 
     private static LibraryCache instance = null;
-    
+
     private LibraryCache() {
-        
+        super("Library", EagleCADUtils::importLBR, MAX_WEIGHT);
     }
-    
-    public static LibraryCache getInstance() {
+
+    public static synchronized LibraryCache getInstance() {
         if (instance == null) {
             instance = new LibraryCache();
         }
 
         return instance;
     }
-    
-    public Library getLibrary( File f ) {
-        for ( Library l: this ) {
-            if ( l.getFilePath().equals(f.getAbsolutePath()) ) {
-                LOGGER.log(Level.FINER, "Found cached library: " + l.getFilePath());
-                return l;
-            }
-        }
-        
-        try {
-            Library lbr = EagleCADUtils.importLBR(f);
-            add(lbr);
-            LOGGER.log(Level.FINER, "Cached new Library: " + lbr.getFilePath());
-            return lbr;
-        } catch (IOException ex) {
-            LOGGER.log(Level.SEVERE, null, ex);
-        } catch (EagleCADLibraryFileException ex) {
-            LOGGER.log(Level.SEVERE, ex.toString());
-            LOGGER.log(Level.SEVERE, "Error importing: " + f.getAbsolutePath(), ex);
-        }
-        
-        LOGGER.log(Level.SEVERE, "ERROR: Could find or load library for requested file!");
-        return null;
+
+    public Library getLibrary(File f) {
+        return get(f);
     }
 }
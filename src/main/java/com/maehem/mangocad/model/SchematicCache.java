@@ -16,29 +16,29 @@
  */
 package com.maehem.mangocad.model;
 
-import com.maehem.mangocad.model.element.drawing.Schematic;
-import com.maehem.mangocad.model.eaglecad.EagleCADLibraryFileException;
 import com.maehem.mangocad.model.eaglecad.EagleCADUtils;
-import com.maehem.mangocad.view.ControlPanel;
+import com.maehem.mangocad.model.element.drawing.Schematic;
 import java.io.File;
-import java.io.IOException;
-import java.util.ArrayList;
-import java.util.logging.Level;
-import java.util.logging.Logger;
 
 /**
+ * Recently used schematics. See {@link DesignCache}.
  *
  * @author Mark J Koch ( @maehem on GitHub )
  */
-public class SchematicCache extends ArrayList<Schematic> {
+public class SchematicCache extends DesignCache<Schematic> {
 
-    private static final Logger LOGGER = ControlPanel.LOGGER;
+    /**
+     * Default limit, in bytes of schematic files.
+     */
+    public static final long MAX_WEIGHT = 64 * 1024 * 1024;
 
     private static SchematicCache instance = null;
 
-    private SchematicCache() {}
+    private SchematicCache() {
+        super("Schematic", EagleCADUtils::importSCH, MAX_WEIGHT);
+    }
 
-    public static SchematicCache getInstance() {
+    public static synchronized SchematicCache getInstance() {
         if (instance == null) {
             instance = new SchematicCache();
         }
@@ -47,26 +47,6 @@ public class SchematicCache extends ArrayList<Schematic> {
     }
 
     public Schematic getSchematic(File f) {
-        for (Schematic sch : this) {
-            if (sch.getFilePath().equals(f.getAbsolutePath())) {
-                LOGGER.log(Level.FINER, "Found cached schematic: " + sch.getFilePath());
-                return sch;
-            }
-        }
-
-        try {
-            Schematic sch = EagleCADUtils.importSCH(f);
-            add(sch);
-            LOGGER.log(Level.FINER, "Cached new Library: " + sch.getFilePath());
-            return sch;
-        } catch (IOException ex) {
-            Logger.getLogger(getClass().getName()).log(Level.SEVERE, null, ex);
-        } catch (EagleCADLibraryFileException ex) {
-            LOGGER.log(Level.SEVERE, ex.toString());
-            LOGGER.log(Level.SEVERE, "Error importing: " + f.getAbsolutePath(), ex);
-        }
-
-        LOGGER.log(Level.SEVERE, "ERROR: Could not find or load requested file!");
-        return null;
+        return get(f);
     }
 }
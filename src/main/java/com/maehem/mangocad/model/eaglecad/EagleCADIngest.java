@@ -124,7 +124,17 @@ public class EagleCADIngest {
             }
         }
 
-        // Post-process
+        postIngestDrawing(drawing);
+
+        return drawing;
+    }
+
+    /**
+     * Apply settings that depend on the whole drawing being ingested.
+     *
+     * @param drawing
+     */
+    static void postIngestDrawing(Drawing drawing) {
         for (LayerElement le : drawing.getLayers().getElements()) {
             switch (drawing.getDesign().getType()) {
                 case Board -> {
@@ -138,8 +148,6 @@ public class EagleCADIngest {
                 }
             }
         }
-
-        return drawing;
     }
 
     /**
@@ -153,6 +161,44 @@ public class EagleCADIngest {
      * @throws EagleCADLibraryFileException
      */
     public static void ingestEagleLibraryElement(Library lib, Node node) throws EagleCADLibraryFileException {
+        ingestLibraryTagAttributes(lib, node);
+
+        NodeList nodes = node.getChildNodes();
+        for (int i = 0; i < nodes.getLength(); i++) {
+            Node child = nodes.item(i);
+            if (child.getNodeType() != Node.ELEMENT_NODE) {
+                continue;
+            }
+            ingestLibraryChild(lib, child);
+        }
+    }
+
+    /**
+     * Ingest one direct child of a &lt;library&gt; element.
+     *
+     * @param lib
+     * @param child
+     * @throws EagleCADLibraryFileException
+     */
+    static void ingestLibraryChild(Library lib, Node child) throws EagleCADLibraryFileException {
+        // <library> sub-nodes:  description, packages, packages3d, symbols, devicesets
+        switch (child.getNodeName()) {
+            case "description" ->
+                ingestLibraryDescription(lib, child);
+            case "packages" ->
+                ingestPackages(child, lib.getPackages());
+            case "symbols" ->
+                ingestSymbols(child, lib.getSymbols());
+            case "devicesets" ->
+                ingestDeviceSets(child, lib.getDeviceSets());
+            case "packages3d" ->
+                ingestPackages3d(child, lib.getPackages3d());
+            default ->
+                throw new EagleCADLibraryFileException("Unknown tag [" + child.getNodeName() + "] passed at [library]");
+        }
+    }
+
+    static void ingestLibraryTagAttributes(Library lib, Node node) throws EagleCADLibraryFileException {
         NamedNodeMap attributes = node.getAttributes();
         // Attributes:   name, urn
         for (int i = 0; i < attributes.getLength(); i++) {
@@ -170,33 +216,25 @@ public class EagleCADIngest {
                     throw new EagleCADLibraryFileException("Library has unknown attribute: [" + item.getNodeName() + "]");
             }
         }
+    }
 
+    public static void ingestEagleSchematicElement(Schematic sch, Node node) throws EagleCADLibraryFileException {
+        ingestSchematicTagAttributes(sch, node);
+
+        // Handle sub nodes.
         NodeList nodes = node.getChildNodes();
         for (int i = 0; i < nodes.getLength(); i++) {
             Node child = nodes.item(i);
             if (child.getNodeType() != Node.ELEMENT_NODE) {
                 continue;
             }
-            // <library> sub-nodes:  description, packages, packages3d, symbols, devicesets
-            switch (child.getNodeName()) {
-                case "description" ->
-                    ingestLibraryDescription(lib, child);
-                case "packages" ->
-                    ingestPackages(child, lib.getPackages());
-                case "symbols" ->
-                    ingestSymbols(child, lib.getSymbols());
-                case "devicesets" ->
-                    ingestDeviceSets(child, lib.getDeviceSets());
-                case "packages3d" ->
-                    ingestPackages3d(child, lib.getPackages3d());
-                default ->
-                    throw new EagleCADLibraryFileException("Unknown tag [" + child.getNodeName() + "] passed at [" + node.getNodeName() + "]");
-            }
+            ingestSchematicChild(sch, child);
         }
+
+        postIngestSchematic(sch);
     }
 
-    public static void ingestEagleSchematicElement(Schematic sch, Node node) throws EagleCADLibraryFileException {
-        // Handle attributes
+    static void ingestSchematicTagAttributes(Schematic sch, Node node) throws EagleCADLibraryFileException {
         NamedNodeMap attributes = node.getAttributes();
         for (int i = 0; i < attributes.getLength(); i++) {
             Node item = attributes.item(i);
@@ -212,6 +250,47 @@ public class EagleCADIngest {
                     throw new EagleCADLibraryFileException("Schematic has unknown attribute: [" + item.getNodeName() + "]");
             }
         }
+    }
+
+    /**
+     * Ingest one direct child of a &lt;schematic&gt; element.
+     *
+     * @param sch
+     * @param child
+     * @throws EagleCADLibraryFileException
+     */
+    static void ingestSchematicChild(Schematic sch, Node child) throws EagleCADLibraryFileException {
+        // schematic->drawing children:
+        //      description, libraries, attributes, variantdefs,
+        //      classes, modules, groups, parts, sheets, errors
+        switch (child.getNodeName()) {
+            case "description" ->
+                ingestDescription(sch.getDescription(), child);
+            case "libraries" ->
+                ingestSchematicLibraries(sch.getLibraries(), child);
+            case "attributes" ->
+                ingestSchematicAttributes(sch.getAttributes(), child);
+            case "variantdefs" ->
+                ingestSchematicVariantDefs(sch.getVariantDefs(), child);
+            case "classes" ->
+                ingestSchematicClasses(sch.getNetClasses(), child);
+            case "modules" ->
+                ingestSchematicModules(sch.getModules(), child);
+            case "groups" ->
+                ingestSchematicGroups(sch.getGroups(), child);
+            case "parts" ->
+                ingestSchematicParts(sch.getParts(), child);
+            case "sheets" ->
+                ingestSchematicSheets(sch, child);
+            case "errors" ->
+                ingestApprovedErrors(sch.getErrors(), child);
+            default ->
+                throw new EagleCADLibraryFileException("Unknown tag [" + child.getNodeName() + "] passed at [schematic]");
+        }
+    }
+
+    public static void ingestEagleBoardElement(Board brd, Node node) throws EagleCADLibraryFileException {
+        ingestBoardTagAttributes(brd, node);
 
         // Handle sub nodes.
         NodeList nodes = node.getChildNodes();
@@ -220,39 +299,13 @@ public class EagleCADIngest {
             if (child.getNodeType() != Node.ELEMENT_NODE) {
                 continue;
             }
-            // schematic->drawing children:
-            //      description, libraries, attributes, variantdefs,
-            //      classes, modules, groups, parts, sheets, errors
-            switch (child.getNodeName()) {
-                case "description" ->
-                    ingestDescription(sch.getDescription(), child);
-                case "libraries" ->
-                    ingestSchematicLibraries(sch.getLibraries(), child);
-                case "attributes" ->
-                    ingestSchematicAttributes(sch.getAttributes(), child);
-                case "variantdefs" ->
-                    ingestSchematicVariantDefs(sch.getVariantDefs(), child);
-                case "classes" ->
-                    ingestSchematicClasses(sch.getNetClasses(), child);
-                case "modules" ->
-                    ingestSchematicModules(sch.getModules(), child);
-                case "groups" ->
-                    ingestSchematicGroups(sch.getGroups(), child);
-                case "parts" ->
-                    ingestSchematicParts(sch.getParts(), child);
-                case "sheets" ->
-                    ingestSchematicSheets(sch, child);
-                case "errors" ->
-                    ingestApprovedErrors(sch.getErrors(), child);
-                default ->
-                    throw new EagleCADLibraryFileException("Unknown tag [" + child.getNodeName() + "] passed at [" + node.getNodeName() + "]");
-            }
-
+            ingestBoardChild(brd, child);
         }
+
+        postIngestBoard(brd);
     }
 
-    public static void ingestEagleBoardElement(Board brd, Node node) throws EagleCADLibraryFileException {
-        // Handle attributes
+    static void ingestBoardTagAttributes(Board brd, Node node) throws EagleCADLibraryFileException {
         NamedNodeMap attributes = node.getAttributes();
         for (int i = 0; i < attributes.getLength(); i++) {
             Node item = attributes.item(i);
@@ -265,70 +318,86 @@ public class EagleCADIngest {
                     throw new EagleCADLibraryFileException("Schematic has unknown attribute: [" + item.getNodeName() + "]");
             }
         }
+    }
 
-        // Handle sub nodes.
-        NodeList nodes = node.getChildNodes();
-        for (int i = 0; i < nodes.getLength(); i++) {
-            Node child = nodes.item(i);
-            if (child.getNodeType() != Node.ELEMENT_NODE) {
-                continue;
-            }
-            //       description?,  x
-            //       fusionsync?,   x
-            //       fusionteam?,   x
-            //       plain?,        x
-            //       libraries?,    x
-            //       attributes?,   x
-            //       variantdefs?,  x
-            //       classes?,      x
-            //       designrules?,  x
-            //       autorouter?,   x
-            //       groups?,       x
-            //       elements?,     x
-            //       signals?,      x
-            //       mfgpreviewcolors?, x
-            //       errors?        x
-            switch (child.getNodeName()) {
-                case "description" ->
-                    ingestDescription(brd.getDescription(), child);
-                case "libraries" ->
-                    ingestSchematicLibraries(brd.getLibraries(), child);
-                case "attributes" ->
-                    ingestSchematicAttributes(brd.getAttributes(), child);
-                case "variantdefs" ->
-                    ingestSchematicVariantDefs(brd.getVariantDefs(), child);
-                case "classes" ->
-                    ingestSchematicClasses(brd.getNetClasses(), child);
-                case "groups" ->
-                    ingestSchematicGroups(brd.getGroups(), child);
-                case "elements" ->
-                    ingestBoardElements(brd.getElements(), child);
-                case "plain" ->
-                    ingestPlain(brd.getPlain(), child);
-                case "errors" ->
-                    ingestApprovedErrors(brd.getErrors(), child);
-                case "fusionsync" ->
-                    ingestFusionSync(brd.getFusionSync(), child);
-                case "fusionteam" ->
-                    ingestFusionTeam(brd.getFusionTeam(), child);
-                case "designrules" ->
-                    ingestDesignRules(brd.getDesignRules(), child);
-                case "autorouter" ->
-                    ingestAutorouter(brd.getAutorouter(), child);
-                case "signals" ->
-                    ingestSignals(brd.getSignals(), child);
-                case "mfgpreviewcolors" ->
-                    ingestMfgPreviewColors(brd.getMfgPreviewColors(), child);
-                default ->
-                    throw new EagleCADLibraryFileException("Unknown tag [" + child.getNodeName() + "] passed at [" + node.getNodeName() + "]");
-            }
-
+    /**
+     * Ingest one direct child of a &lt;board&gt; element.
+     *
+     * @param brd
+     * @param child
+     * @throws EagleCADLibraryFileException
+     */
+    static void ingestBoardChild(Board brd, Node child) throws EagleCADLibraryFileException {
+        //       description?,  x
+        //       fusionsync?,   x
+        //       fusionteam?,   x
+        //       plain?,        x
+        //       libraries?,    x
+        //       attributes?,   x
+        //       variantdefs?,  x
+        //       classes?,      x
+        //       designrules?,  x
+        //       autorouter?,   x
+        //       groups?,       x
+        //       elements?,     x
+        //       signals?,      x
+        //       mfgpreviewcolors?, x
+        //       errors?        x
+        switch (child.getNodeName()) {
+            case "description" ->
+                ingestDescription(brd.getDescription(), child);
+            case "libraries" ->
+                ingestSchematicLibraries(brd.getLibraries(), child);
+            case "attributes" ->
+                ingestSchematicAttributes(brd.getAttributes(), child);
+            case "variantdefs" ->
+                ingestSchematicVariantDefs(brd.getVariantDefs(), child);
+            case "classes" ->
+                ingestSchematicClasses(brd.getNetClasses(), child);
+            case "groups" ->
+                ingestSchematicGroups(brd.getGroups(), child);
+            case "elements" ->
+                ingestBoardElements(brd.getElements(), child);
+            case "plain" ->
+                ingestPlain(brd.getPlain(), child);
+            case "errors" ->
+                ingestApprovedErrors(brd.getErrors(), child);
+            case "fusionsync" ->
+                ingestFusionSync(brd.getFusionSync(), child);
+            case "fusionteam" ->
+                ingestFusionTeam(brd.getFusionTeam(), child);
+            case "designrules" ->
+                ingestDesignRules(brd.getDesignRules(), child);
+            case "autorouter" ->
+                ingestAutorouter(brd.getAutorouter(), child);
+            case "signals" ->
+                ingestSignals(brd.getSignals(), child);
+            case "mfgpreviewcolors" ->
+                ingestMfgPreviewColors(brd.getMfgPreviewColors(), child);
+            default ->
+                throw new EagleCADLibraryFileException("Unknown tag [" + child.getNodeName() + "] passed at [board]");
         }
+    }
 
-        // Resolve Elements (Library, Part)
-        EagleCADResolve.resolveElements(brd);
-        // Resolve Signal->ContactRefs
-        EagleCADResolve.resolveContactRefs(brd);
+    /**
+     * Link up board objects once every child of &lt;board&gt; is ingested.
+     *
+     * @param brd
+     */
+    static void postIngestBoard(Board brd) {
+        // Resolve Elements (Library, Package) and Signal->ContactRefs
+        EagleCADResolve.resolveBoard(brd);
+    }
+
+    /**
+     * Link up schematic objects once every child of &lt;schematic&gt; is
+     * ingested.
+     *
+     * @param sch
+     */
+    static void postIngestSchematic(Schematic sch) {
+        // Resolve Parts (Library, DeviceSet, Device), Instances and PinRefs
+        EagleCADResolve.resolveSchematic(sch);
     }
 
     public static void ingestPackages(Node node, ArrayList<Footprint> packages) throws EagleCADLibraryFileException {
@@ -612,7 +681,7 @@ public class EagleCADIngest {
         }
     }
 
-    private static void ingestDescription(LibraryElement libElement, Node node) throws EagleCADLibraryFileException {
+    static void ingestDescription(LibraryElement libElement, Node node) throws EagleCADLibraryFileException {
         Description desc = new Description();
         Node langAttribute = node.getAttributes().getNamedItem("language");
         if (langAttribute != null) {
@@ -1879,6 +1948,22 @@ public class EagleCADIngest {
      * @param child
      */
     static void ingestSchematicSheets(Schematic sch, Node node) throws EagleCADLibraryFileException {
+        ArrayList<Sheet> sheets = new ArrayList<>();
+        ingestSchematicSheets(sheets, node);
+        for (Sheet sheet : sheets) {
+            sheet.setParent(sch);
+            //sheet.postIngest();
+        }
+        sch.getSheets().addAll(sheets);
+    }
+
+    /**
+     * Ingest sheets into a list. Caller sets the parent schematic.
+     *
+     * @param sheets
+     * @param node
+     */
+    static void ingestSchematicSheets(ArrayList<Sheet> sheets, Node node) throws EagleCADLibraryFileException {
         NodeList childNodes = node.getChildNodes();
         for (int i = 0; i < childNodes.getLength(); i++) {
             Node item = childNodes.item(i);
@@ -1887,10 +1972,7 @@ public class EagleCADIngest {
                 continue;
             }
 
-            Sheet sheet = ingestSchematicSheet(item);
-            sheet.setParent(sch);
-            sch.getSheets().add(sheet);
-            //sheet.postIngest();
+            sheets.add(ingestSchematicSheet(item));
         }
     }
 
@@ -2024,7 +2106,7 @@ public class EagleCADIngest {
      * @param plain
      * @param node
      */
-    private static void ingestPlain(List<Element> plain, Node node) throws EagleCADLibraryFileException {
+    static void ingestPlain(List<Element> plain, Node node) throws EagleCADLibraryFileException {
         NodeList childNodes = node.getChildNodes();
         for (int i = 0; i < childNodes.getLength(); i++) {
             Node item = childNodes.item(i);
@@ -3140,7 +3222,7 @@ public class EagleCADIngest {
      * @param node
      * @throws EagleCADLibraryFileException
      */
-    private static void ingestSignals(ArrayList<Signal> dr, Node node) throws EagleCADLibraryFileException {
+    static void ingestSignals(ArrayList<Signal> dr, Node node) throws EagleCADLibraryFileException {
         NodeList childNodes = node.getChildNodes();
         for (int i = 0; i < childNodes.getLength(); i++) {
             Node item = childNodes.item(i);
@@ -19,28 +19,93 @@ package com.maehem.mangocad.model.eaglecad;
 import com.maehem.mangocad.model.element.Element;
 import com.maehem.mangocad.model.element.basic.ContactRef;
 import com.maehem.mangocad.model.element.basic.ElementElement;
+import com.maehem.mangocad.model.element.basic.Gate;
+import com.maehem.mangocad.model.element.basic.Instance;
+import com.maehem.mangocad.model.element.basic.Part;
+import com.maehem.mangocad.model.element.basic.Pin;
+import com.maehem.mangocad.model.element.basic.PinRef;
 import com.maehem.mangocad.model.element.drawing.Board;
+import com.maehem.mangocad.model.element.drawing.Library;
+import com.maehem.mangocad.model.element.drawing.Schematic;
+import com.maehem.mangocad.model.element.highlevel.DeviceSet;
+import com.maehem.mangocad.model.element.highlevel.Footprint;
+import com.maehem.mangocad.model.element.highlevel.Net;
+import com.maehem.mangocad.model.element.highlevel.Segment;
+import com.maehem.mangocad.model.element.highlevel.Sheet;
 import com.maehem.mangocad.model.element.highlevel.Signal;
+import com.maehem.mangocad.model.element.highlevel.Symbol;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
+ * Links names in a design to the objects they name, once, after ingest.
+ *
+ * Views then follow the links instead of looking names up for every
+ * element they draw. A name that leads nowhere is left unlinked and
+ * reported.
  *
  * @author Mark J Koch ( @maehem on GitHub )
  */
 public class EagleCADResolve {
     public static final Logger LOGGER = Logger.getLogger("com.maehem.mangocad");
 
-    public static void resolveContactRefs(Board brd) {
-        for (Signal s : brd.getSignals()) {
-            for (Element e : s.getElements()) {
-                if (e instanceof ContactRef cr) {
-                    cr.setElementO(brd.getElement(cr.getElement()));
-                    brd.getContactRefs().add(cr);
-                    //LOGGER.log(Level.SEVERE, "cr: {0}.{1}", new Object[]{cr.getElement(), cr.getPad()});
+    /**
+     * Link up a board: element to library and package, contact ref to
+     * element and pad.
+     *
+     * @param brd board
+     * @return the references that could not be resolved.
+     */
+    public static List<String> resolveBoard(Board brd) {
+        List<String> dangling = new ArrayList<>();
+        resolveElements(brd, dangling);
+        resolveContactRefs(brd, dangling);
+        report("Board", dangling);
+        return dangling;
+    }
+
+    /**
+     * Link up a schematic: part to library, device set and device, instance
+     * to part, gate and symbol, and pin ref to pin.
+     *
+     * @param sch schematic
+     * @return the references that could not be resolved.
+     */
+    public static List<String> resolveSchematic(Schematic sch) {
+        List<String> dangling = new ArrayList<>();
+        for (Part part : sch.getParts()) {
+            resolvePart(sch, part, dangling);
+        }
+
+        Map<Symbol, Map<String, Pin>> pins = new HashMap<>();
+        for (Sheet sheet : sch.getSheets()) {
+            for (Instance inst : sheet.getInststances()) {
+                Part part = sch.lookupPart(inst.getPart()).orElse(null);
+                inst.setPartObj(part);
+                if (part == null) {
+                    dangling.add("instance " + inst.getPart() + inst.getGate() + ": no part " + inst.getPart());
+                    continue;
+                }
+                Gate gate = gate(part, inst.getGate(), dangling);
+                inst.setGateObj(gate);
+                inst.setSymbolObj(symbol(part, gate, dangling));
+            }
+            for (Net net : sheet.getNetInsts()) {
+                for (Segment seg : net.getSegments()) {
+                    for (Element e : seg) {
+                        if (e instanceof PinRef pr) {
+                            resolvePinRef(sch, pr, pins, dangling);
+                        }
+                    }
                 }
             }
         }
+        report("Schematic", dangling);
+        return dangling;
     }
 
     /**
@@ -48,10 +113,130 @@ public class EagleCADResolve {
      *
      * @param brd
      */
-    static void resolveElements(Board brd) {
+    static void resolveElements(Board brd, List<String> dangling) {
         for (ElementElement e : brd.getElements()) {
-            e.setLibraryObj(brd.getLibrary(e.getLibrary()));
+            Library lib = brd.getLibrary(e.getLibrary());
+            e.setLibraryObj(lib);
             LOGGER.log(Level.FINEST, "element: {0}  library: {1}", new Object[]{e.getName(), e.getLibrary()});
+            if (lib == null) {
+                dangling.add("element " + e.getName() + ": no library " + e.getLibrary());
+                continue;
+            }
+            Footprint pkg = lib.getPackage(e.getFootprint());
+            if (pkg == null) {
+                dangling.add("element " + e.getName() + ": no package " + e.getFootprint() + " in " + e.getLibrary());
+            }
+            e.setFootprintPkg(pkg);
+        }
+    }
+
+    static void resolveContactRefs(Board brd, List<String> dangling) {
+        brd.getContactRefs().clear();
+        for (Signal s : brd.getSignals()) {
+            for (Element e : s.getElements()) {
+                if (e instanceof ContactRef cr) {
+                    ElementElement element = brd.getElement(cr.getElement());
+                    cr.setElementO(element);
+                    brd.getContactRefs().add(cr);
+                    //LOGGER.log(Level.SEVERE, "cr: {0}.{1}", new Object[]{cr.getElement(), cr.getPad()});
+                    if (element == null) {
+                        dangling.add("signal " + s.getName() + ": no element " + cr.getElement());
+                        continue;
+                    }
+                    Footprint pkg = element.getLibraryObj() == null ? null : element.getFootprintPkg();
+                    Element pad = pkg == null ? null : pkg.getPad(cr.getPad());
+                    if (pkg != null && pad == null) {
+                        dangling.add("signal " + s.getName() + ": no pad " + cr.getElement() + "." + cr.getPad());
+                    }
+                    cr.setPadO(pad);
+                }
+            }
+        }
+    }
+
+    private static void resolvePart(Schematic sch, Part part, List<String> dangling) {
+        Library lib = sch.lookupLibrary(part.getLibrary()).orElse(null);
+        part.setLibraryObj(lib);
+        if (lib == null) {
+            dangling.add("part " + part.getName() + ": no library " + part.getLibrary());
+            return;
+        }
+        DeviceSet ds = lib.getDeviceSet(part.getDeviceSet());
+        part.setDeviceSetObj(ds);
+        if (ds == null) {
+            dangling.add("part " + part.getName() + ": no device set " + part.getDeviceSet() + " in " + part.getLibrary());
+            return;
+        }
+        part.setDeviceObj(ds.lookupDevice(part.getDevice()));
+        if (part.getDeviceObj() == null) {
+            dangling.add("part " + part.getName() + ": no device " + part.getDevice() + " in " + part.getDeviceSet());
+        }
+    }
+
+    private static void resolvePinRef(Schematic sch, PinRef pr, Map<Symbol, Map<String, Pin>> pins, List<String> dangling) {
+        Part part = sch.lookupPart(pr.getPart()).orElse(null);
+        if (part == null) {
+            dangling.add("pin ref " + pr.getPart() + "." + pr.getPin() + ": no part " + pr.getPart());
+            return;
+        }
+        Symbol symbol = symbol(part, gate(part, pr.getGate(), dangling), dangling);
+        if (symbol == null) {
+            return;
+        }
+        Map<String, Pin> byName = pins.computeIfAbsent(symbol, (s) -> {
+            Map<String, Pin> map = new HashMap<>();
+            for (Element e : s.getElements()) {
+                if (e instanceof Pin pin) {
+                    map.putIfAbsent(pin.getName(), pin);
+                }
+            }
+            return map;
+        });
+        Pin pin = byName.get(pr.getPin());
+        if (pin == null) {
+            dangling.add("pin ref " + pr.getPart() + "." + pr.getPin() + ": no pin " + pr.getPin() + " in " + symbol.getName());
+        }
+        pr.setPinObj(pin);
+    }
+
+    /**
+     * @return the part's gate of that name, or null.
+     */
+    private static Gate gate(Part part, String name, List<String> dangling) {
+        DeviceSet ds = part.getDeviceSetObj();
+        if (ds == null) {
+            return null; // Reported with the part.
+        }
+        for (Gate gate : ds.getGates()) {
+            if (gate.getName().equals(name)) {
+                return gate;
+            }
+        }
+        dangling.add("part " + part.getName() + ": no gate " + name + " in " + ds.getName());
+        return null;
+    }
+
+    /**
+     * @return the gate's symbol, or null.
+     */
+    private static Symbol symbol(Part part, Gate gate, List<String> dangling) {
+        if (gate == null) {
+            return null;
+        }
+        Symbol symbol = part.getLibraryObj().getSymbol(gate.getSymbol());
+        if (symbol == null) {
+            dangling.add("gate " + gate.getName() + ": no symbol " + gate.getSymbol() + " in " + part.getLibrary());
+        }
+        return symbol;
+    }
+
+    private static void report(String design, List<String> dangling) {
+        if (dangling.isEmpty()) {
+            return;
+        }
+        LOGGER.log(Level.WARNING, "{0}: {1} references could not be resolved.", new Object[]{design, dangling.size()});
+        for (String d : dangling) {
+            LOGGER.log(Level.FINE, "    Unresolved {0}", d);
         }
     }
 }
@@ -0,0 +1,635 @@
+/*
+    Licensed to the Apache Software Foundation (ASF) under one or more
+    contributor license agreements.  See the NOTICE file distributed with this
+    work for additional information regarding copyright ownership.  The ASF
+    licenses this file to you under the Apache License, Version 2.0
+    (the "License"); you may not use this file except in compliance with the
+    License.  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+    License for the specific language governing permissions and limitations
+    under the License.
+ */
+package com.maehem.mangocad.model.eaglecad;
+
+import com.maehem.mangocad.model.DesignHeader;
+import com.maehem.mangocad.model.element.LibraryElement;
+import com.maehem.mangocad.model.element.drawing.Board;
+import com.maehem.mangocad.model.element.drawing.Drawing;
+import com.maehem.mangocad.model.element.drawing.Eagle;
+import com.maehem.mangocad.model.element.drawing.Library;
+import com.maehem.mangocad.model.element.drawing.Schematic;
+import com.maehem.mangocad.model.element.enums.DesignType;
+import com.maehem.mangocad.model.element.highlevel.DeviceSet;
+import com.maehem.mangocad.model.element.highlevel.Footprint;
+import com.maehem.mangocad.model.element.highlevel.Package3d;
+import com.maehem.mangocad.model.element.highlevel.Sheet;
+import com.maehem.mangocad.model.element.highlevel.Symbol;
+import com.maehem.mangocad.model.element.misc.Description;
+import com.maehem.mangocad.view.ControlPanel;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.Text;
+
+import static javax.xml.stream.XMLStreamConstants.*;
+
+/**
+ * Streaming (StAX) ingest of EagleCAD files.
+ *
+ * The file is read in one forward pass. The structural elements (eagle,
+ * drawing, library, schematic, board and their list containers) are handled
+ * straight from the stream. Each list record, like a single &lt;package&gt;
+ * or &lt;signal&gt;, is materialized as a small DOM fragment and handed to
+ * the same {@link EagleCADIngest} code the DOM path uses, then dropped. Peak
+ * memory is one record instead of the whole document, and the resulting
+ * model is the same.
+ *
+ * When given a pool, records and embedded &lt;library&gt; blocks are ingested
+ * on the pool while the stream keeps reading. Each record gets its own DOM
+ * document so workers share nothing. Results are merged back in document
+ * order at the end of each list.
+ *
+ * @author Mark J Koch ( @maehem on GitHub)
+ */
+public class EagleCADStreamIngest {
+
+    private static final Logger LOGGER = ControlPanel.LOGGER;
+
+    private final XMLStreamReader reader;
+    private final DocumentBuilder builder;
+    private final ForkJoinPool pool;
+    private final Document scratch;
+
+    /**
+     * Ingests a list container element that holds one record.
+     *
+     * @param <T> type of model object the record becomes.
+     */
+    private interface RecordIngest<T> {
+
+        void ingest(Node container, ArrayList<T> list) throws EagleCADLibraryFileException;
+    }
+
+    /**
+     * Ingests the &lt;description&gt; of a header record.
+     */
+    private interface DescriptionIngest {
+
+        void ingest(LibraryElement element, Node description) throws EagleCADLibraryFileException;
+    }
+
+    private EagleCADStreamIngest(XMLStreamReader reader, DocumentBuilder builder, ForkJoinPool pool) {
+        this.reader = reader;
+        this.builder = builder;
+        this.pool = pool;
+        this.scratch = builder.newDocument();
+    }
+
+    /**
+     * Stream an EagleCAD file (lbr, sch or brd) into the model on the calling
+     * thread.
+     *
+     * @param file to read
+     * @return populated Eagle object
+     * @throws IOException
+     * @throws EagleCADLibraryFileException
+     */
+    public static Eagle ingest(File file) throws IOException, EagleCADLibraryFileException {
+        return ingest(file, null);
+    }
+
+    /**
+     * Stream an EagleCAD file (lbr, sch or brd) into the model, fanning the
+     * independent records out over a pool.
+     *
+     * @param file to read
+     * @param pool to ingest records on, or null to ingest on the calling
+     * thread.
+     * @return populated Eagle object
+     * @throws IOException
+     * @throws EagleCADLibraryFileException
+     */
+    public static Eagle ingest(File file, ForkJoinPool pool) throws IOException, EagleCADLibraryFileException {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            // System ID lets the parser find 'eagle.dtd' next to the file.
+            XMLStreamReader reader = createFactory().createXMLStreamReader(file.toURI().toString(), in);
+            try {
+                return new EagleCADStreamIngest(reader, createBuilder(), pool).ingestEagle();
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException ex) {
+            throw new EagleCADLibraryFileException("Could not stream [" + file.getName() + "]: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Read only the header of an EagleCAD file: the description, the names,
+     * descriptions and pin counts of the library items and the sheet count.
+     * Record bodies are skipped without building any DOM, and reading stops
+     * as soon as the header is complete. A board stops right after its
+     * description.
+     *
+     * @param file to read
+     * @return header of the library, schematic or board.
+     * @throws IOException
+     * @throws EagleCADLibraryFileException
+     */
+    public static DesignHeader readHeader(File file) throws IOException, EagleCADLibraryFileException {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            XMLStreamReader reader = createFactory().createXMLStreamReader(file.toURI().toString(), in);
+            try {
+                return new EagleCADStreamIngest(reader, createBuilder(), null).indexDesign(file);
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException ex) {
+            throw new EagleCADLibraryFileException("Could not read header of [" + file.getName() + "]: " + ex.getMessage());
+        }
+    }
+
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        // Match the DOM path: no namespaces, DTD defaults applied, entities expanded.
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, true);
+        factory.setProperty(XMLInputFactory.IS_REPLACING_ENTITY_REFERENCES, true);
+        // Fall back to the built in DTD if the design has none next to it.
+        factory.setXMLResolver((publicId, systemId, baseURI, namespace) -> {
+            return EagleCADUtils.openDTD(systemId, baseURI);
+        });
+
+        return factory;
+    }
+
+    private static DocumentBuilder createBuilder() throws EagleCADLibraryFileException {
+        try {
+            return DocumentBuilderFactory.newInstance().newDocumentBuilder();
+        } catch (ParserConfigurationException ex) {
+            throw new EagleCADLibraryFileException("Could not create DOM for record ingest: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Skip the prolog and DOCTYPE. On return the reader sits on the
+     * &lt;eagle&gt; start tag.
+     */
+    private void readRootTag() throws XMLStreamException, EagleCADLibraryFileException {
+        while (reader.next() != START_ELEMENT) {
+            if (reader.getEventType() == END_DOCUMENT) {
+                throw new EagleCADLibraryFileException("XML File is not an EagleCAD file!");
+            }
+        }
+        if (!reader.getLocalName().equals("eagle")) {
+            throw new EagleCADLibraryFileException("XML File is not an EagleCAD file!");
+        }
+    }
+
+    private Eagle ingestEagle() throws XMLStreamException, EagleCADLibraryFileException {
+        readRootTag();
+        String eagleVersion = reader.getAttributeValue(null, "version");
+        LOGGER.log(Level.CONFIG, "Eagle file version: {0}\t\t\t\t\t", eagleVersion);
+
+        Eagle eagle = new Eagle();
+        while (reader.nextTag() == START_ELEMENT) {
+            switch (reader.getLocalName()) {
+                case "drawing" -> {
+                    eagle.setDrawing(ingestDrawing());
+                }
+                case "compatibility" -> {
+                    EagleCADIngest.ingestNotes(eagle.getCompatibility().getNotes(), readElement(scratch));
+                }
+                default -> {
+                    LOGGER.log(Level.SEVERE, "Unhandled <drawing> element found: {0}", reader.getLocalName());
+                    skipElement();
+                }
+            }
+        }
+        if (eagle.getDrawing() == null) {
+            throw new EagleCADLibraryFileException("Eagle ingest did not encounter a required <drawing> element!");
+        }
+        return eagle;
+    }
+
+    private Drawing ingestDrawing() throws XMLStreamException, EagleCADLibraryFileException {
+        Drawing drawing = new Drawing();
+        while (reader.nextTag() == START_ELEMENT) {
+            String name = reader.getLocalName();
+            switch (name) {
+                case "settings" ->
+                    EagleCADIngest.ingestSettings(drawing.getSettings(), readElement(scratch));
+                case "grid" ->
+                    EagleCADIngest.ingestGrid(drawing.getGrid(), readElement(scratch));
+                case "filters" -> {
+                    LOGGER.log(Level.SEVERE, "*******  Ignoring Library <drawing> child <{0}>", name);
+                    skipElement();
+                }
+                case "layers" ->
+                    EagleCADIngest.ingestEagleLayers(drawing.getLayers(), readElement(scratch));
+                case "library" -> {
+                    requireNoDesign(drawing, name);
+                    drawing.setDesign(new Library());
+                    ingestLibrary((Library) drawing.getDesign());
+                    drawing.getDesign().setParentDrawing(drawing);
+                }
+                case "schematic" -> {
+                    requireNoDesign(drawing, name);
+                    drawing.setDesign(new Schematic());
+                    ingestSchematic((Schematic) drawing.getDesign());
+                    drawing.getDesign().setParentDrawing(drawing);
+                }
+                case "board" -> {
+                    requireNoDesign(drawing, name);
+                    drawing.setDesign(new Board());
+                    ingestBoard((Board) drawing.getDesign());
+                    drawing.getDesign().setParentDrawing(drawing);
+                }
+                default -> {
+                    LOGGER.log(Level.SEVERE, "<drawing>:  Unknown sub-node <{0}>", name);
+                    skipElement();
+                }
+            }
+        }
+
+        EagleCADIngest.postIngestDrawing(drawing);
+
+        return drawing;
+    }
+
+    private static void requireNoDesign(Drawing drawing, String name) throws EagleCADLibraryFileException {
+        if (drawing.getDesign() != null) {
+            throw new EagleCADLibraryFileException(
+                    "Tried to ingest <" + name + "> element when there was already a DesignObject assigned!");
+        }
+    }
+
+    private void ingestLibrary(Library lib) throws XMLStreamException, EagleCADLibraryFileException {
+        EagleCADIngest.ingestLibraryTagAttributes(lib, readStartTag(scratch));
+        while (reader.nextTag() == START_ELEMENT) {
+            switch (reader.getLocalName()) {
+                case "packages" ->
+                    ingestRecords(lib.getPackages(), EagleCADIngest::ingestPackages);
+                case "symbols" ->
+                    ingestRecords(lib.getSymbols(), EagleCADIngest::ingestSymbols);
+                case "devicesets" ->
+                    ingestRecords(lib.getDeviceSets(), EagleCADIngest::ingestDeviceSets);
+                case "packages3d" ->
+                    ingestRecords(lib.getPackages3d(), EagleCADIngest::ingestPackages3d);
+                default ->
+                    EagleCADIngest.ingestLibraryChild(lib, readElement(scratch));
+            }
+        }
+    }
+
+    private void ingestSchematic(Schematic sch) throws XMLStreamException, EagleCADLibraryFileException {
+        EagleCADIngest.ingestSchematicTagAttributes(sch, readStartTag(scratch));
+        while (reader.nextTag() == START_ELEMENT) {
+            switch (reader.getLocalName()) {
+                case "libraries" ->
+                    ingestLibraries(sch.getLibraries());
+                case "parts" ->
+                    ingestRecords(sch.getParts(), (c, list) -> EagleCADIngest.ingestSchematicParts(list, c));
+                case "sheets" -> {
+                    ingestRecords(sch.getSheets(), (c, list) -> EagleCADIngest.ingestSchematicSheets(list, c));
+                    for (Sheet sheet : sch.getSheets()) {
+                        sheet.setParent(sch);
+                    }
+                }
+                default ->
+                    EagleCADIngest.ingestSchematicChild(sch, readElement(scratch));
+            }
+        }
+
+        EagleCADIngest.postIngestSchematic(sch);
+    }
+
+    private void ingestBoard(Board brd) throws XMLStreamException, EagleCADLibraryFileException {
+        EagleCADIngest.ingestBoardTagAttributes(brd, readStartTag(scratch));
+        while (reader.nextTag() == START_ELEMENT) {
+            switch (reader.getLocalName()) {
+                case "libraries" ->
+                    ingestLibraries(brd.getLibraries());
+                case "plain" ->
+                    ingestRecords(brd.getPlain(), (c, list) -> EagleCADIngest.ingestPlain(list, c));
+                case "elements" ->
+                    ingestRecords(brd.getElements(), (c, list) -> EagleCADIngest.ingestBoardElements(list, c));
+                case "signals" ->
+                    ingestRecords(brd.getSignals(), (c, list) -> EagleCADIngest.ingestSignals(list, c));
+                default ->
+                    EagleCADIngest.ingestBoardChild(brd, readElement(scratch));
+            }
+        }
+
+        EagleCADIngest.postIngestBoard(brd);
+    }
+
+    private DesignHeader indexDesign(File file) throws XMLStreamException, EagleCADLibraryFileException {
+        // Stamp before reading so a change made while reading is noticed next time.
+        String filePath = file.getAbsolutePath();
+        long size = file.length();
+        long lastModified = file.lastModified();
+        readRootTag();
+        while (reader.nextTag() == START_ELEMENT) {
+            if (!reader.getLocalName().equals("drawing")) {
+                skipElement();
+                continue;
+            }
+            while (reader.nextTag() == START_ELEMENT) {
+                switch (reader.getLocalName()) {
+                    case "library" -> {
+                        return readLibraryHeader(new DesignHeader(filePath, DesignType.Library, size, lastModified));
+                    }
+                    case "schematic" -> {
+                        return readSchematicHeader(new DesignHeader(filePath, DesignType.Schematic, size, lastModified));
+                    }
+                    case "board" -> {
+                        return readBoardHeader(new DesignHeader(filePath, DesignType.Board, size, lastModified));
+                    }
+                    default ->
+                        skipElement(); // settings, grid, layers...
+                }
+            }
+        }
+        throw new EagleCADLibraryFileException("No <library>, <schematic> or <board> found in: " + filePath);
+    }
+
+    private DesignHeader readLibraryHeader(DesignHeader header) throws XMLStreamException, EagleCADLibraryFileException {
+        Library lib = new Library();
+        while (reader.nextTag() == START_ELEMENT) {
+            switch (reader.getLocalName()) {
+                case "description" ->
+                    EagleCADIngest.ingestLibraryDescription(lib, readElement(scratch));
+                case "packages" ->
+                    readEntries(header.getPackages(), Footprint::new, EagleCADIngest::ingestDescription, "pad", "smd");
+                case "packages3d" ->
+                    readEntries(header.getPackages3d(), Package3d::new, EagleCADIngest::ingestDescription);
+                case "symbols" ->
+                    readEntries(header.getSymbols(), Symbol::new, EagleCADIngest::ingestDescription, "pin");
+                case "devicesets" ->
+                    readEntries(header.getDeviceSets(), DeviceSet::new,
+                            (e, n) -> EagleCADIngest.ingestDescription(e.getDescriptions(), n));
+                default ->
+                    skipElement();
+            }
+        }
+        header.setDescription(lib.getDescription());
+
+        return header;
+    }
+
+    private DesignHeader readSchematicHeader(DesignHeader header) throws XMLStreamException, EagleCADLibraryFileException {
+        Description desc = new Description();
+        while (reader.nextTag() == START_ELEMENT) {
+            switch (reader.getLocalName()) {
+                case "description" ->
+                    EagleCADIngest.ingestDescription(desc, readElement(scratch));
+                case "sheets" -> {
+                    int count = 0;
+                    while (reader.nextTag() == START_ELEMENT) {
+                        count++;
+                        skipElement();
+                    }
+                    header.setSheetCount(count);
+                    // Only <errors> can follow. Stop here.
+                    header.setDescription(desc.getValue());
+                    return header;
+                }
+                default ->
+                    skipElement();
+            }
+        }
+        header.setDescription(desc.getValue());
+
+        return header;
+    }
+
+    private DesignHeader readBoardHeader(DesignHeader header) throws XMLStreamException, EagleCADLibraryFileException {
+        Description desc = new Description();
+        // The description is always the first child. Nothing after it is needed.
+        if (reader.nextTag() == START_ELEMENT && reader.getLocalName().equals("description")) {
+            EagleCADIngest.ingestDescription(desc, readElement(scratch));
+        }
+        header.setDescription(desc.getValue());
+
+        return header;
+    }
+
+    /**
+     * Read the name and description of each record in a list container,
+     * skipping everything else in the record. The description is ingested
+     * into a throw away model object so it reads the same as after a full
+     * ingest.
+     *
+     * @param entries to add to.
+     * @param factory makes the throw away model object.
+     * @param descriptionIngest the ingest the full path uses for the record's
+     * description.
+     * @param pinTags record children that count as pins.
+     */
+    private void readEntries(List<DesignHeader.Entry> entries, Supplier<LibraryElement> factory,
+            DescriptionIngest descriptionIngest, String... pinTags) throws XMLStreamException, EagleCADLibraryFileException {
+        List<String> pins = List.of(pinTags);
+        while (reader.nextTag() == START_ELEMENT) {
+            String name = reader.getAttributeValue(null, "name");
+            LibraryElement element = factory.get();
+            int pinCount = 0;
+            while (reader.nextTag() == START_ELEMENT) {
+                String tag = reader.getLocalName();
+                if (tag.equals("description")) {
+                    descriptionIngest.ingest(element, readElement(scratch));
+                } else {
+                    if (pins.contains(tag)) {
+                        pinCount++;
+                    }
+                    skipElement();
+                }
+            }
+            entries.add(new DesignHeader.Entry(name, element.getDescription(), pinCount));
+        }
+    }
+
+    /**
+     * Embedded libraries of a schematic or board. Each one is either streamed
+     * just like a stand-alone library file, or read whole and ingested on the
+     * pool.
+     *
+     * @param libraries
+     */
+    private void ingestLibraries(List<Library> libraries) throws XMLStreamException, EagleCADLibraryFileException {
+        List<Future<Library>> pending = new ArrayList<>();
+        while (reader.nextTag() == START_ELEMENT) {
+            if (!reader.getLocalName().equals("library")) {
+                skipElement();
+                continue;
+            }
+            if (pool == null) {
+                Library lib = new Library();
+                ingestLibrary(lib);
+                libraries.add(lib);
+            } else {
+                Element libElement = readElement(builder.newDocument());
+                pending.add(pool.submit(() -> {
+                    Library lib = new Library();
+                    EagleCADIngest.ingestEagleLibraryElement(lib, libElement);
+                    return lib;
+                }));
+            }
+        }
+        for (Future<Library> future : pending) {
+            libraries.add(join(future));
+        }
+    }
+
+    /**
+     * Feed a list container to the ingest one record at a time. The
+     * container element is kept (for its name and attributes) and holds only
+     * the current record while it is ingested. Records are added to the list
+     * in document order once the whole container has been read.
+     *
+     * @param <T> model type of the records
+     * @param list to add the ingested records to.
+     * @param recordIngest
+     */
+    private <T> void ingestRecords(List<T> list, RecordIngest<T> recordIngest) throws XMLStreamException, EagleCADLibraryFileException {
+        if (pool != null) {
+            ingestRecordsParallel(list, recordIngest);
+            return;
+        }
+        ArrayList<T> records = new ArrayList<>();
+        Element container = readStartTag(scratch);
+        while (reader.nextTag() == START_ELEMENT) {
+            Element record = readElement(scratch);
+            container.appendChild(record);
+            recordIngest.ingest(container, records);
+            container.removeChild(record);
+        }
+        list.addAll(records);
+    }
+
+    private <T> void ingestRecordsParallel(List<T> list, RecordIngest<T> recordIngest) throws XMLStreamException, EagleCADLibraryFileException {
+        List<Future<ArrayList<T>>> pending = new ArrayList<>();
+        String containerName = reader.getLocalName();
+        while (reader.nextTag() == START_ELEMENT) {
+            // Own document per record. DOM nodes are not safe to share between threads.
+            Document doc = builder.newDocument();
+            Element container = doc.createElement(containerName);
+            container.appendChild(readElement(doc));
+            pending.add(pool.submit(() -> {
+                ArrayList<T> records = new ArrayList<>(1);
+                recordIngest.ingest(container, records);
+                return records;
+            }));
+        }
+        for (Future<ArrayList<T>> future : pending) {
+            list.addAll(join(future));
+        }
+    }
+
+    private static <T> T join(Future<T> future) throws EagleCADLibraryFileException {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new EagleCADLibraryFileException("Interrupted while waiting on parallel ingest.");
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof EagleCADLibraryFileException cause) {
+                throw cause;
+            }
+            throw new EagleCADLibraryFileException("Parallel ingest failed: " + ex.getCause());
+        }
+    }
+
+    /**
+     * Element with the attributes of the current START_ELEMENT. The reader
+     * is not advanced.
+     *
+     * @param doc owner of the new element.
+     * @return new, empty DOM element.
+     */
+    private Element readStartTag(Document doc) {
+        Element element = doc.createElement(reader.getLocalName());
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            element.setAttribute(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+        }
+        return element;
+    }
+
+    /**
+     * Materialize the current element and all its content. On return the
+     * reader sits on the matching END_ELEMENT.
+     *
+     * @param doc owner of the new element.
+     * @return DOM copy of the element.
+     */
+    private Element readElement(Document doc) throws XMLStreamException {
+        Element element = readStartTag(doc);
+        while (true) {
+            switch (reader.next()) {
+                case START_ELEMENT ->
+                    element.appendChild(readElement(doc));
+                case CHARACTERS, SPACE ->
+                    appendText(element, reader.getText());
+                case CDATA ->
+                    element.appendChild(doc.createCDATASection(reader.getText()));
+                case COMMENT ->
+                    element.appendChild(doc.createComment(reader.getText()));
+                case END_ELEMENT -> {
+                    return element;
+                }
+                default -> {
+                }
+            }
+        }
+    }
+
+    /**
+     * The DOM parser produces one text node per run of characters. The
+     * stream may split a run, so join them back up.
+     */
+    private void appendText(Element element, String text) {
+        Node last = element.getLastChild();
+        if (last != null && last.getNodeType() == Node.TEXT_NODE) {
+            ((Text) last).appendData(text);
+        } else {
+            element.appendChild(element.getOwnerDocument().createTextNode(text));
+        }
+    }
+
+    private void skipElement() throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            switch (reader.next()) {
+                case START_ELEMENT ->
+                    depth++;
+                case END_ELEMENT ->
+                    depth--;
+                default -> {
+                }
+            }
+        }
+    }
+}
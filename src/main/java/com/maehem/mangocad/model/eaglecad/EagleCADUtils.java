@@ -16,6 +16,7 @@
  */
 package com.maehem.mangocad.model.eaglecad;
 
+import com.maehem.mangocad.model.DesignHeader;
 import com.maehem.mangocad.model.element.drawing.Board;
 import com.maehem.mangocad.model.element.drawing.Eagle;
 import com.maehem.mangocad.model.element.drawing.Library;
@@ -24,9 +25,13 @@ import com.maehem.mangocad.view.ControlPanel;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.xml.parsers.DocumentBuilder;
@@ -36,6 +41,7 @@ import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 
 /**
@@ -47,26 +53,40 @@ public class EagleCADUtils {
     // TODO: Make a logger for data model not tied to UI.
     public static final Logger LOGGER = ControlPanel.LOGGER;
 
+    // Used when no mode is passed to an import method.
+    public static final IngestMode DEFAULT_INGEST_MODE = IngestMode.DOM;
+
+    // Used when a design has no 'eagle.dtd' next to it.
+    private static final String DTD_RESOURCE = "/eagle.dtd";
+
     private EagleCADUtils() {
     }   // Static methods only!
 
     public static final Library importLBR(File file) throws FileNotFoundException, IOException, EagleCADLibraryFileException {
-        Document eagleXML = readXML(file);
+        return importLBR(file, DEFAULT_INGEST_MODE);
+    }
+
+    public static final Library importLBR(File file, IngestMode mode) throws FileNotFoundException, IOException, EagleCADLibraryFileException {
+        Eagle eagle = ingestEagle(file, mode);
         LOGGER.log(Level.SEVERE, "Library Import: {0}", file.getAbsolutePath());
 
-        Library lib = (Library) convertEagleXMLtoLBR(eagleXML).getDrawing().getDesign();
+        Library lib = (Library) eagle.getDrawing().getDesign();
         lib.setFilePath(file.getAbsolutePath()); // TODO: Remove. Use lib.getFile().getAbsoloutePath()
         lib.setFile(file);
 
         return lib;
     }
 
-    @SuppressWarnings("unchecked")
     public static final Schematic importSCH(File file) throws FileNotFoundException, IOException, EagleCADLibraryFileException {
-        Document eagleXML = readXML(file);
+        return importSCH(file, DEFAULT_INGEST_MODE);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static final Schematic importSCH(File file, IngestMode mode) throws FileNotFoundException, IOException, EagleCADLibraryFileException {
+        Eagle eagle = ingestEagle(file, mode);
         LOGGER.log(Level.SEVERE, "Schematic Import: {0}", file.getAbsolutePath());
 
-        Schematic sch = (Schematic) convertEagleXMLtoLBR(eagleXML).getDrawing().getDesign();
+        Schematic sch = (Schematic) eagle.getDrawing().getDesign();
         //Schematic sch = convertEagleXMLtoSCH(eagleXML);
         sch.setFilePath(file.getAbsolutePath());
         Map vars = sch.getParentDrawing().getVars();
@@ -101,22 +121,68 @@ public class EagleCADUtils {
     }
 
     public static final Board importBRD(File file) throws FileNotFoundException, IOException, EagleCADLibraryFileException {
-        Document eagleXML = readXML(file);
+        return importBRD(file, DEFAULT_INGEST_MODE);
+    }
+
+    public static final Board importBRD(File file, IngestMode mode) throws FileNotFoundException, IOException, EagleCADLibraryFileException {
+        Eagle eagle = ingestEagle(file, mode);
         LOGGER.log(Level.SEVERE, "Board Import: {0}", file.getAbsolutePath());
 
-        Board brd = (Board) convertEagleXMLtoLBR(eagleXML).getDrawing().getDesign();
+        Board brd = (Board) eagle.getDrawing().getDesign();
         //Schematic sch = convertEagleXMLtoSCH(eagleXML);
         brd.setFilePath(file.getAbsolutePath());
 
         return brd;
     }
 
+    /**
+     * Read an EagleCAD file into the model using the requested mode.
+     *
+     * @param file to read
+     * @param mode DOM, STREAM or PARALLEL
+     * @return populated Eagle object
+     * @throws IOException
+     * @throws EagleCADLibraryFileException
+     */
+    public static final Eagle ingestEagle(File file, IngestMode mode) throws IOException, EagleCADLibraryFileException {
+        return switch (mode) {
+            case STREAM ->
+                EagleCADStreamIngest.ingest(file);
+            case PARALLEL ->
+                EagleCADStreamIngest.ingest(file, ForkJoinPool.commonPool());
+            default ->
+                convertEagleXMLtoLBR(readXML(file));
+        };
+    }
+
+    /**
+     * Read just the header of an EagleCAD file. Much faster than a full
+     * ingest. See {@link DesignHeader}.
+     *
+     * @param file to read
+     * @return header of the library, schematic or board.
+     * @throws IOException
+     * @throws EagleCADLibraryFileException
+     */
+    public static final DesignHeader readHeader(File file) throws IOException, EagleCADLibraryFileException {
+        return EagleCADStreamIngest.readHeader(file);
+    }
+
     public static final Document readXML(File xml) {
         Document dom = null;
         DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
 
         try {
             DocumentBuilder db = dbf.newDocumentBuilder();
+            db.setEntityResolver((publicId, systemId) -> {
+                InputStream dtd = openDTD(systemId, null);
+                if (dtd == null) {
+                    return null;
+                }
+                InputSource source = new InputSource(dtd);
+                source.setSystemId(systemId);
+                return source;
+            });
             dom = db.parse(xml);
         } catch (ParserConfigurationException pce) {
             System.out.println(pce.getMessage());
@@ -129,6 +195,30 @@ public class EagleCADUtils {
         return dom;
     }
 
+    /**
+     * Open the DTD a design refers to when it isn't next to the design. The
+     * copy shipped with the app is used instead.
+     *
+     * @param systemId of the DTD, as written in the design.
+     * @param baseURI of the design, or null if systemId is already resolved.
+     * @return the shipped DTD, or null to let the parser open systemId.
+     */
+    static InputStream openDTD(String systemId, String baseURI) {
+        if (systemId == null || !systemId.endsWith(".dtd")) {
+            return null;
+        }
+        try {
+            URI uri = baseURI == null ? new URI(systemId) : new URI(baseURI).resolve(systemId);
+            if (!"file".equals(uri.getScheme()) || new File(uri).exists()) {
+                return null;
+            }
+        } catch (URISyntaxException | IllegalArgumentException ex) {
+            return null;
+        }
+        LOGGER.log(Level.FINE, "No {0} next to design. Using the built in one.", systemId);
+        return EagleCADUtils.class.getResourceAsStream(DTD_RESOURCE);
+    }
+
     private static Eagle convertEagleXMLtoLBR(Document eagleXML) throws IOException, EagleCADLibraryFileException {
         Element element = eagleXML.getDocumentElement();
         short nodeType = element.getNodeType();
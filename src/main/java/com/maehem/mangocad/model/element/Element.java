@@ -17,18 +17,22 @@
 package com.maehem.mangocad.model.element;
 
 import com.maehem.mangocad.model.element.ElementListener;
+import com.maehem.mangocad.model.util.IndexedList;
 import java.util.ArrayList;
 
 /**
  *
  * @author Mark J Koch ( @maehem on GitHub)
  */
-public abstract class Element {
+public abstract class Element implements IndexedList.Item {
 
     private int layer;
 
     private ArrayList<ElementListener> listeners = new ArrayList<>();
 
+    // The list that finds this element by name, if any.
+    private IndexedList<?> indexedIn = null;
+
     /**
      * XML element name. Used for loading saving XML file.
      *
@@ -65,6 +69,21 @@ public abstract class Element {
         }
     }
 
+    @Override
+    public void setIndexedIn(IndexedList<?> list) {
+        this.indexedIn = list;
+    }
+
+    /**
+     * Call when a field this element is found by, like its name, changes.
+     */
+    protected void indexedNameChanged() {
+        IndexedList<?> list = indexedIn;
+        if (list != null) {
+            list.renamed();
+        }
+    }
+
     public String toXML() {
         return "";
     }
@@ -17,13 +17,14 @@
 package com.maehem.mangocad.model.element;
 
 import com.maehem.mangocad.model.element.misc.Description;
+import com.maehem.mangocad.model.util.IndexedList;
 import java.util.ArrayList;
 
 /**
  *
  * @author Mark J Koch ( @maehem on GitHub)
  */
-public abstract class LibraryElement {
+public abstract class LibraryElement implements IndexedList.Item {
 
     //          name          %String;       #REQUIRED
     //          urn              %Urn;       ""
@@ -38,6 +39,9 @@ public abstract class LibraryElement {
     private boolean libraryLocallyModified = false;
 
     private ArrayList<Description> descriptions = new ArrayList<>();
+
+    // The list that finds this by name, if any.
+    private IndexedList<?> indexedIn = null;
     //private List<_AQuantum> elements = new ArrayList<>();
     //private String displayUnits = "mm";
 
@@ -55,6 +59,11 @@ public abstract class LibraryElement {
 //        this.displayUnits = displayUnits;
 //    }
 
+    @Override
+    public void setIndexedIn(IndexedList<?> list) {
+        this.indexedIn = list;
+    }
+
     /**
      * @return the name
      */
@@ -67,6 +76,10 @@ public abstract class LibraryElement {
      */
     public void setName(String name) {
         this.name = name;
+        IndexedList<?> list = indexedIn;
+        if (list != null) {
+            list.renamed();
+        }
     }
 
     /**
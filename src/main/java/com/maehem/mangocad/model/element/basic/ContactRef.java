@@ -37,6 +37,7 @@ public class ContactRef extends Element {
 
     private String element;
     private ElementElement elementO;
+    private Element padO;
     private String pad;
     private ContactRoute route = ContactRoute.ALL;
     private String routeTag = "";
@@ -58,6 +59,9 @@ public class ContactRef extends Element {
      */
     public void setElement(String element) {
         this.element = element;
+        this.elementO = null;
+        this.padO = null;
+        indexedNameChanged(); // Board finds used pads by element and pad.
     }
 
     /**
@@ -86,6 +90,22 @@ public class ContactRef extends Element {
      */
     public void setPad(String pad) {
         this.pad = pad;
+        this.padO = null;
+        indexedNameChanged(); // Board finds used pads by element and pad.
+    }
+
+    /**
+     * @return the pad, a PadSMD or PadTHD, or null if not resolved.
+     */
+    public Element getPadO() {
+        return padO;
+    }
+
+    /**
+     * @param pad the pad to set
+     */
+    public void setPadO(Element pad) {
+        this.padO = pad;
     }
 
     /**
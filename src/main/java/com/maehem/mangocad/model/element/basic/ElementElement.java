@@ -94,6 +94,7 @@ public class ElementElement extends Element implements GrouprefsProperty {
      */
     public void setName(String name) {
         this.name = name;
+        indexedNameChanged();
     }
 
     /**
@@ -108,6 +109,7 @@ public class ElementElement extends Element implements GrouprefsProperty {
      */
     public void setLibrary(String library) {
         this.library = library;
+        this.footprintPkg = null;
     }
 
     /**
@@ -122,6 +124,7 @@ public class ElementElement extends Element implements GrouprefsProperty {
      */
     public void setLibraryObj(Library lib) {
         this.libraryObj = lib;
+        this.footprintPkg = null;
     }
 
     /**
@@ -274,21 +277,25 @@ public class ElementElement extends Element implements GrouprefsProperty {
      */
     public void setFootprint(String footprint) {
         this.footprint = footprint;
+        this.footprintPkg = null;
     }
 
     /**
      * @return the footprint package object
      */
     public Footprint getFootprintPkg() {
-        return getLibraryObj().getPackage(getFootprint());
+        if (footprintPkg == null) {
+            return getLibraryObj() == null ? null : getLibraryObj().getPackage(getFootprint());
+        }
+        return footprintPkg;
     }
 
-//    /**
-//     * @param footprint the footprint to set
-//     */
-//    public void setFootprintPkg(Footprint pkg) {
-//        this.footprintPkg = pkg;
-//    }
+    /**
+     * @param pkg the footprint package object, as resolved.
+     */
+    public void setFootprintPkg(Footprint pkg) {
+        this.footprintPkg = pkg;
+    }
 
     /**
      * @return the locked
@@ -18,7 +18,7 @@ package com.maehem.mangocad.model.element.basic;
 
 import com.maehem.mangocad.model.element.Element;
 import com.maehem.mangocad.model.element.ElementField;
-import com.maehem.mangocad.model.element.enums.GridUnit;
+import com.maehem.mangocad.model.element.misc.CompiledRules;
 import com.maehem.mangocad.model.element.misc.DesignRules;
 import com.maehem.mangocad.model.element.property.CoordinateValue;
 import com.maehem.mangocad.model.element.property.GrouprefsProperty;
@@ -122,12 +122,10 @@ public class Hole extends Element implements CoordinateProperty, GrouprefsProper
         //       The ML_MIN_STOP_FRAME and MV_STOP_FRAME seem to be ignored.
         // TODO: If limit less than drill, return 0;
         // Add the DRC mask amount.
-        String rMin = dr.getRule(DrcDefs.ML_MIN_STOP_FRAME); // in mm or mil. i.e. "0.4mm", "10mil"
-        Double viaMinStopVal = GridUnit.toMM(rMin);
-        String rMax = dr.getRule(DrcDefs.ML_MAX_STOP_FRAME);
-        Double viaMaxStopVal = GridUnit.toMM(rMax);
-        String rVal = dr.getRule(DrcDefs.MV_STOP_FRAME);
-        Double viaStopVal = Double.valueOf(rVal); // in percent 0.0-1.0
+        CompiledRules rules = dr.getCompiled();
+        double viaMinStopVal = rules.get(DrcDefs.ML_MIN_STOP_FRAME); // in mm
+        double viaMaxStopVal = rules.get(DrcDefs.ML_MAX_STOP_FRAME);
+        double viaStopVal = rules.get(DrcDefs.MV_STOP_FRAME); // in percent 0.0-1.0
 
         double maskBase = getDrill() * viaStopVal;
 
@@ -17,6 +17,7 @@
 package com.maehem.mangocad.model.element.basic;
 
 import com.maehem.mangocad.model.element.Element;
+import com.maehem.mangocad.model.element.highlevel.Symbol;
 import com.maehem.mangocad.model.element.property.GrouprefsProperty;
 import com.maehem.mangocad.model.element.property.Rotation;
 import java.util.ArrayList;
@@ -45,6 +46,9 @@ public class Instance extends Element implements GrouprefsProperty {
 
     private String part;
     private String gate;
+    private Part partObj;
+    private Gate gateObj;
+    private Symbol symbolObj;
     private double x;
     private double y;
     private boolean smashed = false;
@@ -100,6 +104,23 @@ public class Instance extends Element implements GrouprefsProperty {
      */
     public void setPart(String part) {
         this.part = part;
+        this.partObj = null;
+        this.gateObj = null;
+        this.symbolObj = null;
+    }
+
+    /**
+     * @return the part object, or null if not resolved.
+     */
+    public Part getPartObj() {
+        return partObj;
+    }
+
+    /**
+     * @param part the part object, as resolved.
+     */
+    public void setPartObj(Part part) {
+        this.partObj = part;
     }
 
     /**
@@ -114,6 +135,36 @@ public class Instance extends Element implements GrouprefsProperty {
      */
     public void setGate(String gate) {
         this.gate = gate;
+        this.gateObj = null;
+        this.symbolObj = null;
+    }
+
+    /**
+     * @return the gate object, or null if not resolved.
+     */
+    public Gate getGateObj() {
+        return gateObj;
+    }
+
+    /**
+     * @param gate the gate object, as resolved.
+     */
+    public void setGateObj(Gate gate) {
+        this.gateObj = gate;
+    }
+
+    /**
+     * @return the symbol of the gate, or null if not resolved.
+     */
+    public Symbol getSymbolObj() {
+        return symbolObj;
+    }
+
+    /**
+     * @param symbol the symbol of the gate, as resolved.
+     */
+    public void setSymbolObj(Symbol symbol) {
+        this.symbolObj = symbol;
     }
 
     @Override
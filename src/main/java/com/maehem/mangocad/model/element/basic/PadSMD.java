@@ -71,6 +71,7 @@ public class PadSMD extends Element implements LayerNumberProperty, ElementValue
      */
     public void setName(String name) {
         this.name = name;
+        indexedNameChanged();
     }
 
     /**
@@ -60,6 +60,7 @@ public class PadTHD extends Element {
      */
     public void setName(String name) {
         this.name = name;
+        indexedNameChanged();
     }
 
     /**
@@ -17,7 +17,9 @@
 package com.maehem.mangocad.model.element.basic;
 
 import com.maehem.mangocad.model.element.Element;
+import com.maehem.mangocad.model.element.drawing.Library;
 import com.maehem.mangocad.model.element.highlevel.Device;
+import com.maehem.mangocad.model.element.highlevel.DeviceSet;
 import java.util.ArrayList;
 import java.util.Optional;
 
@@ -57,6 +59,8 @@ public class Part extends Element {
     private final ArrayList<Attribute> attributes = new ArrayList<>();
     private final ArrayList<Variant> variants = new ArrayList<>();
     
+    private Library libraryObj;
+    private DeviceSet deviceSetObj;
     private Device deviceObj;
     
     // TODO:  Spices.
@@ -78,6 +82,7 @@ public class Part extends Element {
      */
     public void setName(String name) {
         this.name = name;
+        indexedNameChanged();
     }
 
     /**
@@ -92,6 +97,23 @@ public class Part extends Element {
      */
     public void setLibrary(String library) {
         this.library = library;
+        setLibraryObj(null);
+    }
+
+    /**
+     * @return the library object, or null if not resolved.
+     */
+    public Library getLibraryObj() {
+        return libraryObj;
+    }
+
+    /**
+     * @param library the library object, as resolved.
+     */
+    public void setLibraryObj(Library library) {
+        this.libraryObj = library;
+        this.deviceSetObj = null;
+        this.deviceObj = null;
     }
 
     /**
@@ -120,6 +142,22 @@ public class Part extends Element {
      */
     public void setDeviceSet(String deviceSet) {
         this.deviceSet = deviceSet;
+        this.deviceSetObj = null;
+        this.deviceObj = null;
+    }
+
+    /**
+     * @return the device set object, or null if not resolved.
+     */
+    public DeviceSet getDeviceSetObj() {
+        return deviceSetObj;
+    }
+
+    /**
+     * @param deviceSet the device set object, as resolved.
+     */
+    public void setDeviceSetObj(DeviceSet deviceSet) {
+        this.deviceSetObj = deviceSet;
     }
 
     /**
@@ -134,6 +172,21 @@ public class Part extends Element {
      */
     public void setDevice(String device) {
         this.device = device;
+        this.deviceObj = null;
+    }
+
+    /**
+     * @return the device object, or null if not resolved.
+     */
+    public Device getDeviceObj() {
+        return deviceObj;
+    }
+
+    /**
+     * @param device the device object, as resolved.
+     */
+    public void setDeviceObj(Device device) {
+        this.deviceObj = device;
     }
 
     /**
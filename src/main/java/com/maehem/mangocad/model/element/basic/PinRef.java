@@ -34,6 +34,7 @@ public class PinRef extends Element {
     private String part;
     private String gate;
     private String pin;
+    private Pin pinObj;
 
     @Override
     public String getElementName() {
@@ -52,6 +53,7 @@ public class PinRef extends Element {
      */
     public void setPart(String part) {
         this.part = part;
+        this.pinObj = null;
     }
 
     /**
@@ -66,6 +68,7 @@ public class PinRef extends Element {
      */
     public void setGate(String gate) {
         this.gate = gate;
+        this.pinObj = null;
     }
 
     /**
@@ -80,6 +83,21 @@ public class PinRef extends Element {
      */
     public void setPin(String pin) {
         this.pin = pin;
+        this.pinObj = null;
+    }
+
+    /**
+     * @return the pin object, or null if not resolved.
+     */
+    public Pin getPinObj() {
+        return pinObj;
+    }
+
+    /**
+     * @param pin the pin object, as resolved.
+     */
+    public void setPinObj(Pin pin) {
+        this.pinObj = pin;
     }
     
 }
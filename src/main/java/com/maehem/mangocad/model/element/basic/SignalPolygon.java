@@ -19,6 +19,8 @@
  */
 package com.maehem.mangocad.model.element.basic;
 
+import com.maehem.mangocad.model.util.Region;
+
 /**
  *
  * @author Mark J Koch ( @maehem on GitHub)
@@ -36,6 +38,10 @@ public class SignalPolygon extends PolygonElement {
     private int rank = 1;
     //private List<Vertex> vertices = new ArrayList<>();
 
+    // Pour from the last preview and a hash of the shapes that made it.
+    private long pourHash;
+    private Region pour;
+
 //    @Override
 //    public String getElementName() {
 //        return ELEMENT_NAME;
@@ -146,4 +152,24 @@ public class SignalPolygon extends PolygonElement {
 //        this.vertices = vertices;
 //    }
 
+    /**
+     * The poured copper worked out last time, if it was made from the same
+     * shapes.
+     *
+     * @param inputHash hash of the shapes the pour is made from.
+     * @return the cached pour, or null if there is none for that hash.
+     */
+    public synchronized Region getCachedPour(long inputHash) {
+        return pour != null && pourHash == inputHash ? pour : null;
+    }
+
+    /**
+     * @param inputHash hash of the shapes the pour was made from.
+     * @param pour the poured copper.
+     */
+    public synchronized void setCachedPour(long inputHash, Region pour) {
+        this.pourHash = inputHash;
+        this.pour = pour;
+    }
+
 }
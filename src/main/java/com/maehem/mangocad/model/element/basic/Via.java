@@ -17,8 +17,8 @@
 package com.maehem.mangocad.model.element.basic;
 
 import com.maehem.mangocad.model.element.Element;
-import com.maehem.mangocad.model.element.enums.GridUnit;
 import com.maehem.mangocad.model.element.enums.ViaShape;
+import com.maehem.mangocad.model.element.misc.CompiledRules;
 import com.maehem.mangocad.model.element.misc.DesignRules;
 import com.maehem.mangocad.model.element.property.GrouprefsProperty;
 import com.maehem.mangocad.model.util.DrcDefs;
@@ -147,16 +147,10 @@ public class Via extends Element implements GrouprefsProperty {
         if (getDiameter() > 0.0) {
             return getDiameter(); // Use over-ridden value
         } else { // Apply Design Rule
-            String drViaOuter = dr.getRule(DrcDefs.RV_VIA_OUTER); // rvViaOuter - % - percentage
-            //LOGGER.log(Level.SEVERE, "drViaOuter string value: " + drViaOuter);
-            Double viaOuterVal = Double.valueOf(drViaOuter);
-            double flash = getDrill() * viaOuterVal;
-
-            String drMinViaOuter = dr.getRule(DrcDefs.RL_MIN_VIA_OUTER); // rlMinViaOuter - unit mil/mm
-            Double viaMinOuterVal = GridUnit.toMM(drMinViaOuter);
-
-            String drMaxViaOuter = dr.getRule(DrcDefs.RL_MAX_VIA_OUTER);
-            Double viaMaxOuterVal = GridUnit.toMM(drMaxViaOuter); // rlMaxViaOuter - unit mil/mm
+            CompiledRules rules = dr.getCompiled();
+            double flash = getDrill() * rules.get(DrcDefs.RV_VIA_OUTER); // rvViaOuter - % - percentage
+            double viaMinOuterVal = rules.get(DrcDefs.RL_MIN_VIA_OUTER); // rlMinViaOuter - mm
+            double viaMaxOuterVal = rules.get(DrcDefs.RL_MAX_VIA_OUTER); // rlMaxViaOuter - mm
 
             if (flash < viaMinOuterVal) {
                 flash = viaMinOuterVal;
@@ -176,12 +170,10 @@ public class Via extends Element implements GrouprefsProperty {
         //       The ML_MIN_STOP_FRAME and MV_STOP_FRAME seem to be ignored.
         // TODO: If limit less than drill, return 0;
         // Add the DRC mask amount.
-        String rMin = dr.getRule(DrcDefs.ML_MIN_STOP_FRAME); // in mm or mil. i.e. "0.4mm", "10mil"
-        Double viaMinStopVal = GridUnit.toMM(rMin);
-        String rMax = dr.getRule(DrcDefs.ML_MAX_STOP_FRAME);
-        Double viaMaxStopVal = GridUnit.toMM(rMax);
-        String rVal = dr.getRule(DrcDefs.MV_STOP_FRAME);
-        Double viaStopVal = Double.valueOf(rVal); // in percent 0.0-1.0
+        CompiledRules rules = dr.getCompiled();
+        double viaMinStopVal = rules.get(DrcDefs.ML_MIN_STOP_FRAME); // in mm
+        double viaMaxStopVal = rules.get(DrcDefs.ML_MAX_STOP_FRAME);
+        double viaStopVal = rules.get(DrcDefs.MV_STOP_FRAME); // in percent 0.0-1.0
 
         double maskBase = padDia * viaStopVal;
 
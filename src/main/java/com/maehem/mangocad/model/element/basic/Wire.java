@@ -392,16 +392,16 @@ public class Wire extends Element implements
     public WireEnd endMatch(WireEnd thisWireEnd, Wire otherWire) {
         switch (thisWireEnd) {
             case ONE -> {
-                if (getX1() == otherWire.getX1() && getY1() == otherWire.getY1()) {
+                if (sameAt(x1Property, y1Property, otherWire.x1Property, otherWire.y1Property)) {
                     return ONE;
-                } else if (getX1() == otherWire.getX2() && getY1() == otherWire.getY2()) {
+                } else if (sameAt(x1Property, y1Property, otherWire.x2Property, otherWire.y2Property)) {
                     return TWO;
                 }
             }
             case TWO -> {
-                if (getX2() == otherWire.getX1() && getY2() == otherWire.getY1()) {
+                if (sameAt(x2Property, y2Property, otherWire.x1Property, otherWire.y1Property)) {
                     return ONE;
-                } else if (getX2() == otherWire.getX2() && getY2() == otherWire.getY2()) {
+                } else if (sameAt(x2Property, y2Property, otherWire.x2Property, otherWire.y2Property)) {
                     return TWO;
                 }
             }
@@ -410,6 +410,11 @@ public class Wire extends Element implements
         return WireEnd.NONE;
     }
 
+    // Ends meet when they land on the same nanometre.
+    private static boolean sameAt(RealValue x1, RealValue y1, RealValue x2, RealValue y2) {
+        return x1.getNanometres() == x2.getNanometres() && y1.getNanometres() == y2.getNanometres();
+    }
+
     @Override
     public void createSnapshot() {
         snapshot = copy();
@@ -33,9 +33,9 @@ import com.maehem.mangocad.model.element.misc.FusionSync;
 import com.maehem.mangocad.model.element.misc.FusionTeam;
 import com.maehem.mangocad.model.element.misc.NetClass;
 import com.maehem.mangocad.model.element.misc.Pass;
+import com.maehem.mangocad.model.util.IndexedList;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 
 /**
  * <pre>
@@ -71,14 +71,14 @@ public class Board extends Element implements DesignObject {
     // TODO: Should be a list of localized Descriptions.
     private final Description description = new Description(); // Might have locale setting.
 
-    private final ArrayList<Library> libraries = new ArrayList<>();
+    private final IndexedList<Library> libraries = new IndexedList<>(Library::getName);
     private final ArrayList<Attribute> attributes = new ArrayList<>();
     private final ArrayList<Element> plain = new ArrayList<>();
     private final ArrayList<VariantDefinition> variantDefs = new ArrayList<>();
     private final ArrayList<NetClass> netClasses = new ArrayList<>();
     private final ArrayList<Pass> autorouter = new ArrayList<>();
     private final ArrayList<SchematicGroup> groups = new ArrayList<>();
-    private final ArrayList<ElementElement> elements = new ArrayList<>();
+    private final IndexedList<ElementElement> elements = new IndexedList<>(ElementElement::getName);
     private final ArrayList<Signal> signals = new ArrayList<>();
     private final ArrayList<MfgPreviewColor> mfgPreviewColors = new ArrayList<>();
     private final ArrayList<Approved> errors = new ArrayList<>();
@@ -88,7 +88,7 @@ public class Board extends Element implements DesignObject {
     private final FusionTeam fusionTeam = new FusionTeam();
 
     // Keep tabs on what pins are used.
-    private final ArrayList<ContactRef> contactRefs = new ArrayList<>();
+    private final IndexedList<ContactRef> contactRefs = new IndexedList<>(Board::contactKey);
 
     private double limitedWidth;
 
@@ -264,24 +264,11 @@ public class Board extends Element implements DesignObject {
     }
 
     public Library getLibrary(String libName) {
-        Optional<Library> libSearch = getLibraries().stream().filter(
-                library -> library.getName().equals(libName)
-        ).findFirst();
-
-        if (!libSearch.isEmpty()) {
-            return libSearch.get();
-        }
-
-        return null;
+        return libraries.find(libName);
     }
 
     public ElementElement getElement(String elementName) {  // i.e. "U1"
-        for (ElementElement e : getElements()) {
-            if (e.getName().equals(elementName)) {
-                return e;
-            }
-        }
-        return null;
+        return elements.find(elementName);
     }
 
     public Footprint getPackage(String pkgname) {
@@ -289,7 +276,7 @@ public class Board extends Element implements DesignObject {
             Library library = getLibrary(element.getLibrary());
             if (library != null) {
                 Footprint pkg = library.getPackage(element.getFootprint());
-                if (pkg.getName().equals(pkgname)) {
+                if (pkg != null && pkg.getName().equals(pkgname)) {
                     return pkg;
                 }
             }
@@ -312,13 +299,11 @@ public class Board extends Element implements DesignObject {
     }
 
     public boolean hasContactRef(ContactRef cr) {
-        for (ContactRef t : getContactRefs()) {
-            if (cr.getElement().equals(t.getElement())
-                    && cr.getPad().equals(t.getPad())) {
-                return true;
-            }
-        }
-        return false;
+        return contactRefs.find(contactKey(cr)) != null;
+    }
+
+    private static String contactKey(ContactRef cr) {
+        return cr.getElement() + "\n" + cr.getPad();
     }
 
     @Override
@@ -25,6 +25,7 @@ import com.maehem.mangocad.model.element.highlevel.Package3d;
 import com.maehem.mangocad.model.element.highlevel.Symbol;
 import com.maehem.mangocad.model.element.misc.Description;
 import com.maehem.mangocad.view.ElementType;
+import com.maehem.mangocad.model.util.IndexedList;
 import static com.maehem.mangocad.view.ElementType.DEVICE;
 import static com.maehem.mangocad.view.ElementType.FOOTPRINT;
 import static com.maehem.mangocad.view.ElementType.PACKAGE3D;
@@ -62,10 +63,10 @@ public class Library extends Element implements DesignObject {
     private Drawing parentDrawing = null;
 
     private final ArrayList<Description> descriptions = new ArrayList<>();
-    private final ArrayList<Footprint> packages = new ArrayList<>();
-    private final ArrayList<Package3d> packages3d = new ArrayList<>();
-    private final ArrayList<DeviceSet> deviceSets = new ArrayList<>();
-    private final ArrayList<Symbol> symbols = new ArrayList<>();
+    private final IndexedList<Footprint> packages = new IndexedList<>(Footprint::getName);
+    private final IndexedList<Package3d> packages3d = new IndexedList<>(Package3d::getName);
+    private final IndexedList<DeviceSet> deviceSets = new IndexedList<>(DeviceSet::getName);
+    private final IndexedList<Symbol> symbols = new IndexedList<>(Symbol::getName);
 
     private String name;// Only in libraries used inside boards or schematics
     private String urn; // Only in online libraries used inside boards or schematics
@@ -218,12 +219,7 @@ public class Library extends Element implements DesignObject {
     }
 
     public Footprint getPackage(String pkgName) {
-        for (Footprint fp : getPackages()) {
-            if (fp.getName().equals(pkgName)) {
-                return fp;
-            }
-        }
-        return null;
+        return packages.find(pkgName);
     }
 
     public boolean hasFootprint(String fName) {
@@ -249,12 +245,7 @@ public class Library extends Element implements DesignObject {
 //    }
 //
     public Symbol getSymbol(String symbolName) {
-        for (Symbol s : getSymbols()) {
-            if (s.getName().equals(symbolName)) {
-                return s;
-            }
-        }
-        return null;
+        return symbols.find(symbolName);
     }
 
     public boolean hasSymbol(String sName) {
@@ -273,12 +264,7 @@ public class Library extends Element implements DesignObject {
     }
 
     public DeviceSet getDeviceSet( String name ) {
-        for ( DeviceSet ds: getDeviceSets() ) {
-            if ( ds.getName().equals(name) ) {
-                return ds;
-            }
-        }
-        return null;
+        return deviceSets.find(name);
     }
 
     public boolean hasDeviceSet(String dsName) {
@@ -316,13 +302,7 @@ public class Library extends Element implements DesignObject {
     }
 
     public Package3d getPackage3D( String pkgName ) {
-        for ( Package3d pkg: getPackages3d() ) {
-            if (pkg.getName().equals(pkgName )) {
-                return pkg;
-            }
-        }
-
-        return null;
+        return packages3d.find(pkgName);
     }
 
     public boolean hasPackage3d(String pName) {
@@ -384,6 +364,7 @@ public class Library extends Element implements DesignObject {
      */
     public void setName(String name) {
         this.name = name;
+        indexedNameChanged();
     }
 
     /**
@@ -26,6 +26,8 @@ import com.maehem.mangocad.model.element.highlevel.Sheet;
 import com.maehem.mangocad.model.element.misc.Approved;
 import com.maehem.mangocad.model.element.misc.Description;
 import com.maehem.mangocad.model.element.misc.NetClass;
+import com.maehem.mangocad.model.util.TextVariables;
+import com.maehem.mangocad.model.util.IndexedList;
 import java.util.ArrayList;
 import java.util.Optional;
 
@@ -57,7 +59,7 @@ public class Schematic extends Element implements DesignObject {
     // TODO: Should be a list of localized Descriptions.
     private final Description description = new Description(); // Might have locale setting.
 
-    private final ArrayList<Library> libraries = new ArrayList<>();
+    private final IndexedList<Library> libraries = new IndexedList<>(Library::getName);
 
     // This does not seem to be used in Eagle nor is there a way to
     // affect Schematic attributes.
@@ -67,7 +69,7 @@ public class Schematic extends Element implements DesignObject {
     private final ArrayList<NetClass> netClasses = new ArrayList<>();
     private final ArrayList<CircuitModule> modules = new ArrayList<>();
     private final ArrayList<SchematicGroup> groups = new ArrayList<>();
-    private final ArrayList<Part> parts = new ArrayList<>();
+    private final IndexedList<Part> parts = new IndexedList<>(Part::getName);
     private final ArrayList<Sheet> sheets = new ArrayList<>();
     private final ArrayList<Approved> errors = new ArrayList<>();
 
@@ -76,6 +78,7 @@ public class Schematic extends Element implements DesignObject {
 
     private String filePath;
     private Drawing parentDrawing = null;
+    private TextVariables textVariables = null;
 
     public Schematic() {
         //layers[0] = new LayerElement();
@@ -127,7 +130,7 @@ public class Schematic extends Element implements DesignObject {
     }
 
     public Optional<Library> lookupLibrary( String libName ) {
-        return libraries.stream().filter((library) -> library.getName().equals(libName)).findFirst();
+        return Optional.ofNullable(libraries.find(libName));
     }
 
     /**
@@ -173,7 +176,21 @@ public class Schematic extends Element implements DesignObject {
     }
 
     public Optional<Part> lookupPart( String partName ) {
-        return parts.stream().filter((part) -> part.getName().equals(partName)).findFirst();
+        return Optional.ofNullable(parts.find(partName));
+    }
+
+    /**
+     * Text variables of this schematic's sheets. Made on first use from the
+     * drawing's variables.
+     *
+     * @return the text variables
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized TextVariables getTextVariables() {
+        if (textVariables == null) {
+            textVariables = new TextVariables(parentDrawing != null ? parentDrawing.getVars() : null);
+        }
+        return textVariables;
     }
 
     /**
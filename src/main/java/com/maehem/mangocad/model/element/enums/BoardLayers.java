@@ -98,6 +98,23 @@ public enum BoardLayers {
         return false;
     }
 
+    /**
+     * The layer on the other side of the board that plays the same part,
+     * e.g. tPlace and bPlace. Used when a part is mirrored to the bottom.
+     *
+     * @param layerNumber layer
+     * @return the opposite layer, or the same layer if it has no side.
+     */
+    public static int opposite(int layerNumber) {
+        return switch (layerNumber) {
+            case 1 -> 16;
+            case 16 -> 1;
+            case 21, 23, 25, 27, 29, 31, 33, 35, 37, 39, 41, 51 -> layerNumber + 1;
+            case 22, 24, 26, 28, 30, 32, 34, 36, 38, 40, 42, 52 -> layerNumber - 1;
+            default -> layerNumber;
+        };
+    }
+
     /**
      * @return the code
      */
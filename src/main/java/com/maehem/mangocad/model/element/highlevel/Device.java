@@ -19,6 +19,7 @@ package com.maehem.mangocad.model.element.highlevel;
 import com.maehem.mangocad.model.element.basic.Connection;
 import com.maehem.mangocad.model.element.basic.Technology;
 import com.maehem.mangocad.model.element.basic.Package3dInstance;
+import com.maehem.mangocad.model.util.IndexedList;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -26,7 +27,7 @@ import java.util.List;
  *
  * @author Mark J Koch ( @maehem on GitHub)
  */
-public class Device {
+public class Device implements IndexedList.Item {
     // 'layer' is not used.
     
     private String name = "";
@@ -34,7 +35,15 @@ public class Device {
     private List<Connection> connections = new ArrayList<>();
     private List<Technology> technologies = new ArrayList<>();
     private final List<Package3dInstance> package3dinstances = new ArrayList<>();
+
+    // The list that finds this by name, if any.
+    private IndexedList<?> indexedIn = null;
     
+    @Override
+    public void setIndexedIn(IndexedList<?> list) {
+        this.indexedIn = list;
+    }
+
     /**
      * @return the name
      */
@@ -47,6 +56,10 @@ public class Device {
      */
     public void setName(String name) {
         this.name = name;
+        IndexedList<?> list = indexedIn;
+        if (list != null) {
+            list.renamed();
+        }
     }
 
     /**
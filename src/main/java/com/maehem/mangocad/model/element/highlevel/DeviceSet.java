@@ -18,6 +18,7 @@ package com.maehem.mangocad.model.element.highlevel;
 
 import com.maehem.mangocad.model.element.LibraryElement;
 import com.maehem.mangocad.model.element.basic.Gate;
+import com.maehem.mangocad.model.util.IndexedList;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -55,7 +56,7 @@ public class DeviceSet extends LibraryElement {
 
 //    private final List<Description> descriptions = new ArrayList<>();
     private final List<Gate> gates = new ArrayList<>();
-    private final List<Device> devices = new ArrayList<>();
+    private final IndexedList<Device> devices = new IndexedList<>(Device::getName);
     //private List<Spice> spice = new ArrayList<>();
 
     public String getElementName() {
@@ -206,9 +207,7 @@ public class DeviceSet extends LibraryElement {
     }
 
     public Device lookupDevice(String devName) {
-        return devices.stream().
-                filter(device -> devName.equals(device.getName())).
-                findAny().orElse(null);
+        return devices.find(devName);
     }
 
     public static boolean isValidName(Object nameResult) {
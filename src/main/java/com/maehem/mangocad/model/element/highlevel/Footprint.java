@@ -21,6 +21,7 @@ import com.maehem.mangocad.model.element.LibraryElement;
 import com.maehem.mangocad.model.element.basic.PadSMD;
 import com.maehem.mangocad.model.element.basic.PadTHD;
 import com.maehem.mangocad.model.element.misc.Description;
+import com.maehem.mangocad.model.util.IndexedList;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -50,7 +51,7 @@ public class Footprint extends LibraryElement { // class name "Package" is reser
 
      // There can only be one description.
     private final Description description = new Description();
-    private final ArrayList<Element> elements = new ArrayList<>();
+    private final IndexedList<Element> elements = new IndexedList<>(Footprint::padName);
 
     //private String name;
     //private String urn;
@@ -135,16 +136,14 @@ public class Footprint extends LibraryElement { // class name "Package" is reser
     }
 
     public Element getPad(String padName) {
-        for (Element el : getElements()) {
-            if (el instanceof PadTHD e) {
-                if (e.getName().equals(padName)) {
-                    return e;
-                }
-            } else if (el instanceof PadSMD e) {
-                if (e.getName().equals(padName)) {
-                    return e;
-                }
-            }
+        return elements.find(padName);
+    }
+
+    private static String padName(Element el) {
+        if (el instanceof PadTHD e) {
+            return e.getName();
+        } else if (el instanceof PadSMD e) {
+            return e.getName();
         }
         return null;
     }
@@ -0,0 +1,108 @@
+/*
+    Licensed to the Apache Software Foundation (ASF) under one or more
+    contributor license agreements.  See the NOTICE file distributed with this
+    work for additional information regarding copyright ownership.  The ASF
+    licenses this file to you under the Apache License, Version 2.0
+    (the "License"); you may not use this file except in compliance with the
+    License.  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+    License for the specific language governing permissions and limitations
+    under the License.
+ */
+package com.maehem.mangocad.model.element.misc;
+
+import com.maehem.mangocad.model.element.enums.GridUnit;
+import com.maehem.mangocad.model.util.DrcDefs;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Design rule values parsed once into numbers.
+ *
+ * Lengths like "10mil" are held in mm, ratios and flags as they are
+ * written. Rules with a value per layer, like {@code mtIsolate}, keep
+ * every value. A rule missing from the design uses its default.
+ *
+ * Made by {@link DesignRules#getCompiled()} and never changed, so it may
+ * be read on any thread.
+ *
+ * @author Mark J Koch ( @maehem on GitHub )
+ */
+public class CompiledRules {
+
+    private static final Logger LOGGER = DesignRules.LOGGER;
+
+    private final Map<DrcDefs, double[]> values = new EnumMap<>(DrcDefs.class);
+
+    CompiledRules(DesignRules dr) {
+        for (DrcDefs rule : DrcDefs.values()) {
+            Param p = dr.getParams().find(rule.label);
+            double[] v = p == null ? null : parse(rule, p.getValue());
+            if (v == null) {
+                v = parse(rule, rule.value);
+            }
+            if (v != null) {
+                values.put(rule, v);
+            }
+        }
+    }
+
+    /**
+     * @param rule to read.
+     * @return its value, or its first value if it has one per layer.
+     */
+    public double get(DrcDefs rule) {
+        return get(rule, 0);
+    }
+
+    /**
+     * @param rule to read.
+     * @param i index of the value, for a rule with one per layer.
+     * @return the value, or the last one if there are fewer.
+     */
+    public double get(DrcDefs rule, int i) {
+        double[] v = values.get(rule);
+        if (v == null) {
+            LOGGER.log(Level.SEVERE, "CompiledRules.get() has no number for rule: {0}", rule.label);
+            return 0.0;
+        }
+        return v[Math.min(i, v.length - 1)];
+    }
+
+    /**
+     * @param rule to read.
+     * @return how many values the rule has, 0 if it isn't a number.
+     */
+    public int count(DrcDefs rule) {
+        double[] v = values.get(rule);
+        return v == null ? 0 : v.length;
+    }
+
+    /**
+     * @return the values of a rule in mm, or null if it isn't made of
+     * numbers, like {@code layerSetup}.
+     */
+    private static double[] parse(DrcDefs rule, String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String[] parts = value.trim().split("\\s+");
+        double[] v = new double[parts.length];
+        try {
+            for (int i = 0; i < parts.length; i++) {
+                v[i] = GridUnit.toMM(parts[i]);
+            }
+        } catch (NumberFormatException ex) {
+            LOGGER.log(Level.FINEST, "Rule {0} is not a number: {1}", new Object[]{rule.label, value});
+            return null;
+        }
+        return v;
+    }
+}
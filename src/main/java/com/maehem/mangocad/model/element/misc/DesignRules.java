@@ -17,7 +17,9 @@
 package com.maehem.mangocad.model.element.misc;
 
 import com.maehem.mangocad.model.element.Element;
+import com.maehem.mangocad.model.element.ElementListener;
 import com.maehem.mangocad.model.util.DrcDefs;
+import com.maehem.mangocad.model.util.IndexedList;
 import java.util.ArrayList;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -38,10 +40,18 @@ public class DesignRules extends Element {
     public static final String ELEMENT_NAME = "designrules";
 
     private final ArrayList<Description> descriptions = new ArrayList<>();
-    private final ArrayList<Param> params = new ArrayList<>();
+    private final IndexedList<Param> params = new IndexedList<>(Param::getName);
 
     private String name;
 
+    // Rules as numbers, with the version of the params they were made from.
+    private record Compiled(long version, CompiledRules rules) {
+
+    }
+
+    private volatile Compiled compiled = null;
+    private final ElementListener paramListener = (e, field, oldVal, newVal) -> compiled = null;
+
     @Override
     public String getElementName() {
         return ELEMENT_NAME;
@@ -71,18 +81,44 @@ public class DesignRules extends Element {
     /**
      * @return a list of the params
      */
-    public ArrayList<Param> getParams() {
+    public IndexedList<Param> getParams() {
         return params;
     }
 
     public String getRule(DrcDefs rule) {
-        for (Param p : getParams()) {
-            if (p.getName().equals(rule.label)) {
-                return p.getValue();
-            }
+        Param p = getParams().find(rule.label);
+        if (p != null) {
+            return p.getValue();
         }
         LOGGER.log(Level.SEVERE, "DesignRules.getRule() could not find a rule called: {0}", rule.label);
         return "";
     }
 
+    /**
+     * Rules parsed into numbers, so deriving pad, via and mask sizes is
+     * only arithmetic. Made again after a param is added, removed or
+     * changed.
+     *
+     * @return the compiled rules.
+     */
+    public CompiledRules getCompiled() {
+        Compiled c = compiled;
+        if (c != null && c.version() == params.version()) {
+            return c.rules();
+        }
+        synchronized (this) {
+            c = compiled;
+            long version = params.version();
+            if (c == null || c.version() != version) {
+                for (Param p : params) {
+                    p.removeListener(paramListener);
+                    p.addListener(paramListener);
+                }
+                c = new Compiled(version, new CompiledRules(this));
+                compiled = c;
+            }
+            return c.rules();
+        }
+    }
+
 }
@@ -17,6 +17,7 @@
 package com.maehem.mangocad.model.element.misc;
 
 import com.maehem.mangocad.model.element.Element;
+import com.maehem.mangocad.model.element.ElementField;
 
 /**
  * <pre>
@@ -32,6 +33,29 @@ public class Param extends Element {
 
     public static final String ELEMENT_NAME = "param";
 
+    public enum Field implements ElementField {
+        NAME("name", String.class),
+        VALUE("value", String.class);
+
+        private final String fName;
+        private final Class clazz;
+
+        private Field(String name, Class clazz) {
+            this.fName = name;
+            this.clazz = clazz;
+        }
+
+        @Override
+        public String fName() {
+            return fName;
+        }
+
+        @Override
+        public Class clazz() {
+            return clazz;
+        }
+    }
+
     private String name;
     private String value;
 
@@ -51,7 +75,10 @@ public class Param extends Element {
      * @param name to set
      */
     public void setName(String name) {
+        String oldVal = this.name;
         this.name = name;
+        indexedNameChanged();
+        notifyListeners(Field.NAME, oldVal, this.name);
     }
 
     /**
@@ -65,7 +92,9 @@ public class Param extends Element {
      * @param value the value to set
      */
     public void setValue(String value) {
+        String oldVal = this.value;
         this.value = value;
+        notifyListeners(Field.VALUE, oldVal, this.value);
     }
 
 }
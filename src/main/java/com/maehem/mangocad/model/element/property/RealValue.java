@@ -16,11 +16,16 @@
  */
 package com.maehem.mangocad.model.element.property;
 
+import com.maehem.mangocad.model.util.Nanometres;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.text.DecimalFormat;
 
 /**
+ * A double value kept to a number of decimal places.
+ *
+ * The value is rounded once, when it is set, so reading it is only a field
+ * load. The value as set is kept too, for {@link #getOldValue()}.
  *
  * @author Mark J Koch ( @maehem on GitHub )
  */
@@ -29,6 +34,7 @@ public class RealValue extends ElementValue {
     public static final int DEFAULT_PREC = 6;
 
     private double value;
+    private double rounded;
     private double oldValue;
     private double min = Double.NEGATIVE_INFINITY;
     private double max = Double.POSITIVE_INFINITY;
@@ -45,6 +51,7 @@ public class RealValue extends ElementValue {
     public RealValue(double value, int precision) {
         this.value = value;
         this.prec = precision;
+        this.rounded = roundFinite(value, precision);
     }
 
     public RealValue(double value, double min, double max) {
@@ -60,7 +67,15 @@ public class RealValue extends ElementValue {
     }
 
     public double get() {
-        return round(value, prec);
+        return rounded;
+    }
+
+    /**
+     * @return the value as whole nanometres, when it is in mm. Compares
+     * exactly.
+     */
+    public long getNanometres() {
+        return Nanometres.of(rounded);
     }
 
     public String getPrecise() {
@@ -87,6 +102,7 @@ public class RealValue extends ElementValue {
             value = getMin();
         }
         this.value = value;
+        this.rounded = roundFinite(value, prec);
 
         if (oldValue != this.value) {
             notifyValueChange();
@@ -134,6 +150,16 @@ public class RealValue extends ElementValue {
         }
     }
 
+    /**
+     * Values that can't be rounded, like NaN, are kept as they are.
+     */
+    private static double roundFinite(double value, int places) {
+        if (!Double.isFinite(value)) {
+            return value;
+        }
+        return round(value, places);
+    }
+
     @Override
     public String toString() {
         return String.valueOf(getPrecise());
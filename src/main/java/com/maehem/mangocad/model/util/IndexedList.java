@@ -0,0 +1,189 @@
+/*
+    Licensed to the Apache Software Foundation (ASF) under one or more
+    contributor license agreements.  See the NOTICE file distributed with this
+    work for additional information regarding copyright ownership.  The ASF
+    licenses this file to you under the Apache License, Version 2.0
+    (the "License"); you may not use this file except in compliance with the
+    License.  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+    License for the specific language governing permissions and limitations
+    under the License.
+ */
+package com.maehem.mangocad.model.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * A list of model objects that can also be looked up by name.
+ *
+ * Callers still add and remove through the list as before. The name index
+ * is built on the first lookup after the list or a name in it changed, so a
+ * run of lookups costs one pass over the list instead of one pass each.
+ * Adds and removes are seen through the list's modification count. An
+ * {@link Item} added to the list is told so, and tells this list, and no
+ * other, when its name changes.
+ *
+ * When names repeat, the first in the list is found, as with a scan.
+ *
+ * Changes and lookups lock the list, so lookups may run from many threads,
+ * as when a board preview works on its nets in parallel. Iterating is not
+ * locked, so as with any ArrayList, don't change the list while another
+ * thread walks it.
+ *
+ * An {@link Item} is in one indexed list at a time. Adding it to a second
+ * list sends its rename notices there, and the first list would miss them.
+ *
+ * @param <T> type of item.
+ *
+ * @author Mark J Koch ( @maehem on GitHub )
+ */
+public class IndexedList<T> extends ArrayList<T> {
+
+    /**
+     * An item that can tell the list holding it that its name changed. It
+     * tells only the last list it was added to.
+     */
+    public interface Item {
+
+        /**
+         * @param list now holding the item, in place of any before it.
+         */
+        void setIndexedIn(IndexedList<?> list);
+    }
+
+    private final transient Function<T, String> key;
+
+    private transient Map<String, T> index = null;
+    private transient int indexedModCount;
+    private transient long renames = 0;
+
+    /**
+     * @param key name of an item, or null if it has none.
+     */
+    public IndexedList(Function<T, String> key) {
+        this.key = key;
+    }
+
+    /**
+     * Tell the list that the name of an item in it has changed.
+     */
+    public synchronized void renamed() {
+        renames++;
+        index = null;
+    }
+
+    /**
+     * @return a number that grows whenever the list, or a name in it,
+     * changes.
+     */
+    public synchronized long version() {
+        return modCount + renames;
+    }
+
+    /**
+     * @param name to look for.
+     * @return the first item with that name, or null if none.
+     */
+    public synchronized T find(String name) {
+        if (name == null) {
+            return null;
+        }
+        if (index == null || indexedModCount != modCount) {
+            Map<String, T> map = new HashMap<>(size() * 2);
+            for (T item : this) {
+                String k = key.apply(item);
+                if (k != null) {
+                    map.putIfAbsent(k, item);
+                }
+            }
+            index = map;
+            indexedModCount = modCount;
+        }
+        return index.get(name);
+    }
+
+    @Override
+    public synchronized boolean add(T item) {
+        own(item);
+        return super.add(item);
+    }
+
+    @Override
+    public synchronized void add(int i, T item) {
+        own(item);
+        super.add(i, item);
+    }
+
+    @Override
+    public synchronized boolean addAll(Collection<? extends T> items) {
+        items.forEach(this::own);
+        return super.addAll(items);
+    }
+
+    @Override
+    public synchronized boolean addAll(int i, Collection<? extends T> items) {
+        items.forEach(this::own);
+        return super.addAll(i, items);
+    }
+
+    // set() is not counted as a modification by ArrayList.
+    @Override
+    public synchronized T set(int i, T item) {
+        own(item);
+        modCount++;
+        return super.set(i, item);
+    }
+
+    @Override
+    public synchronized T remove(int i) {
+        return super.remove(i);
+    }
+
+    @Override
+    public synchronized boolean remove(Object item) {
+        return super.remove(item);
+    }
+
+    @Override
+    public synchronized boolean removeAll(Collection<?> items) {
+        return super.removeAll(items);
+    }
+
+    @Override
+    public synchronized boolean retainAll(Collection<?> items) {
+        return super.retainAll(items);
+    }
+
+    @Override
+    public synchronized boolean removeIf(Predicate<? super T> filter) {
+        return super.removeIf(filter);
+    }
+
+    @Override
+    public synchronized void replaceAll(UnaryOperator<T> operator) {
+        super.replaceAll(operator);
+        forEach(this::own);
+    }
+
+    @Override
+    public synchronized void clear() {
+        super.clear();
+    }
+
+    private void own(T item) {
+        if (item instanceof Item i) {
+            i.setIndexedIn(this);
+        }
+    }
+}
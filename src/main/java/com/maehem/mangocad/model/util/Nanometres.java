@@ -0,0 +1,58 @@
+/*
+    Licensed to the Apache Software Foundation (ASF) under one or more
+    contributor license agreements.  See the NOTICE file distributed with this
+    work for additional information regarding copyright ownership.  The ASF
+    licenses this file to you under the Apache License, Version 2.0
+    (the "License"); you may not use this file except in compliance with the
+    License.  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+    License for the specific language governing permissions and limitations
+    under the License.
+ */
+package com.maehem.mangocad.model.util;
+
+/**
+ * Whole nanometre coordinates.
+ *
+ * Model coordinates are mm kept to six places, which is one nanometre. As
+ * whole nanometres they compare exactly.
+ *
+ * @author Mark J Koch ( @maehem on GitHub )
+ */
+public final class Nanometres {
+
+    public static final double PER_MM = 1_000_000.0;
+
+    private Nanometres() {
+    }
+
+    /**
+     * @param mm value in mm.
+     * @return nearest whole nanometre.
+     */
+    public static long of(double mm) {
+        return Math.round(mm * PER_MM);
+    }
+
+    /**
+     * @param nm value in nanometres.
+     * @return the value in mm.
+     */
+    public static double toMM(long nm) {
+        return nm / PER_MM;
+    }
+
+    /**
+     * @param mm value in mm.
+     * @return the value moved to the nearest whole nanometre, in mm.
+     */
+    public static double snap(double mm) {
+        return toMM(of(mm));
+    }
+
+}
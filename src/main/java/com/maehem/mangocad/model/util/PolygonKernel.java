@@ -0,0 +1,890 @@
+/*
+    Licensed to the Apache Software Foundation (ASF) under one or more
+    contributor license agreements.  See the NOTICE file distributed with this
+    work for additional information regarding copyright ownership.  The ASF
+    licenses this file to you under the Apache License, Version 2.0
+    (the "License"); you may not use this file except in compliance with the
+    License.  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+    License for the specific language governing permissions and limitations
+    under the License.
+ */
+package com.maehem.mangocad.model.util;
+
+import com.maehem.mangocad.model.element.basic.PadSMD;
+import com.maehem.mangocad.model.element.basic.PadTHD;
+import com.maehem.mangocad.model.element.basic.PolygonElement;
+import com.maehem.mangocad.model.element.basic.TextElement;
+import com.maehem.mangocad.model.element.basic.Vertex;
+import com.maehem.mangocad.model.element.basic.Wire;
+import java.awt.geom.Area;
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Polygon clipping and offsetting for copper pours, thermals and isolation,
+ * without JavaFX.
+ *
+ * Works on {@link Region}s in model units with Y up. Arcs in wires, polygon
+ * edges and pad corners are turned into straight edges that stray no more
+ * than the arc tolerance from the true curve.
+ *
+ * The boolean operations are done by java.awt.geom.Area, which is plain Java
+ * and needs no display. A kernel holds no state besides its settings, so
+ * one kernel may be used from many threads at once.
+ *
+ * A fixed point kernel puts the results of boolean operations and offsets
+ * on the whole nanometre grid of {@link Nanometres}. The same shapes then
+ * give exactly the same points, and fingerprints, on every run.
+ *
+ * @author Mark J Koch ( @maehem on GitHub )
+ */
+public class PolygonKernel {
+
+    /**
+     * Default arc tolerance in mm. Ten microns is far below what a board
+     * house can make or a screen can show.
+     */
+    public static final double DEFAULT_ARC_TOLERANCE = 0.01;
+
+    /**
+     * Wires can't be 0 width. Same limit as the editor draws with.
+     */
+    public static final double MIN_WIRE_WIDTH = 0.03; // 6mil
+
+    // Long and offset pads are twice as long as wide.
+    private static final double PAD_LONG_MULT = 2.0;
+
+    // Points closer than this are the same point. Far below any tolerance,
+    // far above rounding noise.
+    private static final double SAME_POINT = 1e-9;
+
+    private final double arcTolerance;
+    private final boolean fixedPoint;
+
+    public PolygonKernel() {
+        this(DEFAULT_ARC_TOLERANCE);
+    }
+
+    /**
+     * @param arcTolerance furthest a straight edge may stray from the arc it
+     * stands in for.
+     */
+    public PolygonKernel(double arcTolerance) {
+        this(arcTolerance, false);
+    }
+
+    /**
+     * @param arcTolerance furthest a straight edge may stray from the arc it
+     * stands in for.
+     * @param fixedPoint put results on the nanometre grid.
+     */
+    public PolygonKernel(double arcTolerance, boolean fixedPoint) {
+        if (!(arcTolerance > 0)) {
+            throw new IllegalArgumentException("Arc tolerance must be more than zero: " + arcTolerance);
+        }
+        this.arcTolerance = arcTolerance;
+        this.fixedPoint = fixedPoint;
+    }
+
+    public double getArcTolerance() {
+        return arcTolerance;
+    }
+
+    public boolean isFixedPoint() {
+        return fixedPoint;
+    }
+
+    // ---------------------------------------------------------------------
+    // Boolean operations
+    // ---------------------------------------------------------------------
+    public Region union(Region a, Region b) {
+        if (a.isEmpty()) {
+            return b;
+        }
+        if (b.isEmpty()) {
+            return a;
+        }
+        Area area = toArea(a);
+        area.add(toArea(b));
+        return toRegion(area);
+    }
+
+    /**
+     * Union of many regions. They are merged in pairs, then pairs of pairs
+     * and so on, which keeps each merge small instead of growing one big
+     * result a piece at a time.
+     *
+     * @param regions to merge
+     * @return the union, or an empty region.
+     */
+    public Region union(Collection<Region> regions) {
+        List<Area> areas = new ArrayList<>(regions.size());
+        for (Region r : regions) {
+            if (!r.isEmpty()) {
+                areas.add(toArea(r));
+            }
+        }
+        if (areas.isEmpty()) {
+            return Region.EMPTY;
+        }
+        return toRegion(unionAreas(areas));
+    }
+
+    public Region subtract(Region a, Region b) {
+        if (!a.boundsOverlap(b)) {
+            return a;
+        }
+        Area area = toArea(a);
+        area.subtract(toArea(b));
+        return toRegion(area);
+    }
+
+    public Region intersect(Region a, Region b) {
+        if (!a.boundsOverlap(b)) {
+            return Region.EMPTY;
+        }
+        Area area = toArea(a);
+        area.intersect(toArea(b));
+        return toRegion(area);
+    }
+
+    /**
+     * @param a region
+     * @param b region
+     * @return true if the regions share any area.
+     */
+    public boolean intersects(Region a, Region b) {
+        if (!a.boundsOverlap(b)) {
+            return false;
+        }
+        Area area = toArea(a);
+        area.intersect(toArea(b));
+        return !area.isEmpty();
+    }
+
+    /**
+     * Grow or shrink a region. Corners that grow become round.
+     *
+     * @param r region
+     * @param distance to grow by, or shrink by if less than zero.
+     * @return the new region.
+     */
+    public Region offset(Region r, double distance) {
+        if (distance == 0 || r.isEmpty()) {
+            return r;
+        }
+        if (distance > 0) {
+            return toRegion(grow(toArea(r), distance));
+        }
+        // Shrinking is growing the outside, then taking it away.
+        double d = -distance;
+        Area inside = toArea(r);
+        Area outside = new Area(new java.awt.geom.Rectangle2D.Double(
+                r.getMinX() - 2 * d, r.getMinY() - 2 * d,
+                r.getMaxX() - r.getMinX() + 4 * d, r.getMaxY() - r.getMinY() + 4 * d
+        ));
+        outside.subtract(inside);
+        inside.subtract(grow(outside, d));
+        return toRegion(inside);
+    }
+
+    /**
+     * Grow an area by running each ring's edges out along their normals and
+     * joining them with arcs at outside corners. The raw rings may loop over
+     * themselves; filling them non-zero and adding the original area sorts
+     * that out in one pass.
+     */
+    private Area grow(Area area, double d) {
+        Region r = toRegion(area); // Outlines and holes wound opposite ways.
+        double outer = 0;
+        for (double[] ring : r.getRings()) {
+            double a = Region.signedArea(ring);
+            if (Math.abs(a) > Math.abs(outer)) {
+                outer = a;
+            }
+        }
+        // Normals on the right point out of counter clockwise outlines.
+        double side = outer > 0 ? 1 : -1;
+        Path2D.Double raw = new Path2D.Double(Path2D.WIND_NON_ZERO);
+        for (double[] ring : r.getRings()) {
+            double[] o = offsetRing(ring, d, side);
+            if (o.length >= 6) {
+                raw.moveTo(o[0], o[1]);
+                for (int i = 2; i < o.length; i += 2) {
+                    raw.lineTo(o[i], o[i + 1]);
+                }
+                raw.closePath();
+            }
+        }
+        Area grown = new Area(raw);
+        grown.add(area);
+        return grown;
+    }
+
+    private double[] offsetRing(double[] ring, double d, double side) {
+        ring = dropRepeats(ring);
+        int n = ring.length / 2;
+        if (n > 1 && Math.abs(ring[0] - ring[n * 2 - 2]) <= SAME_POINT && Math.abs(ring[1] - ring[n * 2 - 1]) <= SAME_POINT) {
+            n--; // Closed back on its first point.
+        }
+        PointList out = new PointList();
+        // Miter instead of arc while the miter tip stays within tolerance.
+        double miterLimit = 1.0 / (1.0 + arcTolerance / d);
+        for (int i = 0; i < n; i++) {
+            int a = (i + n - 1) % n;
+            int c = (i + 1) % n;
+            double px = ring[i * 2], py = ring[i * 2 + 1];
+            double e1x = px - ring[a * 2], e1y = py - ring[a * 2 + 1];
+            double e2x = ring[c * 2] - px, e2y = ring[c * 2 + 1] - py;
+            double l1 = Math.hypot(e1x, e1y);
+            double l2 = Math.hypot(e2x, e2y);
+            if (l1 == 0 || l2 == 0) {
+                continue; // Repeated point.
+            }
+            // Outward normals of the edges before and after this corner.
+            double n1x = side * e1y / l1, n1y = -side * e1x / l1;
+            double n2x = side * e2y / l2, n2y = -side * e2x / l2;
+            double cos = n1x * n2x + n1y * n2y;
+            // Doubling straight back is the end of a line. Go round it.
+            boolean reverses = cos < -1 + 1e-9;
+            double turn = reverses ? side * Math.PI : Math.atan2(n1x * n2y - n1y * n2x, cos);
+            if (!reverses && n2x * e1x + n2y * e1y <= 0) {
+                // Inside corner, or straight on. The loop this makes is
+                // filled over.
+                out.add(px + d * n1x, py + d * n1y);
+                if (Math.abs(turn) > 0) {
+                    out.add(px, py);
+                    out.add(px + d * n2x, py + d * n2y);
+                }
+            } else if (!reverses && Math.cos(turn / 2) >= miterLimit) {
+                double m = d / (1.0 + cos);
+                out.add(px + m * (n1x + n2x), py + m * (n1y + n2y));
+            } else {
+                addArc(out, px, py, d, Math.atan2(n1y, n1x), turn, true);
+            }
+        }
+        return out.toArray();
+    }
+
+    // ---------------------------------------------------------------------
+    // Simple shapes
+    // ---------------------------------------------------------------------
+    public Region circle(double cx, double cy, double radius) {
+        if (radius <= 0) {
+            return Region.EMPTY;
+        }
+        return Region.of(circleRing(cx, cy, radius));
+    }
+
+    /**
+     * @param cx center
+     * @param cy center
+     * @param width before rotating
+     * @param height before rotating
+     * @param rot degrees counter clockwise about the center.
+     * @return the rectangle
+     */
+    public Region rectangle(double cx, double cy, double width, double height, double rot) {
+        return roundedRectangle(cx, cy, width, height, 0, rot);
+    }
+
+    /**
+     * @param cx center
+     * @param cy center
+     * @param width before rotating
+     * @param height before rotating
+     * @param radius of the corners. Limited to half the shorter side.
+     * @param rot degrees counter clockwise about the center.
+     * @return the rectangle
+     */
+    public Region roundedRectangle(double cx, double cy, double width, double height, double radius, double rot) {
+        if (width <= 0 || height <= 0) {
+            return Region.EMPTY;
+        }
+        double w2 = width / 2.0;
+        double h2 = height / 2.0;
+        radius = Math.min(Math.max(0, radius), Math.min(w2, h2));
+        PointList ring = new PointList();
+        if (radius == 0) {
+            ring.add(-w2, -h2);
+            ring.add(w2, -h2);
+            ring.add(w2, h2);
+            ring.add(-w2, h2);
+        } else {
+            double ix = w2 - radius;
+            double iy = h2 - radius;
+            addArc(ring, ix, -iy, radius, -Math.PI / 2, Math.PI / 2, true);
+            addArc(ring, ix, iy, radius, 0, Math.PI / 2, true);
+            addArc(ring, -ix, iy, radius, Math.PI / 2, Math.PI / 2, true);
+            addArc(ring, -ix, -iy, radius, Math.PI, Math.PI / 2, true);
+        }
+        return Region.of(ring.toArray()).transform(cx, cy, rot, false);
+    }
+
+    /**
+     * A straight line drawn with a pen.
+     *
+     * @param x1 start
+     * @param y1 start
+     * @param x2 end
+     * @param y2 end
+     * @param width of the pen
+     * @param roundCaps round ends, else square ends that reach half the
+     * width past the end points.
+     * @return the stroke
+     */
+    public Region segment(double x1, double y1, double x2, double y2, double width, boolean roundCaps) {
+        return stroke(new double[]{x1, y1, x2, y2}, width, roundCaps);
+    }
+
+    /**
+     * An open line of points drawn with a pen.
+     *
+     * @param points x,y pairs
+     * @param width of the pen
+     * @param roundCaps round ends and joints, else square ends.
+     * @return the stroke
+     */
+    public Region stroke(double[] points, double width, boolean roundCaps) {
+        if (width <= 0 || points.length < 2) {
+            return Region.EMPTY;
+        }
+        points = dropRepeats(points);
+        double h = width / 2.0;
+        int n = points.length / 2;
+        if (roundCaps) {
+            if (n == 1) {
+                return circle(points[0], points[1], h); // A line of no length is still a dot.
+            }
+            // Out along one side and back along the other, as a ring.
+            double[] ring = new double[(n * 2 - 2) * 2];
+            System.arraycopy(points, 0, ring, 0, points.length);
+            for (int i = n - 2, j = n; i > 0; i--, j++) {
+                ring[j * 2] = points[i * 2];
+                ring[j * 2 + 1] = points[i * 2 + 1];
+            }
+            return toRegion(new Area(toPath(List.of(offsetRing(ring, h, 1)), Path2D.WIND_NON_ZERO)));
+        }
+        Path2D.Double path = new Path2D.Double(Path2D.WIND_NON_ZERO);
+        boolean drawn = false;
+        for (int i = 0; i < n - 1; i++) {
+            double x1 = points[i * 2], y1 = points[i * 2 + 1];
+            double x2 = points[i * 2 + 2], y2 = points[i * 2 + 3];
+            double len = Math.hypot(x2 - x1, y2 - y1);
+            if (len == 0) {
+                continue;
+            }
+            double ex = (x2 - x1) / len * h;
+            double ey = (y2 - y1) / len * h;
+            if (i == 0) {
+                x1 -= ex;
+                y1 -= ey;
+            }
+            if (i == n - 2) {
+                x2 += ex;
+                y2 += ey;
+            }
+            addPiece(path, edgeQuad(x1, y1, x2, y2, h));
+            drawn = true;
+            if (i > 0) {
+                addWedges(path, points, i - 1, i, i + 1, h);
+            }
+        }
+        if (!drawn) {
+            return rectangle(points[0], points[1], width, width, 0);
+        }
+        return toRegion(new Area(path));
+    }
+
+    // ---------------------------------------------------------------------
+    // Model elements
+    // ---------------------------------------------------------------------
+    /**
+     * Copper of a wire, straight or curved, with round ends.
+     *
+     * @param w wire
+     * @return area the wire covers.
+     */
+    public Region wire(Wire w) {
+        return wire(w, Math.max(w.getWidth(), MIN_WIRE_WIDTH));
+    }
+
+    /**
+     * A wire's path drawn with another pen. Handy for isolation.
+     *
+     * @param w wire
+     * @param width of the pen
+     * @return area the pen covers.
+     */
+    public Region wire(Wire w, double width) {
+        PointList line = new PointList();
+        line.add(w.getX1(), w.getY1());
+        addEdge(line, w.getX1(), w.getY1(), w.getX2(), w.getY2(), w.curveProperty.get());
+        return stroke(line.toArray(), width, true);
+    }
+
+    /**
+     * Area a vector font text covers, drawn with its own pen.
+     *
+     * @param t text
+     * @return area the text covers.
+     */
+    public Region text(TextElement t) {
+        return text(t, null, Math.max(t.getDerivedStroke(), MIN_WIRE_WIDTH));
+    }
+
+    /**
+     * A text's strokes drawn with another pen. Handy for isolation.
+     *
+     * @param t text
+     * @param value what to write, or null for the text's own value.
+     * @param width of the pen
+     * @return area the pen covers.
+     */
+    public Region text(TextElement t, String value, double width) {
+        List<Region> strokes = new ArrayList<>();
+        for (double[] line : StrokeFont.layout(t, value)) {
+            strokes.add(stroke(line, width, true));
+        }
+        return union(strokes);
+    }
+
+    /**
+     * The inside of a polygon's outline. Edges may be curved. The width of
+     * the outline is not added; offset by half of it for that.
+     *
+     * @param poly polygon
+     * @return area inside the outline.
+     */
+    public Region polygon(PolygonElement poly) {
+        List<Vertex> vertices = poly.getVertices();
+        if (vertices.size() < 3 && !hasCurve(vertices)) {
+            return Region.EMPTY;
+        }
+        PointList ring = new PointList();
+        for (int i = 0; i < vertices.size(); i++) {
+            Vertex v = vertices.get(i);
+            Vertex next = vertices.get((i + 1) % vertices.size());
+            ring.add(v.getX(), v.getY());
+            addEdge(ring, v.getX(), v.getY(), next.getX(), next.getY(), v.curveProperty.get());
+            ring.removeLast(); // The next vertex adds it.
+        }
+        return toRegion(areaOf(ring.toArray()));
+    }
+
+    /**
+     * The area closed in by a chain of wires, such as a board outline. A
+     * wire that does not start where the last one ended begins a new
+     * outline.
+     *
+     * @param wires in drawing order.
+     * @return the area inside.
+     */
+    public Region outline(List<Wire> wires) {
+        List<double[]> rings = new ArrayList<>();
+        PointList ring = null;
+        double lastX = 0;
+        double lastY = 0;
+        for (Wire w : wires) {
+            if (ring == null || w.getX1() != lastX || w.getY1() != lastY) {
+                if (ring != null) {
+                    rings.add(ring.toArray());
+                }
+                ring = new PointList();
+                ring.add(w.getX1(), w.getY1());
+            }
+            addEdge(ring, w.getX1(), w.getY1(), w.getX2(), w.getY2(), w.curveProperty.get());
+            lastX = w.getX2();
+            lastY = w.getY2();
+        }
+        if (ring != null) {
+            rings.add(ring.toArray());
+        }
+        return toRegion(new Area(toPath(rings, Path2D.WIND_EVEN_ODD)));
+    }
+
+    /**
+     * Copper of a through hole pad, in package coordinates.
+     *
+     * @param pad pad
+     * @return the pad shape.
+     */
+    public Region pad(PadTHD pad) {
+        double d = pad.getDerivedDiameter();
+        double r = d / 2.0;
+        double x = pad.getX();
+        double y = pad.getY();
+        double rot = pad.getRot();
+        switch (pad.getShape()) {
+            case SQUARE -> {
+                return rectangle(x, y, d, d, rot);
+            }
+            case OCTOGON -> {
+                double n = r * 0.383;
+                return Region.of(
+                        -n, -r, n, -r, r, -n, r, n,
+                        n, r, -n, r, -r, n, -r, -n
+                ).transform(x, y, rot, false);
+            }
+            case LONG -> {
+                return roundedRectangle(0, 0, d * PAD_LONG_MULT, d, r, 0).transform(x, y, rot, false);
+            }
+            case OFFSET -> {
+                // Round end on the drill, long end pointing away.
+                return roundedRectangle(r, 0, d * PAD_LONG_MULT, d, r, 0).transform(x, y, rot, false);
+            }
+            default -> { // ROUND
+                return circle(x, y, r);
+            }
+        }
+    }
+
+    /**
+     * Copper of a surface mount pad, in package coordinates.
+     *
+     * @param smd pad
+     * @return the pad shape.
+     */
+    public Region pad(PadSMD smd) {
+        double w = smd.getWidth();
+        double h = smd.getHeight();
+        // 100% roundness is a radius of half the shorter side.
+        double radius = Math.min(w, h) * smd.getRoundness() * 0.01 / 2.0;
+        return roundedRectangle(smd.getX(), smd.getY(), w, h, radius, smd.getRot());
+    }
+
+    /**
+     * Thermal spokes of a through hole pad, in package coordinates. The
+     * spokes reach past the pad far enough to cross its isolation.
+     *
+     * @param pad pad
+     * @param isolation gap between the pad and the pour.
+     * @param minSpokeWidth spoke width, but no wider than the drill radius.
+     * @return two crossed spokes.
+     */
+    public Region thermal(PadTHD pad, double isolation, double minSpokeWidth) {
+        double d = pad.getDerivedDiameter();
+        double spokeW = Math.min(minSpokeWidth, pad.getDrill() / 2.0);
+        double cx = 0;
+        double length = d;
+        switch (pad.getShape()) {
+            case LONG -> {
+                length = d * PAD_LONG_MULT;
+            }
+            case OFFSET -> {
+                length = d * PAD_LONG_MULT;
+                cx = d / 2.0;
+            }
+            default -> {
+            }
+        }
+        return spokes(cx, 0, length + isolation * 2.0, length + isolation * 2.0, spokeW)
+                .transform(pad.getX(), pad.getY(), pad.getRot(), false);
+    }
+
+    /**
+     * Thermal spokes of a surface mount pad, in package coordinates.
+     *
+     * @param smd pad
+     * @param isolation gap between the pad and the pour.
+     * @param minSpokeWidth spokes are at least this wide. They are made
+     * half the shorter side of the pad when that is wider.
+     * @return two crossed spokes.
+     */
+    public Region thermal(PadSMD smd, double isolation, double minSpokeWidth) {
+        double w = smd.getWidth();
+        double h = smd.getHeight();
+        double spokeW = Math.max(minSpokeWidth, Math.min(w / 2, h / 2));
+        return spokes(0, 0, w + isolation * 2.0, h + isolation * 2.0, spokeW)
+                .transform(smd.getX(), smd.getY(), smd.getRot(), false);
+    }
+
+    private Region spokes(double cx, double cy, double lengthH, double lengthV, double width) {
+        Path2D.Double path = new Path2D.Double(Path2D.WIND_NON_ZERO);
+        // Square ends, like a stroked line.
+        addPiece(path, edgeQuad(cx - lengthH / 2 - width / 2, cy, cx + lengthH / 2 + width / 2, cy, width / 2));
+        addPiece(path, edgeQuad(cx, cy - lengthV / 2 - width / 2, cx, cy + lengthV / 2 + width / 2, width / 2));
+        return toRegion(new Area(path));
+    }
+
+    // ---------------------------------------------------------------------
+    // Arcs
+    // ---------------------------------------------------------------------
+    /**
+     * @param radius of the arc
+     * @param sweep radians
+     * @return number of straight edges needed to stay within tolerance.
+     */
+    public int arcSegments(double radius, double sweep) {
+        double step = Math.PI / 4; // At least eight for a full circle.
+        if (radius > arcTolerance) {
+            step = Math.min(step, 2.0 * Math.acos(1.0 - arcTolerance / radius));
+        }
+        return Math.max(1, (int) Math.ceil(Math.abs(sweep) / step));
+    }
+
+    /**
+     * Add the points of an Eagle style edge, after its start point.
+     *
+     * @param curve degrees of arc. Positive is counter clockwise. Zero is a
+     * straight edge.
+     */
+    private void addEdge(PointList out, double x1, double y1, double x2, double y2, double curve) {
+        double chord = Math.hypot(x2 - x1, y2 - y1);
+        if (curve == 0.0 || chord == 0) {
+            out.add(x2, y2);
+            return;
+        }
+        double theta = Math.toRadians(curve);
+        // Center sits on the chord's bisector, left of it for a counter
+        // clockwise arc of under 180 degrees.
+        double d = (chord / 2.0) / Math.tan(theta / 2.0);
+        double cx = (x1 + x2) / 2.0 - (y2 - y1) / chord * d;
+        double cy = (y1 + y2) / 2.0 + (x2 - x1) / chord * d;
+        double radius = Math.hypot(x1 - cx, y1 - cy);
+        double start = Math.atan2(y1 - cy, x1 - cx);
+        addArc(out, cx, cy, radius, start, theta, false);
+        out.setLast(x2, y2); // Land exactly on the end point.
+    }
+
+    private void addArc(PointList out, double cx, double cy, double radius, double start, double sweep, boolean withStart) {
+        int n = arcSegments(radius, sweep);
+        for (int i = withStart ? 0 : 1; i <= n; i++) {
+            double a = start + sweep * i / n;
+            out.add(cx + radius * Math.cos(a), cy + radius * Math.sin(a));
+        }
+    }
+
+    private double[] circleRing(double cx, double cy, double radius) {
+        PointList ring = new PointList();
+        addArc(ring, cx, cy, radius, 0, 2 * Math.PI, true);
+        ring.removeLast(); // Same as the first.
+        return ring.toArray();
+    }
+
+    private static boolean hasCurve(List<Vertex> vertices) {
+        for (Vertex v : vertices) {
+            if (v.curveProperty.get() != 0.0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ---------------------------------------------------------------------
+    // Stroking
+    // ---------------------------------------------------------------------
+    private static double[] dropRepeats(double[] points) {
+        PointList kept = new PointList();
+        for (int i = 0; i + 1 < points.length; i += 2) {
+            if (!kept.endsAt(points[i], points[i + 1])) {
+                kept.add(points[i], points[i + 1]);
+            }
+        }
+        return kept.toArray();
+    }
+
+    private static double[] edgeQuad(double x1, double y1, double x2, double y2, double h) {
+        double len = Math.hypot(x2 - x1, y2 - y1);
+        double nx = -(y2 - y1) / len * h;
+        double ny = (x2 - x1) / len * h;
+        return new double[]{
+            x1 - nx, y1 - ny,
+            x2 - nx, y2 - ny,
+            x2 + nx, y2 + ny,
+            x1 + nx, y1 + ny
+        };
+    }
+
+    /**
+     * Fill the gaps between the boxes of edge a-b and edge b-c at corner b.
+     */
+    private void addWedges(Path2D.Double path, double[] pts, int a, int b, int c, double h) {
+        double bx = pts[b * 2], by = pts[b * 2 + 1];
+        double a1 = Math.atan2(by - pts[a * 2 + 1], bx - pts[a * 2]);
+        double a2 = Math.atan2(pts[c * 2 + 1] - by, pts[c * 2] - bx);
+        if ((bx == pts[a * 2] && by == pts[a * 2 + 1]) || (bx == pts[c * 2] && by == pts[c * 2 + 1])) {
+            return; // Repeated point. No corner here.
+        }
+        double turn = a2 - a1;
+        while (turn > Math.PI) {
+            turn -= 2 * Math.PI;
+        }
+        while (turn <= -Math.PI) {
+            turn += 2 * Math.PI;
+        }
+        if (turn == 0) {
+            return;
+        }
+        for (double side : new double[]{Math.PI / 2, -Math.PI / 2}) {
+            PointList wedge = new PointList();
+            wedge.add(bx, by);
+            addArc(wedge, bx, by, h, a1 + side, turn, true);
+            addPiece(path, wedge.toArray());
+        }
+    }
+
+    /**
+     * Add a simple ring to a non-zero path, turned counter clockwise so that
+     * overlapping pieces merge into one area.
+     */
+    private static void addPiece(Path2D.Double path, double[] ring) {
+        boolean reverse = Region.signedArea(ring) < 0;
+        int n = ring.length / 2;
+        for (int k = 0; k < n; k++) {
+            int i = reverse ? n - 1 - k : k;
+            if (k == 0) {
+                path.moveTo(ring[i * 2], ring[i * 2 + 1]);
+            } else {
+                path.lineTo(ring[i * 2], ring[i * 2 + 1]);
+            }
+        }
+        path.closePath();
+    }
+
+    // ---------------------------------------------------------------------
+    // Area conversion
+    // ---------------------------------------------------------------------
+    private static Area unionAreas(List<Area> areas) {
+        while (areas.size() > 1) {
+            List<Area> merged = new ArrayList<>((areas.size() + 1) / 2);
+            for (int i = 0; i < areas.size(); i += 2) {
+                Area a = areas.get(i);
+                if (i + 1 < areas.size()) {
+                    a.add(areas.get(i + 1));
+                }
+                merged.add(a);
+            }
+            areas = merged;
+        }
+        return areas.get(0);
+    }
+
+    private static Area toArea(Region r) {
+        return new Area(toPath(r.getRings(), Path2D.WIND_EVEN_ODD));
+    }
+
+    /**
+     * A single ring that may cross itself, filled even-odd.
+     */
+    private static Area areaOf(double[] ring) {
+        return new Area(toPath(List.of(ring), Path2D.WIND_EVEN_ODD));
+    }
+
+    private static Path2D.Double toPath(List<double[]> rings, int windingRule) {
+        Path2D.Double path = new Path2D.Double(windingRule);
+        for (double[] ring : rings) {
+            if (ring.length < 6) {
+                continue;
+            }
+            path.moveTo(ring[0], ring[1]);
+            for (int i = 2; i < ring.length; i += 2) {
+                path.lineTo(ring[i], ring[i + 1]);
+            }
+            path.closePath();
+        }
+        return path;
+    }
+
+    private Region toRegion(Area area) {
+        if (area.isEmpty()) {
+            return Region.EMPTY;
+        }
+        List<double[]> rings = new ArrayList<>();
+        PointList ring = null;
+        double[] c = new double[6];
+        // Only lines go in, so only lines come out, but flatten to be safe.
+        for (PathIterator it = area.getPathIterator(null, arcTolerance); !it.isDone(); it.next()) {
+            switch (it.currentSegment(c)) {
+                case PathIterator.SEG_MOVETO -> {
+                    if (ring != null) {
+                        rings.add(ring.toArray());
+                    }
+                    ring = new PointList();
+                    ring.add(c[0], c[1]);
+                }
+                case PathIterator.SEG_LINETO -> {
+                    if (ring != null && !ring.endsAt(c[0], c[1])) {
+                        ring.add(c[0], c[1]);
+                    }
+                }
+                case PathIterator.SEG_CLOSE -> {
+                    if (ring != null) {
+                        if (ring.size() > 1 && ring.startsAt(ring.lastX(), ring.lastY())) {
+                            ring.removeLast();
+                        }
+                        rings.add(ring.toArray());
+                        ring = null;
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+        if (ring != null) {
+            rings.add(ring.toArray());
+        }
+        Region r = new Region(rings);
+        return fixedPoint ? r.snapToNanometres() : r;
+    }
+
+    /**
+     * Growable list of x,y pairs.
+     */
+    private static class PointList {
+
+        private double[] xy = new double[32];
+        private int length = 0;
+
+        void add(double x, double y) {
+            if (length + 2 > xy.length) {
+                xy = Arrays.copyOf(xy, xy.length * 2);
+            }
+            xy[length++] = x;
+            xy[length++] = y;
+        }
+
+        int size() {
+            return length / 2;
+        }
+
+        double lastX() {
+            return xy[length - 2];
+        }
+
+        double lastY() {
+            return xy[length - 1];
+        }
+
+        void setLast(double x, double y) {
+            xy[length - 2] = x;
+            xy[length - 1] = y;
+        }
+
+        void removeLast() {
+            length -= 2;
+        }
+
+        boolean endsAt(double x, double y) {
+            return length > 0 && Math.abs(lastX() - x) <= SAME_POINT && Math.abs(lastY() - y) <= SAME_POINT;
+        }
+
+        boolean startsAt(double x, double y) {
+            return length > 0 && Math.abs(xy[0] - x) <= SAME_POINT && Math.abs(xy[1] - y) <= SAME_POINT;
+        }
+
+        double[] toArray() {
+            return Arrays.copyOf(xy, length);
+        }
+    }
+}
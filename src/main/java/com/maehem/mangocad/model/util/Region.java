@@ -0,0 +1,275 @@
+/*
+    Licensed to the Apache Software Foundation (ASF) under one or more
+    contributor license agreements.  See the NOTICE file distributed with this
+    work for additional information regarding copyright ownership.  The ASF
+    licenses this file to you under the Apache License, Version 2.0
+    (the "License"); you may not use this file except in compliance with the
+    License.  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+    License for the specific language governing permissions and limitations
+    under the License.
+ */
+package com.maehem.mangocad.model.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An area of the plane made of straight edged rings, in model units and
+ * model orientation (Y up).
+ *
+ * Each ring is an array of x,y pairs. The last point joins back to the
+ * first. Rings are filled even-odd, so a ring inside another is a hole.
+ * Regions are never changed once made, so they can be shared between
+ * threads.
+ *
+ * Made and combined by {@link PolygonKernel}.
+ *
+ * @author Mark J Koch ( @maehem on GitHub )
+ */
+public final class Region {
+
+    public static final Region EMPTY = new Region(List.of());
+
+    private final List<double[]> rings;
+    private final double minX;
+    private final double minY;
+    private final double maxX;
+    private final double maxY;
+    private long fingerprint; // Worked out when first asked for.
+
+    /**
+     * @param rings each an array of x,y pairs. Rings of less than three
+     * points are dropped. The arrays are kept, not copied.
+     */
+    public Region(List<double[]> rings) {
+        List<double[]> kept = new ArrayList<>(rings.size());
+        double x0 = Double.MAX_VALUE, y0 = Double.MAX_VALUE;
+        double x1 = -Double.MAX_VALUE, y1 = -Double.MAX_VALUE;
+        for (double[] ring : rings) {
+            if (ring.length < 6) {
+                continue;
+            }
+            kept.add(ring);
+            for (int i = 0; i < ring.length; i += 2) {
+                x0 = Math.min(x0, ring[i]);
+                x1 = Math.max(x1, ring[i]);
+                y0 = Math.min(y0, ring[i + 1]);
+                y1 = Math.max(y1, ring[i + 1]);
+            }
+        }
+        this.rings = Collections.unmodifiableList(kept);
+        this.minX = x0;
+        this.minY = y0;
+        this.maxX = x1;
+        this.maxY = y1;
+    }
+
+    /**
+     * @param xy x,y pairs of a single ring.
+     * @return region of one ring.
+     */
+    public static Region of(double... xy) {
+        return new Region(List.of(xy));
+    }
+
+    public List<double[]> getRings() {
+        return rings;
+    }
+
+    public boolean isEmpty() {
+        return rings.isEmpty();
+    }
+
+    public double getMinX() {
+        return minX;
+    }
+
+    public double getMinY() {
+        return minY;
+    }
+
+    public double getMaxX() {
+        return maxX;
+    }
+
+    public double getMaxY() {
+        return maxY;
+    }
+
+    /**
+     * @param other region
+     * @return true if the bounding boxes of both regions overlap. A quick
+     * test before doing real work.
+     */
+    public boolean boundsOverlap(Region other) {
+        return !isEmpty() && !other.isEmpty()
+                && minX <= other.maxX && maxX >= other.minX
+                && minY <= other.maxY && maxY >= other.minY;
+    }
+
+    public int getVertexCount() {
+        int count = 0;
+        for (double[] ring : rings) {
+            count += ring.length / 2;
+        }
+        return count;
+    }
+
+    /**
+     * Filled area. Rings from the kernel's boolean operations wind holes
+     * opposite to outlines, so their signed areas simply add up.
+     *
+     * @return area in square model units.
+     */
+    public double getArea() {
+        double sum = 0;
+        for (double[] ring : rings) {
+            sum += signedArea(ring);
+        }
+        return Math.abs(sum);
+    }
+
+    /**
+     * @param ring x,y pairs
+     * @return area, positive when counter clockwise.
+     */
+    public static double signedArea(double[] ring) {
+        double sum = 0;
+        int n = ring.length;
+        for (int i = 0; i < n; i += 2) {
+            int j = (i + 2) % n;
+            sum += ring[i] * ring[j + 1] - ring[j] * ring[i + 1];
+        }
+        return sum / 2.0;
+    }
+
+    /**
+     * A 64 bit hash of every point, in order. Regions with the same
+     * fingerprint can be taken to be the same shape, which lets callers key
+     * cached work on the shapes that went into it.
+     *
+     * @return hash of the points, never zero.
+     */
+    public long getFingerprint() {
+        long h = fingerprint;
+        if (h == 0) {
+            h = rings.size();
+            for (double[] ring : rings) {
+                h = mix(h, ring.length);
+                for (double v : ring) {
+                    h = mix(h, Double.doubleToLongBits(v));
+                }
+            }
+            if (h == 0) {
+                h = 1;
+            }
+            fingerprint = h; // Racing threads work out the same value.
+        }
+        return h;
+    }
+
+    /**
+     * Fold a value into a 64 bit hash.
+     *
+     * @param h hash so far
+     * @param v value to add
+     * @return new hash
+     */
+    public static long mix(long h, long v) {
+        h = (h ^ v) * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 29);
+    }
+
+    /**
+     * Place the region the way an element places its package: mirror across
+     * the Y axis if asked, rotate counter clockwise about the origin, then
+     * move.
+     *
+     * @param x move by
+     * @param y move by
+     * @param rot degrees counter clockwise
+     * @param mirror across the Y axis, before rotating.
+     * @return placed region
+     */
+    public Region transform(double x, double y, double rot, boolean mirror) {
+        if (isEmpty() || (x == 0 && y == 0 && rot == 0 && !mirror)) {
+            return this;
+        }
+        double rad = Math.toRadians(rot);
+        double cos = Math.cos(rad);
+        double sin = Math.sin(rad);
+        List<double[]> placed = new ArrayList<>(rings.size());
+        for (double[] ring : rings) {
+            double[] p = new double[ring.length];
+            for (int i = 0; i < ring.length; i += 2) {
+                double px = mirror ? -ring[i] : ring[i];
+                double py = ring[i + 1];
+                p[i] = px * cos - py * sin + x;
+                p[i + 1] = px * sin + py * cos + y;
+            }
+            if (mirror) {
+                reverse(p); // Keep the winding of outlines and holes.
+            }
+            placed.add(p);
+        }
+        return new Region(placed);
+    }
+
+    /**
+     * Move every point to the nearest whole nanometre. Points that land on
+     * the one before are dropped.
+     *
+     * @return region on the nanometre grid.
+     */
+    public Region snapToNanometres() {
+        if (isEmpty()) {
+            return this;
+        }
+        List<double[]> snapped = new ArrayList<>(rings.size());
+        for (double[] ring : rings) {
+            double[] p = new double[ring.length];
+            int n = 0;
+            for (int i = 0; i < ring.length; i += 2) {
+                double x = Nanometres.snap(ring[i]);
+                double y = Nanometres.snap(ring[i + 1]);
+                if (n == 0 || x != p[n - 2] || y != p[n - 1]) {
+                    p[n++] = x;
+                    p[n++] = y;
+                }
+            }
+            if (n > 2 && p[0] == p[n - 2] && p[1] == p[n - 1]) {
+                n -= 2; // Last point joins back to the first anyway.
+            }
+            snapped.add(n == p.length ? p : Arrays.copyOf(p, n));
+        }
+        return new Region(snapped);
+    }
+
+    private static void reverse(double[] ring) {
+        for (int i = 0, j = ring.length - 2; i < j; i += 2, j -= 2) {
+            double tx = ring[i];
+            double ty = ring[i + 1];
+            ring[i] = ring[j];
+            ring[i + 1] = ring[j + 1];
+            ring[j] = tx;
+            ring[j + 1] = ty;
+        }
+    }
+
+    @Override
+    public String toString() {
+        if (isEmpty()) {
+            return "Region[empty]";
+        }
+        return "Region[" + rings.size() + " rings, " + getVertexCount() + " points, "
+                + minX + "," + minY + " to " + maxX + "," + maxY + "]";
+    }
+}
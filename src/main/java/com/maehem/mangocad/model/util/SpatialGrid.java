@@ -0,0 +1,195 @@
+/*
+    Licensed to the Apache Software Foundation (ASF) under one or more
+    contributor license agreements.  See the NOTICE file distributed with this
+    work for additional information regarding copyright ownership.  The ASF
+    licenses this file to you under the Apache License, Version 2.0
+    (the "License"); you may not use this file except in compliance with the
+    License.  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+    License for the specific language governing permissions and limitations
+    under the License.
+ */
+package com.maehem.mangocad.model.util;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Uniform grid over the plane for finding items by bounding box.
+ *
+ * Each item is filed in every cell its bounds touch. A query visits only the
+ * cells under the query box, so finding the neighbours of one item costs
+ * about the number of neighbours, not the number of items. Cells are made
+ * as they are needed, so the grid has no fixed extent.
+ *
+ * Results come back in the order the items were inserted. Not thread safe
+ * while inserting. Queries may run in parallel once filled.
+ *
+ * @author Mark J Koch ( @maehem on GitHub )
+ * @param <T> type of item
+ */
+public class SpatialGrid<T> {
+
+    // Keep a huge item from filling millions of cells.
+    private static final int MAX_CELLS_PER_AXIS = 1024;
+
+    private final double cellSize;
+    private final Map<Long, List<Integer>> cells = new HashMap<>();
+    private final List<T> items = new ArrayList<>();
+    private final List<double[]> bounds = new ArrayList<>();
+    private final List<Integer> oversized = new ArrayList<>();
+
+    /**
+     * @param cellSize width and height of a cell. About the size of a
+     * typical item works well.
+     */
+    public SpatialGrid(double cellSize) {
+        if (!(cellSize > 0)) {
+            throw new IllegalArgumentException("Cell size must be more than zero: " + cellSize);
+        }
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * Pick a cell size so that, on average, each cell holds about one item.
+     *
+     * @param minX of the area the items cover
+     * @param minY of the area the items cover
+     * @param maxX of the area the items cover
+     * @param maxY of the area the items cover
+     * @param count number of items
+     * @param minCellSize smallest cell size to return.
+     * @return a cell size
+     */
+    public static double suggestCellSize(double minX, double minY, double maxX, double maxY, int count, double minCellSize) {
+        double area = Math.max(0, maxX - minX) * Math.max(0, maxY - minY);
+        if (count <= 0 || area <= 0) {
+            return minCellSize;
+        }
+        return Math.max(minCellSize, Math.sqrt(area / count));
+    }
+
+    /**
+     * Add an item. Empty bounds (max less than min) are not filed and are
+     * never found.
+     *
+     * @param item to add
+     * @param minX of item bounds
+     * @param minY of item bounds
+     * @param maxX of item bounds
+     * @param maxY of item bounds
+     */
+    public void insert(T item, double minX, double minY, double maxX, double maxY) {
+        int id = items.size();
+        items.add(item);
+        bounds.add(new double[]{minX, minY, maxX, maxY});
+        if (maxX < minX || maxY < minY) {
+            return;
+        }
+        long x0 = cell(minX), x1 = cell(maxX);
+        long y0 = cell(minY), y1 = cell(maxY);
+        if (x1 - x0 >= MAX_CELLS_PER_AXIS || y1 - y0 >= MAX_CELLS_PER_AXIS) {
+            oversized.add(id); // Checked by every query.
+            return;
+        }
+        for (long x = x0; x <= x1; x++) {
+            for (long y = y0; y <= y1; y++) {
+                cells.computeIfAbsent(key(x, y), (k) -> new ArrayList<>()).add(id);
+            }
+        }
+    }
+
+    /**
+     * Find the items whose bounds overlap a box. Touching counts as
+     * overlapping.
+     *
+     * @param minX of the box
+     * @param minY of the box
+     * @param maxX of the box
+     * @param maxY of the box
+     * @return overlapping items in insertion order.
+     */
+    public List<T> query(double minX, double minY, double maxX, double maxY) {
+        BitSet found = queryIds(minX, minY, maxX, maxY);
+        List<T> result = new ArrayList<>(found.cardinality());
+        for (int id = found.nextSetBit(0); id >= 0; id = found.nextSetBit(id + 1)) {
+            result.add(items.get(id));
+        }
+        return result;
+    }
+
+    /**
+     * Like {@link #query}, but returns insertion indexes. Handy when the
+     * caller keeps parallel lists.
+     *
+     * @param minX of the box
+     * @param minY of the box
+     * @param maxX of the box
+     * @param maxY of the box
+     * @return set of insertion indexes.
+     */
+    public BitSet queryIds(double minX, double minY, double maxX, double maxY) {
+        BitSet found = new BitSet(items.size());
+        if (maxX < minX || maxY < minY) {
+            return found;
+        }
+        long x0 = cell(minX), x1 = cell(maxX);
+        long y0 = cell(minY), y1 = cell(maxY);
+        if ((x1 - x0 + 1) * (y1 - y0 + 1) > cells.size()) {
+            // Box covers more cells than exist. Check every item instead.
+            for (int id = 0; id < items.size(); id++) {
+                check(id, minX, minY, maxX, maxY, found);
+            }
+            return found;
+        }
+        for (long x = x0; x <= x1; x++) {
+            for (long y = y0; y <= y1; y++) {
+                List<Integer> ids = cells.get(key(x, y));
+                if (ids != null) {
+                    for (int id : ids) {
+                        check(id, minX, minY, maxX, maxY, found);
+                    }
+                }
+            }
+        }
+        for (int id : oversized) {
+            check(id, minX, minY, maxX, maxY, found);
+        }
+        return found;
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    public T get(int id) {
+        return items.get(id);
+    }
+
+    private void check(int id, double minX, double minY, double maxX, double maxY, BitSet found) {
+        if (found.get(id)) {
+            return;
+        }
+        double[] b = bounds.get(id);
+        if (b[2] >= b[0] && b[3] >= b[1]
+                && b[0] <= maxX && b[2] >= minX && b[1] <= maxY && b[3] >= minY) {
+            found.set(id);
+        }
+    }
+
+    private long cell(double v) {
+        return (long) Math.floor(v / cellSize);
+    }
+
+    private static long key(long x, long y) {
+        return (x << 32) ^ (y & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,338 @@
+/*
+    Licensed to the Apache Software Foundation (ASF) under one or more
+    contributor license agreements.  See the NOTICE file distributed with this
+    work for additional information regarding copyright ownership.  The ASF
+    licenses this file to you under the Apache License, Version 2.0
+    (the "License"); you may not use this file except in compliance with the
+    License.  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+    License for the specific language governing permissions and limitations
+    under the License.
+ */
+package com.maehem.mangocad.model.util;
+
+import com.maehem.mangocad.model.element.basic.TextElement;
+import com.maehem.mangocad.model.element.enums.TextAlign;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lays out vector font text as center lines for a round pen, without
+ * JavaFX.
+ *
+ * Each glyph is a few polylines on a small grid: {@link #GLYPH_WIDTH} wide,
+ * capitals {@link #CAP_HEIGHT} high, with descenders below the baseline.
+ * The grid is scaled so the pen's outer edge, not its center, reaches the
+ * text size, the way vector text is measured. The same lines draw the text
+ * on screen and give its copper for clearances.
+ *
+ * Text that would read upside down, between 90 and 270 degrees, is turned
+ * to read the right way unless it has spin. A text starting with '!' gets
+ * a bar over it.
+ *
+ * @author Mark J Koch ( @maehem on GitHub )
+ */
+public final class StrokeFont {
+
+    /**
+     * Height of a capital in grid units.
+     */
+    public static final int CAP_HEIGHT = 6;
+
+    /**
+     * Width of a glyph in grid units.
+     */
+    public static final int GLYPH_WIDTH = 4;
+
+    /**
+     * Distance from one glyph to the next in grid units.
+     */
+    public static final int ADVANCE = 6;
+
+    private static final char FIRST = ' ';
+    private static final char LAST = '~';
+
+    // Glyphs from ' ' to '~'. Each polyline is a run of points, each point
+    // two digits: x from 0 to 4, then y from 0 to 8 with the baseline at 2.
+    // Polylines are split by spaces. A single point is a dot.
+    private static final String[] SOURCE = {
+        "", // space
+        "2824 22", // !
+        "1817 3837", // "
+        "1812 3832 0646 0444", // #
+        "473818070615354443321203 2822", // $
+        "0248 17 33", // %
+        "42161728373603122244", // &
+        "2827", // '
+        "38272332", // (
+        "18272312", // )
+        "2723 0644 0446", // *
+        "2723 0545", // +
+        "2211", // ,
+        "0545", // -
+        "22", // .
+        "0248", // /
+        "120307183847433212 0347", // 0
+        "1728 2822 1232", // 1
+        "07183847460242", // 2
+        "07183847463515 354443321203", // 3
+        "32380444", // 4
+        "480805354443321203", // 5
+        "38180703123243443505", // 6
+        "084812", // 7
+        "15060718384746351504031232434435", // 8
+        "45150607183847433212", // 9
+        "25 23", // :
+        "25 2312", // ;
+        "470543", // <
+        "0444 0646", // =
+        "074503", // >
+        "07183847462524 22", // ?
+        "433212030718384744242646", // @
+        "0206284642 0545", // A
+        "02083847463505 3544433202", // B
+        "4738180703123243", // C
+        "02083847433202", // D
+        "42020848 0535", // E
+        "020848 0535", // F
+        "47381807031232434525", // G
+        "0208 4842 0545", // H
+        "1838 2822 1232", // I
+        "4843321203", // J
+        "0208 4804 1542", // K
+        "080242", // L
+        "0208254842", // M
+        "02084248", // N
+        "120307183847433212", // O
+        "02083847463505", // P
+        "120307183847433212 2442", // Q
+        "02083847463505 2542", // R
+        "473818070615354443321203", // S
+        "0848 2822", // T
+        "080312324348", // U
+        "082248", // V
+        "0812253248", // W
+        "0842 0248", // X
+        "082548 2522", // Y
+        "08480242", // Z
+        "38181232", // [
+        "0842", // \
+        "18383212", // ]
+        "062846", // ^
+        "0141", // _
+        "1827", // `
+        "06364542 441403123243", // a
+        "08023243453606", // b
+        "461605031242", // c
+        "48421203051646", // d
+        "044445361605031242", // e
+        "48281712 0636", // f
+        "46413010 461605031242", // g
+        "0802 06364542", // h
+        "2622 28", // i
+        "36312010 38", // j
+        "0802 4603 1442", // k
+        "182822 1232", // l
+        "0206 05162522 25364542", // m
+        "0206 0516364542", // n
+        "120305163645433212", // o
+        "00063645433202", // p
+        "40461605031242", // q
+        "0206 042646", // r
+        "4616051434433202", // s
+        "18132242 0636", // t
+        "0603123243 4642", // u
+        "062246", // v
+        "0612243246", // w
+        "0642 0246", // x
+        "0622 4610", // y
+        "06460242", // z
+        "38272615242332", // {
+        "2820", // |
+        "18272635242312", // }
+        "06173546", // ~
+    };
+
+    // Compact glyph data: for each polyline its point count, then its
+    // points as x, y pairs relative to the baseline.
+    private static final byte[][] GLYPHS = new byte[LAST - FIRST + 1][];
+
+    static {
+        for (int i = 0; i < SOURCE.length; i++) {
+            GLYPHS[i] = compile(SOURCE[i]);
+        }
+    }
+
+    private StrokeFont() {
+    }
+
+    private static byte[] compile(String source) {
+        String strokes = source.trim();
+        if (strokes.isEmpty()) {
+            return new byte[0];
+        }
+        List<Byte> data = new ArrayList<>();
+        for (String stroke : strokes.split(" +")) {
+            data.add((byte) (stroke.length() / 2));
+            for (int i = 0; i + 1 < stroke.length(); i += 2) {
+                data.add((byte) (stroke.charAt(i) - '0'));
+                data.add((byte) (stroke.charAt(i + 1) - '0' - 2));
+            }
+        }
+        byte[] out = new byte[data.size()];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = data.get(i);
+        }
+        return out;
+    }
+
+    private static byte[] glyph(char c) {
+        if (c < FIRST || c > LAST) {
+            return GLYPHS['?' - FIRST];
+        }
+        return GLYPHS[c - FIRST];
+    }
+
+    /**
+     * Lay out a text element.
+     *
+     * @param t text
+     * @param value what to write, or null for the text's own value.
+     * @return pen center lines in model units, each as x, y pairs. A line of
+     * one point is a dot.
+     */
+    public static List<double[]> layout(TextElement t, String value) {
+        return layout(
+                value != null ? value : t.getValue(),
+                t.getX(), t.getY(), t.getSize(), t.getDerivedStroke(), t.getDistance(),
+                t.getAlign(), t.getRotationProperty().get(),
+                t.getRotationProperty().isMirror(), t.getRotationProperty().isSpin()
+        );
+    }
+
+    /**
+     * Lay out text as pen center lines.
+     *
+     * @param text may have several lines.
+     * @param x of the anchor
+     * @param y of the anchor
+     * @param size height of a capital, pen included.
+     * @param stroke width of the pen.
+     * @param distance space between lines, in percent of the size.
+     * @param align where the anchor is on the text.
+     * @param rot degrees counter clockwise about the anchor.
+     * @param mirror across the anchor, before rotating.
+     * @param spin if true, upside down text is left that way.
+     * @return pen center lines, each as x, y pairs. A line of one point is a
+     * dot.
+     */
+    public static List<double[]> layout(String text, double x, double y, double size, double stroke,
+            double distance, TextAlign align, double rot, boolean mirror, boolean spin) {
+        List<double[]> out = new ArrayList<>();
+        if (text == null || text.isEmpty() || !(size > 0)) {
+            return out;
+        }
+        if (align == null) {
+            align = TextAlign.BOTTOM_LEFT;
+        }
+        stroke = Math.min(Math.max(stroke, 0.0), size * 0.5);
+
+        // Turn upside down text around. The far corner becomes the anchor.
+        double r = ((rot % 360.0) + 360.0) % 360.0;
+        if (!spin && r > 90.0 && r <= 270.0) {
+            align = opposite(align);
+            rot -= 180.0;
+        }
+
+        boolean bar = text.startsWith("!");
+        if (bar) {
+            text = text.substring(1);
+        }
+        String[] lines = text.split("\n", -1);
+
+        double unit = (size - stroke) / CAP_HEIGHT;
+        double inset = stroke / 2.0;
+        double pitch = size + size * distance * 0.01;
+        double blockHeight = lines.length * size + (lines.length - 1) * size * distance * 0.01;
+        double blockWidth = 0;
+        for (String line : lines) {
+            blockWidth = Math.max(blockWidth, lineWidth(line, unit, stroke));
+        }
+
+        String name = align.name();
+        double anchorX = name.endsWith("LEFT") ? 0 : name.endsWith("RIGHT") ? blockWidth : blockWidth / 2.0;
+        double anchorY = name.startsWith("BOTTOM") ? 0 : name.startsWith("TOP") ? blockHeight : blockHeight / 2.0;
+
+        double rad = Math.toRadians(rot);
+        double cos = Math.cos(rad);
+        double sin = Math.sin(rad);
+        double[] place = {x, y, cos, sin, mirror ? -1 : 1};
+
+        for (int l = 0; l < lines.length; l++) {
+            String line = lines[l];
+            double w = lineWidth(line, unit, stroke);
+            double left = (name.endsWith("LEFT") ? 0 : name.endsWith("RIGHT") ? blockWidth - w : (blockWidth - w) / 2.0)
+                    + inset - anchorX;
+            double base = (lines.length - 1 - l) * pitch + inset - anchorY;
+
+            for (int c = 0; c < line.length(); c++) {
+                byte[] g = glyph(line.charAt(c));
+                double gx = left + c * ADVANCE * unit;
+                int i = 0;
+                while (i < g.length) {
+                    int n = g[i++];
+                    double[] pts = new double[n * 2];
+                    for (int p = 0; p < n; p++) {
+                        pts[p * 2] = gx + g[i++] * unit;
+                        pts[p * 2 + 1] = base + g[i++] * unit;
+                    }
+                    out.add(transform(pts, place));
+                }
+            }
+            if (bar && l == 0 && w > 0) {
+                double over = base + (CAP_HEIGHT + 1) * unit;
+                out.add(transform(new double[]{left, over, left + w - stroke, over}, place));
+            }
+        }
+        return out;
+    }
+
+    /**
+     * @return width of one line of text, pen included.
+     */
+    public static double lineWidth(String line, double unit, double stroke) {
+        if (line.isEmpty()) {
+            return 0;
+        }
+        return ((line.length() - 1) * ADVANCE + GLYPH_WIDTH) * unit + stroke;
+    }
+
+    private static double[] transform(double[] pts, double[] place) {
+        for (int i = 0; i < pts.length; i += 2) {
+            double px = pts[i] * place[4];
+            double py = pts[i + 1];
+            pts[i] = px * place[2] - py * place[3] + place[0];
+            pts[i + 1] = px * place[3] + py * place[2] + place[1];
+        }
+        return pts;
+    }
+
+    private static TextAlign opposite(TextAlign align) {
+        return switch (align) {
+            case BOTTOM_LEFT -> TextAlign.TOP_RIGHT;
+            case BOTTOM_CENTER -> TextAlign.TOP_CENTER;
+            case BOTTOM_RIGHT -> TextAlign.TOP_LEFT;
+            case CENTER_LEFT -> TextAlign.CENTER_RIGHT;
+            case CENTER -> TextAlign.CENTER;
+            case CENTER_RIGHT -> TextAlign.CENTER_LEFT;
+            case TOP_LEFT -> TextAlign.BOTTOM_RIGHT;
+            case TOP_CENTER -> TextAlign.BOTTOM_CENTER;
+            case TOP_RIGHT -> TextAlign.BOTTOM_LEFT;
+        };
+    }
+}
@@ -0,0 +1,241 @@
+/*
+    Licensed to the Apache Software Foundation (ASF) under one or more
+    contributor license agreements.  See the NOTICE file distributed with this
+    work for additional information regarding copyright ownership.  The ASF
+    licenses this file to you under the Apache License, Version 2.0
+    (the "License"); you may not use this file except in compliance with the
+    License.  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+    License for the specific language governing permissions and limitations
+    under the License.
+ */
+package com.maehem.mangocad.model.util;
+
+import com.maehem.mangocad.model.element.basic.Attribute;
+import com.maehem.mangocad.model.element.basic.Instance;
+import com.maehem.mangocad.model.element.basic.Part;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.function.Function;
+
+/**
+ * Fills in text variables such as {@code >NAME}, {@code >VALUE} and
+ * {@code >SHEET}.
+ *
+ * A text is parsed once into a {@link Template} of literal and variable
+ * parts, shared by every text with the same string. Only the most recently
+ * used templates are kept, so those of closed designs are let go. What a
+ * text resolves to is kept per part instance, and only worked out again
+ * when the part's name, value or the sheet changes. Drawing wide variables
+ * are looked up last.
+ *
+ * @author Mark J Koch ( @maehem on GitHub )
+ */
+public class TextVariables {
+
+    private static final int MAX_TEMPLATES = 4096;
+
+    // Access ordered, so the eldest entry is the least recently used.
+    private static final Map<String, Template> TEMPLATES = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Template> eldest) {
+            return size() > MAX_TEMPLATES;
+        }
+    };
+
+    private final Map<String, String> globals;
+
+    // What an instance's texts resolve to, and what they were resolved with.
+    private record Stamp(String name, String value, String sheet) {
+
+    }
+
+    private static final class Resolved {
+
+        Stamp stamp;
+        final Map<String, String> texts = new HashMap<>();
+    }
+
+    // Instances don't override equals(), so these are keyed by identity.
+    private final Map<Instance, Resolved> instances = new WeakHashMap<>();
+    private final Map<String, Resolved> sheets = new HashMap<>();
+
+    /**
+     * @param globals drawing wide variables. Read at each lookup, so later
+     * changes show up in texts not yet resolved.
+     */
+    public TextVariables(Map<String, String> globals) {
+        this.globals = globals != null ? globals : Map.of();
+    }
+
+    /**
+     * Resolve a text of a part instance on a sheet.
+     *
+     * @param text as written in the symbol.
+     * @param inst the instance, or null for a sheet's own text.
+     * @param part of the instance, or null.
+     * @param value shown for {@code >VALUE}.
+     * @param sheet shown for {@code >SHEET}, like "1/3".
+     * @return the text with its variables filled in. Unknown variables are
+     * left as they are.
+     */
+    public synchronized String resolve(String text, Instance inst, Part part, String value, String sheet) {
+        if (text == null) {
+            return null;
+        }
+        Template template = Template.of(text);
+        if (!template.hasVariables()) {
+            return text;
+        }
+
+        Resolved r;
+        if (inst == null) {
+            r = sheets.computeIfAbsent(String.valueOf(sheet), (s) -> new Resolved());
+        } else {
+            r = instances.computeIfAbsent(inst, (i) -> new Resolved());
+        }
+        Stamp stamp = new Stamp(part != null ? part.getName() : null, value, sheet);
+        if (!stamp.equals(r.stamp)) {
+            r.stamp = stamp;
+            r.texts.clear();
+        }
+        return r.texts.computeIfAbsent(text, (t) -> template.resolve((name) -> lookup(name, inst, part, value, sheet)));
+    }
+
+    private String lookup(String name, Instance inst, Part part, String value, String sheet) {
+        switch (name) {
+            case "SHEET" -> {
+                return sheet;
+            }
+            case "SHEETNR" -> {
+                return sheet == null ? null : sheet.split("/")[0];
+            }
+            case "SHEETS" -> {
+                return sheet == null || !sheet.contains("/") ? null : sheet.split("/")[1];
+            }
+            default -> {
+            }
+        }
+        if (inst != null) {
+            switch (name) {
+                case "NAME" -> {
+                    String gate = inst.getGate();
+                    return inst.getPart() + (gate == null || gate.startsWith("G$") ? "" : gate);
+                }
+                case "PART" -> {
+                    return inst.getPart();
+                }
+                case "GATE" -> {
+                    return inst.getGate();
+                }
+                case "VALUE" -> {
+                    return value;
+                }
+                default -> {
+                }
+            }
+            if (part != null) {
+                Optional<Attribute> named = part.getNamedAttribute(name);
+                if (named.isPresent()) {
+                    return named.get().getValue();
+                }
+            }
+        }
+        String global = globals.get(name);
+        if (global != null || inst == null) {
+            return global;
+        }
+        for (Attribute attr : inst.getAttributes()) {
+            if (name.equals(attr.getName())) {
+                return attr.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A text split into literal and variable parts. A variable is a '&gt;'
+     * at the start of a word followed by letters, digits or '_'.
+     */
+    public static final class Template {
+
+        // Literals at even indexes, variable names at odd ones.
+        private final String[] parts;
+
+        private Template(String[] parts) {
+            this.parts = parts;
+        }
+
+        /**
+         * @param text to parse.
+         * @return its template, parsed once per recently used string.
+         */
+        public static Template of(String text) {
+            synchronized (TEMPLATES) {
+                Template t = TEMPLATES.get(text);
+                if (t == null) {
+                    t = parse(text);
+                    TEMPLATES.put(text, t);
+                }
+                return t;
+            }
+        }
+
+        private static Template parse(String text) {
+            List<String> parts = new ArrayList<>();
+            StringBuilder literal = new StringBuilder();
+            int i = 0;
+            while (i < text.length()) {
+                char c = text.charAt(i);
+                boolean wordStart = i == 0 || Character.isWhitespace(text.charAt(i - 1));
+                int end = i + 1;
+                while (end < text.length() && isNameChar(text.charAt(end))) {
+                    end++;
+                }
+                if (c == '>' && wordStart && end > i + 1) {
+                    parts.add(literal.toString());
+                    literal.setLength(0);
+                    parts.add(text.substring(i + 1, end));
+                    i = end;
+                } else {
+                    literal.append(c);
+                    i++;
+                }
+            }
+            parts.add(literal.toString());
+            return new Template(parts.toArray(String[]::new));
+        }
+
+        private static boolean isNameChar(char c) {
+            return Character.isLetterOrDigit(c) || c == '_';
+        }
+
+        public boolean hasVariables() {
+            return parts.length > 1;
+        }
+
+        /**
+         * @param lookup value of a variable by name, or null if unknown.
+         * @return the text with its variables filled in.
+         */
+        public String resolve(Function<String, String> lookup) {
+            StringBuilder sb = new StringBuilder(parts[0]);
+            for (int i = 1; i < parts.length; i += 2) {
+                String v = lookup.apply(parts[i]);
+                sb.append(v != null ? v : ">" + parts[i]);
+                sb.append(parts[i + 1]);
+            }
+            return sb.toString();
+        }
+    }
+}
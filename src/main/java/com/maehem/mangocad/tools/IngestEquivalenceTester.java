@@ -0,0 +1,235 @@
+/*
+    Licensed to the Apache Software Foundation (ASF) under one or more
+    contributor license agreements.  See the NOTICE file distributed with this
+    work for additional information regarding copyright ownership.  The ASF
+    licenses this file to you under the Apache License, Version 2.0
+    (the "License"); you may not use this file except in compliance with the
+    License.  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+    License for the specific language governing permissions and limitations
+    under the License.
+ */
+package com.maehem.mangocad.tools;
+
+import com.maehem.mangocad.model.DesignHeader;
+import com.maehem.mangocad.model.DesignIndexStore;
+import com.maehem.mangocad.model.eaglecad.EagleCADUtils;
+import com.maehem.mangocad.model.eaglecad.IngestMode;
+import com.maehem.mangocad.model.element.LibraryElement;
+import com.maehem.mangocad.model.element.drawing.Board;
+import com.maehem.mangocad.model.element.drawing.Eagle;
+import com.maehem.mangocad.model.element.drawing.Library;
+import com.maehem.mangocad.model.element.drawing.Schematic;
+import java.io.File;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ingest an EagleCAD file with every {@link IngestMode} and check that the
+ * resulting models are the same, field by field. Also checks that the
+ * {@link DesignHeader} lists what the full model holds and reads back the
+ * same from a {@link DesignIndexStore}.
+ *
+ * Usage: IngestEquivalenceTester [file ...]
+ *
+ * Defaults to 'test-libs/mango-test-1.lbr'. An 'eagle.dtd' next to the file
+ * is used if there is one, else the one built in.
+ *
+ * @author Mark J Koch ( @maehem on GitHub )
+ */
+public class IngestEquivalenceTester {
+
+    private static final String DEFAULT_FILE = "test-libs/mango-test-1.lbr";
+    private static final int MAX_REPORTED = 50;
+
+    private final List<String> differences = new ArrayList<>();
+    private final Map<Object, Object> visited = new IdentityHashMap<>();
+
+    public static void main(String[] args) throws Exception {
+        String[] files = args.length > 0 ? args : new String[]{DEFAULT_FILE};
+        boolean pass = true;
+        for (String path : files) {
+            pass &= check(new File(path));
+        }
+        System.exit(pass ? 0 : 1);
+    }
+
+    private static boolean check(File file) throws Exception {
+        long start = System.nanoTime();
+        Eagle reference = EagleCADUtils.ingestEagle(file, IngestMode.DOM);
+        System.out.printf("%-8s %8.1f ms  %s%n", IngestMode.DOM, (System.nanoTime() - start) / 1e6, file.getName());
+
+        boolean pass = true;
+        for (IngestMode mode : IngestMode.values()) {
+            if (mode == IngestMode.DOM) {
+                continue;
+            }
+            start = System.nanoTime();
+            Eagle candidate = EagleCADUtils.ingestEagle(file, mode);
+            System.out.printf("%-8s %8.1f ms  %s%n", mode, (System.nanoTime() - start) / 1e6, file.getName());
+
+            IngestEquivalenceTester tester = new IngestEquivalenceTester();
+            tester.compare("eagle", reference, candidate);
+            if (tester.differences.isEmpty()) {
+                System.out.println("    PASS: " + mode + " matches " + IngestMode.DOM);
+            } else {
+                pass = false;
+                System.out.println("    FAIL: " + tester.differences.size() + " difference(s)");
+                tester.differences.stream().limit(MAX_REPORTED).forEach(d -> System.out.println("        " + d));
+            }
+        }
+        start = System.nanoTime();
+        DesignHeader header = EagleCADUtils.readHeader(file);
+        System.out.printf("%-8s %8.1f ms  %s%n", "HEADER", (System.nanoTime() - start) / 1e6, file.getName());
+        List<String> headerDifferences = compareHeader(header, reference);
+        if (headerDifferences.isEmpty()) {
+            System.out.println("    PASS: HEADER matches " + IngestMode.DOM);
+        } else {
+            pass = false;
+            System.out.println("    FAIL: " + headerDifferences.size() + " difference(s)");
+            headerDifferences.stream().limit(MAX_REPORTED).forEach(d -> System.out.println("        " + d));
+        }
+
+        // The header must survive a trip through the on-disk index.
+        File indexFile = File.createTempFile("design-index", ".dat");
+        indexFile.deleteOnExit();
+        DesignIndexStore store = new DesignIndexStore(indexFile);
+        store.save(List.of(header));
+        IngestEquivalenceTester tester = new IngestEquivalenceTester();
+        tester.compare("header", header, store.load().get(header.getFilePath()));
+        if (tester.differences.isEmpty()) {
+            System.out.println("    PASS: HEADER matches after index store round trip");
+        } else {
+            pass = false;
+            System.out.println("    FAIL: " + tester.differences.size() + " difference(s) after index store round trip");
+            tester.differences.stream().limit(MAX_REPORTED).forEach(d -> System.out.println("        " + d));
+        }
+
+        return pass;
+    }
+
+    /**
+     * The header must list what the full model holds.
+     */
+    private static List<String> compareHeader(DesignHeader header, Eagle eagle) {
+        List<String> diffs = new ArrayList<>();
+        switch (eagle.getDrawing().getDesign()) {
+            case Library lib -> {
+                compareValue(diffs, "description", lib.getDescription(), header.getDescription());
+                compareEntries(diffs, "packages", lib.getPackages(), header.getPackages());
+                compareEntries(diffs, "packages3d", lib.getPackages3d(), header.getPackages3d());
+                compareEntries(diffs, "symbols", lib.getSymbols(), header.getSymbols());
+                compareEntries(diffs, "devicesets", lib.getDeviceSets(), header.getDeviceSets());
+            }
+            case Schematic sch -> {
+                compareValue(diffs, "description", sch.getDescription().getValue(), header.getDescription());
+                compareValue(diffs, "sheets", sch.getSheets().size(), header.getSheetCount());
+            }
+            case Board brd ->
+                compareValue(diffs, "description", brd.getDescription().getValue(), header.getDescription());
+            default ->
+                diffs.add("unknown design type");
+        }
+        return diffs;
+    }
+
+    private static void compareEntries(List<String> diffs, String path, List<? extends LibraryElement> elements, List<DesignHeader.Entry> entries) {
+        if (elements.size() != entries.size()) {
+            diffs.add(path + ": size " + elements.size() + " != " + entries.size());
+            return;
+        }
+        for (int i = 0; i < elements.size(); i++) {
+            compareValue(diffs, path + "[" + i + "].name", elements.get(i).getName(), entries.get(i).getName());
+            compareValue(diffs, path + "[" + i + "].description", elements.get(i).getDescription(), entries.get(i).getDescription());
+        }
+    }
+
+    private static void compareValue(List<String> diffs, String path, Object a, Object b) {
+        if (a == null ? b != null : !a.equals(b)) {
+            diffs.add(path + ": [" + a + "] != [" + b + "]");
+        }
+    }
+
+    private void compare(String path, Object a, Object b) throws IllegalAccessException {
+        if (a == b) {
+            return;
+        }
+        if (a == null || b == null) {
+            differences.add(path + ": " + a + " != " + b);
+            return;
+        }
+        if (!a.getClass().equals(b.getClass())) {
+            differences.add(path + ": " + a.getClass().getSimpleName() + " != " + b.getClass().getSimpleName());
+            return;
+        }
+        if (visited.containsKey(a)) {
+            if (visited.get(a) != b) {
+                differences.add(path + ": object graph shape differs");
+            }
+            return;
+        }
+
+        if (a instanceof Collection<?> ca && !isModelClass(a.getClass())) {
+            visited.put(a, b);
+            Collection<?> cb = (Collection<?>) b;
+            if (ca.size() != cb.size()) {
+                differences.add(path + ": size " + ca.size() + " != " + cb.size());
+                return;
+            }
+            Iterator<?> ia = ca.iterator();
+            Iterator<?> ib = cb.iterator();
+            for (int i = 0; ia.hasNext(); i++) {
+                compare(path + "[" + i + "]", ia.next(), ib.next());
+            }
+        } else if (a instanceof Map<?, ?> ma && !isModelClass(a.getClass())) {
+            visited.put(a, b);
+            Map<?, ?> mb = (Map<?, ?>) b;
+            if (!ma.keySet().equals(mb.keySet())) {
+                differences.add(path + ": keys " + ma.keySet() + " != " + mb.keySet());
+                return;
+            }
+            for (Object key : ma.keySet()) {
+                compare(path + "{" + key + "}", ma.get(key), mb.get(key));
+            }
+        } else if (a.getClass().isArray()) {
+            int length = Array.getLength(a);
+            if (length != Array.getLength(b)) {
+                differences.add(path + ": length " + length + " != " + Array.getLength(b));
+                return;
+            }
+            for (int i = 0; i < length; i++) {
+                compare(path + "[" + i + "]", Array.get(a, i), Array.get(b, i));
+            }
+        } else if (isModelClass(a.getClass())) {
+            visited.put(a, b);
+            for (Class<?> c = a.getClass(); c != null && isModelClass(c); c = c.getSuperclass()) {
+                for (Field f : c.getDeclaredFields()) {
+                    // Transient fields are caches, like a list's name index.
+                    if (Modifier.isStatic(f.getModifiers()) || Modifier.isTransient(f.getModifiers())) {
+                        continue;
+                    }
+                    f.setAccessible(true);
+                    compare(path + "." + f.getName(), f.get(a), f.get(b));
+                }
+            }
+        } else if (!a.equals(b)) {
+            differences.add(path + ": [" + a + "] != [" + b + "]");
+        }
+    }
+
+    private static boolean isModelClass(Class<?> c) {
+        return c.getName().startsWith("com.maehem.mangocad.");
+    }
+}
@@ -0,0 +1,96 @@
+/*
+    Licensed to the Apache Software Foundation (ASF) under one or more
+    contributor license agreements.  See the NOTICE file distributed with this
+    work for additional information regarding copyright ownership.  The ASF
+    licenses this file to you under the Apache License, Version 2.0
+    (the "License"); you may not use this file except in compliance with the
+    License.  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+    License for the specific language governing permissions and limitations
+    under the License.
+ */
+package com.maehem.mangocad.tools;
+
+import com.maehem.mangocad.model.element.property.RealValue;
+import java.util.Random;
+
+/**
+ * Compare reading a {@link RealValue} against rounding on every read, the
+ * way {@code get()} used to. Also checks that both give the same numbers.
+ *
+ * Each case is warmed up, then timed over several rounds, and the best
+ * round is reported.
+ *
+ * Usage: RealValueBenchmark [values] [rounds]
+ *
+ * @author Mark J Koch ( @maehem on GitHub )
+ */
+public class RealValueBenchmark {
+
+    private static final int DEFAULT_VALUES = 100_000;
+    private static final int DEFAULT_ROUNDS = 10;
+    private static final int WARMUP_ROUNDS = 5;
+
+    // Keeps the reads from being optimized away.
+    private static double sink;
+
+    private interface Reader {
+
+        double read(RealValue v, double raw);
+    }
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_VALUES;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_ROUNDS;
+
+        Random r = new Random(42);
+        RealValue[] values = new RealValue[count];
+        double[] raws = new double[count];
+        for (int i = 0; i < count; i++) {
+            // Coordinates in mm as a design would have them.
+            raws[i] = (r.nextDouble() - 0.5) * 200.0;
+            values[i] = new RealValue(raws[i]);
+        }
+
+        int mismatches = 0;
+        for (int i = 0; i < count; i++) {
+            if (values[i].get() != RealValue.round(raws[i], RealValue.DEFAULT_PREC)) {
+                mismatches++;
+            }
+        }
+        System.out.printf("%d values, %d mismatches%n", count, mismatches);
+
+        double before = run("round per read", values, raws, rounds,
+                (v, raw) -> RealValue.round(raw, v.getPrecision()));
+        double after = run("rounded at set", values, raws, rounds,
+                (v, raw) -> v.get());
+        System.out.printf("speed up: %.1fx%n", before / after);
+        System.exit(mismatches == 0 ? 0 : 1);
+    }
+
+    /**
+     * @return best time per read, in ns.
+     */
+    private static double run(String name, RealValue[] values, double[] raws, int rounds, Reader reader) {
+        double best = Double.MAX_VALUE;
+        for (int round = 0; round < WARMUP_ROUNDS + rounds; round++) {
+            long start = System.nanoTime();
+            double sum = 0;
+            for (int i = 0; i < values.length; i++) {
+                sum += reader.read(values[i], raws[i]);
+            }
+            long ns = System.nanoTime() - start;
+            sink += sum;
+            if (round >= WARMUP_ROUNDS) {
+                best = Math.min(best, (double) ns / values.length);
+            }
+        }
+        System.out.printf("%-16s %8.2f ns/read %10.1f M reads/s%n", name, best, 1000.0 / best);
+        return best;
+    }
+}
@@ -18,22 +18,32 @@ package com.maehem.mangocad.view;
 
 import com.maehem.mangocad.AppProperties;
 import com.maehem.mangocad.logging.LoggingFormatter;
+import com.maehem.mangocad.view.controlpanel.DesignScanner;
 import com.maehem.mangocad.view.controlpanel.DirectoriesConfigDialog;
 import com.maehem.mangocad.view.controlpanel.ModuleList;
 import com.maehem.mangocad.view.controlpanel.TabArea;
+import java.text.MessageFormat;
 import java.util.ResourceBundle;
 import java.util.logging.ConsoleHandler;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javafx.application.Application;
 import javafx.application.Platform;
+import javafx.beans.binding.Bindings;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
 import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
 import javafx.scene.control.Menu;
 import javafx.scene.control.MenuBar;
 import javafx.scene.control.MenuItem;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.control.SplitPane;
 import javafx.scene.image.Image;
 import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
 import javafx.stage.Stage;
 
 /**
@@ -130,6 +140,7 @@ public class ControlPanel extends Application {
 //        //               + "-fx-border-color: blue;"
 //        );
         root.setTop(menuBar);
+        root.setBottom(createScanStatusBar(moduleList.getScanner()));
         Scene scene = new Scene(root);  // Create the Scene
         //scene.getStylesheets().add("/style/dark.css");
         scene.getStylesheets().add(this.getClass().getResource("/style/dark.css").toExternalForm());
@@ -144,12 +155,41 @@ public class ControlPanel extends Application {
             appProperties.setProperty(prefix + WINDOW_SIZE_W_PROP_KEY, String.valueOf(root.getWidth()));
             appProperties.setProperty(prefix + WINDOW_SIZE_H_PROP_KEY, String.valueOf(root.getHeight()));
             moduleList.pushProperties(appProperties);
+            moduleList.shutdown();
             appProperties.save();
 
             Platform.exit();
         });
     }
 
+    /**
+     * Progress of the background design loading. Only shown while loading.
+     *
+     * @param scanner
+     * @return status bar node
+     */
+    private Node createScanStatusBar(DesignScanner scanner) {
+        ProgressBar progressBar = new ProgressBar();
+        progressBar.progressProperty().bind(scanner.progressProperty());
+
+        Label label = new Label();
+        label.textProperty().bind(Bindings.createStringBinding(
+                () -> MessageFormat.format(MSG.getString("SCAN_STATUS"), scanner.getDone(), scanner.getTotal()),
+                scanner.doneProperty(), scanner.totalProperty()
+        ));
+
+        Button cancelButton = new Button(MSG.getString("SCAN_CANCEL"));
+        cancelButton.setOnAction((t) -> scanner.cancel());
+
+        HBox statusBar = new HBox(8, progressBar, label, cancelButton);
+        statusBar.setAlignment(Pos.CENTER_LEFT);
+        statusBar.setPadding(new Insets(4, 8, 4, 8));
+        statusBar.visibleProperty().bind(scanner.runningProperty());
+        statusBar.managedProperty().bind(scanner.runningProperty());
+
+        return statusBar;
+    }
+
     private void initOptionsMenu(Menu menu) {
         MenuItem dirs = new MenuItem(MSG.getString("MENU_OPTIONS_DIR"));
         dirs.setOnAction((t) -> new DirectoriesConfigDialog()); // Loving those Lamdas!
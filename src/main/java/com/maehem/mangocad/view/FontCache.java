@@ -0,0 +1,184 @@
+/*
+    Licensed to the Apache Software Foundation (ASF) under one or more
+    contributor license agreements.  See the NOTICE file distributed with this
+    work for additional information regarding copyright ownership.  The ASF
+    licenses this file to you under the Apache License, Version 2.0
+    (the "License"); you may not use this file except in compliance with the
+    License.  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+    License for the specific language governing permissions and limitations
+    under the License.
+ */
+package com.maehem.mangocad.view;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javafx.geometry.Bounds;
+import javafx.geometry.VPos;
+import javafx.scene.shape.Path;
+import javafx.scene.shape.PathElement;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.shape.Shape;
+import javafx.scene.shape.StrokeLineJoin;
+import javafx.scene.shape.StrokeType;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+import javafx.scene.text.TextAlignment;
+
+/**
+ * The drawing font, loaded once, and what is measured from it.
+ *
+ * Loading the font from its resource parses the whole TTF, and every text
+ * used to do it. Here it is loaded on first use, and each size after that
+ * is made by name. Sizes are bucketed to {@link #SIZE_STEP}, far below what
+ * can be seen.
+ *
+ * Bounds and glyph outlines of a text depend only on its string, font and
+ * stroke, so the same pin names and {@code >NAME} texts are measured and
+ * traced once. Both are kept in small LRU maps.
+ *
+ * @author Mark J Koch ( @maehem on GitHub )
+ */
+public class FontCache {
+
+    private static final Logger LOGGER = ControlPanel.LOGGER;
+
+    /**
+     * Font sizes are rounded to this.
+     */
+    public static final double SIZE_STEP = 0.001;
+
+    private static final int MAX_BOUNDS = 4096;
+    private static final int MAX_OUTLINES = 1024;
+
+    private static FontCache instance = null;
+
+    private final String fontName;
+    private final Map<Long, Font> fonts = new ConcurrentHashMap<>();
+    private final Map<TextKey, Bounds> bounds = lruMap(MAX_BOUNDS);
+    private final Map<TextKey, List<PathElement>> outlines = lruMap(MAX_OUTLINES);
+
+    /**
+     * Everything about a text that changes its shape. Position, transforms
+     * and colour do not.
+     */
+    private record TextKey(String text, String font, double size, double lineSpacing,
+            VPos origin, TextAlignment alignment,
+            double strokeWidth, StrokeType strokeType, StrokeLineJoin lineJoin) {
+
+        static TextKey of(Text t) {
+            boolean stroked = t.getStroke() != null;
+            return new TextKey(
+                    t.getText(), t.getFont().getName(), t.getFont().getSize(), t.getLineSpacing(),
+                    t.getTextOrigin(), t.getTextAlignment(),
+                    stroked ? t.getStrokeWidth() : 0.0,
+                    stroked ? t.getStrokeType() : null,
+                    stroked ? t.getStrokeLineJoin() : null
+            );
+        }
+    }
+
+    private FontCache() {
+        Font font = Font.loadFont(FontCache.class.getResourceAsStream(ViewUtils.FONT_PATH), 10.0);
+        if (font == null) {
+            LOGGER.log(Level.SEVERE, "Could not load font: {0}", ViewUtils.FONT_PATH);
+            font = Font.getDefault();
+        }
+        fontName = font.getName();
+        fonts.put(key(font.getSize()), font);
+    }
+
+    public static synchronized FontCache getInstance() {
+        if (instance == null) {
+            instance = new FontCache();
+        }
+        return instance;
+    }
+
+    /**
+     * @param size in points.
+     * @return the drawing font at that size.
+     */
+    public Font getFont(double size) {
+        long key = key(size);
+        return fonts.computeIfAbsent(key, (k) -> new Font(fontName, k * SIZE_STEP));
+    }
+
+    /**
+     * Local bounds of a text, stroke included. The text must have no clip
+     * or effect.
+     *
+     * @param t text to measure.
+     * @return its bounds, measured once per string, font and stroke.
+     */
+    public Bounds getBounds(Text t) {
+        TextKey key = TextKey.of(t);
+        synchronized (bounds) {
+            Bounds b = bounds.get(key);
+            if (b != null) {
+                return b;
+            }
+        }
+        Bounds b = t.getBoundsInLocal();
+        synchronized (bounds) {
+            bounds.put(key, b);
+        }
+        return b;
+    }
+
+    /**
+     * Outline of a text's glyphs, stroke included, in the text's own space.
+     * Add its local transform to place it.
+     *
+     * @param t text to trace.
+     * @return the outline, traced once per string, font and stroke. Do not
+     * change it.
+     */
+    public List<PathElement> getOutline(Text t) {
+        TextKey key = TextKey.of(t);
+        synchronized (outlines) {
+            List<PathElement> o = outlines.get(key);
+            if (o != null) {
+                return o;
+            }
+        }
+        // A bare copy, so none of the text's own transforms are traced.
+        Text bare = new Text(t.getText());
+        bare.setFont(t.getFont());
+        bare.setLineSpacing(t.getLineSpacing());
+        bare.setTextOrigin(t.getTextOrigin());
+        bare.setTextAlignment(t.getTextAlignment());
+        bare.setFill(t.getFill());
+        bare.setStroke(t.getStroke());
+        bare.setStrokeWidth(t.getStrokeWidth());
+        bare.setStrokeType(t.getStrokeType());
+        bare.setStrokeLineJoin(t.getStrokeLineJoin());
+        List<PathElement> o = List.copyOf(((Path) Shape.union(bare, new Rectangle())).getElements());
+        synchronized (outlines) {
+            outlines.put(key, o);
+        }
+        return o;
+    }
+
+    private static long key(double size) {
+        return Math.round(size / SIZE_STEP);
+    }
+
+    private static <K, V> Map<K, V> lruMap(int max) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > max;
+            }
+        };
+    }
+}
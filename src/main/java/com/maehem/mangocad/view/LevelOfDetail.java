@@ -0,0 +1,206 @@
+/*
+    Licensed to the Apache Software Foundation (ASF) under one or more
+    contributor license agreements.  See the NOTICE file distributed with this
+    work for additional information regarding copyright ownership.  The ASF
+    licenses this file to you under the Apache License, Version 2.0
+    (the "License"); you may not use this file except in compliance with the
+    License.  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+    License for the specific language governing permissions and limitations
+    under the License.
+ */
+package com.maehem.mangocad.view;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javafx.geometry.Bounds;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Paint;
+import javafx.scene.shape.Circle;
+import javafx.scene.shape.Path;
+import javafx.scene.shape.Polygon;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.shape.SVGPath;
+import javafx.scene.shape.Shape;
+import javafx.scene.text.Text;
+import javafx.scene.transform.Transform;
+
+/**
+ * Swaps detail too small to see for plain boxes.
+ *
+ * Zoomed out, a preview draws thousands of texts and part outlines that
+ * land on a pixel or two. Texts shorter than {@link #MIN_TEXT_PIXELS} become
+ * a faint box the size of the text. Curved shapes, such as pads and vias,
+ * and groups, such as symbols, smaller than {@link #MIN_FEATURE_PIXELS}
+ * become one rectangle in their colour. The originals are kept and put back
+ * as the zoom grows.
+ *
+ * @author Mark J Koch ( @maehem on GitHub )
+ */
+public class LevelOfDetail {
+
+    private static final Logger LOGGER = ControlPanel.LOGGER;
+
+    /**
+     * Texts shorter than this, on screen, are drawn as boxes.
+     */
+    public static final double MIN_TEXT_PIXELS = 4.0;
+
+    /**
+     * Curved shapes and groups smaller than this, on screen, are drawn as
+     * one rectangle.
+     */
+    public static final double MIN_FEATURE_PIXELS = 4.0;
+
+    // Roughly how much of a text's box its strokes cover.
+    private static final double TEXT_BOX_OPACITY = 0.4;
+
+    /**
+     * A node that can draw itself in less detail when zoomed out.
+     */
+    public interface Scalable {
+
+        /**
+         * @param pixelsPerUnit how many screen pixels one unit (mm) covers.
+         * {@code Double.POSITIVE_INFINITY} draws everything.
+         */
+        void setPixelsPerUnit(double pixelsPerUnit);
+    }
+
+    private record Swap(List<Node> siblings, int index, Node original) {
+
+    }
+
+    private final Group root;
+    private final List<Swap> swaps = new ArrayList<>();
+    private double pixelsPerUnit = Double.POSITIVE_INFINITY;
+
+    /**
+     * @param root the nodes to simplify. Its children must not be changed
+     * while any are swapped.
+     */
+    public LevelOfDetail(Group root) {
+        this.root = root;
+    }
+
+    /**
+     * Put back the detail that is big enough to see at this zoom and swap
+     * out what is not.
+     *
+     * @param pixelsPerUnit how many screen pixels one unit of the root
+     * covers. {@code Double.POSITIVE_INFINITY} restores everything.
+     */
+    public void setPixelsPerUnit(double pixelsPerUnit) {
+        if (pixelsPerUnit == this.pixelsPerUnit) {
+            return;
+        }
+        this.pixelsPerUnit = pixelsPerUnit;
+        restore();
+        if (Double.isInfinite(pixelsPerUnit)) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        simplify(root.getChildren(), pixelsPerUnit);
+        LOGGER.log(Level.FINE, "Level of detail: {0} nodes swapped at {1} px/unit in {2}ms", new Object[]{
+            swaps.size(), pixelsPerUnit, (System.nanoTime() - start) / 1000000
+        });
+    }
+
+    public double getPixelsPerUnit() {
+        return pixelsPerUnit;
+    }
+
+    private void restore() {
+        for (Swap swap : swaps) {
+            swap.siblings.set(swap.index, swap.original);
+        }
+        swaps.clear();
+    }
+
+    /**
+     * @param pixels screen pixels per unit of the nodes' parent.
+     */
+    private void simplify(List<Node> nodes, double pixels) {
+        for (int i = 0; i < nodes.size(); i++) {
+            Node n = nodes.get(i);
+            if (!n.isVisible()) {
+                continue;
+            }
+            Bounds b = n.getBoundsInParent();
+            if (n instanceof Text t) {
+                if (Math.min(b.getWidth(), b.getHeight()) * pixels < MIN_TEXT_PIXELS) {
+                    swap(nodes, i, box(b, t.getFill(), TEXT_BOX_OPACITY));
+                }
+            } else if (n instanceof Path || n instanceof Circle || n instanceof Polygon || n instanceof SVGPath) {
+                // Lines and rectangles are as cheap as the box would be.
+                Paint paint = paint(n);
+                if (paint != null && Math.max(b.getWidth(), b.getHeight()) * pixels < MIN_FEATURE_PIXELS) {
+                    swap(nodes, i, box(b, paint, 1.0));
+                }
+            } else if (n instanceof Group || n instanceof Pane) {
+                List<Node> children = children((Parent) n);
+                if (Math.max(b.getWidth(), b.getHeight()) * pixels < MIN_FEATURE_PIXELS) {
+                    Paint paint = paint(n);
+                    if (paint != null) {
+                        swap(nodes, i, box(b, paint, 1.0));
+                        continue;
+                    }
+                }
+                simplify(children, pixels * scale(n.getLocalToParentTransform()));
+            }
+        }
+    }
+
+    private void swap(List<Node> siblings, int index, Node standIn) {
+        swaps.add(new Swap(siblings, index, siblings.get(index)));
+        siblings.set(index, standIn);
+    }
+
+    private static List<Node> children(Parent p) {
+        return p instanceof Group g ? g.getChildren() : ((Pane) p).getChildren();
+    }
+
+    private static Rectangle box(Bounds b, Paint paint, double opacity) {
+        Rectangle r = new Rectangle(b.getMinX(), b.getMinY(), b.getWidth(), b.getHeight());
+        r.setFill(paint);
+        r.setOpacity(opacity);
+        return r;
+    }
+
+    /**
+     * @return the fill, or else the stroke, of the first shape under a node.
+     */
+    private static Paint paint(Node n) {
+        if (n instanceof Shape s) {
+            return s.getFill() != null ? s.getFill() : s.getStroke();
+        }
+        if (n instanceof Group || n instanceof Pane) {
+            for (Node child : children((Parent) n)) {
+                Paint p = paint(child);
+                if (p != null) {
+                    return p;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return how much a transform grows lengths, ignoring any rotation or
+     * mirror.
+     */
+    private static double scale(Transform t) {
+        return Math.sqrt(Math.abs(t.getMxx() * t.getMyy() - t.getMxy() * t.getMyx()));
+    }
+}
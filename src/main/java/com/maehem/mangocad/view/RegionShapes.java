@@ -0,0 +1,189 @@
+/*
+    Licensed to the Apache Software Foundation (ASF) under one or more
+    contributor license agreements.  See the NOTICE file distributed with this
+    work for additional information regarding copyright ownership.  The ASF
+    licenses this file to you under the Apache License, Version 2.0
+    (the "License"); you may not use this file except in compliance with the
+    License.  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+    License for the specific language governing permissions and limitations
+    under the License.
+ */
+package com.maehem.mangocad.view;
+
+import com.maehem.mangocad.model.util.Region;
+import java.util.ArrayList;
+import java.util.List;
+import javafx.geometry.Point2D;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.ClosePath;
+import javafx.scene.shape.CubicCurveTo;
+import javafx.scene.shape.FillRule;
+import javafx.scene.shape.LineTo;
+import javafx.scene.shape.MoveTo;
+import javafx.scene.shape.Path;
+import javafx.scene.shape.PathElement;
+import javafx.scene.shape.QuadCurveTo;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.shape.Shape;
+import javafx.scene.text.Text;
+import javafx.scene.transform.Transform;
+
+/**
+ * Moves shapes between the model's {@link Region}s and JavaFX.
+ *
+ * Regions are Y up and JavaFX is Y down, so Y is flipped both ways.
+ *
+ * @author Mark J Koch ( @maehem on GitHub )
+ */
+public class RegionShapes {
+
+    /**
+     * @param r region
+     * @param color fill
+     * @return a path filling the region.
+     */
+    public static Path toPath(Region r, Color color) {
+        Path path = new Path();
+        path.setFillRule(FillRule.EVEN_ODD);
+        List<PathElement> elements = new ArrayList<>(r.getVertexCount() + r.getRings().size() * 2);
+        for (double[] ring : r.getRings()) {
+            elements.add(new MoveTo(ring[0], -ring[1]));
+            for (int i = 2; i < ring.length; i += 2) {
+                elements.add(new LineTo(ring[i], -ring[i + 1]));
+            }
+            elements.add(new ClosePath());
+        }
+        path.getElements().setAll(elements);
+        path.setFill(color);
+        path.setStroke(null);
+
+        return path;
+    }
+
+    /**
+     * Area a shape covers on its parent, stroke included, as a region.
+     * Curves are split into lines that stray no more than the tolerance.
+     *
+     * @param s shape with any transforms it has.
+     * @param tolerance furthest a line may stray from a curve.
+     * @return region of the shape.
+     */
+    public static Region toRegion(Shape s, double tolerance) {
+        return toRegion(s, null, tolerance);
+    }
+
+    /**
+     * Like {@link #toRegion(Shape, double)}, for a shape nested deeper than
+     * the space wanted.
+     *
+     * @param s shape with any transforms it has.
+     * @param parentTransform from the shape's parent to the space wanted, or
+     * null if the parent is that space.
+     * @param tolerance furthest a line may stray from a curve.
+     * @return region of the shape.
+     */
+    public static Region toRegion(Shape s, Transform parentTransform, double tolerance) {
+        List<PathElement> elements;
+        if (s instanceof Text t && t.getClip() == null && t.getEffect() == null) {
+            // Glyphs are traced once per string and font, then placed.
+            elements = FontCache.getInstance().getOutline(t);
+            Transform local = t.getLocalToParentTransform();
+            parentTransform = parentTransform == null ? local : parentTransform.createConcatenation(local);
+        } else {
+            // A boolean op hands back the shape's outline in parent space.
+            elements = ((Path) Shape.union(s, new Rectangle())).getElements();
+        }
+        List<double[]> rings = new ArrayList<>();
+        List<Double> ring = null;
+        double x = 0;
+        double y = 0;
+        for (PathElement pe : elements) {
+            if (pe instanceof MoveTo m) {
+                addRing(rings, ring);
+                ring = new ArrayList<>();
+                x = m.getX();
+                y = m.getY();
+                add(ring, parentTransform, x, y);
+            } else if (ring == null) {
+                // Nothing to draw from.
+            } else if (pe instanceof LineTo l) {
+                x = l.getX();
+                y = l.getY();
+                add(ring, parentTransform, x, y);
+            } else if (pe instanceof CubicCurveTo c) {
+                flattenCubic(ring, parentTransform, x, y, c, tolerance);
+                x = c.getX();
+                y = c.getY();
+            } else if (pe instanceof QuadCurveTo q) {
+                // Raise to a cubic with the same shape.
+                CubicCurveTo c = new CubicCurveTo(
+                        x + 2.0 / 3.0 * (q.getControlX() - x), y + 2.0 / 3.0 * (q.getControlY() - y),
+                        q.getX() + 2.0 / 3.0 * (q.getControlX() - q.getX()), q.getY() + 2.0 / 3.0 * (q.getControlY() - q.getY()),
+                        q.getX(), q.getY()
+                );
+                flattenCubic(ring, parentTransform, x, y, c, tolerance);
+                x = q.getX();
+                y = q.getY();
+            } else if (pe instanceof ClosePath) {
+                addRing(rings, ring);
+                ring = null;
+            }
+        }
+        addRing(rings, ring);
+
+        return new Region(rings);
+    }
+
+    private static void flattenCubic(List<Double> ring, Transform transform, double x0, double y0, CubicCurveTo c, double tolerance) {
+        // How far the curve can bow from its chord, roughly.
+        double dx = Math.max(
+                Math.abs(x0 - 2 * c.getControlX1() + c.getControlX2()),
+                Math.abs(c.getControlX1() - 2 * c.getControlX2() + c.getX())
+        );
+        double dy = Math.max(
+                Math.abs(y0 - 2 * c.getControlY1() + c.getControlY2()),
+                Math.abs(c.getControlY1() - 2 * c.getControlY2() + c.getY())
+        );
+        double bow = 0.75 * Math.hypot(dx, dy);
+        int n = Math.max(1, (int) Math.ceil(Math.sqrt(bow / tolerance)));
+        for (int i = 1; i <= n; i++) {
+            double t = (double) i / n;
+            double u = 1 - t;
+            double a = u * u * u;
+            double b = 3 * u * u * t;
+            double cc = 3 * u * t * t;
+            double d = t * t * t;
+            add(ring, transform,
+                    a * x0 + b * c.getControlX1() + cc * c.getControlX2() + d * c.getX(),
+                    a * y0 + b * c.getControlY1() + cc * c.getControlY2() + d * c.getY()
+            );
+        }
+    }
+
+    private static void add(List<Double> ring, Transform t, double x, double y) {
+        if (t != null) {
+            Point2D p = t.transform(x, y);
+            x = p.getX();
+            y = p.getY();
+        }
+        ring.add(x);
+        ring.add(-y);
+    }
+
+    private static void addRing(List<double[]> rings, List<Double> ring) {
+        if (ring == null || ring.size() < 6) {
+            return;
+        }
+        double[] xy = new double[ring.size()];
+        for (int i = 0; i < xy.length; i++) {
+            xy[i] = ring.get(i);
+        }
+        rings.add(xy);
+    }
+}
@@ -0,0 +1,415 @@
+/*
+    Licensed to the Apache Software Foundation (ASF) under one or more
+    contributor license agreements.  See the NOTICE file distributed with this
+    work for additional information regarding copyright ownership.  The ASF
+    licenses this file to you under the Apache License, Version 2.0
+    (the "License"); you may not use this file except in compliance with the
+    License.  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+    License for the specific language governing permissions and limitations
+    under the License.
+ */
+package com.maehem.mangocad.view;
+
+import com.maehem.mangocad.AppProperties;
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javafx.application.Platform;
+import javafx.geometry.Bounds;
+import javafx.scene.Node;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.scene.transform.Transform;
+import javax.imageio.ImageIO;
+
+/**
+ * Pictures of design previews, so the control panel can show a board or a
+ * schematic sheet without building its scene graph.
+ *
+ * Thumbnails are kept on disk under the settings directory, keyed by a hash
+ * of the design file's contents, so they live across launches and are
+ * dropped as soon as the file changes. The most recent are also kept in
+ * memory.
+ *
+ * Hashing, loading the model and disk work run on background threads. Only
+ * building the preview and taking its snapshot run on the FX thread, as
+ * JavaFX requires. Previews are never built off the FX thread, as JavaFX
+ * shape ops and text layout are not safe across threads.
+ *
+ * @author Mark J Koch ( @maehem on GitHub )
+ */
+public class ThumbnailCache {
+
+    private static final Logger LOGGER = ControlPanel.LOGGER;
+
+    public static final String CACHE_DIR_NAME = "thumbnails";
+
+    private static final int MAGIC = 0x4D435448; // "MCTH"
+    // Bump when previews are drawn differently, so old pictures are redrawn.
+    private static final int VERSION = 2;
+
+    /**
+     * Longest side of a thumbnail, in pixels.
+     */
+    public static final int MAX_PIXELS = 1200;
+
+    private static final int MAX_IN_MEMORY = 32;
+    private static final int MAX_ON_DISK = 500;
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    /**
+     * A rendered preview and the size of what it shows.
+     */
+    public static class Thumbnail {
+
+        private final Image image;
+        private final double nativeWidth;
+        private final double nativeHeight;
+
+        public Thumbnail(Image image, double nativeWidth, double nativeHeight) {
+            this.image = image;
+            this.nativeWidth = nativeWidth;
+            this.nativeHeight = nativeHeight;
+        }
+
+        public Image getImage() {
+            return image;
+        }
+
+        /**
+         * @return width of the preview before scaling, in model units.
+         */
+        public double getNativeWidth() {
+            return nativeWidth;
+        }
+
+        /**
+         * @return height of the preview before scaling, in model units.
+         */
+        public double getNativeHeight() {
+            return nativeHeight;
+        }
+    }
+
+    private static ThumbnailCache instance = null;
+
+    private final File dir;
+    private final ExecutorService executor;
+    private final Map<String, CompletableFuture<Thumbnail>> drawing = new HashMap<>();
+
+    // Access ordered, so the eldest entry is the least recently used.
+    private final LinkedHashMap<String, Thumbnail> memory = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Thumbnail> eldest) {
+            return size() > MAX_IN_MEMORY;
+        }
+    };
+
+    private ThumbnailCache() {
+        dir = new File(AppProperties.getInstance().getConfigDir(), CACHE_DIR_NAME);
+        int threads = Math.max(1, Math.min(2, Runtime.getRuntime().availableProcessors() - 1));
+        executor = Executors.newFixedThreadPool(threads, (r) -> {
+            Thread t = new Thread(r, "thumbnail-" + THREAD_COUNT.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public static synchronized ThumbnailCache getInstance() {
+        if (instance == null) {
+            instance = new ThumbnailCache();
+        }
+
+        return instance;
+    }
+
+    /**
+     * Get a thumbnail of a design file, drawing it if there is none for the
+     * file as it is now. Call from the FX thread.
+     *
+     * @param <T> type of model the preview is drawn from.
+     * @param f design file
+     * @param variant which picture of the file, e.g. "sheet-2". Letters,
+     * digits and dashes only.
+     * @param loader loads the model. Runs on a background thread and only
+     * when the thumbnail must be drawn.
+     * @param renderer builds the preview node from the model. Runs on the FX
+     * thread.
+     * @param background fill behind the preview.
+     * @param onReady gets the thumbnail on the FX thread. Not called if the
+     * file or model could not be read.
+     */
+    public <T> void request(File f, String variant, Callable<T> loader, Function<T, Node> renderer, Color background, Consumer<Thumbnail> onReady) {
+        submit(f, variant, loader, renderer, background, onReady);
+    }
+
+    /**
+     * Draw a thumbnail that will likely be asked for soon, such as the next
+     * sheet, if there is none yet. The model is loaded on a background
+     * thread and the preview is drawn on the FX thread, as for
+     * {@link #request}. A request for it while it is drawn waits for it.
+     *
+     * @param <T> type of model the preview is drawn from.
+     * @param f design file
+     * @param variant which picture of the file.
+     * @param loader loads the model. Runs on a background thread.
+     * @param renderer builds the preview node from the model. Runs on the FX
+     * thread.
+     * @param background fill behind the preview.
+     */
+    public <T> void prefetch(File f, String variant, Callable<T> loader, Function<T, Node> renderer, Color background) {
+        submit(f, variant, loader, renderer, background, null);
+    }
+
+    private <T> void submit(File f, String variant, Callable<T> loader, Function<T, Node> renderer,
+            Color background, Consumer<Thumbnail> onReady) {
+        executor.submit(() -> {
+            String key;
+            try {
+                key = hash(f) + "-" + variant;
+            } catch (IOException ex) {
+                LOGGER.log(Level.SEVERE, "Could not read for thumbnail: " + f.getAbsolutePath(), ex);
+                return;
+            }
+
+            Thumbnail thumbnail = fromMemory(key);
+            if (thumbnail == null) {
+                thumbnail = read(new File(dir, key + ".thumb"));
+                if (thumbnail != null) {
+                    toMemory(key, thumbnail);
+                }
+            }
+            if (thumbnail != null) {
+                LOGGER.log(Level.FINER, "Thumbnail cache hit: {0} {1}", new Object[]{f.getName(), variant});
+                if (onReady != null) {
+                    final Thumbnail found = thumbnail;
+                    Platform.runLater(() -> onReady.accept(found));
+                }
+                return;
+            }
+
+            // Only one drawing of each thumbnail at a time.
+            CompletableFuture<Thumbnail> drawn = new CompletableFuture<>();
+            CompletableFuture<Thumbnail> already = startDrawing(key, drawn);
+            if (already != null) {
+                if (onReady != null) {
+                    already.thenAccept((t) -> Platform.runLater(() -> onReady.accept(t)));
+                }
+                return;
+            }
+            if (onReady != null) {
+                drawn.thenAccept(onReady); // Completed on the FX thread.
+            }
+            drawn.whenComplete((t, ex) -> doneDrawing(key));
+
+            final T model;
+            try {
+                model = loader.call();
+            } catch (Exception ex) {
+                LOGGER.log(Level.SEVERE, "Could not load for thumbnail: " + f.getAbsolutePath(), ex);
+                drawn.completeExceptionally(ex);
+                return;
+            }
+            if (model == null) {
+                drawn.cancel(false);
+                return;
+            }
+            Platform.runLater(() -> {
+                long start = System.nanoTime();
+                Bounds b;
+                WritableImage image;
+                int[] argb;
+                try {
+                    Node preview = renderer.apply(model);
+                    b = preview.getBoundsInParent();
+                    image = snapshot(preview, b, background);
+                    argb = pixels(image);
+                } catch (RuntimeException ex) {
+                    LOGGER.log(Level.SEVERE, "Could not draw thumbnail: " + f.getAbsolutePath(), ex);
+                    drawn.completeExceptionally(ex);
+                    return;
+                }
+                Thumbnail done = new Thumbnail(image, b.getWidth(), b.getHeight());
+                LOGGER.log(Level.FINE, "Drew thumbnail of {0} {1} in {2}ms", new Object[]{
+                    f.getName(), variant, (System.nanoTime() - start) / 1000000
+                });
+                toMemory(key, done);
+                drawn.complete(done);
+
+                executor.submit(() -> {
+                    write(new File(dir, key + ".thumb"), done, argb, (int) image.getWidth(), (int) image.getHeight());
+                });
+            });
+        });
+    }
+
+    /**
+     * @return the drawing already under way for the key, or null if this
+     * one is now it.
+     */
+    private synchronized CompletableFuture<Thumbnail> startDrawing(String key, CompletableFuture<Thumbnail> drawing) {
+        return this.drawing.putIfAbsent(key, drawing);
+    }
+
+    private synchronized void doneDrawing(String key) {
+        drawing.remove(key);
+    }
+
+    private synchronized Thumbnail fromMemory(String key) {
+        return memory.get(key);
+    }
+
+    private synchronized void toMemory(String key, Thumbnail thumbnail) {
+        memory.put(key, thumbnail);
+    }
+
+    private static WritableImage snapshot(Node preview, Bounds b, Color background) {
+        double longest = Math.max(b.getWidth(), b.getHeight());
+        double scale = longest > 0 ? MAX_PIXELS / longest : 1.0;
+        if (preview instanceof LevelOfDetail.Scalable s) {
+            s.setPixelsPerUnit(scale);
+        }
+        SnapshotParameters params = new SnapshotParameters();
+        params.setFill(background);
+        params.setTransform(Transform.scale(scale, scale));
+        return preview.snapshot(params, null);
+    }
+
+    private static int[] pixels(WritableImage image) {
+        int w = (int) image.getWidth();
+        int h = (int) image.getHeight();
+        int[] argb = new int[w * h];
+        image.getPixelReader().getPixels(0, 0, w, h, PixelFormat.getIntArgbInstance(), argb, 0, w);
+        return argb;
+    }
+
+    /**
+     * @return SHA-256 of the file contents, in hex.
+     */
+    private static String hash(File f) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IOException("No SHA-256 on this platform.", ex);
+        }
+        byte[] buf = new byte[64 * 1024];
+        try (InputStream in = new FileInputStream(f)) {
+            int n;
+            while ((n = in.read(buf)) > 0) {
+                digest.update(buf, 0, n);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static Thumbnail read(File file) {
+        if (!file.isFile()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(file.toPath())))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return null;
+            }
+            double w = in.readDouble();
+            double h = in.readDouble();
+            Image image = new Image(in); // PNG for the rest.
+            if (image.isError()) {
+                LOGGER.log(Level.WARNING, "Thumbnail is damaged. Ignoring: {0}", file.getAbsolutePath());
+                return null;
+            }
+            file.setLastModified(System.currentTimeMillis()); // Recently used.
+            return new Thumbnail(image, w, h);
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Could not read thumbnail: " + file.getAbsolutePath(), ex);
+            return null;
+        }
+    }
+
+    /**
+     * Write the thumbnail beside its final name and move it into place, so a
+     * crash never leaves half a file.
+     */
+    private void write(File file, Thumbnail thumbnail, int[] argb, int w, int h) {
+        BufferedImage bi = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        bi.setRGB(0, 0, w, h, argb, 0, w);
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        File tmp = new File(file.getPath() + ".tmp");
+        try {
+            ImageIO.write(bi, "png", png);
+            dir.mkdirs();
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeDouble(thumbnail.getNativeWidth());
+                out.writeDouble(thumbnail.getNativeHeight());
+                png.writeTo(out);
+            }
+            try {
+                Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException ex) {
+            LOGGER.log(Level.SEVERE, "Could not write thumbnail: " + file.getAbsolutePath(), ex);
+            return;
+        }
+        prune();
+    }
+
+    /**
+     * Drop the least recently used thumbnails once there are too many.
+     * Thumbnails of changed files are never asked for again, so they go
+     * this way too.
+     */
+    private void prune() {
+        File[] files = dir.listFiles((d, name) -> name.endsWith(".thumb"));
+        if (files == null || files.length <= MAX_ON_DISK) {
+            return;
+        }
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (int i = 0; i < files.length - MAX_ON_DISK; i++) {
+            if (!files[i].delete()) {
+                LOGGER.log(Level.WARNING, "Could not delete old thumbnail: {0}", files[i].getAbsolutePath());
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+    Licensed to the Apache Software Foundation (ASF) under one or more
+    contributor license agreements.  See the NOTICE file distributed with this
+    work for additional information regarding copyright ownership.  The ASF
+    licenses this file to you under the Apache License, Version 2.0
+    (the "License"); you may not use this file except in compliance with the
+    License.  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+    License for the specific language governing permissions and limitations
+    under the License.
+ */
+package com.maehem.mangocad.view;
+
+import javafx.scene.control.Label;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.BorderPane;
+
+/**
+ * Shows a {@link ThumbnailCache.Thumbnail} scaled to fit, keeping its aspect
+ * ratio. Says it is loading until the thumbnail is set.
+ *
+ * @author Mark J Koch ( @maehem on GitHub )
+ */
+public class ThumbnailView extends BorderPane {
+
+    private final ImageView imageView = new ImageView();
+    private ThumbnailCache.Thumbnail thumbnail = null;
+
+    public ThumbnailView() {
+        imageView.setPreserveRatio(true);
+        imageView.setSmooth(true);
+        setCenter(new Label("Loading..."));
+        setMinSize(0, 0);
+    }
+
+    public void setThumbnail(ThumbnailCache.Thumbnail thumbnail) {
+        this.thumbnail = thumbnail;
+        imageView.setImage(thumbnail.getImage());
+        setCenter(imageView);
+    }
+
+    public ThumbnailCache.Thumbnail getThumbnail() {
+        return thumbnail;
+    }
+
+    @Override
+    protected void layoutChildren() {
+        // A fit of zero means no fit, so never shrink below one pixel.
+        imageView.setFitWidth(Math.max(1, getWidth()));
+        imageView.setFitHeight(Math.max(1, getHeight()));
+        super.layoutChildren();
+    }
+
+    @Override
+    protected double computePrefWidth(double height) {
+        return 0;
+    }
+
+    @Override
+    protected double computePrefHeight(double width) {
+        return 0;
+    }
+}
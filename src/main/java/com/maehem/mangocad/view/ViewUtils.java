@@ -130,9 +130,7 @@ public class ViewUtils {
     }
 
     public static final Font getDefaultFont(double size) {
-        Font font = Font.loadFont(
-                ViewUtils.class.getResourceAsStream(FONT_PATH),
-                size);
+        Font font = FontCache.getInstance().getFont(size);
 
         return font;
     }
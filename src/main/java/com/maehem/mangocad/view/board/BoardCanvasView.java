@@ -0,0 +1,274 @@
+/*
+    Licensed to the Apache Software Foundation (ASF) under one or more
+    contributor license agreements.  See the NOTICE file distributed with this
+    work for additional information regarding copyright ownership.  The ASF
+    licenses this file to you under the Apache License, Version 2.0
+    (the "License"); you may not use this file except in compliance with the
+    License.  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+    License for the specific language governing permissions and limitations
+    under the License.
+ */
+package com.maehem.mangocad.view.board;
+
+import com.maehem.mangocad.model.ColorPalette;
+import com.maehem.mangocad.model.element.Element;
+import com.maehem.mangocad.model.element.basic.*;
+import com.maehem.mangocad.model.element.drawing.Board;
+import com.maehem.mangocad.model.element.drawing.Layers;
+import com.maehem.mangocad.model.element.enums.BoardLayers;
+import com.maehem.mangocad.model.element.enums.TextAlign;
+import com.maehem.mangocad.model.element.enums.TextFont;
+import com.maehem.mangocad.model.element.highlevel.Footprint;
+import com.maehem.mangocad.model.element.highlevel.Signal;
+import com.maehem.mangocad.model.element.misc.DesignRules;
+import com.maehem.mangocad.model.element.misc.LayerElement;
+import com.maehem.mangocad.model.util.PolygonKernel;
+import com.maehem.mangocad.model.util.Region;
+import com.maehem.mangocad.view.ColorUtils;
+import com.maehem.mangocad.view.canvas.CanvasItem;
+import com.maehem.mangocad.view.canvas.LayeredCanvas;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javafx.application.Platform;
+import javafx.scene.paint.Color;
+
+/**
+ * A read-only view of a board, layer by layer, drawn on canvases.
+ *
+ * Large boards make tens of thousands of shapes. Here each wire, pad and
+ * via is only a {@link Region} worked out by the {@link PolygonKernel} on
+ * the common pool, and then painted, so the scene graph holds one canvas
+ * per layer however big the board is.
+ *
+ * @author Mark J Koch ( @maehem on GitHub )
+ */
+public class BoardCanvasView extends LayeredCanvas {
+
+    private static final Logger LOGGER = BoardPreview.LOGGER;
+
+    private static final int HOLES_LAYER = 45;
+    private static final int VIAS_LAYER = 18;
+    private static final int PADS_LAYER = 17;
+
+    /**
+     * @param board to show.
+     * @param background colour behind the layers.
+     */
+    public BoardCanvasView(Board board, Color background) {
+        super(background);
+        CompletableFuture.supplyAsync(() -> createItems(board)).whenComplete((items, ex) -> {
+            if (ex != null) {
+                LOGGER.log(Level.SEVERE, "Board canvas failed to build.", ex);
+                return;
+            }
+            Platform.runLater(() -> {
+                items.forEach((layer, list) -> setLayer(layer, drawingOrder(layer), list));
+                double[] b = getContentBounds();
+                if (b != null) {
+                    fit(b[0], b[1], b[2], b[3]);
+                }
+            });
+        });
+    }
+
+    /**
+     * Bottom copper is drawn first and top copper over it, then every other
+     * layer by number.
+     */
+    private static int drawingOrder(int layer) {
+        return layer <= BoardLayers.BOTTOM.getNumber() ? BoardLayers.BOTTOM.getNumber() - layer : layer;
+    }
+
+    /**
+     * Work out what to draw on each layer. Touches no JavaFX nodes, so it
+     * may run on any thread.
+     *
+     * @param board to draw
+     * @return items keyed by layer number.
+     */
+    public static Map<Integer, List<CanvasItem>> createItems(Board board) {
+        long start = System.nanoTime();
+        Layers layers = board.getParentDrawing().getLayers();
+        ColorPalette palette = layers.getPalette();
+        DesignRules dr = board.getDesignRules();
+        // Same fixed point kernel as BoardPreview, so both show the same pour.
+        PolygonKernel kernel = new PolygonKernel(PolygonKernel.DEFAULT_ARC_TOLERANCE, true);
+        Map<Integer, List<CanvasItem>> items = new TreeMap<>();
+        ItemSink sink = (layer, shape) -> {
+            if (!shape.isEmpty()) {
+                items.computeIfAbsent(layer, (l) -> new ArrayList<>())
+                        .add(CanvasItem.fill(shape, color(layers, palette, layer)));
+            }
+        };
+
+        for (Element e : board.getPlain()) {
+            addDrawing(kernel, sink, e, 0, 0, 0, false);
+            if (e instanceof TextElement t && t.getFont() == TextFont.VECTOR) {
+                sink.add(t.getLayerNum(), kernel.text(t));
+            } else if (e instanceof TextElement t) {
+                addText(items, layers, palette, t.getLayerNum(), t.getValue(),
+                        t.getX(), t.getY(), t.getSize(), t.getRotationProperty().get(),
+                        t.getRotationProperty().isMirror(), t.getAlign());
+            } else if (e instanceof Hole h) {
+                sink.add(HOLES_LAYER, kernel.circle(h.getX(), h.getY(), h.getDrill() / 2.0));
+            }
+        }
+
+        for (ElementElement el : board.getElements()) {
+            Footprint pkg = el.getFootprintPkg();
+            if (pkg == null) {
+                LOGGER.log(Level.SEVERE, "No package: {0} for element: {1}",
+                        new Object[]{el.getFootprint(), el.getName()});
+                continue;
+            }
+            double x = el.getX();
+            double y = el.getY();
+            double rot = el.getRot();
+            boolean mirror = el.getRotation().isMirror();
+            for (Element e : pkg.getElements()) {
+                if (e instanceof PadSMD p) {
+                    sink.add(BoardSide.TOP.packageLayer(p.getLayerNum(), mirror),
+                            kernel.pad(p).transform(x, y, rot, mirror));
+                } else if (e instanceof PadTHD p) {
+                    Region drill = kernel.circle(p.getX(), p.getY(), p.getDrill() / 2.0);
+                    sink.add(PADS_LAYER, kernel.subtract(kernel.pad(p), drill).transform(x, y, rot, mirror));
+                } else if (e instanceof Hole h) {
+                    sink.add(HOLES_LAYER, kernel.circle(h.getX(), h.getY(), h.getDrill() / 2.0).transform(x, y, rot, mirror));
+                } else if (e instanceof TextElement t) {
+                    if (t.getValue() == null || (el.isSmashed() && t.getValue().startsWith(">"))) {
+                        continue; // Drawn from the attributes below.
+                    }
+                    String value = switch (t.getValue()) {
+                        case ">NAME" -> el.getName();
+                        case ">VALUE" -> el.getValue();
+                        default -> t.getValue();
+                    };
+                    double[] at = place(t.getX(), t.getY(), x, y, rot, mirror);
+                    addText(items, layers, palette,
+                            BoardSide.TOP.packageLayer(t.getLayerNum(), mirror), value,
+                            at[0], at[1], t.getSize(), rot + t.getRotationProperty().get(),
+                            mirror != t.getRotationProperty().isMirror(), t.getAlign());
+                } else {
+                    addDrawing(kernel, (layer, shape) -> sink.add(
+                            BoardSide.TOP.packageLayer(layer, mirror), shape
+                    ), e, x, y, rot, mirror);
+                }
+            }
+            // Smashed names and values sit where they were moved to.
+            for (Attribute a : el.getAttributes()) {
+                if ("off".equalsIgnoreCase(a.getDisplay())) {
+                    continue;
+                }
+                String value = switch (String.valueOf(a.getName())) {
+                    case "NAME" -> el.getName();
+                    case "VALUE" -> el.getValue();
+                    default -> a.getValue();
+                };
+                if (value != null && !value.isEmpty()) {
+                    addText(items, layers, palette, a.getLayerNum(), value,
+                            a.getX(), a.getY(), a.getSize(), a.getRotation().get(),
+                            a.getRotation().isMirror(), a.getAlign());
+                }
+            }
+        }
+
+        for (Signal sig : board.getSignals()) {
+            for (Element e : sig.getElements()) {
+                if (e instanceof Via v) {
+                    double r = v.getDerivedDiameter(dr, Via.Layer.TOP) / 2.0;
+                    sink.add(VIAS_LAYER, kernel.subtract(
+                            kernel.circle(v.getX(), v.getY(), r),
+                            kernel.circle(v.getX(), v.getY(), v.getDrill() / 2.0)
+                    ));
+                } else {
+                    addDrawing(kernel, sink, e, 0, 0, 0, false);
+                }
+            }
+        }
+
+        LOGGER.log(Level.FINE, "Board canvas: {0} layers built in {1}ms", new Object[]{
+            items.size(), (System.nanoTime() - start) / 1000000
+        });
+        return items;
+    }
+
+    private interface ItemSink {
+
+        void add(int layer, Region shape);
+    }
+
+    /**
+     * Add the shape of a wire, circle, rectangle or polygon. Anything else
+     * is left to the caller.
+     */
+    private static void addDrawing(PolygonKernel kernel, ItemSink sink, Element e,
+            double x, double y, double rot, boolean mirror) {
+        if (e instanceof Wire w) {
+            sink.add(w.getLayerNum(), kernel.wire(w).transform(x, y, rot, mirror));
+        } else if (e instanceof PolygonElement p) {
+            Region fill = kernel.polygon(p);
+            if (p.getWidth() > 0) {
+                fill = kernel.offset(fill, p.getWidth() / 2.0);
+            }
+            sink.add(p.getLayerNum(), fill.transform(x, y, rot, mirror));
+        } else if (e instanceof CircleElement c) {
+            Region shape;
+            if (c.getWidth() == 0) { // Filled
+                shape = kernel.circle(c.getX(), c.getY(), c.getRadius());
+            } else {
+                double half = c.getWidth() / 2.0;
+                shape = kernel.subtract(
+                        kernel.circle(c.getX(), c.getY(), c.getRadius() + half),
+                        kernel.circle(c.getX(), c.getY(), Math.max(0, c.getRadius() - half))
+                );
+            }
+            sink.add(c.getLayerNum(), shape.transform(x, y, rot, mirror));
+        } else if (e instanceof RectangleElement r) {
+            sink.add(r.getLayerNum(), kernel.rectangle(
+                    (r.getX1() + r.getX2()) / 2.0, (r.getY1() + r.getY2()) / 2.0,
+                    Math.abs(r.getX2() - r.getX1()), Math.abs(r.getY2() - r.getY1()),
+                    r.getRot()
+            ).transform(x, y, rot, mirror));
+        }
+    }
+
+    private static void addText(Map<Integer, List<CanvasItem>> items, Layers layers, ColorPalette palette,
+            int layer, String value, double x, double y, double size, double rot, boolean mirror,
+            TextAlign align) {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        items.computeIfAbsent(layer, (l) -> new ArrayList<>()).add(CanvasItem.text(
+                value, x, y, size, rot, mirror, align, color(layers, palette, layer)
+        ));
+    }
+
+    /**
+     * @return a package point placed the way {@link Region#transform} places
+     * shapes.
+     */
+    private static double[] place(double px, double py, double x, double y, double rot, boolean mirror) {
+        double rad = Math.toRadians(rot);
+        double mx = mirror ? -px : px;
+        return new double[]{
+            mx * Math.cos(rad) - py * Math.sin(rad) + x,
+            mx * Math.sin(rad) + py * Math.cos(rad) + y
+        };
+    }
+
+    private static Color color(Layers layers, ColorPalette palette, int layer) {
+        LayerElement le = layers.get(layer);
+        return le == null ? Color.GRAY : ColorUtils.getColor(palette.getHex(le.getColorIndex()));
+    }
+}
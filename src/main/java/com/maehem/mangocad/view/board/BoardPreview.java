@@ -21,35 +21,34 @@ import com.maehem.mangocad.model.element.Element;
 import com.maehem.mangocad.model.element.basic.*;
 import com.maehem.mangocad.model.element.drawing.Board;
 import com.maehem.mangocad.model.element.drawing.Layers;
-import com.maehem.mangocad.model.element.drawing.Library;
 import com.maehem.mangocad.model.element.enums.GridUnit;
+import com.maehem.mangocad.model.element.enums.TextFont;
 import com.maehem.mangocad.model.element.highlevel.Footprint;
 import com.maehem.mangocad.model.element.highlevel.Signal;
+import com.maehem.mangocad.model.element.misc.CompiledRules;
 import com.maehem.mangocad.model.element.misc.DesignRules;
 import com.maehem.mangocad.model.element.misc.Grid;
 import com.maehem.mangocad.model.element.property.LayerNumberProperty;
 import com.maehem.mangocad.model.util.DrcDefs;
+import com.maehem.mangocad.model.util.PolygonKernel;
+import com.maehem.mangocad.model.util.Region;
 import com.maehem.mangocad.view.ColorUtils;
+import com.maehem.mangocad.view.LevelOfDetail;
+import com.maehem.mangocad.view.RegionShapes;
 import com.maehem.mangocad.view.library.LibraryElementNode;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javafx.collections.ObservableList;
 import javafx.scene.Group;
 import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
-import javafx.scene.shape.Path;
-import javafx.scene.shape.Polygon;
 import javafx.scene.shape.Rectangle;
 import javafx.scene.shape.Shape;
-import javafx.scene.shape.StrokeLineJoin;
 import javafx.scene.shape.StrokeType;
 import javafx.scene.transform.Rotate;
 
@@ -57,11 +56,17 @@ import javafx.scene.transform.Rotate;
  *
  * @author Mark J Koch ( @maehem on GitHub )
  */
-public class BoardPreview extends Group {
+public class BoardPreview extends Group implements LevelOfDetail.Scalable {
 
     public static final Logger LOGGER = Logger.getLogger("com.maehem.mangocad");
 
     private final Board board;
+    private final Group topSide;
+    private final LevelOfDetail topDetail;
+    private Group bottomSide = null; // Built when first shown.
+    private LevelOfDetail bottomDetail = null;
+    private double pixelsPerUnit = 0;
+    private BoardSide side = BoardSide.TOP;
 
     public BoardPreview(Board board) {
         super();
@@ -69,7 +74,15 @@ public class BoardPreview extends Group {
         Grid grid = board.getParentDrawing().getGrid();
         // Calc grid settings from here.
         //populateNodeAsDesign(); // Get bounds as input for grid.
-        populateNodeAsMfgPreview();
+
+        // Only the top is built now. Most previews, like thumbnails, never
+        // show the bottom. The geometry is worked out on the pool while this
+        // thread makes the nodes.
+        List<Runnable> finish = new ArrayList<>();
+        topSide = createMfgPreview(BoardSide.TOP, finish);
+        finish.forEach(Runnable::run);
+        topDetail = new LevelOfDetail(topSide);
+        getChildren().add(topSide);
 
 //        Group copper = populateGrid(
 //                getBoundsInLocal().getWidth(),
@@ -79,6 +92,50 @@ public class BoardPreview extends Group {
 //        getChildren().add(copper);
     }
 
+    /**
+     * @return side of the board being shown.
+     */
+    public BoardSide getSide() {
+        return side;
+    }
+
+    /**
+     * Show the top or the bottom of the board. The bottom is seen from
+     * below, so it is mirrored. It is built the first time it is shown,
+     * after that nothing is recomputed.
+     *
+     * @param side to show
+     */
+    public void setSide(BoardSide side) {
+        this.side = side;
+        if (side == BoardSide.BOTTOM && bottomSide == null) {
+            List<Runnable> finish = new ArrayList<>();
+            bottomSide = createMfgPreview(BoardSide.BOTTOM, finish);
+            finish.forEach(Runnable::run);
+            bottomSide.setScaleX(-1); // Seen from below.
+            bottomDetail = new LevelOfDetail(bottomSide);
+            if (pixelsPerUnit > 0) {
+                bottomDetail.setPixelsPerUnit(pixelsPerUnit);
+            }
+        }
+        getChildren().setAll(side == BoardSide.TOP ? topSide : bottomSide);
+    }
+
+    /**
+     * Draw small texts, pads and vias as plain boxes when zoomed out. Both
+     * sides are set, so switching sides keeps the detail level.
+     *
+     * @param pixelsPerUnit screen pixels per mm.
+     */
+    @Override
+    public void setPixelsPerUnit(double pixelsPerUnit) {
+        this.pixelsPerUnit = pixelsPerUnit;
+        topDetail.setPixelsPerUnit(pixelsPerUnit);
+        if (bottomDetail != null) {
+            bottomDetail.setPixelsPerUnit(pixelsPerUnit);
+        }
+    }
+
     private Group populateGrid(double bW, double bH, double gridSize) {
         Group g = new Group();
 
@@ -165,13 +222,8 @@ public class BoardPreview extends Group {
         }
 
         for (ElementElement element : board.getElements()) {
-
-            Optional<Library> libSearch = board.getLibraries().stream().filter(
-                    library -> library.getName().equals(element.getLibrary())
-            ).findFirst();
-
-            if (!libSearch.isEmpty()) {
-                Footprint pkg = libSearch.get().getPackage(element.getFootprint());
+            Footprint pkg = element.getFootprintPkg();
+            if (pkg != null) {
                 Node pkgPreview = LibraryElementNode.createPackageNode(
                         pkg, board.getParentDrawing().getLayers(),
                         board.getParentDrawing().getLayers().getPalette()
@@ -182,7 +234,7 @@ public class BoardPreview extends Group {
                 chld.add(pkgPreview);
             } else {
                 LOGGER.log(Level.SEVERE,
-                        "Couldn''t find local library called: {0} for package: {1}",
+                        "Couldn''t find package: {1} in local library: {0}",
                         new Object[]{element.getLibrary(), element.getFootprint()}
                 );
             }
@@ -233,10 +285,18 @@ public class BoardPreview extends Group {
     }
 
     /**
-     * Simplified version of PCB representing a manufactured facsimile.
+     * Build the manufacturing preview of one side: copper, mask, silk and
+     * holes.
+     *
+     * JavaFX shapes are made and converted on this thread. Pouring and mask
+     * cutting are handed to the pool, and their results are filled in by
+     * the steps added to finish, which must later be run on this thread.
      *
+     * @param side of the board
+     * @param finish gets the steps that fill in the pool results.
+     * @return the preview
      */
-    private void populateNodeAsMfgPreview() {
+    private Group createMfgPreview(BoardSide side, List<Runnable> finish) {
         // Set default colors
         Color solderMaskColor = new Color(0.0, 0.8, 0.0, 0.3); // Green
         Color silkScreenColor = new Color(0.9, 0.9, 0.9, 1.0); // Almost White
@@ -275,28 +335,14 @@ public class BoardPreview extends Group {
 //        }
 //        LayerElement[] layers = board.getParentDrawing().getLayers();
 //        ColorPalette palette = board.getParentDrawing().getPalette();
-        ObservableList<Node> chld = getChildren();
+        Group preview = new Group();
+        ObservableList<Node> chld = preview.getChildren();
 
         ArrayList<Node> silkNodes = new ArrayList<>();
         ArrayList<Node> maskNodes = new ArrayList<>();
 
         ArrayList<Shape> restrict = new ArrayList<>();
-
-        //Map<String, List<Person>> groups = new HashMap<String, List<Person>>();
-        Map<String, ArrayList<Shape>> copperSignals2 = new HashMap<>();
-        Map<String, ArrayList<Shape>> isolationSignals2 = new HashMap<>(); // Isolation except own signal.
-        Map<String, ArrayList<Shape>> restricts2 = new HashMap<>(); // Isolation but always.
-
-        //ArrayList<ArrayList<Shape>> copperSignals = new ArrayList<>();
-        //ArrayList<ArrayList<Shape>> isolationSignals = new ArrayList<>();
-        ArrayList<ArrayList<SignalPolygon>> signalPolys = new ArrayList<>();
-        signalPolys.add(new ArrayList<>());
-        signalPolys.add(new ArrayList<>());
-        signalPolys.add(new ArrayList<>());
-        signalPolys.add(new ArrayList<>());
-        signalPolys.add(new ArrayList<>());
-        signalPolys.add(new ArrayList<>());
-        signalPolys.add(new ArrayList<>());
+        ArrayList<TextElement> restrictTexts = new ArrayList<>(); // Vector font
 
         // Copper is ranked.
         // Polygons have isolate (1..6) but all other wires/pads are isolate (0)
@@ -309,31 +355,16 @@ public class BoardPreview extends Group {
         rank.add(new ArrayList<>());
         rank.add(new ArrayList<>());
 
-        ArrayList<ArrayList<Node>> isolate = new ArrayList<>();
-        isolate.add(new ArrayList<>());
-        isolate.add(new ArrayList<>());
-        isolate.add(new ArrayList<>());
-        isolate.add(new ArrayList<>());
-        isolate.add(new ArrayList<>());
-        isolate.add(new ArrayList<>());
-        isolate.add(new ArrayList<>());
-
         ArrayList<Node> holeNodes = new ArrayList<>();
         ArrayList<Wire> substrateWires = new ArrayList<>(); // Wires that should make a closed shape.
 
         DesignRules dr = board.getDesignRules();
-        String drMinWire = dr.getRule(DrcDefs.MS_WIDTH); // Wire Width
-        Double wireMin = GridUnit.toMM(drMinWire);
-        String drWire2Wire = dr.getRule(DrcDefs.MD_WIRE2WIRE); // Wire to Wire
-        Double wireIsolate = GridUnit.toMM(drWire2Wire);
-//        String drDim2Wire = dr.getRule(DrcDefs.MD_COPPER2DIMENSION);
-//        Double dimIsolate = Units.toMM(drDim2Wire);
-        String drThIso = dr.getRule(DrcDefs.SL_THERMAL_ISOLATE); // Thermal Isolation
-        Double thermalIsolate = GridUnit.toMM(drThIso);
-//        String mlStopMax = dr.getRule(DrcDefs.ML_MAX_STOP_FRAME); // Thermal Isolation
-//        Double viaStopMask = Units.toMM(mlStopMax);
-        String mlViaStopLimit = dr.getRule(DrcDefs.ML_VIA_STOP_LIMIT); // Thermal Isolation
-        Double viaStopLimit = GridUnit.toMM(mlViaStopLimit);
+        CompiledRules rules = dr.getCompiled();
+        double wireMin = rules.get(DrcDefs.MS_WIDTH); // Wire Width
+        double wireIsolate = rules.get(DrcDefs.MD_WIRE2WIRE); // Wire to Wire
+//        double dimIsolate = rules.get(DrcDefs.MD_COPPER2DIMENSION);
+//        double viaStopMask = rules.get(DrcDefs.ML_MAX_STOP_FRAME);
+        double viaStopLimit = rules.get(DrcDefs.ML_VIA_STOP_LIMIT); // Gen mask for vias over this drill size.
 
         // Decide Top or bottom
         // Draw background
@@ -357,20 +388,18 @@ public class BoardPreview extends Group {
 //            }
             // polygon | wire | text | dimension | circle | spline | rectangle | frame | hole
             if (element instanceof PolygonElement e) {
-                switch (e.getLayerNum()) {
+                switch (side.asTop(e.getLayerNum())) {
                     case 21 /*, 22 */, 25 /*, 26 */ -> {
                         Node n = LibraryElementNode.createPolygonCurved(e, silkScreenColor, false);
                         silkNodes.add(n);
                     }
                     case 1 /*, 16 */ -> { // TODO: Plain Polygons should not appear in Layer1-16.
                         // Text in etch.
-                        // TODO: Toggle top or bottom.
                         Node n = LibraryElementNode.createPolygonCurved(e, copperColor, false);
                         rank.get(0).add(n);
                     }
                     case 29 -> { // StopMask Top
                         // Text in etch.
-                        // TODO: Toggle top or bottom.
                         Node n = LibraryElementNode.createPolygonCurved(e, solderMaskColor, false);
                         maskNodes.add(n);
                     }
@@ -379,10 +408,9 @@ public class BoardPreview extends Group {
                     }
                 }
             } else if (element instanceof Wire e) {
-                switch (e.getLayerNum()) {
+                switch (side.asTop(e.getLayerNum())) {
                     case 1 /* , 16 */ -> { // TODO: Plain Wire should not appear in Layer1-16.
                         // Text in etch.
-                        // TODO: Toggle top or bottom.
                         Node n = LibraryElementNode.createWireNode(e, copperColor, false);
                         rank.get(0).add(n);
                     }
@@ -402,29 +430,33 @@ public class BoardPreview extends Group {
                     }
                 }
             } else if (element instanceof TextElement e) {
-                switch (e.getLayerNum()) {
+                switch (side.asTop(e.getLayerNum())) {
                     case 1 /*, 16 */ -> {
                         // Text in etch.
-                        // TODO: Toggle top or bottom.
                         List<Shape> n = LibraryElementNode.createText2(e, null, copperColor, null, false);
                         rank.get(0).addAll(n);
 
-                        TextElement textIsolate = e.copy();
-                        int ratio = textIsolate.getRatio();
-                        double size = textIsolate.getSize();
-                        double stroke = textIsolate.getDerivedStroke();
-                        double thick = stroke + wireIsolate * 2.0;
-                        double newRatio = thick / (size * 0.01);
-
-                        //textIsolate.setRatio((int) newRatio);
-                        textIsolate.setRatio((int) newRatio);
-                        LOGGER.log(Level.SEVERE,
-                                "Old ratio: {0}  new ratio: {1} oldStroke: {2}   new Stroke:{3}",
-                                new Object[]{ratio, newRatio, stroke, textIsolate.getDerivedStroke()}
-                        );
-
-                        List<Shape> rn = LibraryElementNode.createText2(textIsolate, null, copperColor, null, false);
-                        restrict.addAll(rn);
+                        if (e.getFont() == TextFont.VECTOR) {
+                            // Isolated from its own strokes, by the kernel.
+                            restrictTexts.add(e);
+                        } else {
+                            TextElement textIsolate = e.copy();
+                            int ratio = textIsolate.getRatio();
+                            double size = textIsolate.getSize();
+                            double stroke = textIsolate.getDerivedStroke();
+                            double thick = stroke + wireIsolate * 2.0;
+                            double newRatio = thick / (size * 0.01);
+
+                            //textIsolate.setRatio((int) newRatio);
+                            textIsolate.setRatio((int) newRatio);
+                            LOGGER.log(Level.SEVERE,
+                                    "Old ratio: {0}  new ratio: {1} oldStroke: {2}   new Stroke:{3}",
+                                    new Object[]{ratio, newRatio, stroke, textIsolate.getDerivedStroke()}
+                            );
+
+                            List<Shape> rn = LibraryElementNode.createText2(textIsolate, null, copperColor, null, false);
+                            restrict.addAll(rn);
+                        }
                     }
                     case 21 /*, 22 */, 25 /*, 26 */ -> {
                         List<Shape> n = LibraryElementNode.createText2(e, null, silkScreenColor, null, true);
@@ -444,7 +476,7 @@ public class BoardPreview extends Group {
 //                        e, layers, palette)
 //                );
             } else if (element instanceof CircleElement e) {
-                switch (e.getLayerNum()) {
+                switch (side.asTop(e.getLayerNum())) {
                     case 1 /*, 16 */ -> {
                         Node n = LibraryElementNode.createCircleNode(e, copperColor, false);
                         rank.get(0).add(n);
@@ -464,10 +496,9 @@ public class BoardPreview extends Group {
                 // Only the plain group can have Spline and the Spline can only
                 // be on the Dimension layer.
             } else if (element instanceof RectangleElement e) {
-                switch (e.getLayerNum()) {
+                switch (side.asTop(e.getLayerNum())) {
                     case 1 /*, 16 */ -> {
                         // Text in etch.
-                        // TODO: Toggle top or bottom.
                         Node n = LibraryElementNode.createRectangle(e, copperColor, false);
                         rank.get(0).add(n);
                     }
@@ -502,11 +533,16 @@ public class BoardPreview extends Group {
 
         LOGGER.log(Level.SEVERE, "Do Elements.");
         for (ElementElement element : board.getElements()) { // Component Packages
-            Library lib = board.getLibrary(element.getLibrary());
-            //if (lib != null) {
-            Footprint pkg = lib.getPackage(element.getFootprint());
+            Footprint pkg = element.getFootprintPkg();
             if (pkg != null) {
-                List<Shape> unusedPads = LibraryElementNode.createPackageUnusedPads(pkg, board, element, 1, copperColor, 0);
+                // Layers in the package that land on this side.
+                boolean mirror = element.getRotation().isMirror();
+                int copperLayer = side.packageLayer(1, mirror);
+                int placeLayer = side.packageLayer(21, mirror);
+                int namesLayer = side.packageLayer(25, mirror);
+                int stopLayer = side.packageLayer(29, mirror);
+
+                List<Shape> unusedPads = LibraryElementNode.createPackageUnusedPads(pkg, board, element, copperLayer, copperColor, 0);
 
                 // TODO: Apply layoutX/Y in createPackage method
                 for (Shape s : unusedPads) {
@@ -516,7 +552,7 @@ public class BoardPreview extends Group {
                 }
                 rank.get(0).addAll(unusedPads);
 
-                List<Shape> unusedPadsIso = LibraryElementNode.createPackageUnusedPads(pkg, board, element, 1, copperColor, wireIsolate);
+                List<Shape> unusedPadsIso = LibraryElementNode.createPackageUnusedPads(pkg, board, element, copperLayer, copperColor, wireIsolate);
                 for (Shape s : unusedPadsIso) {
                     s.setLayoutX(element.getX());
                     s.setLayoutY(-element.getY());
@@ -525,13 +561,13 @@ public class BoardPreview extends Group {
                 restrict.addAll(unusedPadsIso);
 
                 // Layer 1 other plain things
-                List<Shape> topPlain = LibraryElementNode.createPackageMfgPreviewNode(pkg, element, 1, copperColor, 0);
+                List<Shape> topPlain = LibraryElementNode.createPackageMfgPreviewNode(pkg, element, copperLayer, copperColor, 0);
 //                topPlain.setLayoutX(element.getX());
 //                topPlain.setLayoutY(-element.getY());
 //                topPlain.getTransforms().add(new Rotate(-element.getRot()));
                 rank.get(0).addAll(topPlain);
 
-                List<Shape> topPlainIso = LibraryElementNode.createPackageMfgPreviewNode(pkg, element, 1, copperColor, wireIsolate);
+                List<Shape> topPlainIso = LibraryElementNode.createPackageMfgPreviewNode(pkg, element, copperLayer, copperColor, wireIsolate);
                 restrict.addAll(topPlainIso);
 
 //                // Drills
@@ -546,29 +582,29 @@ public class BoardPreview extends Group {
 
                 // Outlines (ex. cyber-1 card pkg)
                 // Silk Items -- Shapes only
-                List<Shape> silkShapes = LibraryElementNode.createPackageMfgPreviewNode(pkg, element, 25, silkScreenColor, 0);
+                List<Shape> silkShapes = LibraryElementNode.createPackageMfgPreviewNode(pkg, element, namesLayer, silkScreenColor, 0);
 //                silkName.setLayoutX(element.getX());
 //                silkName.setLayoutY(-element.getY());
 //                silkName.getTransforms().add(new Rotate(-element.getRot()));
                 silkNodes.addAll(silkShapes);
 
                 // Silk Items -- Place
-                List<Shape> silkPlace = LibraryElementNode.createPackageMfgPreviewNode(pkg, element, 21, silkScreenColor, 0);
+                List<Shape> silkPlace = LibraryElementNode.createPackageMfgPreviewNode(pkg, element, placeLayer, silkScreenColor, 0);
 //                silkPlace.setLayoutX(element.getX());
 //                silkPlace.setLayoutY(-element.getY());
 //                silkPlace.getTransforms().add(new Rotate(-element.getRot()));
                 silkNodes.addAll(silkPlace);
 
                 // Text Nodes Silk Place
-                List<Node> silkTxtPlace = LibraryElementNode.createPackageMfgPreviewTxtNode(pkg, element, 21, silkScreenColor, 0);
+                List<Node> silkTxtPlace = LibraryElementNode.createPackageMfgPreviewTxtNode(pkg, element, placeLayer, silkScreenColor, 0);
                 silkNodes.addAll(silkTxtPlace);
 
                 // Text Nodes Silk Name
-                List<Node> silkTxtName = LibraryElementNode.createPackageMfgPreviewTxtNode(pkg, element, 25, silkScreenColor, 0);
+                List<Node> silkTxtName = LibraryElementNode.createPackageMfgPreviewTxtNode(pkg, element, namesLayer, silkScreenColor, 0);
                 silkNodes.addAll(silkTxtName);
 
                 // Mask Items
-                List<Shape> stopMask = LibraryElementNode.createPackageMfgPreviewNode(pkg, element, 29, solderMaskColor, 0);
+                List<Shape> stopMask = LibraryElementNode.createPackageMfgPreviewNode(pkg, element, stopLayer, solderMaskColor, 0);
 //                for (Shape s : stopMask) {
 //                    s.setLayoutX(element.getX());
 //                    s.setLayoutY(-element.getY());
@@ -577,11 +613,11 @@ public class BoardPreview extends Group {
                 maskNodes.addAll(stopMask);
 
                 // Text Mask Nodes
-                List<Node> maskTxt = LibraryElementNode.createPackageMfgPreviewTxtNode(pkg, element, 29, silkScreenColor, 0);
+                List<Node> maskTxt = LibraryElementNode.createPackageMfgPreviewTxtNode(pkg, element, stopLayer, silkScreenColor, 0);
                 maskNodes.addAll(maskTxt);
 
                 // Text Top Copper Nodes
-                List<Node> topCopperText = LibraryElementNode.createPackageMfgPreviewTxtNode(pkg, element, 1, silkScreenColor, 0);
+                List<Node> topCopperText = LibraryElementNode.createPackageMfgPreviewTxtNode(pkg, element, copperLayer, silkScreenColor, 0);
                 rank.get(0).addAll(topCopperText);
 
                 // TODO:  FIX ME!!!
@@ -590,191 +626,26 @@ public class BoardPreview extends Group {
 //                restrict.addAll(restrictText);
             } else {
                 LOGGER.log(Level.SEVERE,
-                        "Couldn''t find local library called: {0} for package: {1}",
+                        "Couldn''t find package: {1} in local library: {0}",
                         new Object[]{element.getLibrary(), element.getFootprint()}
                 );
             }
         }
 
-        // Polys first so that crefs can detect overlap for thermals.
-        for (Signal sig : board.getSignals()) {
-
-            ArrayList<Shape> copper = new ArrayList<>();
-            ArrayList<Shape> isolation = new ArrayList<>();
-            ArrayList<Shape> restricts = new ArrayList<>();
-
-            for (Element el : sig.getElements()) {
-                if (el instanceof SignalPolygon ep) {
-                    if (ep.getLayerNum() != 1 && (!((el instanceof Via) || (el instanceof ContactRef)))) { // TODO: Via uses 'extent'
-                        continue; // Only layer 1 for now.
-                    }
-
-                    signalPolys.get(ep.getRank()).add(ep);
-
-                    Shape poly2 = LibraryElementNode.createPolygonCurved(ep, copperColor, false);
-                    copper.add(poly2);
-
-                    Shape isoShape2 = LibraryElementNode.createPolygonCurved(ep, null, false);
-                    isoShape2.setStrokeWidth(wireIsolate);
-                    isoShape2.setStrokeType(StrokeType.OUTSIDE);
-                    isoShape2.setStrokeLineJoin(StrokeLineJoin.ROUND);
-                    isoShape2.setStroke(substrateColor);
-                    isolation.add(isoShape2);
-                }
-            }
-            copperSignals2.put(sig.getName(), copper);
-            isolationSignals2.put(sig.getName(), isolation);
-            restricts2.put(sig.getName(), restricts);
-        }
-
-        // TODO:
-        //     Gather pins from the same element and perform a union on the isolation/restrict
-        //     before adding to the main iso layer.
+        // Signal copper is worked out headless in model geometry, one signal
+        // per task. Only the finished pour is turned into JavaFX shapes. On
+        // the nanometre grid, the pour comes out the same on every run.
+        PolygonKernel kernel = new PolygonKernel(PolygonKernel.DEFAULT_ARC_TOLERANCE, true);
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        List<ForkJoinTask<CopperPourEngine.Net>> netTasks = new ArrayList<>();
         for (Signal sig : board.getSignals()) {
-            ArrayList<Shape> copper = copperSignals2.get(sig.getName());
-            ArrayList<Shape> isolation = isolationSignals2.get(sig.getName());
-            ArrayList<Shape> restricts = restricts2.get(sig.getName());
-
-            ArrayList<Shape> sigCopper = new ArrayList<>();
+            netTasks.add(pool.submit(() -> createNet(sig, side, kernel, dr, wireMin, wireIsolate)));
 
+            // JavaFX nodes are made here, on this thread.
             for (Element el : sig.getElements()) {
-//                if (el.getLayerNum() != 1 &&
-//                        (
-//                        !( (el instanceof Via) || (el instanceof ContactRef))
-//                        )
-//                    ) { // TODO: Via uses 'extent'
-//                    continue; // Only layer 1 for now.
-//                }
-                if (el instanceof Wire w) {
-                    if (w.getLayerNum() != 1) {
-                        continue; // Only top for now.
-                    }
-                    sigCopper.add(LibraryElementNode.createWireNode(w, copperColor, false));
-
-                    Shape isoWire2 = LibraryElementNode.createWireNode(w, substrateColor, false);
-                    isoWire2.setStrokeWidth(w.getWidth() + (wireIsolate * 2.0));
-                    isolation.add(isoWire2);
-                } else if (el instanceof ContactRef cref) { // Look up pads with this signal
-                    //LOGGER.log(Level.SEVERE, "ContactRef: {0}.{1}", new Object[]{cref.getElement(), cref.getPad()});
-                    // Will generate thermals for signal polygons.
-                    ElementElement elm = board.getElement(cref.getElement());
-                    Element pad = elm.getFootprintPkg().getPad(cref.getPad());
-
-                    if (pad == null) { // Do nothing
-                    } else if (pad instanceof PadTHD p) {
-                        Shape thdShape = LibraryElementNode.createThdPad(p, copperColor);
-                        thdShape.setLayoutX(cref.getElementO().getX());
-                        thdShape.setLayoutY(-cref.getElementO().getY());
-                        thdShape.getTransforms().add(new Rotate(-cref.getElementO().getRot()));
-
-                        Shape thdIsoShape = LibraryElementNode.createThdPad(p, substrateColor);
-                        thdIsoShape.setStrokeWidth(wireIsolate);
-                        thdIsoShape.setStrokeType(StrokeType.OUTSIDE);
-                        thdIsoShape.setStroke(solderMaskColor);
-                        thdIsoShape.setLayoutX(cref.getElementO().getX());
-                        thdIsoShape.setLayoutY(-cref.getElementO().getY());
-                        thdIsoShape.getTransforms().add(new Rotate(-cref.getElementO().getRot()));
-                        if (sig.getName().equals("GPIO0")) {
-                            int a = 0; /// Debug stop point
-                        }
-                        if (p.isThermals()) {
-                            double polyLineW = 0;
-                            boolean doThermals = false;
-                            for (Shape s : copper) {
-                                if ((s instanceof Path) || (s instanceof Polygon)) {
-                                    Shape intersect = Shape.intersect(s, thdShape);
-                                    if (intersect.getBoundsInLocal().getWidth() != -1) {
-                                        doThermals = true;
-                                        polyLineW = s.getStrokeWidth();
-                                        break;
-                                    }
-                                }
-                            }
-                            if (doThermals) {
-                                ArrayList<Shape> therms = LibraryElementNode.createThdThermal(
-                                        p, copperColor,
-                                        thermalIsolate, polyLineW * 2.0
-                                );
-                                for (Shape ts : therms) {
-                                    ts.setLayoutX(cref.getElementO().getX());
-                                    ts.setLayoutY(-cref.getElementO().getY());
-                                    ts.getTransforms().add(new Rotate(-cref.getElementO().getRot()));
-                                    thdIsoShape = Shape.subtract(thdIsoShape, ts);
-                                }
-                                thdIsoShape = Shape.subtract(thdIsoShape, thdShape);
-                                sigCopper.addAll(therms);
-                                //rank.get(0).addAll(therms);  // Debug.
-                                restricts.add(thdIsoShape); // Absolute isolation
-                                //isolation.add(thdIsoShape);
-                                thdIsoShape.setFill(silkScreenColor);
-                                //silkNodes.add(thdIsoShape);  // Debug
-                            } else {
-                                isolation.add(thdIsoShape);
-                            }
-                            sigCopper.add(thdShape);
-                        }
-
-                    } else if (pad instanceof PadSMD p) {
-                        if ((!elm.getRotation().isMirror() && p.getLayerNum() == 1) || (elm.getRotation().isMirror() && p.getLayerNum() == 16)) {
-                            //LOGGER.log(Level.SEVERE, "Add Pad: sig: {0}  pad: {1}.{2}", new Object[]{sig.getName(), cref.getElement(), cref.getPad()});
-                            Shape smdShape = LibraryElementNode.createSmdPad(p, copperColor);
-                            smdShape.setLayoutX(cref.getElementO().getX());
-                            smdShape.setLayoutY(-cref.getElementO().getY());
-                            smdShape.getTransforms().add(new Rotate(-cref.getElementO().getRot()));
-                            sigCopper.add(smdShape);
-
-                            // Isolate Pad
-                            Shape smdIsoShape = LibraryElementNode.createSmdPad(p, solderMaskColor);
-                            smdIsoShape.setStrokeWidth(wireIsolate);
-                            smdIsoShape.setStrokeType(StrokeType.OUTSIDE);
-                            smdIsoShape.setStroke(solderMaskColor);
-                            smdIsoShape.setLayoutX(cref.getElementO().getX());
-                            smdIsoShape.setLayoutY(-cref.getElementO().getY());
-                            smdIsoShape.getTransforms().add(new Rotate(-cref.getElementO().getRot()));
-
-                            if (p.isThermals()) {
-                                boolean doThermals = false;
-                                for (Shape s : copper) {
-                                    if ((s instanceof Path) || (s instanceof Polygon)) {
-                                        Shape intersect = Shape.intersect(s, smdShape);
-                                        if (intersect.getBoundsInLocal().getWidth() != -1) {
-                                            doThermals = true;
-                                            break;
-                                        }
-                                    }
-                                }
-                                if (doThermals) {
-                                    ArrayList<Shape> therms = LibraryElementNode.createSmdThermal(p, copperColor, thermalIsolate, wireMin);
-                                    for (Shape ts : therms) {
-                                        ts.setLayoutX(cref.getElementO().getX());
-                                        ts.setLayoutY(-cref.getElementO().getY());
-                                        ts.getTransforms().add(new Rotate(-cref.getElementO().getRot()));
-                                        smdIsoShape = Shape.subtract(smdIsoShape, ts);
-                                    }
-                                    smdIsoShape = Shape.subtract(smdIsoShape, smdShape);
-                                    sigCopper.addAll(therms);
-                                    restrict.add(smdIsoShape);
-                                } else {
-                                    isolation.add(smdIsoShape);
-                                }
-                            }
-                        }
-                    } else {
-                        LOGGER.log(Level.SEVERE, "pad is: {0} not handled.", new Object[]{pad.getElementName()});
-                    }
-                } else if (el instanceof Via v) {
-                    Circle viaC2 = new Circle(v.getDerivedDiameter(dr, Via.Layer.TOP) / 2.0, copperColor);
-                    viaC2.setLayoutX(v.getX());
-                    viaC2.setLayoutY(-v.getY());
-                    sigCopper.add(viaC2);
-
-                    Circle isoC2 = new Circle(v.getDerivedDiameter(dr, Via.Layer.TOP) / 2.0 + wireIsolate, substrateColor);
-                    isoC2.setLayoutX(v.getX());
-                    isoC2.setLayoutY(-v.getY());
-                    isolation.add(isoC2);
-
+                if (el instanceof Via v) {
                     if (v.getDrill() > viaStopLimit) {
-                        Circle maskC2 = new Circle(v.getMaskDiameter(dr, Via.Layer.TOP) / 2.0, substrateColor);
+                        Circle maskC2 = new Circle(v.getMaskDiameter(dr, side.getViaLayer()) / 2.0, substrateColor);
                         maskC2.setLayoutX(v.getX());
                         maskC2.setLayoutY(-v.getY());
                         maskNodes.add(maskC2);
@@ -784,72 +655,37 @@ public class BoardPreview extends Group {
                     drlC.setLayoutX(v.getX());
                     drlC.setLayoutY(-v.getY());
                     holeNodes.add(drlC);
-                } else if (el instanceof SignalPolygon) {
-                    // Already processed in previous code section.
-                } else {
-                    LOGGER.log(Level.SEVERE, "    Signal Element not handled: {0}", el.getElementName());
                 }
             }
-            // Merge sigCopper into copper
-            copper.addAll(sigCopper);
         }
 
-        ArrayList<Shape> isolationShapes = new ArrayList<>();
-        ArrayList<Shape> signalShapes = new ArrayList<>();
-
-        for (String key : copperSignals2.keySet()) {
-            {   // Shapes on each isolation group are combined.
-                ArrayList<Shape> cs = isolationSignals2.get(key);
-                Shape sss = new Rectangle(0, 0, Color.WHITE);
-                sss.setLayoutY(-sss.getBoundsInLocal().getHeight());
-                for (Shape sh : cs) {
-                    sss = Shape.union(sss, sh);
-                }
-                sss.setFill(substrateColor);
-                isolationShapes.add(sss);
-            }
-            {
-                ArrayList<Shape> rs = restricts2.get(key);
-                Shape sss = new Rectangle(0, 0, Color.WHITE);
-                sss.setLayoutY(-sss.getBoundsInLocal().getHeight());
-                for (Shape sh : rs) {
-                    sss = Shape.union(sss, sh);
-                }
-                sss.setFill(substrateColor);
-                restrict.add(sss);
-            }
-
-            { // Shapes on each copper group are combined.
-                ArrayList<Shape> cs = copperSignals2.get(key);
-                Shape sss = new Rectangle(0, 0, Color.WHITE);
-                sss.setLayoutY(-sss.getBoundsInLocal().getHeight());
-                for (Shape sh : cs) {
-                    sss = Shape.union(sss, sh);
-                }
-                sss.setFill(copperColor);
-                signalShapes.add(sss);
-            }
+        // Plain and package restricts are still JavaFX shapes (text).
+        List<Region> restrictRegions = new ArrayList<>();
+        for (Shape s : restrict) {
+            restrictRegions.add(RegionShapes.toRegion(s, kernel.getArcTolerance()));
+        }
+        for (TextElement t : restrictTexts) {
+            restrictRegions.add(kernel.text(t, null, t.getDerivedStroke() + wireIsolate * 2.0));
         }
 
-        for (int i = 0; i < signalShapes.size(); i++) {
-            Shape csp = signalShapes.get(i);
-            //LOGGER.log(Level.SEVERE, "Process signal: " + i);
-            for (int j = 0; j < isolationShapes.size(); j++) {
-                if (i != j) {
-                    csp = Shape.subtract(csp, isolationShapes.get(j));
-                }
+        ForkJoinTask<List<List<Region>>> pourTask = pool.submit(() -> {
+            List<CopperPourEngine.Net> nets = new ArrayList<>(netTasks.size());
+            for (ForkJoinTask<CopperPourEngine.Net> task : netTasks) {
+                nets.add(task.join());
             }
-
-            // Subtract restrict shapes
-            // debug
-            for (int k = 0; k < restrict.size(); k++) {
-                csp = Shape.subtract(csp, restrict.get(k));
+            return CopperPourEngine.pour(kernel, pool, nets, restrictRegions);
+        });
+        Group pourGroup = new Group();
+        chld.add(pourGroup);
+        finish.add(() -> {
+            for (List<Region> pours : pourTask.join()) {
+                for (Region pour : pours) {
+                    if (!pour.isEmpty()) {
+                        pourGroup.getChildren().add(RegionShapes.toPath(pour, copperColor));
+                    }
+                }
             }
-
-            //signalShapes.set(i, csp);
-            csp.setFill(copperColor);
-            chld.add(csp);
-        }
+        });
 
         rank.get(0).forEach(node -> {
             chld.add(node);
@@ -882,51 +718,20 @@ public class BoardPreview extends Group {
 
         // If board outline is not closed, then assume a mask area.
         if (dimMask == null) {
-            dimMask = new Rectangle(getBoundsInLocal().getWidth(), getBoundsInLocal().getHeight(), solderMaskColor);
+            dimMask = new Rectangle(preview.getBoundsInLocal().getWidth(), preview.getBoundsInLocal().getHeight(), solderMaskColor);
             dimMask.setLayoutY(-dimMask.getBoundsInLocal().getHeight());
         }
 
         // maskNodes leafs are shapes to be cut from a main mask.
-        // Nodes can be nested in multiple Groups and Panes
-        // TODO: Clean up if possible.
-        for (Node n : maskNodes) {
-            if ((n instanceof Parent parent)) {
-                for (Node t : parent.getChildrenUnmodifiable()) {
-                    if (t instanceof Shape s) {
-                        dimMask = Shape.subtract(dimMask, s);
-                    } else if (t instanceof Pane p) {
-                        for (Node tt : p.getChildren()) {
-                            if (tt instanceof Shape ss) {
-                                dimMask = Shape.subtract(dimMask, ss);
-                            }
-                        }
-                    } else if (t instanceof Group p) {
-                        for (Node tt : p.getChildren()) {
-                            if (tt instanceof Shape ss) {
-                                dimMask = Shape.subtract(dimMask, ss);
-                            } else if (tt instanceof Pane) {
-                                for (Node ttt : p.getChildren()) {
-                                    if (ttt instanceof Shape ss) {
-                                        dimMask = Shape.subtract(dimMask, ss);
-                                    } else if (ttt instanceof Pane pp) {
-                                        for (Node tttt : pp.getChildren()) {
-                                            if (tttt instanceof Shape ss) {
-                                                dimMask = Shape.subtract(dimMask, ss);
-                                            }
-                                        }
-                                    }
-                                }
-                            }
-                        }
-                    }
-                }
-            } else if (n instanceof Shape s) {
-                dimMask = Shape.subtract(dimMask, s);
-            }
-        }
-
-        dimMask.setFill(solderMaskColor); // Subtract obliterates original fill color.
-        chld.add(dimMask);
+        // Nodes can be nested in multiple Groups and Panes.
+        Region maskRegion = RegionShapes.toRegion(dimMask, kernel.getArcTolerance());
+        List<Region> openings = MaskCompositor.flatten(maskNodes, kernel.getArcTolerance());
+        ForkJoinTask<Region> maskTask = pool.submit(() -> MaskCompositor.composite(kernel, maskRegion, openings));
+        Group maskGroup = new Group();
+        chld.add(maskGroup);
+        finish.add(() -> {
+            maskGroup.getChildren().add(RegionShapes.toPath(maskTask.join(), solderMaskColor));
+        });
 
         // TODO: Subtract mask from silk
         // Silk
@@ -948,5 +753,120 @@ public class BoardPreview extends Group {
         if (pcbClip != null) {
 //            setClip(pcbClip);
         }
+        return preview;
+    }
+
+    /**
+     * Work out the copper, isolation and thermals of one signal on one side.
+     * Touches no JavaFX, so it may run on any thread.
+     */
+    private CopperPourEngine.Net createNet(Signal sig, BoardSide side, PolygonKernel kernel, DesignRules dr, double wireMin, double wireIsolate) {
+        ArrayList<Region> copper = new ArrayList<>();
+        ArrayList<Region> isolation = new ArrayList<>();
+        ArrayList<Region> pourIsolation = new ArrayList<>();
+        ArrayList<Region> restricts = new ArrayList<>(); // Isolation but always.
+
+        // Polys first so that crefs can detect overlap for thermals.
+        ArrayList<SignalPolygon> polys = new ArrayList<>();
+        ArrayList<Region> polyRegions = new ArrayList<>();
+        for (Element el : sig.getElements()) {
+            if (el instanceof SignalPolygon ep) {
+                if (ep.getLayerNum() != side.getCopperLayer()) {
+                    continue;
+                }
+                Region poly = kernel.polygon(ep);
+                polys.add(ep);
+                polyRegions.add(poly);
+                pourIsolation.add(kernel.offset(poly, wireIsolate));
+            }
+        }
+
+        // TODO:
+        //     Gather pins from the same element and perform a union on the isolation/restrict
+        //     before adding to the main iso layer.
+        for (Element el : sig.getElements()) {
+            if (el instanceof Wire w) {
+                if (w.getLayerNum() != side.getCopperLayer()) {
+                    continue;
+                }
+                copper.add(kernel.wire(w));
+                isolation.add(kernel.wire(w, w.getWidth() + (wireIsolate * 2.0)));
+            } else if (el instanceof ContactRef cref) { // Look up pads with this signal
+                // Will generate thermals for signal polygons.
+                ElementElement elm = cref.getElementO();
+                Element pad = cref.getPadO();
+
+                if (pad == null) { // Do nothing
+                } else if (pad instanceof PadTHD p) {
+                    Region padShape = placePad(kernel.pad(p), elm);
+                    Region padIso = placePad(kernel.offset(kernel.pad(p), wireIsolate), elm);
+                    copper.add(padShape);
+
+                    double polyLineW = p.isThermals() ? thermalPolygonWidth(kernel, padShape, polys, polyRegions) : -1;
+                    if (polyLineW >= 0) {
+                        Region spokes = placePad(kernel.thermal(p, wireIsolate, polyLineW * 2.0), elm);
+                        copper.add(spokes);
+                        // Absolute isolation, with the spokes left in.
+                        restricts.add(kernel.subtract(kernel.subtract(padIso, spokes), padShape));
+                    } else {
+                        isolation.add(padIso);
+                    }
+                } else if (pad instanceof PadSMD p) {
+                    if (side.packageLayer(1, elm.getRotation().isMirror()) == p.getLayerNum()) {
+                        Region padShape = placePad(kernel.pad(p), elm);
+                        Region padIso = placePad(kernel.offset(kernel.pad(p), wireIsolate), elm);
+                        copper.add(padShape);
+
+                        if (p.isThermals() && thermalPolygonWidth(kernel, padShape, polys, polyRegions) >= 0) {
+                            Region spokes = placePad(kernel.thermal(p, wireIsolate, wireMin), elm);
+                            copper.add(spokes);
+                            restricts.add(kernel.subtract(kernel.subtract(padIso, spokes), padShape));
+                        } else {
+                            isolation.add(padIso);
+                        }
+                    }
+                } else {
+                    LOGGER.log(Level.SEVERE, "pad is: {0} not handled.", new Object[]{pad.getElementName()});
+                }
+            } else if (el instanceof Via v) {
+                double viaRadius = v.getDerivedDiameter(dr, side.getViaLayer()) / 2.0;
+                copper.add(kernel.circle(v.getX(), v.getY(), viaRadius));
+                isolation.add(kernel.circle(v.getX(), v.getY(), viaRadius + wireIsolate));
+            } else if (el instanceof SignalPolygon) {
+                // Already processed in previous code section.
+            } else {
+                LOGGER.log(Level.SEVERE, "    Signal Element not handled: {0}", el.getElementName());
+            }
+        }
+
+        // Copper is combined. Isolation shapes are kept apart so the pour
+        // finds each by its own bounds.
+        return new CopperPourEngine.Net(
+                kernel.union(copper), polys, polyRegions,
+                isolation, pourIsolation, restricts
+        );
+    }
+
+    /**
+     * Put a pad's shape where its element sits on the board.
+     */
+    private static Region placePad(Region padShape, ElementElement elm) {
+        return padShape.transform(elm.getX(), elm.getY(), elm.getRot(), elm.getRotation().isMirror());
+    }
+
+    /**
+     * Thermals are only made where a pad sits in one of its own signal's
+     * polygons.
+     *
+     * @return outline width of the first polygon that touches the pad, or -1
+     * if none do.
+     */
+    private static double thermalPolygonWidth(PolygonKernel kernel, Region padShape, List<SignalPolygon> polys, List<Region> polyRegions) {
+        for (int i = 0; i < polys.size(); i++) {
+            if (kernel.intersects(polyRegions.get(i), padShape)) {
+                return Math.max(polys.get(i).getWidth(), PolygonKernel.MIN_WIRE_WIDTH);
+            }
+        }
+        return -1;
     }
 }
@@ -0,0 +1,74 @@
+/*
+    Licensed to the Apache Software Foundation (ASF) under one or more
+    contributor license agreements.  See the NOTICE file distributed with this
+    work for additional information regarding copyright ownership.  The ASF
+    licenses this file to you under the Apache License, Version 2.0
+    (the "License"); you may not use this file except in compliance with the
+    License.  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+    License for the specific language governing permissions and limitations
+    under the License.
+ */
+package com.maehem.mangocad.view.board;
+
+import com.maehem.mangocad.model.element.basic.Via;
+import com.maehem.mangocad.model.element.enums.BoardLayers;
+
+/**
+ * Side of the board a manufacturing preview shows.
+ *
+ * The preview code is written in terms of the top layers (1, 21, 25, 29...).
+ * A side maps those to the layers that play the same part on it.
+ *
+ * @author Mark J Koch ( @maehem on GitHub )
+ */
+public enum BoardSide {
+    TOP(BoardLayers.TOP.getNumber(), Via.Layer.TOP),
+    BOTTOM(BoardLayers.BOTTOM.getNumber(), Via.Layer.BOTTOM);
+
+    private final int copperLayer;
+    private final Via.Layer viaLayer;
+
+    private BoardSide(int copperLayer, Via.Layer viaLayer) {
+        this.copperLayer = copperLayer;
+        this.viaLayer = viaLayer;
+    }
+
+    /**
+     * @return copper layer number of this side.
+     */
+    public int getCopperLayer() {
+        return copperLayer;
+    }
+
+    /**
+     * @return via layer for working out via sizes on this side.
+     */
+    public Via.Layer getViaLayer() {
+        return viaLayer;
+    }
+
+    /**
+     * @param layerNumber of something drawn on the board.
+     * @return the top layer that plays the same part on this side. Layers
+     * of the other side come back as bottom layers and match nothing.
+     */
+    public int asTop(int layerNumber) {
+        return this == TOP ? layerNumber : BoardLayers.opposite(layerNumber);
+    }
+
+    /**
+     * @param topLayer a top layer number, e.g. 21 for tPlace.
+     * @param mirror true if the part is mirrored to the bottom.
+     * @return the layer in the part's package that lands on this side's
+     * version of the top layer.
+     */
+    public int packageLayer(int topLayer, boolean mirror) {
+        return (this == BOTTOM) != mirror ? BoardLayers.opposite(topLayer) : topLayer;
+    }
+}
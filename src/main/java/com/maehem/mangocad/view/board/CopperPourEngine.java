@@ -0,0 +1,235 @@
+/*
+    Licensed to the Apache Software Foundation (ASF) under one or more
+    contributor license agreements.  See the NOTICE file distributed with this
+    work for additional information regarding copyright ownership.  The ASF
+    licenses this file to you under the Apache License, Version 2.0
+    (the "License"); you may not use this file except in compliance with the
+    License.  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+    License for the specific language governing permissions and limitations
+    under the License.
+ */
+package com.maehem.mangocad.view.board;
+
+import com.maehem.mangocad.model.element.basic.SignalPolygon;
+import com.maehem.mangocad.model.util.PolygonKernel;
+import com.maehem.mangocad.model.util.Region;
+import com.maehem.mangocad.model.util.SpatialGrid;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Clips each signal's copper against the isolation of every other signal and
+ * the restrict areas.
+ *
+ * Each isolation and restrict shape, a single pad, wire or via, is put in a
+ * {@link SpatialGrid} by its own bounds. A signal is then clipped only
+ * against the shapes that can touch it, and only those are merged. A
+ * signal that spans the board, like GND, is found only where its shapes
+ * are. Subtracting a shape that does not overlap changes nothing, so the
+ * result is the same as clipping against all of them, without the cost of
+ * signals times isolations subtracts.
+ *
+ * Signals are clipped in parallel on a pool. The pour of each
+ * {@link SignalPolygon} is cached on the polygon, keyed by a hash of its
+ * outline and of every shape clipped from it. Showing the board again, or
+ * after one signal changed, only pours the polygons whose inputs changed:
+ * those of the changed signal and of its near neighbours.
+ *
+ * Works on {@link Region}s, so it needs no JavaFX and may run on any thread.
+ *
+ * @author Mark J Koch ( @maehem on GitHub )
+ */
+public class CopperPourEngine {
+
+    private static final Logger LOGGER = BoardPreview.LOGGER;
+
+    // Cells smaller than a typical trace clearance just add bookkeeping.
+    private static final double MIN_CELL_SIZE = 0.5;
+
+    private CopperPourEngine() {
+    }
+
+    /**
+     * The shapes of one signal, ready to pour.
+     */
+    public static class Net {
+
+        private final Region copper;
+        private final List<SignalPolygon> polygons;
+        private final List<Region> pours;
+        private final List<Region> isolation;
+        private final List<Region> pourIsolation;
+        private final List<Region> restricts;
+
+        /**
+         * @param copper wires, pads, vias and thermal spokes.
+         * @param polygons signal polygons to pour.
+         * @param pours outline of each polygon, in the same order.
+         * @param isolation around each wire, pad and via. Keeps all other
+         * signals away.
+         * @param pourIsolation around each polygon. Keeps only the pours of
+         * other signals away; wires and pads do not give way to a pour.
+         * @param restricts thermal rings. No signal may have copper there.
+         */
+        public Net(Region copper, List<SignalPolygon> polygons, List<Region> pours, List<Region> isolation, List<Region> pourIsolation, List<Region> restricts) {
+            this.copper = copper;
+            this.polygons = polygons;
+            this.pours = pours;
+            this.isolation = isolation;
+            this.pourIsolation = pourIsolation;
+            this.restricts = restricts;
+        }
+    }
+
+    /**
+     * Clip signals against the isolation of the others and the restricts.
+     *
+     * @param kernel does the clipping.
+     * @param pool runs one task per signal.
+     * @param nets shapes of each signal.
+     * @param restricts areas where no copper may be, besides the thermal
+     * rings of the nets.
+     * @return for each net, in the same order, the clipped copper followed
+     * by the pour of each polygon.
+     */
+    public static List<List<Region>> pour(PolygonKernel kernel, ForkJoinPool pool, List<Net> nets, List<Region> restricts) {
+        long start = System.nanoTime();
+        // Each shape, with the index of the net it belongs to.
+        List<Region> isolations = new ArrayList<>();
+        List<Integer> isolationNets = new ArrayList<>();
+        List<Region> pourIsolations = new ArrayList<>();
+        List<Integer> pourIsolationNets = new ArrayList<>();
+        List<Region> allRestricts = new ArrayList<>(restricts);
+        for (int n = 0; n < nets.size(); n++) {
+            Net net = nets.get(n);
+            for (Region r : net.isolation) {
+                isolations.add(r);
+                isolationNets.add(n);
+            }
+            for (Region r : net.pourIsolation) {
+                pourIsolations.add(r);
+                pourIsolationNets.add(n);
+            }
+            allRestricts.addAll(net.restricts);
+        }
+        SpatialGrid<Region> isolationGrid = index(isolations);
+        SpatialGrid<Region> pourIsolationGrid = index(pourIsolations);
+        SpatialGrid<Region> restrictGrid = index(allRestricts);
+        int[] isolationOwners = isolationNets.stream().mapToInt(Integer::intValue).toArray();
+        int[] pourIsolationOwners = pourIsolationNets.stream().mapToInt(Integer::intValue).toArray();
+
+        AtomicInteger poured = new AtomicInteger();
+        AtomicInteger cached = new AtomicInteger();
+        List<ForkJoinTask<List<Region>>> tasks = new ArrayList<>(nets.size());
+        for (int i = 0; i < nets.size(); i++) {
+            final int n = i;
+            tasks.add(pool.submit(() -> {
+                Net net = nets.get(n);
+                List<Region> result = new ArrayList<>(1 + net.polygons.size());
+                List<Region> nearCopper = near(net.copper, n, isolationGrid, isolationOwners);
+                nearCopper.addAll(near(net.copper, -1, restrictGrid, null));
+                result.add(clip(kernel, net.copper, nearCopper));
+
+                for (int k = 0; k < net.polygons.size(); k++) {
+                    SignalPolygon polygon = net.polygons.get(k);
+                    Region outline = net.pours.get(k);
+                    List<Region> near = near(outline, n, isolationGrid, isolationOwners);
+                    near.addAll(near(outline, n, pourIsolationGrid, pourIsolationOwners));
+                    near.addAll(near(outline, -1, restrictGrid, null));
+
+                    long hash = Region.mix(Double.doubleToLongBits(kernel.getArcTolerance()), kernel.isFixedPoint() ? 1 : 0);
+                    hash = Region.mix(hash, outline.getFingerprint());
+                    for (Region r : near) {
+                        hash = Region.mix(hash, r.getFingerprint());
+                    }
+                    Region pour = polygon.getCachedPour(hash);
+                    if (pour == null) {
+                        pour = clip(kernel, outline, near);
+                        polygon.setCachedPour(hash, pour);
+                        poured.incrementAndGet();
+                    } else {
+                        cached.incrementAndGet();
+                    }
+                    result.add(pour);
+                }
+                return result;
+            }));
+        }
+
+        List<List<Region>> result = new ArrayList<>(nets.size());
+        for (ForkJoinTask<List<Region>> task : tasks) {
+            result.add(task.join());
+        }
+
+        LOGGER.log(Level.FINE, "Copper pour: {0} signals, {1} polygons poured, {2} cached, in {3}ms", new Object[]{
+            nets.size(), poured.get(), cached.get(), (System.nanoTime() - start) / 1000000
+        });
+        return result;
+    }
+
+    /**
+     * Shapes in a grid whose bounds overlap a shape, in index order.
+     *
+     * @param self net whose shapes are left out, the shape's own, or -1.
+     * @param owners net of each shape in the grid, or null if none.
+     */
+    private static List<Region> near(Region shape, int self, SpatialGrid<Region> grid, int[] owners) {
+        List<Region> near = new ArrayList<>();
+        if (shape.isEmpty()) {
+            return near;
+        }
+        BitSet ids = grid.queryIds(shape.getMinX(), shape.getMinY(), shape.getMaxX(), shape.getMaxY());
+        for (int j = ids.nextSetBit(0); j >= 0; j = ids.nextSetBit(j + 1)) {
+            if (owners == null || owners[j] != self) {
+                near.add(grid.get(j));
+            }
+        }
+        return near;
+    }
+
+    private static Region clip(PolygonKernel kernel, Region shape, List<Region> near) {
+        if (shape.isEmpty() || near.isEmpty()) {
+            return shape;
+        }
+        // Merged so it is subtracted once.
+        return kernel.subtract(shape, kernel.union(near));
+    }
+
+    private static SpatialGrid<Region> index(List<Region> regions) {
+        double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (Region r : regions) {
+            if (!r.isEmpty()) {
+                minX = Math.min(minX, r.getMinX());
+                minY = Math.min(minY, r.getMinY());
+                maxX = Math.max(maxX, r.getMaxX());
+                maxY = Math.max(maxY, r.getMaxY());
+            }
+        }
+
+        SpatialGrid<Region> grid = new SpatialGrid<>(
+                SpatialGrid.suggestCellSize(minX, minY, maxX, maxY, regions.size(), MIN_CELL_SIZE)
+        );
+        for (Region r : regions) {
+            if (r.isEmpty()) {
+                // Keep the index in step with the list, but never match.
+                grid.insert(r, 0, 0, -1, -1);
+            } else {
+                grid.insert(r, r.getMinX(), r.getMinY(), r.getMaxX(), r.getMaxY());
+            }
+        }
+        return grid;
+    }
+}
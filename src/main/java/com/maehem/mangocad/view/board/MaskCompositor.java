@@ -0,0 +1,101 @@
+/*
+    Licensed to the Apache Software Foundation (ASF) under one or more
+    contributor license agreements.  See the NOTICE file distributed with this
+    work for additional information regarding copyright ownership.  The ASF
+    licenses this file to you under the Apache License, Version 2.0
+    (the "License"); you may not use this file except in compliance with the
+    License.  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+    License for the specific language governing permissions and limitations
+    under the License.
+ */
+package com.maehem.mangocad.view.board;
+
+import com.maehem.mangocad.model.util.PolygonKernel;
+import com.maehem.mangocad.model.util.Region;
+import com.maehem.mangocad.view.RegionShapes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.shape.Shape;
+import javafx.scene.transform.Transform;
+
+/**
+ * Cuts the solder mask openings out of the board mask.
+ *
+ * Cutting each opening from the mask in turn rebuilds the whole board mask
+ * once per pad. Here the openings are first gathered from however deep they
+ * sit in groups and panes, merged with a balanced union, and then cut from
+ * the mask in one go.
+ *
+ * @author Mark J Koch ( @maehem on GitHub )
+ */
+public class MaskCompositor {
+
+    private static final Logger LOGGER = BoardPreview.LOGGER;
+
+    private MaskCompositor() {
+    }
+
+    /**
+     * Gather the shapes under the opening nodes as regions. JavaFX shapes
+     * are not safe to convert on more than one thread at once, so call this
+     * on the thread that made them.
+     *
+     * @param openings nodes whose shapes are cut from the mask. Shapes may
+     * be nested in any number of groups or panes.
+     * @param tolerance furthest a line may stray from a curve.
+     * @return each shape placed in the space of the openings' parent.
+     */
+    public static List<Region> flatten(List<Node> openings, double tolerance) {
+        List<Region> holes = new ArrayList<>();
+        for (Node n : openings) {
+            flatten(n, null, tolerance, holes);
+        }
+        return holes;
+    }
+
+    /**
+     * Cut the openings from the mask. Needs no JavaFX, so it may run on any
+     * thread.
+     *
+     * @param kernel does the union and the cut.
+     * @param mask covers the whole board.
+     * @param openings from {@link #flatten(List, double)}.
+     * @return the mask with every opening cut out.
+     */
+    public static Region composite(PolygonKernel kernel, Region mask, List<Region> openings) {
+        long start = System.nanoTime();
+        Region cut = kernel.subtract(mask, kernel.union(openings));
+
+        LOGGER.log(Level.FINE, "Solder mask: {0} openings cut in {1}ms", new Object[]{
+            openings.size(), (System.nanoTime() - start) / 1000000
+        });
+        return cut;
+    }
+
+    /**
+     * Collect the shapes under a node, placed in the space of the node's
+     * parent.
+     */
+    private static void flatten(Node n, Transform parentTransform, double tolerance, List<Region> out) {
+        if (n instanceof Shape s) {
+            out.add(RegionShapes.toRegion(s, parentTransform, tolerance));
+        } else if (n instanceof Parent p) {
+            Transform t = parentTransform == null
+                    ? p.getLocalToParentTransform()
+                    : parentTransform.createConcatenation(p.getLocalToParentTransform());
+            for (Node child : p.getChildrenUnmodifiable()) {
+                flatten(child, t, tolerance, out);
+            }
+        }
+    }
+}
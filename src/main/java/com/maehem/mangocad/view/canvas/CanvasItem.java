@@ -0,0 +1,169 @@
+/*
+    Licensed to the Apache Software Foundation (ASF) under one or more
+    contributor license agreements.  See the NOTICE file distributed with this
+    work for additional information regarding copyright ownership.  The ASF
+    licenses this file to you under the Apache License, Version 2.0
+    (the "License"); you may not use this file except in compliance with the
+    License.  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+    License for the specific language governing permissions and limitations
+    under the License.
+ */
+package com.maehem.mangocad.view.canvas;
+
+import com.maehem.mangocad.model.element.enums.TextAlign;
+import com.maehem.mangocad.model.util.Region;
+import com.maehem.mangocad.view.FontCache;
+import com.maehem.mangocad.view.ViewUtils;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.FillRule;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+
+/**
+ * One thing drawn on a {@link LayeredCanvas}: a filled {@link Region} or a
+ * line of text. Coordinates are model millimetres, Y up.
+ *
+ * Items hold no JavaFX nodes, so they may be made on any thread.
+ *
+ * @author Mark J Koch ( @maehem on GitHub )
+ */
+public class CanvasItem {
+
+    private final Region shape;
+    private final Color color;
+
+    private final String text;
+    private final double x;
+    private final double y;
+    private final double size;
+    private final double rot;
+    private final boolean mirror;
+    private final TextAlign align;
+
+    private CanvasItem(Region shape, Color color, String text, double x, double y,
+            double size, double rot, boolean mirror, TextAlign align) {
+        this.shape = shape;
+        this.color = color;
+        this.text = text;
+        this.x = x;
+        this.y = y;
+        this.size = size;
+        this.rot = rot;
+        this.mirror = mirror;
+        this.align = align;
+    }
+
+    /**
+     * @param shape area to fill.
+     * @param color fill
+     * @return an item filling the shape.
+     */
+    public static CanvasItem fill(Region shape, Color color) {
+        return new CanvasItem(shape, color, null, 0, 0, 0, 0, false, null);
+    }
+
+    /**
+     * @param text to show
+     * @param x of the anchor
+     * @param y of the anchor
+     * @param size height of a capital, in mm.
+     * @param rot degrees counter clockwise about the anchor.
+     * @param mirror read from the other side of the board.
+     * @param align where the anchor is on the text.
+     * @param color of the text
+     * @return an item drawing the text.
+     */
+    public static CanvasItem text(String text, double x, double y, double size,
+            double rot, boolean mirror, TextAlign align, Color color) {
+        // Rough box for finding the text. Any rotation fits in it.
+        double reach = size * (text.length() + 1);
+        Region box = Region.of(
+                x - reach, y - reach, x + reach, y - reach,
+                x + reach, y + reach, x - reach, y + reach
+        );
+        return new CanvasItem(box, color, text, x, y, size, rot, mirror,
+                align != null ? align : TextAlign.BOTTOM_LEFT);
+    }
+
+    public Region getShape() {
+        return shape;
+    }
+
+    public double getMinX() {
+        return shape.getMinX();
+    }
+
+    public double getMinY() {
+        return shape.getMinY();
+    }
+
+    public double getMaxX() {
+        return shape.getMaxX();
+    }
+
+    public double getMaxY() {
+        return shape.getMaxY();
+    }
+
+    /**
+     * Draw on a context already set to model coordinates.
+     *
+     * @param gc to draw on
+     * @param pixelsPerUnit current zoom, for dropping text too small to read.
+     */
+    void paint(GraphicsContext gc, double pixelsPerUnit) {
+        if (text != null) {
+            paintText(gc, pixelsPerUnit);
+        } else if (!shape.isEmpty()) {
+            gc.setFill(color);
+            gc.setFillRule(FillRule.EVEN_ODD);
+            gc.beginPath();
+            for (double[] ring : shape.getRings()) {
+                gc.moveTo(ring[0], ring[1]);
+                for (int i = 2; i < ring.length; i += 2) {
+                    gc.lineTo(ring[i], ring[i + 1]);
+                }
+                gc.closePath();
+            }
+            gc.fill();
+        }
+    }
+
+    private void paintText(GraphicsContext gc, double pixelsPerUnit) {
+        if (size * pixelsPerUnit < 2.0) {
+            return; // Less than a couple of pixels high.
+        }
+        gc.save();
+        gc.translate(x, y);
+        gc.rotate(rot);
+        // The context is Y up. Text wants Y down.
+        gc.scale(mirror ? -1 : 1, -1);
+        gc.setFont(font(size));
+        gc.setFill(color);
+        gc.setTextAlign(switch (align) {
+            case TOP_LEFT, CENTER_LEFT, BOTTOM_LEFT -> TextAlignment.LEFT;
+            case TOP_CENTER, CENTER, BOTTOM_CENTER -> TextAlignment.CENTER;
+            default -> TextAlignment.RIGHT;
+        });
+        gc.setTextBaseline(switch (align) {
+            case TOP_LEFT, TOP_CENTER, TOP_RIGHT -> VPos.TOP;
+            case CENTER_LEFT, CENTER, CENTER_RIGHT -> VPos.CENTER;
+            default -> VPos.BASELINE;
+        });
+        gc.fillText(text, 0, 0);
+        gc.restore();
+    }
+
+    private static Font font(double size) {
+        // Same ratio the scene graph texts use to make capitals 'size' high.
+        return FontCache.getInstance().getFont(size * ViewUtils.FONT_SIZE_MULT);
+    }
+}
@@ -0,0 +1,305 @@
+/*
+    Licensed to the Apache Software Foundation (ASF) under one or more
+    contributor license agreements.  See the NOTICE file distributed with this
+    work for additional information regarding copyright ownership.  The ASF
+    licenses this file to you under the Apache License, Version 2.0
+    (the "License"); you may not use this file except in compliance with the
+    License.  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+    License for the specific language governing permissions and limitations
+    under the License.
+ */
+package com.maehem.mangocad.view.canvas;
+
+import com.maehem.mangocad.model.util.SpatialGrid;
+import com.maehem.mangocad.view.ControlPanel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javafx.application.Platform;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+
+/**
+ * Draws model geometry straight onto canvases instead of one scene graph
+ * node per primitive.
+ *
+ * Each layer has its own {@link Canvas}, stacked in drawing order, so hiding
+ * a layer needs no repaint. Items are filed by bounds, and only the part of
+ * the view that changed is cleared and drawn again, with only the items
+ * that reach into it. Scroll to zoom and drag to pan.
+ *
+ * @author Mark J Koch ( @maehem on GitHub )
+ */
+public class LayeredCanvas extends Pane {
+
+    private static final Logger LOGGER = ControlPanel.LOGGER;
+
+    private static final double ZOOM_STEP = 1.1;
+    private static final double CELL_SIZE = 5.0; // mm
+
+    private static class Layer {
+
+        final Canvas canvas = new Canvas();
+        List<CanvasItem> items = List.of();
+        SpatialGrid<CanvasItem> grid = new SpatialGrid<>(CELL_SIZE);
+    }
+
+    // Keyed by drawing order.
+    private final TreeMap<Integer, Layer> layers = new TreeMap<>();
+    private final Map<Integer, Integer> orderOfLayer = new TreeMap<>();
+
+    // View: model point at the centre of the pane, and its zoom.
+    private double centerX = 0;
+    private double centerY = 0;
+    private double pixelsPerUnit = 10.0;
+
+    // Area to paint again, in model units. Empty when min > max.
+    private double dirtyMinX = Double.MAX_VALUE;
+    private double dirtyMinY = Double.MAX_VALUE;
+    private double dirtyMaxX = -Double.MAX_VALUE;
+    private double dirtyMaxY = -Double.MAX_VALUE;
+    private boolean repaintQueued = false;
+
+    private double dragX;
+    private double dragY;
+
+    public LayeredCanvas(Color background) {
+        setStyle("-fx-background-color: " + toWeb(background) + ";");
+        setMinSize(0, 0);
+        Rectangle clip = new Rectangle();
+        clip.widthProperty().bind(widthProperty());
+        clip.heightProperty().bind(heightProperty());
+        setClip(clip);
+
+        addEventHandler(ScrollEvent.SCROLL, (event) -> {
+            double factor = event.getDeltaY() > 0 ? ZOOM_STEP : 1 / ZOOM_STEP;
+            // Keep the point under the mouse still.
+            double mx = toModelX(event.getX());
+            double my = toModelY(event.getY());
+            pixelsPerUnit *= factor;
+            centerX = mx - (event.getX() - getWidth() / 2) / pixelsPerUnit;
+            centerY = my + (event.getY() - getHeight() / 2) / pixelsPerUnit;
+            invalidateAll();
+            event.consume();
+        });
+        addEventHandler(MouseEvent.MOUSE_PRESSED, (event) -> {
+            dragX = event.getX();
+            dragY = event.getY();
+        });
+        addEventHandler(MouseEvent.MOUSE_DRAGGED, (event) -> {
+            centerX -= (event.getX() - dragX) / pixelsPerUnit;
+            centerY += (event.getY() - dragY) / pixelsPerUnit;
+            dragX = event.getX();
+            dragY = event.getY();
+            invalidateAll();
+        });
+    }
+
+    /**
+     * Replace what a layer draws. Only the area of the old and new items is
+     * painted again.
+     *
+     * @param layerNumber layer of the model.
+     * @param order layers with a higher order are drawn on top.
+     * @param items to draw.
+     */
+    public void setLayer(int layerNumber, int order, List<CanvasItem> items) {
+        Integer oldOrder = orderOfLayer.put(layerNumber, order);
+        Layer layer = oldOrder != null ? layers.remove(oldOrder) : null;
+        if (layer == null) {
+            layer = new Layer();
+            layer.canvas.setMouseTransparent(true);
+        }
+        for (CanvasItem item : layer.items) {
+            invalidate(item.getMinX(), item.getMinY(), item.getMaxX(), item.getMaxY());
+        }
+        layer.items = new ArrayList<>(items);
+        layer.grid = new SpatialGrid<>(CELL_SIZE);
+        for (CanvasItem item : layer.items) {
+            layer.grid.insert(item, item.getMinX(), item.getMinY(), item.getMaxX(), item.getMaxY());
+            invalidate(item.getMinX(), item.getMinY(), item.getMaxX(), item.getMaxY());
+        }
+        layers.put(order, layer);
+
+        List<Canvas> stack = new ArrayList<>(layers.size());
+        for (Layer l : layers.values()) {
+            stack.add(l.canvas);
+        }
+        getChildren().setAll(stack);
+        // A new canvas starts blank.
+        invalidateAll();
+    }
+
+    /**
+     * Show or hide a layer. Nothing is painted again.
+     */
+    public void setLayerVisible(int layerNumber, boolean visible) {
+        Integer order = orderOfLayer.get(layerNumber);
+        if (order != null) {
+            layers.get(order).canvas.setVisible(visible);
+        }
+    }
+
+    /**
+     * Zoom and centre the view on an area of the model.
+     */
+    public void fit(double minX, double minY, double maxX, double maxY) {
+        if (!(maxX > minX) || !(maxY > minY)) {
+            return;
+        }
+        centerX = (minX + maxX) / 2;
+        centerY = (minY + maxY) / 2;
+        if (getWidth() > 0 && getHeight() > 0) {
+            pixelsPerUnit = Math.min(getWidth() / (maxX - minX), getHeight() / (maxY - minY)) * 0.95;
+        }
+        invalidateAll();
+    }
+
+    /**
+     * @return bounds of everything drawn, as minX, minY, maxX, maxY, or null
+     * if there is nothing.
+     */
+    public double[] getContentBounds() {
+        double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (Layer layer : layers.values()) {
+            for (CanvasItem item : layer.items) {
+                minX = Math.min(minX, item.getMinX());
+                minY = Math.min(minY, item.getMinY());
+                maxX = Math.max(maxX, item.getMaxX());
+                maxY = Math.max(maxY, item.getMaxY());
+            }
+        }
+        return minX > maxX ? null : new double[]{minX, minY, maxX, maxY};
+    }
+
+    public double getPixelsPerUnit() {
+        return pixelsPerUnit;
+    }
+
+    /**
+     * Paint an area of the model again on the next pulse.
+     */
+    public void invalidate(double minX, double minY, double maxX, double maxY) {
+        dirtyMinX = Math.min(dirtyMinX, minX);
+        dirtyMinY = Math.min(dirtyMinY, minY);
+        dirtyMaxX = Math.max(dirtyMaxX, maxX);
+        dirtyMaxY = Math.max(dirtyMaxY, maxY);
+        if (!repaintQueued) {
+            repaintQueued = true;
+            Platform.runLater(this::repaint);
+        }
+    }
+
+    /**
+     * Paint the whole view again on the next pulse.
+     */
+    public void invalidateAll() {
+        invalidate(-Double.MAX_VALUE / 4, -Double.MAX_VALUE / 4, Double.MAX_VALUE / 4, Double.MAX_VALUE / 4);
+    }
+
+    @Override
+    protected void layoutChildren() {
+        double w = getWidth();
+        double h = getHeight();
+        boolean resized = false;
+        for (Layer layer : layers.values()) {
+            if (layer.canvas.getWidth() != w || layer.canvas.getHeight() != h) {
+                // Resizing a canvas clears it.
+                layer.canvas.setWidth(w);
+                layer.canvas.setHeight(h);
+                resized = true;
+            }
+        }
+        if (resized) {
+            invalidateAll();
+        }
+    }
+
+    private void repaint() {
+        repaintQueued = false;
+        double w = getWidth();
+        double h = getHeight();
+        if (w <= 0 || h <= 0 || dirtyMinX > dirtyMaxX) {
+            return;
+        }
+        long start = System.nanoTime();
+
+        // Dirty area in pixels, grown a pixel for anti-aliasing, and kept
+        // on the canvas.
+        double x0 = Math.max(0, Math.floor(toScreenX(dirtyMinX)) - 1);
+        double x1 = Math.min(w, Math.ceil(toScreenX(dirtyMaxX)) + 1);
+        double y0 = Math.max(0, Math.floor(toScreenY(dirtyMaxY)) - 1);
+        double y1 = Math.min(h, Math.ceil(toScreenY(dirtyMinY)) + 1);
+        dirtyMinX = dirtyMinY = Double.MAX_VALUE;
+        dirtyMaxX = dirtyMaxY = -Double.MAX_VALUE;
+        if (x1 <= x0 || y1 <= y0) {
+            return;
+        }
+
+        // Back to model units, for looking up items.
+        double minX = toModelX(x0);
+        double maxX = toModelX(x1);
+        double minY = toModelY(y1);
+        double maxY = toModelY(y0);
+
+        int painted = 0;
+        for (Layer layer : layers.values()) {
+            GraphicsContext gc = layer.canvas.getGraphicsContext2D();
+            gc.save();
+            gc.clearRect(x0, y0, x1 - x0, y1 - y0);
+            gc.beginPath();
+            gc.rect(x0, y0, x1 - x0, y1 - y0);
+            gc.clip();
+            // Model to pixels, Y up.
+            gc.setTransform(
+                    pixelsPerUnit, 0, 0, -pixelsPerUnit,
+                    w / 2 - centerX * pixelsPerUnit, h / 2 + centerY * pixelsPerUnit
+            );
+            for (CanvasItem item : layer.grid.query(minX, minY, maxX, maxY)) {
+                item.paint(gc, pixelsPerUnit);
+                painted++;
+            }
+            gc.restore();
+        }
+
+        LOGGER.log(Level.FINER, "Canvas: painted {0} items in {1}x{2} px in {3}ms", new Object[]{
+            painted, (int) (x1 - x0), (int) (y1 - y0), (System.nanoTime() - start) / 1000000
+        });
+    }
+
+    private double toScreenX(double x) {
+        return getWidth() / 2 + (x - centerX) * pixelsPerUnit;
+    }
+
+    private double toScreenY(double y) {
+        return getHeight() / 2 - (y - centerY) * pixelsPerUnit;
+    }
+
+    private double toModelX(double sx) {
+        return centerX + (sx - getWidth() / 2) / pixelsPerUnit;
+    }
+
+    private double toModelY(double sy) {
+        return centerY - (sy - getHeight() / 2) / pixelsPerUnit;
+    }
+
+    private static String toWeb(Color c) {
+        return String.format("rgba(%d,%d,%d,%.3f)",
+                (int) (c.getRed() * 255), (int) (c.getGreen() * 255), (int) (c.getBlue() * 255), c.getOpacity());
+    }
+}
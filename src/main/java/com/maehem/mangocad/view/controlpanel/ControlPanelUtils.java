@@ -16,12 +16,8 @@
  */
 package com.maehem.mangocad.view.controlpanel;
 
-import com.maehem.mangocad.model.LibraryCache;
-import com.maehem.mangocad.model.element.drawing.Library;
-import com.maehem.mangocad.model.element.highlevel.DeviceSet;
-import com.maehem.mangocad.model.element.highlevel.Footprint;
-import com.maehem.mangocad.model.element.highlevel.Package3d;
-import com.maehem.mangocad.model.element.highlevel.Symbol;
+import com.maehem.mangocad.model.DesignHeader;
+import com.maehem.mangocad.model.DesignHeaderCache;
 import com.maehem.mangocad.view.ControlPanel;
 import com.maehem.mangocad.view.controlpanel.listitem.ControlPanelListItem;
 import com.maehem.mangocad.view.controlpanel.listitem.ProjectSubFolderItem;
@@ -93,36 +89,18 @@ public class ControlPanelUtils {
         } else if (fileOrDir != null && fileOrDir.isFile() && fileOrDir.canRead()) {
             String fName = fileOrDir.getName();
             if (fName.endsWith(".lbr")) {
-                Library library = LibraryCache.getInstance().getLibrary(fileOrDir);
-                if (item.getName().equals(fName)) {
+                // The header has every description the list needs. No full ingest.
+                DesignHeader header = DesignHeaderCache.getInstance().getHeader(fileOrDir);
+                if (header == null) {
+                    LOGGER.log(Level.SEVERE, "Library requested was null: " + fileOrDir.getName());
+                } else if (item.getName().equals(fName)) {
                     // Get description from file.
-                    if (library != null) {
-                        return library.getDescription();
-                    } else {
-                        LOGGER.log(Level.SEVERE, "Library requested was null: " + fileOrDir.getName());
-                    }
+                    return header.getDescription();
                 } else { // One of the sub-items
                     // TODO: Include Parent library information.
-                    for (Symbol s : library.getSymbols()) {
-                        if (s.getName().equals(item.getName())) {
-                            return s.getDescription();
-                        }
-                    }
-                    for (Footprint f : library.getPackages()) {
-                        if (f.getName().equals(item.getName())) {
-                            //LOGGER.log(Level.SEVERE, "Package raw desc.: " + f.getDescription());
-                            return f.getDescription();
-                        }
-                    }
-                    for (Package3d p : library.getPackages3d()) {
-                        if (p.getName().equals(item.getName())) {
-                            return p.getDescription();
-                        }
-                    }
-                    for (DeviceSet ds : library.getDeviceSets()) {
-                        if (ds.getName().equals(item.getName())) {
-                            return ds.getDescription();
-                        }
+                    String description = header.getEntryDescription(item.getName());
+                    if (description != null) {
+                        return description;
                     }
                 }
             }
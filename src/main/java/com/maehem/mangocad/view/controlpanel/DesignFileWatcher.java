@@ -0,0 +1,171 @@
+/*
+    Licensed to the Apache Software Foundation (ASF) under one or more
+    contributor license agreements.  See the NOTICE file distributed with this
+    work for additional information regarding copyright ownership.  The ASF
+    licenses this file to you under the Apache License, Version 2.0
+    (the "License"); you may not use this file except in compliance with the
+    License.  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+    License for the specific language governing permissions and limitations
+    under the License.
+ */
+package com.maehem.mangocad.view.controlpanel;
+
+import com.maehem.mangocad.view.ControlPanel;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javafx.application.Platform;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Watches design directories for files that are created, changed or
+ * deleted.
+ *
+ * Saving a file often fires several events in a row, so events are held
+ * until the directories are quiet for a moment. Then each changed file is
+ * reported once, on the FX thread.
+ *
+ * @author Mark J Koch ( @maehem on GitHub )
+ */
+public class DesignFileWatcher {
+
+    private static final Logger LOGGER = ControlPanel.LOGGER;
+
+    private static final long QUIET_MS = 300;
+
+    /**
+     * Told about a changed file on the FX thread.
+     */
+    public interface Listener {
+
+        /**
+         * @param file that changed.
+         * @param kind ENTRY_CREATE, ENTRY_MODIFY or ENTRY_DELETE
+         */
+        void designFileChanged(File file, WatchEvent.Kind<?> kind);
+    }
+
+    private final Listener listener;
+    private final Map<WatchKey, Path> dirs = new ConcurrentHashMap<>();
+    private WatchService watchService = null;
+    private Thread thread = null;
+
+    public DesignFileWatcher(Listener listener) {
+        this.listener = listener;
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            thread = new Thread(this::run, "design-file-watcher");
+            thread.setDaemon(true);
+            thread.start();
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "File watching not available. Changes on disk will not be noticed.", ex);
+        }
+    }
+
+    /**
+     * Watch a directory. Sub directories are not included.
+     *
+     * @param dir to watch
+     */
+    public void watch(File dir) {
+        if (watchService == null) {
+            return;
+        }
+        Path path = dir.toPath();
+        if (dirs.containsValue(path)) {
+            return;
+        }
+        try {
+            dirs.put(path.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE), path);
+            LOGGER.log(Level.FINER, "Watching: {0}", path);
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Could not watch: " + path, ex);
+        }
+    }
+
+    /**
+     * Stop watching a directory.
+     *
+     * @param dir no longer watched.
+     */
+    public void unwatch(File dir) {
+        Path path = dir.toPath();
+        dirs.entrySet().removeIf((e) -> {
+            if (e.getValue().equals(path)) {
+                e.getKey().cancel();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    public void shutdown() {
+        if (watchService == null) {
+            return;
+        }
+        try {
+            watchService.close();
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, null, ex);
+        }
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                Map<File, WatchEvent.Kind<?>> changes = new LinkedHashMap<>();
+                WatchKey key = watchService.take();
+                // Keep collecting until nothing happens for a moment.
+                while (key != null) {
+                    collect(key, changes);
+                    key = watchService.poll(QUIET_MS, TimeUnit.MILLISECONDS);
+                }
+                if (!changes.isEmpty()) {
+                    Platform.runLater(() -> {
+                        changes.forEach(listener::designFileChanged);
+                    });
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ex) {
+            LOGGER.log(Level.FINE, "File watcher stopped.");
+        }
+    }
+
+    private void collect(WatchKey key, Map<File, WatchEvent.Kind<?>> changes) {
+        Path dir = dirs.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            WatchEvent.Kind<?> kind = event.kind();
+            if (kind == OVERFLOW || dir == null) {
+                LOGGER.log(Level.WARNING, "File watcher lost events for: {0}", dir);
+                continue;
+            }
+            File file = dir.resolve((Path) event.context()).toFile();
+            WatchEvent.Kind<?> previous = changes.get(file);
+            // A file created then written is still new.
+            if (!(previous == ENTRY_CREATE && kind == ENTRY_MODIFY)) {
+                changes.put(file, kind);
+            }
+        }
+        if (!key.reset()) {
+            dirs.remove(key); // Directory is gone.
+        }
+    }
+}
@@ -0,0 +1,207 @@
+/*
+    Licensed to the Apache Software Foundation (ASF) under one or more
+    contributor license agreements.  See the NOTICE file distributed with this
+    work for additional information regarding copyright ownership.  The ASF
+    licenses this file to you under the Apache License, Version 2.0
+    (the "License"); you may not use this file except in compliance with the
+    License.  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+    License for the specific language governing permissions and limitations
+    under the License.
+ */
+package com.maehem.mangocad.view.controlpanel;
+
+import com.maehem.mangocad.view.ControlPanel;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.beans.property.ReadOnlyDoubleProperty;
+import javafx.beans.property.ReadOnlyDoubleWrapper;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+
+/**
+ * Loads design files for the {@link ModuleList} on a pool of background
+ * threads.
+ *
+ * Jobs are submitted from the FX thread. Each job loads something off the FX
+ * thread, then its result is published back on the FX thread with
+ * Platform.runLater(). Progress properties are only touched on the FX thread
+ * so they can be bound straight to controls. A job dropped by cancel() is
+ * told so on the FX thread, so its placeholder need not wait forever.
+ *
+ * @author Mark J Koch ( @maehem on GitHub )
+ */
+public class DesignScanner {
+
+    private static final Logger LOGGER = ControlPanel.LOGGER;
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    private final ExecutorService executor;
+    // Jobs not yet published. Only touched on the FX thread.
+    private final Set<Job> jobs = new LinkedHashSet<>();
+
+    private final ReadOnlyIntegerWrapper total = new ReadOnlyIntegerWrapper(0);
+    private final ReadOnlyIntegerWrapper done = new ReadOnlyIntegerWrapper(0);
+    private final ReadOnlyDoubleWrapper progress = new ReadOnlyDoubleWrapper(1.0);
+    private final ReadOnlyBooleanWrapper running = new ReadOnlyBooleanWrapper(false);
+
+    // Bumped on cancel so results of old jobs are dropped.
+    private volatile int generation = 0;
+
+    public DesignScanner() {
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        executor = Executors.newFixedThreadPool(threads, (r) -> {
+            Thread t = new Thread(r, "design-scanner-" + THREAD_COUNT.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Load something in the background and publish the result on the FX
+     * thread. Call from the FX thread.
+     *
+     * @param <T> type of loaded object
+     * @param loader runs on a worker thread. May return null.
+     * @param publisher runs on the FX thread with the loader result.
+     * @param cancelled runs on the FX thread if the job is cancelled before
+     * it is published. May be null.
+     */
+    public <T> void submit(Callable<T> loader, Consumer<T> publisher, Runnable cancelled) {
+        final int jobGeneration = generation;
+        final Job job = new Job(cancelled);
+        total.set(total.get() + 1);
+        updateProgress();
+
+        jobs.add(job);
+        job.future = executor.submit(() -> {
+            if (jobGeneration != generation) {
+                return;
+            }
+            T result = null;
+            try {
+                result = loader.call();
+            } catch (Exception ex) {
+                LOGGER.log(Level.SEVERE, "Background design load failed.", ex);
+            }
+            final T published = result;
+            Platform.runLater(() -> {
+                if (jobGeneration != generation) {
+                    return;
+                }
+                jobs.remove(job);
+                publisher.accept(published);
+                done.set(done.get() + 1);
+                updateProgress();
+            });
+        });
+    }
+
+    /**
+     * Drop all queued jobs. Jobs already loading finish, but their results
+     * are not published. Each dropped job's cancel action is run. Call from
+     * the FX thread.
+     */
+    public void cancel() {
+        generation++;
+        List<Job> dropped = new ArrayList<>(jobs);
+        jobs.clear();
+        dropped.forEach((job) -> job.future.cancel(false));
+        total.set(0);
+        done.set(0);
+        updateProgress();
+        dropped.forEach((job) -> {
+            if (job.cancelled != null) {
+                job.cancelled.run();
+            }
+        });
+        LOGGER.log(Level.FINE, "Design scan cancelled. {0} jobs dropped.", dropped.size());
+    }
+
+    /**
+     * Cancel and stop the worker threads. The scanner can not be used after
+     * this.
+     */
+    public void shutdown() {
+        cancel();
+        executor.shutdownNow();
+    }
+
+    private void updateProgress() {
+        if (done.get() >= total.get()) {
+            // All caught up. Clear counts for the next batch.
+            total.set(0);
+            done.set(0);
+            progress.set(1.0);
+            running.set(false);
+        } else {
+            progress.set((double) done.get() / total.get());
+            running.set(true);
+        }
+    }
+
+    private static class Job {
+
+        final Runnable cancelled;
+        Future<?> future;
+
+        Job(Runnable cancelled) {
+            this.cancelled = cancelled;
+        }
+    }
+
+    public int getTotal() {
+        return total.get();
+    }
+
+    public int getDone() {
+        return done.get();
+    }
+
+    /**
+     * @return number of jobs in the current batch.
+     */
+    public ReadOnlyIntegerProperty totalProperty() {
+        return total.getReadOnlyProperty();
+    }
+
+    /**
+     * @return number of jobs of the current batch that are published.
+     */
+    public ReadOnlyIntegerProperty doneProperty() {
+        return done.getReadOnlyProperty();
+    }
+
+    /**
+     * @return 0.0 to 1.0 of the current batch.
+     */
+    public ReadOnlyDoubleProperty progressProperty() {
+        return progress.getReadOnlyProperty();
+    }
+
+    /**
+     * @return true while jobs are pending.
+     */
+    public ReadOnlyBooleanProperty runningProperty() {
+        return running.getReadOnlyProperty();
+    }
+}
@@ -20,16 +20,12 @@ import com.maehem.mangocad.AppProperties;
 import com.maehem.mangocad.RepoPathListListener;
 import com.maehem.mangocad.RepoPathManager;
 import com.maehem.mangocad.model.BoardCache;
+import com.maehem.mangocad.model.DesignHeader;
+import com.maehem.mangocad.model.DesignHeaderCache;
 import com.maehem.mangocad.model.LibraryCache;
 import com.maehem.mangocad.model.SchematicCache;
-import com.maehem.mangocad.model.element.drawing.Board;
 import com.maehem.mangocad.model.element.drawing.Library;
-import com.maehem.mangocad.model.element.drawing.Schematic;
 import com.maehem.mangocad.model.element.enums.DesignType;
-import com.maehem.mangocad.model.element.highlevel.DeviceSet;
-import com.maehem.mangocad.model.element.highlevel.Footprint;
-import com.maehem.mangocad.model.element.highlevel.Package3d;
-import com.maehem.mangocad.model.element.highlevel.Symbol;
 import com.maehem.mangocad.view.ControlPanel;
 import com.maehem.mangocad.view.controlpanel.listitem.BoardFileItem;
 import com.maehem.mangocad.view.controlpanel.listitem.ControlPanelListItem;
@@ -55,8 +51,17 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.function.Predicate;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javafx.scene.control.TreeItem;
@@ -92,6 +97,16 @@ public class ModuleList extends TreeTableView<ControlPanelListItem> implements R
     private final TreeItem repositoriesItem;
 
     private final TabArea tabArea;
+    private final DesignScanner scanner = new DesignScanner();
+    private final DesignFileWatcher watcher = new DesignFileWatcher(this::designFileChanged);
+
+    // Items by file, so a change on disk only touches its own items.
+    private final Map<File, TreeItem> designItems = new HashMap<>();
+    private final Map<File, TreeItem> libraryFolderItems = new HashMap<>();
+    private final Map<File, TreeItem> projectFolderItems = new HashMap<>();
+    // Files whose scan was cancelled. Loaded again when their folder is
+    // expanded or they are selected.
+    private final Set<File> cancelledItems = new HashSet<>();
 
     private final TreeTableColumn<ControlPanelListItem, String> nameColumn = new TreeTableColumn<>(MSG.getString("MODULE_LIST_NAME_COL"));
     private final TreeTableColumn<ControlPanelListItem, String> descColumn = new TreeTableColumn<>(MSG.getString("MODULE_LIST_DESC_COL"));
@@ -128,14 +143,40 @@ public class ModuleList extends TreeTableView<ControlPanelListItem> implements R
         setShowRoot(false);
         setRoot(modules);
 
+        // Expanding a folder picks up any of its files left by a cancelled scan.
+        modules.addEventHandler(TreeItem.branchExpandedEvent(), (event) -> {
+            TreeItem folder = ((TreeItem.TreeModificationEvent) event).getTreeItem();
+            for (File file : new ArrayList<>(cancelledItems)) {
+                TreeItem item = designItems.get(file);
+                if (item != null && item.getParent() == folder) {
+                    rescan(file);
+                }
+            }
+        });
+
         // Update the context menu every time it is displayed.
         getSelectionModel().selectedItemProperty().addListener((o) -> {
-            setContextMenu(getSelectionModel().getSelectedItem().getValue().getContextMenu());
-            LOGGER.log(Level.SEVERE, "Selected: {0}", getSelectionModel().getSelectedItem().getValue().getName());
-            tabArea.setPreviewItem(getSelectionModel().getSelectedItem().getValue());
+            TreeItem<ControlPanelListItem> selected = getSelectionModel().getSelectedItem();
+            if (selected == null || selected.getValue() == null) {
+                return; // Cleared, like when the selected file is deleted.
+            }
+            File file = selected.getValue().getFile();
+            if (file != null && cancelledItems.contains(file)) {
+                rescan(file);
+            }
+            setContextMenu(selected.getValue().getContextMenu());
+            LOGGER.log(Level.SEVERE, "Selected: {0}", selected.getValue().getName());
+            tabArea.setPreviewItem(selected.getValue());
         });
         RepoPathManager.getInstance().addListener(this);
 
+        // Keep the header index on disk so the next launch can skip parsing.
+        scanner.runningProperty().addListener((o, wasRunning, isRunning) -> {
+            if (!isRunning) {
+                DesignHeaderCache.getInstance().save();
+            }
+        });
+
     }
 
     private void initColumns() {
@@ -193,6 +234,14 @@ public class ModuleList extends TreeTableView<ControlPanelListItem> implements R
         getColumns().add(useColumn);
     }
 
+    /**
+     * @return the background loader that fills in the library and project
+     * items.
+     */
+    public DesignScanner getScanner() {
+        return scanner;
+    }
+
     @SuppressWarnings("unchecked")
     private void populateLibraries() {
         librariesItem.getChildren().clear();
@@ -227,40 +276,13 @@ public class ModuleList extends TreeTableView<ControlPanelListItem> implements R
 
     @SuppressWarnings("unchecked")
     private void populateLibrary(File dir, TreeItem parentItem) {
+        libraryFolderItems.put(dir, parentItem);
+        watcher.watch(dir);
         File[] libs = dir.listFiles((file) -> {    // lambda expression
-            return (file.isFile() && file.getName().endsWith("." + DesignType.Library.getFileExt()));
+            return (file.isFile() && isDesignFile(file, DesignType.Library));
         });
         for (File lbrFile : libs) {
-            // TODO: If the eagle.dtd is missing from the library dir, loading will fail.
-            //       See: https://xerces.apache.org/xml-commons/components/resolver/resolver-article.html
-            //       for a possible solution.
-            // Library importLBR = EagleCADUtils.importLBR(lbr);
-            Library library = LibraryCache.getInstance().getLibrary(lbrFile);
-            if (library != null) {
-                TreeItem item = new TreeItem(new LibraryItem(
-                        lbrFile.getName(),
-                        Library.getDescriptionShort(library.getDescription()),
-                        lbrFile, library));
-                parentItem.getChildren().add(item);
-
-//                TreeItem item;
-//                if (!library.getDescriptions().isEmpty()) {
-//                    item = new TreeItem(new LibraryItem(
-//                            lbrFile.getName(),
-//                            Library.getDescriptionShort(library.getDescription()),
-//                            lbrFile,
-//                            library
-//                    ));
-//                    parentItem.getChildren().add(item);
-//                } else {
-//                    item = new TreeItem(new LibraryItem(lbrFile.getName(), "", lbrFile, library));
-//                    parentItem.getChildren().add(item);
-//                }
-                populateLibraryDetailItems(library, lbrFile, item);
-            } else {
-                TreeItem item = new TreeItem(new LibraryItem("ERROR", "Library Error", null, null));
-                parentItem.getChildren().add(item);
-            }
+            addDesignItem(lbrFile, parentItem);
         }
     }
 
@@ -273,68 +295,247 @@ public class ModuleList extends TreeTableView<ControlPanelListItem> implements R
      */
     @SuppressWarnings("unchecked")
     private void populateProjectFolder(File dir, TreeItem parentItem) {
+        projectFolderItems.put(dir, parentItem);
+        watcher.watch(dir);
         // List any sub directories.
         File[] sdirs = dir.listFiles((sdir) -> {
             return sdir.isDirectory();
         });
         for (File sdir : sdirs) {
-            TreeItem item = new TreeItem(new ProjectSubFolderItem(
-                    sdir.getName(),
-                    ControlPanelUtils.getFolderDescriptionShort(sdir),
-                    sdir
-            ));
-            parentItem.getChildren().add(item);
-            populateProjectFolder(sdir, item);
+            addProjectSubFolderItem(sdir, parentItem);
         }
 
         File[] schs = dir.listFiles((file) -> {    // lambda expression
-            return (file.isFile() && file.getName().endsWith("." + DesignType.Schematic.getFileExt()));
+            return (file.isFile() && isDesignFile(file, DesignType.Schematic));
         });
         for (File schFile : schs) {
-            // TODO: If the eagle.dtd is missing from the library dir, loading will fail.
-            //       See: https://xerces.apache.org/xml-commons/components/resolver/resolver-article.html
-            //       for a possible solution.
-            // Library importLBR = EagleCADUtils.importLBR(lbr);
-            //Library library = LibraryCache.getInstance().getLibrary(schFile);
-            Schematic schem = SchematicCache.getInstance().getSchematic(schFile);
-            if (schem != null) {
-                TreeItem item;
-                item = new TreeItem(new SchematicFileItem(schFile.getName(), schem.getDescription().getValue(), schFile));
-                parentItem.getChildren().add(item);
-                //populateSchematicDetailItems(schem, schFile, item);
-            } else {
-                TreeItem item = new TreeItem(new LibraryItem("ERROR", "Library Error", null, null));
-                parentItem.getChildren().add(item);
-            }
+            addDesignItem(schFile, parentItem);
         }
 
         // TODO: Combine Library, Schematic and Board into one "Design" Cache.
         File[] brds = dir.listFiles((file) -> {    // lambda expression
-            return (file.isFile() && file.getName().endsWith("." + DesignType.Board.getFileExt()));
+            return (file.isFile() && isDesignFile(file, DesignType.Board));
         });
         for (File brdFile : brds) {
-            // TODO: If the eagle.dtd is missing from the library dir, loading will fail.
-            //       See: https://xerces.apache.org/xml-commons/components/resolver/resolver-article.html
-            //       for a possible solution.
-            // Library importLBR = EagleCADUtils.importLBR(lbr);
-            //Library library = LibraryCache.getInstance().getLibrary(schFile);
-            Board board = BoardCache.getInstance().getBoard(brdFile);
-            if (board != null) {
-                TreeItem item;
-                item = new TreeItem(new BoardFileItem(brdFile.getName(), board.getDescription().getValue(), brdFile));
-                parentItem.getChildren().add(item);
+            addDesignItem(brdFile, parentItem);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void addProjectSubFolderItem(File sdir, TreeItem parentItem) {
+        TreeItem item = new TreeItem(new ProjectSubFolderItem(
+                sdir.getName(),
+                ControlPanelUtils.getFolderDescriptionShort(sdir),
+                sdir
+        ));
+        parentItem.getChildren().add(item);
+        populateProjectFolder(sdir, item);
+    }
+
+    /**
+     * Add a placeholder item for a library, schematic or board file and load
+     * its header in the background.
+     *
+     * @param file design file
+     * @param parentItem folder item
+     */
+    @SuppressWarnings("unchecked")
+    private void addDesignItem(File file, TreeItem parentItem) {
+        // Placeholder until the design is loaded in the background.
+        TreeItem item = new TreeItem(placeholder(file, MSG.getString("MODULE_LIST_LOADING")));
+        parentItem.getChildren().add(item);
+        designItems.put(file, item);
+
+        loadDesignItem(file, item, false);
+    }
+
+    /**
+     * Read the header of a design file in the background, then fill in its
+     * item. Only the header is read here. The full design is ingested when
+     * an item is previewed or opened.
+     *
+     * @param file design file
+     * @param item to fill in
+     * @param reload the file changed on disk. Also refresh any cached full
+     * design of it.
+     */
+    @SuppressWarnings("unchecked")
+    private void loadDesignItem(File file, TreeItem item, boolean reload) {
+        cancelledItems.remove(file);
+        scanner.submit(() -> {
+            if (reload) {
+                reloadCachedDesign(file);
+            }
+            return DesignHeaderCache.getInstance().getHeader(file);
+        }, (header) -> {
+            publishDesignItem(file, item, header);
+        }, () -> {
+            if (designItems.get(file) == item) {
+                cancelledItems.add(file);
+                item.setValue(placeholder(file, MSG.getString("MODULE_LIST_CANCELLED")));
+            }
+        });
+    }
+
+    /**
+     * Load a file again that was left by a cancelled scan.
+     */
+    @SuppressWarnings("unchecked")
+    private void rescan(File file) {
+        TreeItem item = designItems.get(file);
+        if (item == null || !cancelledItems.contains(file)) {
+            return;
+        }
+        item.setValue(placeholder(file, MSG.getString("MODULE_LIST_LOADING")));
+        loadDesignItem(file, item, false);
+    }
+
+    /**
+     * @return an item for a design file that isn't loaded yet.
+     */
+    private static ControlPanelListItem placeholder(File file, String description) {
+        if (isDesignFile(file, DesignType.Library)) {
+            return new LibraryItem(file.getName(), description, file);
+        } else if (isDesignFile(file, DesignType.Schematic)) {
+            return new SchematicFileItem(file.getName(), description, file);
+        } else {
+            return new BoardFileItem(file.getName(), description, file);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void publishDesignItem(File file, TreeItem item, DesignHeader header) {
+        if (isDesignFile(file, DesignType.Library)) {
+            item.getChildren().clear();
+            if (header != null) {
+                item.setValue(new LibraryItem(
+                        file.getName(),
+                        Library.getDescriptionShort(header.getDescription()),
+                        file));
+                populateLibraryDetailItems(header, file, item);
+            } else {
+                item.setValue(new LibraryItem("ERROR", MSG.getString("MODULE_LIST_LIBRARY_ERROR"), null));
+            }
+        } else if (isDesignFile(file, DesignType.Schematic)) {
+            if (header != null) {
+                item.setValue(new SchematicFileItem(file.getName(), header.getDescription(), file));
+            } else {
+                item.setValue(new SchematicFileItem(file.getName(), MSG.getString("MODULE_LIST_SCHEMATIC_ERROR"), file));
+            }
+        } else {
+            if (header != null) {
+                item.setValue(new BoardFileItem(file.getName(), header.getDescription(), file));
             } else {
-                TreeItem item = new TreeItem(new LibraryItem("ERROR", "Board Error", null, null));
-                parentItem.getChildren().add(item);
+                item.setValue(new BoardFileItem(file.getName(), MSG.getString("MODULE_LIST_BOARD_ERROR"), file));
+            }
+        }
+    }
+
+    /**
+     * Swap a fresh copy of a changed file into whichever cache holds it.
+     * Called on a scanner thread.
+     */
+    private static void reloadCachedDesign(File file) {
+        if (isDesignFile(file, DesignType.Library)) {
+            LibraryCache.getInstance().reload(file);
+        } else if (isDesignFile(file, DesignType.Schematic)) {
+            SchematicCache.getInstance().reload(file);
+        } else if (isDesignFile(file, DesignType.Board)) {
+            BoardCache.getInstance().reload(file);
+        }
+    }
+
+    private static boolean isDesignFile(File file, DesignType type) {
+        return file.getName().endsWith("." + type.getFileExt());
+    }
+
+    /**
+     * A watched file or directory changed on disk. Only the items for that
+     * file are touched.
+     *
+     * @param file that changed
+     * @param kind of change
+     */
+    private void designFileChanged(File file, WatchEvent.Kind<?> kind) {
+        LOGGER.log(Level.FINE, "Design file {0}: {1}", new Object[]{kind.name(), file.getAbsolutePath()});
+        if (kind == StandardWatchEventKinds.ENTRY_DELETE) {
+            removeItems(file);
+            return;
+        }
+
+        TreeItem item = designItems.get(file);
+        if (item != null) {
+            // Changed, or deleted and written again.
+            loadDesignItem(file, item, true);
+            return;
+        }
+
+        // Something new.
+        TreeItem libraryFolder = libraryFolderItems.get(file.getParentFile());
+        if (libraryFolder != null && file.isFile() && isDesignFile(file, DesignType.Library)) {
+            addDesignItem(file, libraryFolder);
+        }
+        TreeItem projectFolder = projectFolderItems.get(file.getParentFile());
+        if (projectFolder != null) {
+            if (file.isDirectory()) {
+                if (!projectFolderItems.containsKey(file)) {
+                    addProjectSubFolderItem(file, projectFolder);
+                }
+            } else if (isDesignFile(file, DesignType.Schematic) || isDesignFile(file, DesignType.Board)) {
+                addDesignItem(file, projectFolder);
+            }
+        }
+    }
+
+    /**
+     * Remove the item of a deleted file, or a deleted library or project
+     * folder and everything under it.
+     */
+    private void removeItems(File file) {
+        TreeItem item = designItems.remove(file);
+        cancelledItems.remove(file);
+        if (item != null) {
+            item.getParent().getChildren().remove(item);
+            invalidateCaches(file);
+        }
+        TreeItem folder = projectFolderItems.containsKey(file)
+                ? projectFolderItems.get(file) : libraryFolderItems.get(file);
+        if (folder != null) {
+            folder.getParent().getChildren().remove(folder);
+            String prefix = file.getAbsolutePath() + File.separator;
+            Predicate<File> under = (f) -> f.equals(file) || f.getAbsolutePath().startsWith(prefix);
+            for (Map<File, TreeItem> folders : List.of(projectFolderItems, libraryFolderItems)) {
+                folders.keySet().removeIf((f) -> {
+                    if (under.test(f)) {
+                        watcher.unwatch(f);
+                        return true;
+                    }
+                    return false;
+                });
             }
+            designItems.keySet().removeIf((f) -> {
+                if (under.test(f)) {
+                    cancelledItems.remove(f);
+                    invalidateCaches(f);
+                    return true;
+                }
+                return false;
+            });
         }
     }
 
+    private static void invalidateCaches(File file) {
+        LibraryCache.getInstance().invalidate(file);
+        SchematicCache.getInstance().invalidate(file);
+        BoardCache.getInstance().invalidate(file);
+        DesignHeaderCache.getInstance().invalidate(file);
+    }
+
     @SuppressWarnings({"unchecked"})
-    private void populateLibraryDetailItems(Library library, File file, TreeItem parentItem) {
+    private void populateLibraryDetailItems(DesignHeader header, File file, TreeItem parentItem) {
         // List each deviceset as item (leaf)
-        for (DeviceSet ds : library.getDeviceSets()) {
-            TreeItem item = new TreeItem(new LibraryDeviceSetItem(ds.getName(), ds.getDescription(), file, library));
+        for (DesignHeader.Entry ds : header.getDeviceSets()) {
+            TreeItem item = new TreeItem(new LibraryDeviceSetItem(ds.getName(), ds.getDescription(), file));
             parentItem.getChildren().add(item);
         }
 
@@ -343,9 +544,9 @@ public class ModuleList extends TreeTableView<ControlPanelListItem> implements R
         item = new TreeItem(new LibrarySubItem("Footprints", "", file));
 
         parentItem.getChildren().add(item);
-        for (Footprint f : library.getPackages()) {
+        for (DesignHeader.Entry f : header.getPackages()) {
             TreeItem footprintItem = new TreeItem(new LibraryDeviceFootprintItem(
-                    f.getName(), f.getDescription(), file, library
+                    f.getName(), f.getDescription(), file
             ));
             item.getChildren().add(footprintItem);
         }
@@ -353,17 +554,17 @@ public class ModuleList extends TreeTableView<ControlPanelListItem> implements R
         // List each 3D package (Folder)
         item = new TreeItem(new LibrarySubItem("3D Packages", "", file));
         parentItem.getChildren().add(item);
-        for (Package3d f : library.getPackages3d()) {
-            TreeItem package3dItem = new TreeItem(new LibraryDevicePackage3dItem(f.getName(), f.getDescription(), file, library));
+        for (DesignHeader.Entry f : header.getPackages3d()) {
+            TreeItem package3dItem = new TreeItem(new LibraryDevicePackage3dItem(f.getName(), f.getDescription(), file));
             item.getChildren().add(package3dItem);
         }
 
         // List each symbol (Folder)
         item = new TreeItem(new LibrarySubItem("Symbols", "", file));
         parentItem.getChildren().add(item);
-        for (Symbol f : library.getSymbols()) {
+        for (DesignHeader.Entry f : header.getSymbols()) {
             TreeItem symbolItem = new TreeItem(new LibraryDeviceSymbolItem(
-                    f.getName(), f.getDescription(), file, library
+                    f.getName(), f.getDescription(), file
             ));
             item.getChildren().add(symbolItem);
         }
@@ -445,6 +646,19 @@ public class ModuleList extends TreeTableView<ControlPanelListItem> implements R
         }
     }
 
+    /**
+     * Stop loading and watching designs in the background. Call when the
+     * control panel closes.
+     */
+    public void shutdown() {
+        watcher.shutdown();
+        scanner.shutdown();
+        DesignHeaderCache.getInstance().save();
+        LOGGER.log(Level.CONFIG, LibraryCache.getInstance().toString());
+        LOGGER.log(Level.CONFIG, SchematicCache.getInstance().toString());
+        LOGGER.log(Level.CONFIG, BoardCache.getInstance().toString());
+    }
+
     public void pushProperties(Properties p) {
         p.setProperty(NAME_COL_WIDTH_PROP_KEY, String.valueOf((int) nameColumn.getWidth()));
         p.setProperty(DESC_COL_WIDTH_PROP_KEY, String.valueOf((int) descColumn.getWidth()));
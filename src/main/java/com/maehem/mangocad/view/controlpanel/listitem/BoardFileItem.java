@@ -18,15 +18,24 @@ package com.maehem.mangocad.view.controlpanel.listitem;
 
 import com.maehem.mangocad.AppProperties;
 import com.maehem.mangocad.model.BoardCache;
+import com.maehem.mangocad.model.DesignHeader;
+import com.maehem.mangocad.model.DesignHeaderCache;
 import com.maehem.mangocad.model.element.drawing.Board;
 import com.maehem.mangocad.view.GroupContainer;
 import com.maehem.mangocad.view.MarkdownUtils;
+import com.maehem.mangocad.view.ThumbnailCache;
+import com.maehem.mangocad.view.ThumbnailView;
+import com.maehem.mangocad.view.board.BoardCanvasView;
 import com.maehem.mangocad.view.board.BoardEditor;
 import com.maehem.mangocad.view.board.BoardPreview;
+import com.maehem.mangocad.view.board.BoardSide;
 import java.io.File;
 import java.text.MessageFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Orientation;
 import javafx.geometry.Pos;
@@ -39,7 +48,7 @@ import javafx.scene.control.MenuItem;
 import javafx.scene.control.Separator;
 import javafx.scene.control.SeparatorMenuItem;
 import javafx.scene.control.SplitPane;
-import javafx.scene.control.TabPane;
+import javafx.scene.control.ToggleButton;
 import javafx.scene.image.Image;
 import javafx.scene.layout.Background;
 import javafx.scene.layout.BackgroundFill;
@@ -66,6 +75,8 @@ public class BoardFileItem extends ControlPanelListItem {
             BoardFileItem.class.getResourceAsStream("/icons/integrated-circuit.png")
     );
 
+    private static final Color PREVIEW_BACKGROUND = new Color(0.1, 0.1, 0.1, 1.0);
+
     private Stage stage = null;
 
     public BoardFileItem(String name, String description, File file) {
@@ -161,40 +172,81 @@ public class BoardFileItem extends ControlPanelListItem {
 
         VBox.setMargin(headingBox, new Insets(5, 10, 5, 10));
 
-        Board brd = BoardCache.getInstance().getBoard(getFile());
-        if (brd == null) {
-            LOGGER.log(Level.SEVERE, "OOPS! Board File didn't load!");
-        }
-
-        TabPane tabPane = new TabPane();
-        VBox.setVgrow(tabPane, Priority.ALWAYS);
+        // Only the description is needed up front. The board itself is
+        // loaded, if at all, by the thumbnail cache in the background.
+        DesignHeader header = DesignHeaderCache.getInstance().getHeader(getFile());
+        String description = header == null ? "" : header.getDescription();
 
-        GroupContainer boardPreviewNode = boardPreviewNode(brd);
-        VBox.setVgrow(boardPreviewNode, Priority.SOMETIMES);
+        ThumbnailView thumbnailView = new ThumbnailView();
+        VBox.setVgrow(thumbnailView, Priority.SOMETIMES);
 
         Node pageDesc = MarkdownUtils.markdownNode(
                 1.0,
-                brd.getDescription().getValue(),
+                description,
                 null
         );
         VBox.setVgrow(pageDesc, Priority.SOMETIMES);
 
-        MessageFormat mf = new MessageFormat("Size: {0}W x {1}H ({2}x{3}cm)");
-        Double MM2INCH = 0.0393701;
-        Text pageSizeText = new Text(mf.format(new Object[]{
-            boardPreviewNode.getNativeWidth() * MM2INCH,
-            boardPreviewNode.getNativeHeight() * MM2INCH,
-            boardPreviewNode.getNativeWidth() / 10.0,
-            boardPreviewNode.getNativeHeight() / 10.0
-        }));
+        Text pageSizeText = new Text();
         pageSizeText.setId("preview-document-dimensions-text");
 
-        HBox pageInfo = new HBox(pageSizeText);
+        ThumbnailCache.Thumbnail[] sides = new ThumbnailCache.Thumbnail[2];
+        requestThumbnail(BoardSide.TOP, (thumbnail) -> {
+            sides[0] = thumbnail;
+            thumbnailView.setThumbnail(thumbnail);
+            pageSizeText.setText(sizeText(thumbnail));
+        });
+
+        // The bottom is only drawn the first time it is asked for.
+        ToggleButton bottomButton = new ToggleButton("Bottom");
+        bottomButton.setOnAction((event) -> {
+            int i = bottomButton.isSelected() ? 1 : 0;
+            if (sides[i] != null) {
+                thumbnailView.setThumbnail(sides[i]);
+            } else if (i == 1) {
+                requestThumbnail(BoardSide.BOTTOM, (thumbnail) -> {
+                    sides[1] = thumbnail;
+                    if (bottomButton.isSelected()) {
+                        thumbnailView.setThumbnail(thumbnail);
+                    }
+                });
+            }
+        });
+
+        ToggleButton layersButton = new ToggleButton("Layers");
+
+        HBox pageInfo = new HBox(10, pageSizeText, bottomButton, layersButton);
         pageInfo.setAlignment(Pos.CENTER);
 
         VBox pageDetails = new VBox(pageInfo, pageDesc);
 
-        SplitPane spPane = new SplitPane(boardPreviewNode, pageDetails);
+        SplitPane spPane = new SplitPane(thumbnailView, pageDetails);
+
+        // A live view of every layer, made the first time it is asked for.
+        Node[] layersView = new Node[1];
+        layersButton.setOnAction((event) -> {
+            double divider = spPane.getDividerPositions()[0];
+            if (!layersButton.isSelected()) {
+                spPane.getItems().set(0, thumbnailView);
+            } else if (layersView[0] != null) {
+                spPane.getItems().set(0, layersView[0]);
+            } else {
+                CompletableFuture.supplyAsync(
+                        () -> BoardCache.getInstance().getBoard(getFile())
+                ).thenAccept((brd) -> Platform.runLater(() -> {
+                    if (brd == null) {
+                        LOGGER.log(Level.SEVERE, "OOPS! Board File didn't load!");
+                        return;
+                    }
+                    layersView[0] = new BoardCanvasView(brd, PREVIEW_BACKGROUND);
+                    if (layersButton.isSelected()) {
+                        spPane.getItems().set(0, layersView[0]);
+                        spPane.setDividerPosition(0, divider);
+                    }
+                }));
+            }
+            spPane.setDividerPosition(0, divider);
+        });
         spPane.setOrientation(Orientation.VERTICAL);
         spPane.setDividerPosition(0, 0.8);
         VBox.setVgrow(spPane, Priority.ALWAYS);
@@ -202,7 +254,7 @@ public class BoardFileItem extends ControlPanelListItem {
                 heading,
                 MarkdownUtils.markdownNode(
                         1.5,
-                        brd.getDescription().getValue(),
+                        description,
                         null
                 ),
                 spPane
@@ -213,11 +265,35 @@ public class BoardFileItem extends ControlPanelListItem {
         return pane;
     }
 
-    private GroupContainer boardPreviewNode(Board brd) {
+    private void requestThumbnail(BoardSide side, Consumer<ThumbnailCache.Thumbnail> onReady) {
+        ThumbnailCache.getInstance().request(
+                getFile(),
+                side.name().toLowerCase(),
+                () -> BoardCache.getInstance().getBoard(getFile()),
+                (brd) -> {
+                    BoardPreview preview = new BoardPreview(brd);
+                    preview.setSide(side);
+                    return preview;
+                },
+                PREVIEW_BACKGROUND,
+                onReady
+        );
+    }
 
-        BoardPreview boardPreview = new BoardPreview(brd);
-        StackPane sp = new StackPane(boardPreview);
-        sp.setBackground(new Background(new BackgroundFill(new Color(0.1, 0.1, 0.1, 1.0), CornerRadii.EMPTY, Insets.EMPTY)));
+    private static String sizeText(ThumbnailCache.Thumbnail thumbnail) {
+        MessageFormat mf = new MessageFormat("Size: {0}W x {1}H ({2}x{3}cm)");
+        Double MM2INCH = 0.0393701;
+        return mf.format(new Object[]{
+            thumbnail.getNativeWidth() * MM2INCH,
+            thumbnail.getNativeHeight() * MM2INCH,
+            thumbnail.getNativeWidth() / 10.0,
+            thumbnail.getNativeHeight() / 10.0
+        });
+    }
+
+    private GroupContainer boardPreviewNode(Board brd) {
+        StackPane sp = new StackPane(new BoardPreview(brd));
+        sp.setBackground(new Background(new BackgroundFill(PREVIEW_BACKGROUND, CornerRadii.EMPTY, Insets.EMPTY)));
         Group schemPreviewGroup = new Group(sp);
         GroupContainer container = new GroupContainer(schemPreviewGroup);
         //container.setBorder(new Border(new BorderStroke(Color.AQUAMARINE, BorderStrokeStyle.SOLID, CornerRadii.EMPTY, new BorderWidths(2))));
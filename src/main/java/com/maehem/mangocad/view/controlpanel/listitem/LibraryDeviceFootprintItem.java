@@ -57,11 +57,9 @@ public class LibraryDeviceFootprintItem extends ControlPanelListItem {
     );
 
     private Stage stage = null;
-    private final Library library;
 
-    public LibraryDeviceFootprintItem(String name, String description, File file, Library library) {
+    public LibraryDeviceFootprintItem(String name, String description, File file) {
         super(name, description, file);
-        this.library = library;
     }
 
     @Override
@@ -80,6 +78,11 @@ public class LibraryDeviceFootprintItem extends ControlPanelListItem {
             LOGGER.log(Level.SEVERE, "{0}: {1}", new Object[]{getName(), menuItem2.getText()});
 
             if (stage == null) {
+                // The list only read the header. Ingest the whole library now.
+                Library library = LibraryCache.getInstance().getLibrary(getFile());
+                if (library == null) {
+                    return;
+                }
                 stage = LibraryEditor.invokeWindow(library, getName(), getFile());
 //                stage = new Stage();
 //                LibraryEditor root = new LibraryEditor(getFile(), library);
@@ -16,6 +16,7 @@
  */
 package com.maehem.mangocad.view.controlpanel.listitem;
 
+import com.maehem.mangocad.model.LibraryCache;
 import com.maehem.mangocad.model.element.drawing.Library;
 import com.maehem.mangocad.view.library.LibraryEditor;
 import java.io.File;
@@ -39,11 +40,9 @@ public class LibraryDevicePackage3dItem extends ControlPanelListItem {
     );
 
     private Stage stage = null;
-    private final Library library;
 
-    public LibraryDevicePackage3dItem(String name, String description, File file, Library library) {
+    public LibraryDevicePackage3dItem(String name, String description, File file) {
         super(name, description, file);
-        this.library = library;
     }
 
     @Override
@@ -56,6 +55,11 @@ public class LibraryDevicePackage3dItem extends ControlPanelListItem {
             LOGGER.log(Level.SEVERE, "{0}: {1}", new Object[]{getName(), menuItem2.getText()});
 
             if (stage == null) {
+                // The list only read the header. Ingest the whole library now.
+                Library library = LibraryCache.getInstance().getLibrary(getFile());
+                if (library == null) {
+                    return;
+                }
                 stage = LibraryEditor.invokeWindow(library, getName(), getFile());
 //                stage = new Stage();
 //                LibraryEditor root = new LibraryEditor(getFile(), library);
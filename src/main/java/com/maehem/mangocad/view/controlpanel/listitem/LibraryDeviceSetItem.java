@@ -82,11 +82,9 @@ public class LibraryDeviceSetItem extends ControlPanelListItem {
     );
 
     private Stage stage = null;
-    private final Library library;
 
-    public LibraryDeviceSetItem(String name, String description, File file, Library library) {
+    public LibraryDeviceSetItem(String name, String description, File file) {
         super(name, description, file);
-        this.library = library;
 
 //        if (file != null) {
 //            // TODO: Maybe get date format from AppSettings? Let user define format in settings panel.
@@ -107,6 +105,11 @@ public class LibraryDeviceSetItem extends ControlPanelListItem {
             LOGGER.log(Level.SEVERE, "{0}: {1}", new Object[]{getName(), menuItem2.getText()});
 
             if (stage == null) {
+                // The list only read the header. Ingest the whole library now.
+                Library library = LibraryCache.getInstance().getLibrary(getFile());
+                if (library == null) {
+                    return;
+                }
                 stage = LibraryEditor.invokeWindow(library, getName(), getFile());
 //                stage = new Stage();
 //                LibraryEditor root = new LibraryEditor(getFile(), library);
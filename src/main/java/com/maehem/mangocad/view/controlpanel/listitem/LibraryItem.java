@@ -16,6 +16,7 @@
  */
 package com.maehem.mangocad.view.controlpanel.listitem;
 
+import com.maehem.mangocad.model.LibraryCache;
 import com.maehem.mangocad.model.element.drawing.Library;
 import com.maehem.mangocad.view.ControlPanel;
 import com.maehem.mangocad.view.MarkdownUtils;
@@ -50,11 +51,9 @@ public class LibraryItem extends ControlPanelListItem {
     );
 
     private Stage stage = null;
-    private final Library library;
 
-    public LibraryItem(String name, String description, File file, Library library) {
+    public LibraryItem(String name, String description, File file) {
         super(name, description, file);
-        this.library = library;
 
         if (file != null) {
             // TODO: Maybe get date format from AppSettings? Let user define format in settings panel.
@@ -75,8 +74,16 @@ public class LibraryItem extends ControlPanelListItem {
 
         menuItem1.setOnAction((event) -> {
             LOGGER.log(Level.SEVERE, "{0}: {1}", new Object[]{getName(), menuItem1.getText()});
+            if (getFile() == null) { // Failed to load.
+                return;
+            }
 
             if (stage == null) {
+                // The list only read the header. Ingest the whole library now.
+                Library library = LibraryCache.getInstance().getLibrary(getFile());
+                if (library == null) {
+                    return;
+                }
                 stage = LibraryEditor.invokeWindow(library, getName(), getFile());
 //                stage = new Stage();
 //                LibraryEditor root = new LibraryEditor(getFile(), library);
@@ -18,17 +18,22 @@ package com.maehem.mangocad.view.controlpanel.listitem;
 
 import com.maehem.mangocad.AppProperties;
 import com.maehem.mangocad.model.ColorPalette;
+import com.maehem.mangocad.model.DesignHeader;
+import com.maehem.mangocad.model.DesignHeaderCache;
 import com.maehem.mangocad.model.SchematicCache;
 import com.maehem.mangocad.model.element.drawing.Schematic;
-import com.maehem.mangocad.model.element.highlevel.Sheet;
-import com.maehem.mangocad.view.GroupContainer;
 import com.maehem.mangocad.view.MarkdownUtils;
+import com.maehem.mangocad.view.ThumbnailCache;
+import com.maehem.mangocad.view.ThumbnailView;
 import com.maehem.mangocad.view.schematic.SchematicEditor;
 import com.maehem.mangocad.view.schematic.SchematicPreview;
 import java.io.File;
 import java.text.MessageFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Orientation;
 import javafx.geometry.Pos;
@@ -49,10 +54,7 @@ import javafx.scene.control.Tab;
 import javafx.scene.control.TabPane;
 import javafx.scene.control.Tooltip;
 import javafx.scene.image.Image;
-import javafx.scene.layout.Background;
-import javafx.scene.layout.BackgroundFill;
 import javafx.scene.layout.BorderPane;
-import javafx.scene.layout.CornerRadii;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.Priority;
@@ -74,6 +76,8 @@ public class SchematicFileItem extends ControlPanelListItem {
             SchematicFileItem.class.getResourceAsStream("/icons/integrated-circuit.png")
     );
 
+    private static final Color PREVIEW_BACKGROUND = new Color(0.1, 0.1, 0.1, 1.0);
+
     private Stage stage = null;
 
     public SchematicFileItem(String name, String description, File file) {
@@ -135,6 +139,7 @@ public class SchematicFileItem extends ControlPanelListItem {
             Schematic sch = SchematicCache.getInstance().getSchematic(getFile());
             if (sch == null) {
                 LOGGER.log(Level.SEVERE, "OOPS! Schematic File didn't load!");
+                return;
             }
 
             // TODO: Work out multi page print job request.
@@ -189,49 +194,58 @@ public class SchematicFileItem extends ControlPanelListItem {
 
         VBox.setMargin(headingBox, new Insets(5, 10, 5, 10));
 
-        Schematic sch = SchematicCache.getInstance().getSchematic(getFile());
-        if (sch == null) {
+        // Only the header is needed up front. The schematic itself is
+        // loaded in the background, by the thumbnail cache when a sheet must
+        // be drawn and for the notes of each sheet shown.
+        DesignHeader header = DesignHeaderCache.getInstance().getHeader(getFile());
+        if (header == null || header.getSheetCount() == 0) {
             LOGGER.log(Level.SEVERE, "OOPS! Schematic File didn't load!");
+            return heading;
         }
+        final int sheetCount = header.getSheetCount();
 
         TabPane tabPane = new TabPane();
         VBox.setVgrow(tabPane, Priority.ALWAYS);
 
-        for (int i = 0; i < sch.getSheets().size(); i++) {
-            Sheet sheet = sch.getSheets().get(i);
-            GroupContainer schematicPreviewNode = schematicPreviewNode(sch, i);
-            VBox.setVgrow(schematicPreviewNode, Priority.SOMETIMES);
-
-            Node pageDesc = MarkdownUtils.markdownNode(
-                    1.0,
-                    sheet.getDescription().getValue(),
-                    getFile().getParentFile().getAbsolutePath()
-            );
-            VBox.setVgrow(pageDesc, Priority.SOMETIMES);
+        for (int i = 0; i < sheetCount; i++) {
+            ThumbnailView thumbnailView = new ThumbnailView();
+            VBox.setVgrow(thumbnailView, Priority.SOMETIMES);
 
-            MessageFormat mf = new MessageFormat("Size: {0}W x {1}H ({2}x{3}cm)");
-            Double MM2INCH = 0.0393701;
-            Text pageSizeText = new Text(mf.format(new Object[]{
-                schematicPreviewNode.getNativeWidth() * MM2INCH,
-                schematicPreviewNode.getNativeHeight() * MM2INCH,
-                schematicPreviewNode.getNativeWidth() / 10.0,
-                schematicPreviewNode.getNativeHeight() / 10.0
-            }));
+            Text pageSizeText = new Text();
             pageSizeText.setId("preview-document-dimensions-text");
 
             HBox pageInfo = new HBox(pageSizeText);
             pageInfo.setAlignment(Pos.CENTER);
 
-            VBox pageDetails = new VBox(pageInfo, pageDesc);
+            VBox pageDetails = new VBox(pageInfo);
 
-            SplitPane spPane = new SplitPane(schematicPreviewNode, pageDetails);
+            SplitPane spPane = new SplitPane(thumbnailView, pageDetails);
             spPane.setOrientation(Orientation.VERTICAL);
             spPane.setDividerPosition(0, 0.8);
 
             Tab tab = new Tab("Sheet " + (i + 1), spPane);
 
             tab.setClosable(false);
-            tab.setTooltip(new Tooltip(sheet.getDescription().getValue()));
+
+            // Each sheet is drawn the first time its tab is shown, and the
+            // sheets beside it are drawn ahead in the background.
+            final int index = i;
+            final boolean[] shown = {false};
+            tab.setOnSelectionChanged((event) -> {
+                if (!tab.isSelected()) {
+                    return;
+                }
+                if (!shown[0]) {
+                    shown[0] = true;
+                    requestThumbnail(index, (thumbnail) -> {
+                        thumbnailView.setThumbnail(thumbnail);
+                        pageSizeText.setText(sizeText(thumbnail));
+                    });
+                    loadSheetDescription(index, tab, pageDetails);
+                }
+                prefetchThumbnail(index - 1, sheetCount);
+                prefetchThumbnail(index + 1, sheetCount);
+            });
             tabPane.getTabs().add(tab);
 
         }
@@ -240,7 +254,7 @@ public class SchematicFileItem extends ControlPanelListItem {
                 heading,
                 MarkdownUtils.markdownNode(
                         1.0,
-                        sch.getDescription().getValue(),
+                        header.getDescription(),
                         getFile().getParentFile().getAbsolutePath()
                 ),
                 tabPane
@@ -251,16 +265,63 @@ public class SchematicFileItem extends ControlPanelListItem {
         return pane;
     }
 
-    private GroupContainer schematicPreviewNode(Schematic sch, int index) {
+    /**
+     * Add the notes of a sheet to its tab once the schematic is loaded off
+     * the FX thread.
+     */
+    private void loadSheetDescription(int index, Tab tab, VBox pageDetails) {
+        CompletableFuture.supplyAsync(
+                () -> SchematicCache.getInstance().getSchematic(getFile())
+        ).thenAccept((sch) -> Platform.runLater(() -> {
+            if (sch == null || index >= sch.getSheets().size()) {
+                LOGGER.log(Level.SEVERE, "OOPS! Schematic File didn't load!");
+                return;
+            }
+            String description = sch.getSheets().get(index).getDescription().getValue();
+            Node pageDesc = MarkdownUtils.markdownNode(
+                    1.0,
+                    description,
+                    getFile().getParentFile().getAbsolutePath()
+            );
+            VBox.setVgrow(pageDesc, Priority.SOMETIMES);
+            pageDetails.getChildren().add(pageDesc);
+            tab.setTooltip(new Tooltip(description));
+        }));
+    }
 
-        SchematicPreview schematicPreview = new SchematicPreview(sch, index);
-        StackPane sp = new StackPane(schematicPreview);
-        sp.setBackground(new Background(new BackgroundFill(new Color(0.1, 0.1, 0.1, 1.0), CornerRadii.EMPTY, Insets.EMPTY)));
-        Group schemPreviewGroup = new Group(sp);
-        GroupContainer container = new GroupContainer(schemPreviewGroup);
-        //container.setBorder(new Border(new BorderStroke(Color.AQUAMARINE, BorderStrokeStyle.SOLID, CornerRadii.EMPTY, new BorderWidths(2))));
+    private void requestThumbnail(int index, Consumer<ThumbnailCache.Thumbnail> onReady) {
+        ThumbnailCache.getInstance().request(
+                getFile(),
+                "sheet-" + index,
+                () -> SchematicCache.getInstance().getSchematic(getFile()),
+                (schematic) -> new SchematicPreview(schematic, index),
+                PREVIEW_BACKGROUND,
+                onReady
+        );
+    }
 
-        return container;
+    private void prefetchThumbnail(int index, int sheetCount) {
+        if (index < 0 || index >= sheetCount) {
+            return;
+        }
+        ThumbnailCache.getInstance().prefetch(
+                getFile(),
+                "sheet-" + index,
+                () -> SchematicCache.getInstance().getSchematic(getFile()),
+                (schematic) -> new SchematicPreview(schematic, index),
+                PREVIEW_BACKGROUND
+        );
+    }
+
+    private static String sizeText(ThumbnailCache.Thumbnail thumbnail) {
+        MessageFormat mf = new MessageFormat("Size: {0}W x {1}H ({2}x{3}cm)");
+        Double MM2INCH = 0.0393701;
+        return mf.format(new Object[]{
+            thumbnail.getNativeWidth() * MM2INCH,
+            thumbnail.getNativeHeight() * MM2INCH,
+            thumbnail.getNativeWidth() / 10.0,
+            thumbnail.getNativeHeight() / 10.0
+        });
     }
 
 //    private TableView sheetList(Schematic sch) {
@@ -47,6 +47,7 @@ import static com.maehem.mangocad.model.element.enums.PadShape.*;
 import com.maehem.mangocad.model.element.enums.PinFunction;
 import static com.maehem.mangocad.model.element.enums.PinVisible.*;
 import com.maehem.mangocad.model.element.enums.TextAlign;
+import com.maehem.mangocad.model.element.enums.TextFont;
 import static com.maehem.mangocad.model.element.enums.TextAlign.*;
 import com.maehem.mangocad.model.element.highlevel.Device;
 import com.maehem.mangocad.model.element.highlevel.Footprint;
@@ -56,15 +57,18 @@ import com.maehem.mangocad.model.element.misc.DesignRules;
 import com.maehem.mangocad.model.element.misc.LayerElement;
 import com.maehem.mangocad.model.element.property.LayerNumberProperty;
 import com.maehem.mangocad.model.element.property.Rotation;
+import com.maehem.mangocad.model.util.PolygonKernel;
+import com.maehem.mangocad.model.util.StrokeFont;
 import com.maehem.mangocad.view.ColorUtils;
+import com.maehem.mangocad.view.FontCache;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.Optional;
+import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javafx.geometry.Bounds;
 import javafx.geometry.Point2D;
 import javafx.geometry.VPos;
 import javafx.scene.Group;
@@ -682,8 +686,6 @@ public class LibraryElementNode {
         double fontSizeMult = 0.7272; // INCH to Point ratio
         double fontSize = le.getSize() / fontSizeMult;
         fontSize *= FONT_SCALE;
-        Font font = Font.loadFont(LibraryElementNode.class.getResourceAsStream(FONT_PATH), fontSize);
-
         TextElement et = new TextElement();
         if (le.isXref()) {
             et.setX(x + size * 1.1);
@@ -806,18 +808,73 @@ public class LibraryElementNode {
         return createText2(et, null, color, parentRotation, true);
     }
 
+    /**
+     * Vector font text as one path, laid out by {@link StrokeFont}.
+     *
+     * @param et text
+     * @param altText overrides text content of et element.
+     * @param color of the pen
+     * @return a path of the pen's center lines, stroked.
+     */
+    public static Path createVectorText(TextElement et, String altText, Color color) {
+        Path path = new Path();
+        for (double[] line : StrokeFont.layout(et, altText)) {
+            path.getElements().add(new MoveTo(line[0], -line[1]));
+            if (line.length == 2) {
+                // A dot. Round caps make it a circle.
+                path.getElements().add(new LineTo(line[0] + 0.0001, -line[1]));
+            }
+            for (int i = 2; i < line.length; i += 2) {
+                path.getElements().add(new LineTo(line[i], -line[i + 1]));
+            }
+        }
+        path.setFill(null);
+        path.setStroke(color);
+        path.setStrokeWidth(Math.max(et.getDerivedStroke(), PolygonKernel.MIN_WIRE_WIDTH));
+        path.setStrokeLineCap(StrokeLineCap.ROUND);
+        path.setStrokeLineJoin(StrokeLineJoin.ROUND);
+        return path;
+    }
+
+    private static List<Shape> createCross(double x, double y) {
+        double chSize = 0.5; // Crosshairs size
+        double chStroke = 0.01;
+
+        Line ch = new Line(x - chSize, y, x + chSize, y);
+        ch.setStroke(Color.WHITE);
+        ch.setStrokeWidth(chStroke);
+        Line cv = new Line(x, y - chSize, x, y + chSize);
+        cv.setStroke(Color.WHITE);
+        cv.setStrokeWidth(chStroke);
+
+        return List.of(ch, cv);
+    }
+
     /**
      * Re-implementation of createText, but items are shapes. Element at index 0
-     * is always the text.
+     * is the text: a {@link Path} from {@link #createVectorText} for vector
+     * font text, else a {@link Text}. Callers should treat it as a Shape.
      *
      * @param et
      * @param altText overrides text content of et element.
      * @param color
      * @param parentRotation if applicable, null if not used.
      * @param showCross display zero point anchor/marker.
-     * @return
+     * @return the text shape, then any marks such as its bar over and cross.
      */
     public static ArrayList<Shape> createText2(TextElement et, String altText, Color color, Rotation parentRotation, boolean showCross) {
+        // Vector text is drawn with the stroke font, unless a parent's
+        // rotation or mirror needs the corrections made below.
+        if (et.getFont() == TextFont.VECTOR
+                && (parentRotation == null || (parentRotation.get() == 0.0 && !parentRotation.isMirror()))) {
+            ArrayList<Shape> list = new ArrayList<>();
+            list.add(createVectorText(et, altText, color));
+            if (showCross) {
+                list.addAll(createCross(et.getX(), -et.getY()));
+            }
+            return list;
+        }
+
         boolean showBorder = false;
 
         ArrayList<Shape> list = new ArrayList<>();
@@ -853,7 +910,7 @@ public class LibraryElementNode {
 
         //LOGGER.log(Level.SEVERE, "Font Size: " + fontSize);
         //String fontPath = "/fonts/Source_Code_Pro/static/SourceCodePro-Bold.ttf";
-        Font font = Font.loadFont(LibraryElementNode.class.getResourceAsStream(FONT_PATH), fontSize);
+        Font font = FontCache.getInstance().getFont(fontSize);
 
         String text = altText != null ? altText : et.getValue();
         boolean barOver = false;
@@ -879,8 +936,6 @@ public class LibraryElementNode {
         // Update should be fixed in Java 20.
         // TODO: Use Java Font Metrics.
         // Use known example text to deterimine line height.
-        Text exLine = new Text("EXAMPLE");
-        exLine.setFont(font);
         //double lineHeight = exLine.getBoundsInLocal().getHeight();
 
         //double fontAsc = lineHeight * FONT_ASC_PCT; // Font ascends this much.
@@ -944,7 +999,9 @@ public class LibraryElementNode {
         //tt.setLineSpacing(-0.18); // 50%
         //tt.setLineSpacing(0.33);// 100%
 
-        double textWidth = tt.getBoundsInLocal().getWidth();
+        // Same strings at the same size are measured once.
+        Bounds ttBounds = FontCache.getInstance().getBounds(tt);
+        double textWidth = ttBounds.getWidth();
         //double rawTextWidth = textWidth;
         if (textWidth > 1.00) { // Bounds always seems to be one mm larger than actual text.
             textWidth -= 1.00;
@@ -952,7 +1009,7 @@ public class LibraryElementNode {
         double sFudge = (et.getDerivedStroke() * 0.099); // Nudge by 1%
         //textWidth -= sFudge;
 
-        double textHeight = tt.getBoundsInLocal().getHeight();
+        double textHeight = ttBounds.getHeight();
 
         double stackHeight = (lineCount * size) + (lineCount - 1) * lineSpace;
 
@@ -1344,7 +1401,7 @@ public class LibraryElementNode {
             } else if (et.getAlign().name().endsWith("_LEFT")) {
                 trFact = -1.0;
             }
-            Translate tr = new Translate(trFact * tt.getBoundsInLocal().getWidth(), 0);
+            Translate tr = new Translate(trFact * ttBounds.getWidth(), 0);
             tt.getTransforms().add(tr);
         }
 
@@ -1617,22 +1674,23 @@ public class LibraryElementNode {
         fontSize *= FONT_SCALE;
 
         //String fontPath = "/fonts/Source_Code_Pro/static/SourceCodePro-Bold.ttf";
-        Font font = Font.loadFont(LibraryElementNode.class.getResourceAsStream(FONT_PATH), fontSize);
+        Font font = FontCache.getInstance().getFont(fontSize);
         Text tt = new Text(altText != null ? altText : et.getValue());
         tt.setFont(font);
         tt.setFill(color);
 
         Text exLine = new Text("EXAMPLE");
         exLine.setFont(font);
-        double lineHeight = exLine.getBoundsInLocal().getHeight();
+        double lineHeight = FontCache.getInstance().getBounds(exLine).getHeight();
 
         // JavaFX has not yet exposed FontMetrics so we make these assumtions.
         double fontAsc = lineHeight * FONT_ASC_PCT; // Font ascends this much.
         double fontDesc = lineHeight * (1.0 - FONT_ASC_PCT);
         tt.setLineSpacing(fontAsc * et.getDistance() * 0.01 - fontDesc);
 
-        double textWidth = tt.getBoundsInLocal().getWidth();
-        double textHeight = tt.getBoundsInLocal().getHeight();
+        Bounds ttBounds = FontCache.getInstance().getBounds(tt);
+        double textWidth = ttBounds.getWidth();
+        double textHeight = ttBounds.getHeight();
         double borderW = 0.05;
 
 //        LOGGER.log(Level.SEVERE,
@@ -1724,7 +1782,7 @@ public class LibraryElementNode {
             } else if (et.getAlign().name().endsWith("_LEFT")) {
                 trFact = -1.0;
             }
-            Translate tr = new Translate(trFact * tt.getBoundsInLocal().getWidth(), 0);
+            Translate tr = new Translate(trFact * ttBounds.getWidth(), 0);
             tt.getTransforms().add(tr);
         }
         if (showBorder) {
@@ -2886,7 +2944,7 @@ public class LibraryElementNode {
         // Pin Name (inside component, pin function name)
         Text pinName = new Text(p.getName());
 
-        Font font = Font.loadFont(LibraryElementNode.class.getResourceAsStream(FONT_PATH), PIN_FONT_SIZE);
+        Font font = FontCache.getInstance().getFont(PIN_FONT_SIZE);
         pinName.setFont(font);
         pinName.setFill(pinNameColor);
         pinName.setStroke(pinNameColor);
@@ -2919,10 +2977,7 @@ public class LibraryElementNode {
         }
         Text padName = new Text(padValue);
         double padFontSize = PIN_FONT_SIZE * 0.8;
-        Font padFont = Font.loadFont(
-                LibraryElementNode.class.getResourceAsStream(FONT_PATH),
-                padFontSize
-        );
+        Font padFont = FontCache.getInstance().getFont(padFontSize);
         padName.setFont(padFont);
         padName.setFill(padColor);
         padName.setStroke(padColor);
@@ -2946,10 +3001,7 @@ public class LibraryElementNode {
         if (showDetails) {
             Text dirSwap = new Text(p.getDirection().code() + "  " + p.getSwapLevel());
             double dirSwapFontSize = PIN_FONT_SIZE * 0.6;
-            Font dirSwapFont = Font.loadFont(
-                    LibraryElementNode.class.getResourceAsStream(FONT_PATH),
-                    dirSwapFontSize
-            );
+            Font dirSwapFont = FontCache.getInstance().getFont(dirSwapFontSize);
             dirSwap.setStroke(PIN_DIR_SWAP_COLOR);
             dirSwap.setStrokeWidth(dirSwapFontSize * 0.08);
             dirSwap.setFont(dirSwapFont);
@@ -3115,90 +3167,39 @@ public class LibraryElementNode {
         return new ImagePattern(p.snapshot(sp, wi), 0, 0, 2, 2, false);
     }
 
-    public static Group createSymbolNode(Device device, Symbol symbol, Instance inst, Part part, Map<String, String> vars, Layers layers, ColorPalette palette) {
+    /**
+     * @param resolver fills in the text variables of an instance's texts, or
+     * null to show them as they are.
+     */
+    public static Group createSymbolNode(Device device, Symbol symbol, Instance inst, Part part, Function<String, String> resolver, Layers layers, ColorPalette palette) {
+        return new Group(
+                createSymbolGraphics(device, symbol, inst, layers, palette),
+                createSymbolTexts(symbol, inst, resolver, layers, palette)
+        );
+    }
+
+    /**
+     * Everything of a symbol but its texts, turned and mirrored like the
+     * instance. The same for every instance of a gate at one rotation.
+     *
+     * @param device sets the pad numbers shown on the pins, or null.
+     * @param inst placement of the symbol, or null.
+     */
+    public static Group createSymbolGraphics(Device device, Symbol symbol, Instance inst, Layers layers, ColorPalette palette) {
         Group elementGroup = new Group();
-        Group textGroup = new Group();
-        Group g = new Group(elementGroup, textGroup);
 
         final Rotation rotation = inst == null ? null : inst.getRotation();
         final int rot = (int) (inst == null ? 0.0 : rotation.get());
         final boolean mirror = inst == null ? false : inst.getRotation().isMirror();
 
         symbol.getElements().forEach((e) -> {
-            Color c;
-            if (e instanceof LayerNumberProperty lp) {
-                LayerElement le = layers.get(lp.getLayerNum());
-                if (le == null) {
-                    LOGGER.log(Level.SEVERE, "No Layer for: {0}", lp.getLayerNum());
-                    c = Color.RED;
-                } else {
-                    int colorIndex = le.getColorIndex();
-                    c = ColorUtils.getColor(palette.getHex(colorIndex));
-                }
-            } else {
-                c = Color.GREY;
-            }
+            Color c = symbolColor(e, layers, palette);
 
             // (polygon | wire | text | dimension | pin | circle | rectangle | frame)
             if (e instanceof PolygonElement ep) {
                 elementGroup.getChildren().add(LibraryElementNode.createPolygonCurved(ep, c, false));
             } else if (e instanceof Wire w) {
                 elementGroup.getChildren().add(LibraryElementNode.createWireNode(w, c, false));
-            } else if (e instanceof TextElement et) {
-
-                final TextElement proxyText;
-                if (inst == null) {
-                    proxyText = et;
-                } else {
-                    proxyText = et.copy();
-                }
-
-                if (inst != null) {
-                    for (Attribute attr : inst.getAttributes()) {
-                        String name = ">" + attr.getName();
-                        if (!et.getValue().equals(name)) {
-                            continue;
-                        }
-
-                        // Perform substitute.
-                        // Schematic instance of Part.
-                        if (et.getValue().equals(">VALUE")) {
-                            proxyText.setValue(vars.get("VALUE"));
-                        } else if (et.getValue().equals(">NAME")) {
-                            String gateStr = inst.getGate();
-                            if (gateStr.startsWith("G$")) {
-                                gateStr = "";
-                            }
-                            proxyText.setValue(inst.getPart() + gateStr);
-                        } else {
-                            Optional<Attribute> namedAttribute = part.getNamedAttribute(attr.getName());
-                            if (!namedAttribute.isEmpty()) {
-                                proxyText.setValue(namedAttribute.get().getValue());
-                            } else if (vars.containsKey(et.getValue().substring(1))) {
-                                proxyText.setValue(vars.get(et.getValue().substring(1)));
-                            } else {
-                                proxyText.setValue(attr.getValue());
-                            }
-                        }
-
-                        proxyText.setX(attr.getX() - inst.getX());
-                        proxyText.setY(attr.getY() - inst.getY());
-
-                        proxyText.setSize(attr.getSize());
-                        proxyText.setAlign(attr.getAlign());
-                        proxyText.setRatio(attr.getRatio());
-                        proxyText.setRotation(attr.getRotation());
-
-                        //proxyText.getRotation().setValue((attr.getRotation().getValue()) % 360.0);
-                    }
-                }
-
-                ArrayList<Shape> elementTextNode = createText2(proxyText, null, c, rotation, true);
-                textGroup.getChildren().addAll(elementTextNode);
-
-//                textGroup.getChildren().add(LibraryElementNode.crosshairs(
-//                        proxyText.getX(), -proxyText.getY(), 0.5, 0.035, c
-//                ));
             } else if (e instanceof Dimension dim) {
                 elementGroup.getChildren().add(createDimensionNode(dim, layers, palette));
             } else if (e instanceof Pin pin) {
@@ -3239,7 +3240,77 @@ public class LibraryElementNode {
             elementGroup.getTransforms().add(sc);
         }
 
-        return g;
+        return elementGroup;
+    }
+
+    /**
+     * The texts of a symbol, upright and filled in for an instance.
+     *
+     * @param inst placement of the symbol, or null.
+     * @param resolver fills in the text variables of an instance's texts, or
+     * null to show them as they are.
+     */
+    public static Group createSymbolTexts(Symbol symbol, Instance inst, Function<String, String> resolver, Layers layers, ColorPalette palette) {
+        Group textGroup = new Group();
+        final Rotation rotation = inst == null ? null : inst.getRotation();
+
+        symbol.getElements().forEach((e) -> {
+            if (!(e instanceof TextElement et)) {
+                return;
+            }
+            Color c = symbolColor(e, layers, palette);
+
+            final TextElement proxyText;
+            if (inst == null) {
+                proxyText = et;
+            } else {
+                proxyText = et.copy();
+            }
+
+            if (inst != null) {
+                // A smashed attribute puts its text where it was moved to.
+                for (Attribute attr : inst.getAttributes()) {
+                    String name = ">" + attr.getName();
+                    if (!name.equals(et.getValue())) {
+                        continue;
+                    }
+
+                    proxyText.setX(attr.getX() - inst.getX());
+                    proxyText.setY(attr.getY() - inst.getY());
+
+                    proxyText.setSize(attr.getSize());
+                    proxyText.setAlign(attr.getAlign());
+                    proxyText.setRatio(attr.getRatio());
+                    proxyText.setRotation(attr.getRotation());
+
+                    //proxyText.getRotation().setValue((attr.getRotation().getValue()) % 360.0);
+                }
+                if (resolver != null) {
+                    proxyText.setValue(resolver.apply(et.getValue()));
+                }
+            }
+
+            ArrayList<Shape> elementTextNode = createText2(proxyText, null, c, rotation, true);
+            textGroup.getChildren().addAll(elementTextNode);
+
+//                textGroup.getChildren().add(LibraryElementNode.crosshairs(
+//                        proxyText.getX(), -proxyText.getY(), 0.5, 0.035, c
+//                ));
+        });
+
+        return textGroup;
+    }
+
+    private static Color symbolColor(Element e, Layers layers, ColorPalette palette) {
+        if (e instanceof LayerNumberProperty lp) {
+            LayerElement le = layers.get(lp.getLayerNum());
+            if (le == null) {
+                LOGGER.log(Level.SEVERE, "No Layer for: {0}", lp.getLayerNum());
+                return Color.RED;
+            }
+            return ColorUtils.getColor(palette.getHex(le.getColorIndex()));
+        }
+        return Color.GREY;
     }
 
     public static Node createPackageNode(Footprint pkg, Layers layers, ColorPalette palette) {
@@ -3326,7 +3397,7 @@ public class LibraryElementNode {
 
             } else if (e instanceof PadTHD padTHD) { // No layers, always top or bottom
                 switch (layer) {
-                    case 1 -> {
+                    case 1, 16 -> {
                         LOGGER.log(Level.SEVERE, "Render unused pad:" + padTHD.getName());
                         ContactRef cr = new ContactRef();
                         cr.setElement(el.getName());
@@ -3520,7 +3591,8 @@ public class LibraryElementNode {
 
         pkg.getElements().forEach((e) -> {
             if (e instanceof PadSMD padSMD) {
-                if (layer == 29 && padSMD.getLayerNum() == 1) { // Top Mask
+                if ((layer == 29 && padSMD.getLayerNum() == 1) // Top Mask
+                        || (layer == 30 && padSMD.getLayerNum() == 16)) { // Bottom Mask
                     Shape s = createSmdMask(padSMD, c, false);
                     s.setLayoutX(el.getX());
                     s.setLayoutY(-el.getY());
@@ -3537,7 +3609,7 @@ public class LibraryElementNode {
                         drillShape.getTransforms().add(new Rotate(-el.getRot()));
                         list.add(drillShape);
                     }
-                    case 29 -> { // Needed?
+                    case 29, 30 -> { // Needed?
                         if (!padTHD.isStopmask()) {
                             break;
                         }
@@ -3794,10 +3866,7 @@ public class LibraryElementNode {
         );
         String dimValueString = String.valueOf(bdUp.doubleValue());
         Text dimText = new Text(dimValueString);
-        Font dimFont = Font.loadFont(
-                LibraryElementNode.class.getResourceAsStream(FONT_PATH),
-                dim.getTextsize() * 1.4
-        );
+        Font dimFont = FontCache.getInstance().getFont(dim.getTextsize() * 1.4);
         dimText.setFont(dimFont);
         dimText.setFill(c);
         dimText.setLayoutX(dim.getX1() + oppTadj - dimText.getBoundsInLocal().getWidth() / 2.0);
@@ -3858,10 +3927,7 @@ public class LibraryElementNode {
         );
         String dimValueString = String.valueOf(bdUp.doubleValue());
         Text dimText = new Text(dimValueString);
-        Font dimFont = Font.loadFont(
-                LibraryElementNode.class.getResourceAsStream(FONT_PATH),
-                dim.getTextsize() * 1.4
-        );
+        Font dimFont = FontCache.getInstance().getFont(dim.getTextsize() * 1.4);
         dimText.setFont(dimFont);
 
         double dimWidth = dimText.getBoundsInLocal().getWidth();
@@ -3968,10 +4034,7 @@ public class LibraryElementNode {
                 ));
 
         Text dimText = new Text(dimValueString);
-        Font dimFont = Font.loadFont(
-                LibraryElementNode.class.getResourceAsStream(FONT_PATH),
-                dim.getTextsize() * 1.4
-        );
+        Font dimFont = FontCache.getInstance().getFont(dim.getTextsize() * 1.4);
         dimText.setFont(dimFont);
 
         double dimWidth = dimText.getBoundsInLocal().getWidth();
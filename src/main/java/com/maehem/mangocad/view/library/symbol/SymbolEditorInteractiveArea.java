@@ -52,6 +52,7 @@ import com.maehem.mangocad.view.node.PolygonNode;
 import com.maehem.mangocad.view.node.RectangleNode;
 import com.maehem.mangocad.view.node.TextNode;
 import com.maehem.mangocad.view.node.ViewNode;
+import com.maehem.mangocad.view.node.ViewNodeCuller;
 import com.maehem.mangocad.view.node.WireNode;
 import com.maehem.mangocad.view.utils.TextEditDialog;
 import java.util.ArrayList;
@@ -115,6 +116,7 @@ public class SymbolEditorInteractiveArea extends ScrollPane implements PickListe
     private final Rectangle selectionRectangle = new Rectangle();
     private final ArrayList<Line> gridLines = new ArrayList<>();
     private final Rectangle background;
+    private final ViewNodeCuller culler;
 
     private ViewNode ephemeralNode;
     //private ViewNode directPickedNode;
@@ -152,6 +154,9 @@ public class SymbolEditorInteractiveArea extends ScrollPane implements PickListe
         background.setFill(new Color(0.2, 0.2, 0.2, 1.0));
         workArea.getChildren().add(background);
 
+        // Only nodes near the viewport are kept in the work area.
+        culler = new ViewNodeCuller(workArea, this);
+
         buildScene();
 
         workScale.setX(scale);
@@ -312,7 +317,7 @@ public class SymbolEditorInteractiveArea extends ScrollPane implements PickListe
                                         // New node. Add to symbol.
                                         Element element = ephemeralNode.getElement();
                                         symElements.add(element);
-                                        nodes.add(ephemeralNode);
+                                        addNode(ephemeralNode);
                                         lastElementAdded = element;
                                         LOGGER.log(Level.SEVERE, "Placed new {0}.", element.getElementName());
                                         ephemeralNode = null;
@@ -415,7 +420,7 @@ public class SymbolEditorInteractiveArea extends ScrollPane implements PickListe
                                                     // Nail it down
                                                     //Symbol symbol = parentEditor.getSymbol();
                                                     symElements.add(poly);
-                                                    nodes.add(wn);
+                                                    addNode(wn);
                                                     wn.setClosePath(true); // Close it up.
                                                     //wn.rebuildPath();
                                                     PolygonElement lastPolygon = new PolygonElement();
@@ -1011,9 +1016,8 @@ public class SymbolEditorInteractiveArea extends ScrollPane implements PickListe
                 if (node instanceof TextNode tn) {
                     LOGGER.log(Level.SEVERE, "Remove text: {0}", tn.getValue());
                 }
-                node.removeFrom(workArea);
+                removeNode(node);
                 parentEditor.getSymbol().getElements().remove(node.getElement());
-                nodes.remove(node); // TODO nodes needs listener and do this automatically.
                 LOGGER.log(Level.SEVERE, "Trashed: {0}", node.toString());
             } else {
                 LOGGER.log(Level.SEVERE, "Oops! Trash Failed on {0}", es.toString());
@@ -1188,16 +1192,14 @@ public class SymbolEditorInteractiveArea extends ScrollPane implements PickListe
                             Color.RED, Color.DARKGREEN, Color.DARKGREY,
                             null, true, this
                     );
-                    nodes.add(pinNode);
-                    pinNode.addTo(workArea);
+                    addNode(pinNode);
                 }
                 case Wire w -> {
                     WireNode wireNode = new WireNode(w,
                             parentEditor.getDrawing().getLayers(),
                             parentEditor.getDrawing().getLayers().getPalette(),
                             this);
-                    nodes.add(wireNode);
-                    wireNode.addTo(workArea);
+                    addNode(wireNode);
                 }
                 case TextElement t -> {
                     TextNode textNode = new TextNode(t, null,
@@ -1205,8 +1207,7 @@ public class SymbolEditorInteractiveArea extends ScrollPane implements PickListe
                             parentEditor.getDrawing().getLayers().getPalette(),
                             null, true,
                             this);
-                    nodes.add(textNode);
-                    textNode.addTo(workArea);
+                    addNode(textNode);
                 }
                 case CircleElement c -> {
                     CircleNode circleNode = new CircleNode(c,
@@ -1214,8 +1215,7 @@ public class SymbolEditorInteractiveArea extends ScrollPane implements PickListe
                             parentEditor.getDrawing().getLayers().getPalette(),
                             this
                     );
-                    nodes.add(circleNode);
-                    circleNode.addTo(workArea);
+                    addNode(circleNode);
                 }
                 case RectangleElement c -> {
                     RectangleNode rectNode = new RectangleNode(c,
@@ -1223,16 +1223,14 @@ public class SymbolEditorInteractiveArea extends ScrollPane implements PickListe
                             parentEditor.getDrawing().getLayers().getPalette(),
                             this
                     );
-                    nodes.add(rectNode);
-                    rectNode.addTo(workArea);
+                    addNode(rectNode);
                 }
                 case PolygonElement p -> {
                     PolygonNode polyNode = new PolygonNode(p,
                             parentEditor.getDrawing().getLayers(),
                             parentEditor.getDrawing().getLayers().getPalette(),
                             this);
-                    nodes.add(polyNode);
-                    polyNode.addTo(workArea);
+                    addNode(polyNode);
                 }
                 case Dimension d -> {
                     DimensionNode dimNode = new DimensionNode(d,
@@ -1240,8 +1238,7 @@ public class SymbolEditorInteractiveArea extends ScrollPane implements PickListe
                             parentEditor.getDrawing().getLayers().getPalette(),
                             this
                     );
-                    nodes.add(dimNode);
-                    dimNode.addTo(workArea);
+                    addNode(dimNode);
                 }
                 default -> {
                 }
@@ -1538,6 +1535,19 @@ public class SymbolEditorInteractiveArea extends ScrollPane implements PickListe
 
     }
 
+    /**
+     * Track a node of the symbol. It is put in the work area while in view.
+     */
+    private void addNode(ViewNode node) {
+        nodes.add(node); // TODO nodes needs listener and do this automatically.
+        culler.add(node);
+    }
+
+    private void removeNode(ViewNode node) {
+        culler.remove(node);
+        nodes.remove(node);
+    }
+
     private ViewNode getNode(SelectableProperty e) {
         for (ViewNode vn : nodes) {
             if (vn.getElement().equals(e)) {
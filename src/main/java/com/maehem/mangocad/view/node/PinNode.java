@@ -26,10 +26,9 @@ import com.maehem.mangocad.model.element.property.CoordinateProperty;
 import com.maehem.mangocad.model.element.property.Rotation;
 import com.maehem.mangocad.model.element.property.RotationProperty;
 import com.maehem.mangocad.model.element.property.SelectableProperty;
+import com.maehem.mangocad.view.FontCache;
 import com.maehem.mangocad.view.PickListener;
 import com.maehem.mangocad.view.ViewUtils;
-import com.maehem.mangocad.view.library.LibraryElementNode;
-import static com.maehem.mangocad.view.library.LibraryElementNode.FONT_PATH;
 import java.util.logging.Level;
 import javafx.application.Platform;
 import javafx.scene.paint.Color;
@@ -110,19 +109,14 @@ public class PinNode extends ViewNode implements ElementListener {
 
         this.showDetails = showDetails;
 
-        Font font = Font.loadFont(
-                PinNode.class.getResourceAsStream(FONT_PATH),
-                PIN_FONT_SIZE);
+        Font font = FontCache.getInstance().getFont(PIN_FONT_SIZE);
         pinName.setFont(font);
         pinName.setStrokeWidth(PIN_FONT_SIZE * 0.08);
         pinName.setStrokeLineJoin(StrokeLineJoin.ROUND);
         pinNameSpin.setPivotY(-PIN_FONT_SIZE / ViewUtils.FONT_SIZE_MULT / 2);
         pinNameTranslate.setY(PIN_FONT_SIZE / ViewUtils.FONT_SIZE_MULT / 2);
 
-        Font padFont = Font.loadFont(
-                PinNode.class.getResourceAsStream(FONT_PATH),
-                PAD_FONT_SIZE
-        );
+        Font padFont = FontCache.getInstance().getFont(PAD_FONT_SIZE);
         padName.setFont(padFont);
         padName.setStrokeLineJoin(StrokeLineJoin.ROUND);
         padName.setStrokeWidth(PAD_FONT_SIZE * 0.08);
@@ -130,10 +124,7 @@ public class PinNode extends ViewNode implements ElementListener {
         padNameTranslate.setY(PAD_TEXT_ASCEND);
 
         dirSwap.setStrokeWidth(DS_FONT_SIZE * 0.08);
-        Font dirSwapFont = Font.loadFont(
-                LibraryElementNode.class.getResourceAsStream(FONT_PATH),
-                DS_FONT_SIZE
-        );
+        Font dirSwapFont = FontCache.getInstance().getFont(DS_FONT_SIZE);
 
         dirSwap.setFont(dirSwapFont);
         dirSwapSpin.setPivotY(0);
@@ -0,0 +1,254 @@
+/*
+    Licensed to the Apache Software Foundation (ASF) under one or more
+    contributor license agreements.  See the NOTICE file distributed with this
+    work for additional information regarding copyright ownership.  The ASF
+    licenses this file to you under the Apache License, Version 2.0
+    (the "License"); you may not use this file except in compliance with the
+    License.  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+    License for the specific language governing permissions and limitations
+    under the License.
+ */
+package com.maehem.mangocad.view.node;
+
+import com.maehem.mangocad.model.util.SpatialGrid;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.geometry.BoundingBox;
+import javafx.geometry.Bounds;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.shape.Shape;
+
+/**
+ * Keeps only the {@link ViewNode}s near the viewport in the scene graph.
+ *
+ * Nodes are filed by bounds in square tiles. When the view pans or zooms,
+ * the tiles under the viewport, plus a margin, are looked up and only their
+ * nodes are attached. The rest are detached but kept, still listening to
+ * their elements, so they come back up to date when scrolled into view.
+ * The cost of a pan follows what is on screen, not the size of the design.
+ *
+ * A node whose shapes move is filed again on the next update, so a node
+ * dragged into view appears. Detached shapes are not pickable, which is
+ * fine as they are off screen.
+ *
+ * @author Mark J Koch ( @maehem on GitHub )
+ */
+public class ViewNodeCuller {
+
+    private static final Logger LOGGER = ViewNode.LOGGER;
+
+    /**
+     * Width and height of a tile, in mm.
+     */
+    public static final double TILE_SIZE = 10.0;
+
+    /**
+     * Extra area kept attached around the viewport, as a fraction of its
+     * size, so a short pan shows no gaps.
+     */
+    public static final double MARGIN = 0.5;
+
+    private final Group target;
+    private final Node viewport;
+    private final Set<ViewNode> nodes = identitySet();
+    private final Set<ViewNode> attached = identitySet();
+    private final Set<ViewNode> dirty = identitySet();
+    private final Map<ViewNode, InvalidationListener> listeners = new IdentityHashMap<>();
+    private SpatialGrid<ViewNode> tiles = new SpatialGrid<>(TILE_SIZE);
+    private int filed = 0; // Entries in the tiles, stale ones included.
+    private boolean updateQueued = false;
+
+    /**
+     * @param target group the node shapes are put in.
+     * @param viewport node whose bounds on screen are the visible area,
+     * e.g. the scroll pane around the target.
+     */
+    public ViewNodeCuller(Group target, Node viewport) {
+        this.target = target;
+        this.viewport = viewport;
+
+        // Fires on any pan or zoom of the target, or resize of the view.
+        target.localToSceneTransformProperty().addListener((o) -> requestUpdate());
+        viewport.layoutBoundsProperty().addListener((o) -> requestUpdate());
+        viewport.sceneProperty().addListener((o) -> requestUpdate());
+    }
+
+    /**
+     * Start managing a node. Its shapes may already be in the target.
+     *
+     * @param node to show when in view.
+     */
+    public void add(ViewNode node) {
+        if (!nodes.add(node)) {
+            return;
+        }
+        if (!node.isEmpty() && node.get(0).getParent() == target) {
+            attached.add(node);
+        }
+        InvalidationListener l = (o) -> {
+            dirty.add(node);
+            requestUpdate();
+        };
+        listeners.put(node, l);
+        for (Shape s : node) {
+            s.boundsInParentProperty().addListener(l);
+        }
+        dirty.add(node);
+        requestUpdate();
+    }
+
+    /**
+     * Stop managing a node and take its shapes out of the target.
+     *
+     * @param node to drop.
+     */
+    public void remove(ViewNode node) {
+        if (!nodes.remove(node)) {
+            return;
+        }
+        InvalidationListener l = listeners.remove(node);
+        for (Shape s : node) {
+            s.boundsInParentProperty().removeListener(l);
+        }
+        if (attached.remove(node)) {
+            target.getChildren().removeAll(identitySetOf(node));
+        }
+        dirty.remove(node);
+    }
+
+    /**
+     * Attach or detach nodes for where the viewport is now. Called on its
+     * own after a pan or zoom, once per pulse at most.
+     */
+    public void update() {
+        updateQueued = false;
+        // Reading these arms their listeners for the next change.
+        target.getLocalToSceneTransform();
+        viewport.getLayoutBounds();
+        if (target.getScene() == null || viewport.getScene() == null) {
+            return; // Not shown yet.
+        }
+        long start = System.nanoTime();
+
+        refile();
+
+        Bounds view = target.sceneToLocal(viewport.localToScene(viewport.getLayoutBounds()));
+        double mw = view.getWidth() * MARGIN;
+        double mh = view.getHeight() * MARGIN;
+        Bounds area = new BoundingBox(
+                view.getMinX() - mw, view.getMinY() - mh,
+                view.getWidth() + 2 * mw, view.getHeight() + 2 * mh
+        );
+
+        Set<ViewNode> wanted = identitySet();
+        for (ViewNode n : tiles.query(area.getMinX(), area.getMinY(), area.getMaxX(), area.getMaxY())) {
+            // The tiles may hold where a node used to be.
+            if (nodes.contains(n) && !wanted.contains(n)) {
+                Bounds b = bounds(n);
+                if (b != null && b.intersects(area)) {
+                    wanted.add(n);
+                }
+            }
+        }
+
+        Set<Shape> leaving = identitySet();
+        List<ViewNode> gone = new ArrayList<>();
+        for (ViewNode n : attached) {
+            if (!wanted.contains(n)) {
+                leaving.addAll(n);
+                gone.add(n);
+            }
+        }
+        attached.removeAll(gone);
+        if (!leaving.isEmpty()) {
+            target.getChildren().removeAll(leaving);
+        }
+
+        List<Shape> arriving = new ArrayList<>();
+        for (ViewNode n : wanted) {
+            if (attached.add(n)) {
+                arriving.addAll(n);
+            }
+        }
+        target.getChildren().addAll(arriving);
+
+        LOGGER.log(Level.FINER, "Cull: {0} of {1} nodes shown, {2} detached, {3} attached, in {4}ms", new Object[]{
+            attached.size(), nodes.size(), gone.size(), arriving.size(), (System.nanoTime() - start) / 1000000
+        });
+    }
+
+    private void requestUpdate() {
+        if (!updateQueued) {
+            updateQueued = true;
+            Platform.runLater(this::update);
+        }
+    }
+
+    /**
+     * File moved nodes again. Once stale entries outnumber live ones, the
+     * tiles are rebuilt.
+     */
+    private void refile() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        if (filed + dirty.size() > 2 * nodes.size()) {
+            tiles = new SpatialGrid<>(TILE_SIZE);
+            filed = 0;
+            dirty.addAll(nodes);
+        }
+        for (ViewNode n : dirty) {
+            Bounds b = bounds(n);
+            if (b != null) {
+                tiles.insert(n, b.getMinX(), b.getMinY(), b.getMaxX(), b.getMaxY());
+                filed++;
+            }
+        }
+        dirty.clear();
+    }
+
+    /**
+     * @return the bounds of a node's shapes in the target, or null if it has
+     * none.
+     */
+    private static Bounds bounds(ViewNode n) {
+        double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (Shape s : n) {
+            Bounds b = s.getBoundsInParent();
+            if (!b.isEmpty()) {
+                minX = Math.min(minX, b.getMinX());
+                minY = Math.min(minY, b.getMinY());
+                maxX = Math.max(maxX, b.getMaxX());
+                maxY = Math.max(maxY, b.getMaxY());
+            }
+        }
+        return minX > maxX ? null : new BoundingBox(minX, minY, maxX - minX, maxY - minY);
+    }
+
+    // ViewNode is a list, so its equals() compares shapes. Track by identity.
+    private static <T> Set<T> identitySet() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
+    private static Set<Shape> identitySetOf(List<Shape> shapes) {
+        Set<Shape> set = identitySet();
+        set.addAll(shapes);
+        return set;
+    }
+}
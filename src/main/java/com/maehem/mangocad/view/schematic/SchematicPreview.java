@@ -20,21 +20,18 @@ import com.maehem.mangocad.model.ColorPalette;
 import com.maehem.mangocad.model.element.Element;
 import com.maehem.mangocad.model.element.basic.*;
 import com.maehem.mangocad.model.element.drawing.Layers;
-import com.maehem.mangocad.model.element.drawing.Library;
 import com.maehem.mangocad.model.element.drawing.Schematic;
 import com.maehem.mangocad.model.element.highlevel.Device;
-import com.maehem.mangocad.model.element.highlevel.DeviceSet;
 import com.maehem.mangocad.model.element.highlevel.Net;
 import com.maehem.mangocad.model.element.highlevel.Sheet;
 import com.maehem.mangocad.model.element.highlevel.Symbol;
 import com.maehem.mangocad.model.element.misc.LayerElement;
 import com.maehem.mangocad.model.element.property.LayerNumberProperty;
+import com.maehem.mangocad.model.util.TextVariables;
 import com.maehem.mangocad.view.ColorUtils;
 import com.maehem.mangocad.view.ControlPanel;
+import com.maehem.mangocad.view.LevelOfDetail;
 import com.maehem.mangocad.view.library.LibraryElementNode;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Optional;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javafx.scene.Group;
@@ -43,15 +40,20 @@ import javafx.scene.paint.Color;
 import javafx.scene.text.Text;
 
 /**
+ * One sheet of a schematic, as nodes.
+ *
+ * Build on the FX thread. Symbol graphics come from {@link SymbolTemplates},
+ * shared with the other sheets.
  *
  * @author Mark J Koch ( @maehem on GitHub )
  */
-public class SchematicPreview extends Group {
+public class SchematicPreview extends Group implements LevelOfDetail.Scalable {
 
     private static final Logger LOGGER = ControlPanel.LOGGER;
 
     private final Schematic schematic;
     private int index;
+    private final LevelOfDetail levelOfDetail = new LevelOfDetail(this);
 
     public SchematicPreview(Schematic schematic, int index) {
         super();
@@ -66,16 +68,24 @@ public class SchematicPreview extends Group {
         }
     }
 
-    @SuppressWarnings("unchecked")
+    /**
+     * Draw small texts and symbols as plain boxes when zoomed out.
+     *
+     * @param pixelsPerUnit screen pixels per mm.
+     */
+    @Override
+    public void setPixelsPerUnit(double pixelsPerUnit) {
+        levelOfDetail.setPixelsPerUnit(pixelsPerUnit);
+    }
+
     private void populateNode(Schematic schem, int index) {
         //LayerElement[] layers = schem.getParentDrawing().getLayers();
         Layers layers = schem.getParentDrawing().getLayers();
         ColorPalette palette = schem.getParentDrawing().getLayers().getPalette();
         //LOGGER.log(Level.SEVERE, "Populate Page: " + (index+1));
         Sheet sheet = schem.getSheets().get(index);
-        Map<String, String> vars = new HashMap();
-        vars.putAll(schem.getParentDrawing().getVars());
-        vars.put("SHEET", (index + 1) + "/" + schem.getSheets().size());
+        TextVariables textVars = schem.getTextVariables();
+        String sheetLabel = (index + 1) + "/" + schem.getSheets().size();
 
 //        if (sheet.getPlain().isEmpty()) {
 //            LOGGER.log(Level.SEVERE, "No <plain> nodes found!");
@@ -94,7 +104,8 @@ public class SchematicPreview extends Group {
             } else if (element instanceof Wire e) {
                 getChildren().add(LibraryElementNode.createWireNode(e, c, false));
             } else if (element instanceof TextElement e) {
-                getChildren().addAll(LibraryElementNode.createText2(e, c));
+                String value = textVars.resolve(e.getValue(), null, null, null, sheetLabel);
+                getChildren().addAll(LibraryElementNode.createText2(e, value, c, null, true));
             } else if (element instanceof Dimension e) {
                 getChildren().add(LibraryElementNode.createDimensionNode(e, layers, palette));
             } else if (element instanceof CircleElement e) {
@@ -112,56 +123,50 @@ public class SchematicPreview extends Group {
             }
         }
 
-        // Instances
+        // Instances, by the links made when the schematic was read.
         for (Instance inst : sheet.getInststances()) {
-            String partName = inst.getPart();
-            Optional<Part> lookupPart = schem.lookupPart(partName);
-            if (lookupPart.isPresent()) {
-                Part part = lookupPart.get();
-                Optional<Library> lookupLibrary = schem.lookupLibrary(part.getLibrary());
-                if (lookupLibrary.isPresent()) {
-                    Library lib = lookupLibrary.get();
-                    DeviceSet deviceSet = lib.getDeviceSet(part.getDeviceSet());
-                    Device device = deviceSet.lookupDevice(part.getDevice());
-                    deviceSet.getGates().forEach((gate) -> {
-
-                        if (inst.getGate().equals(gate.getName())) {
-                            Symbol symbol = lib.getSymbol(gate.getSymbol());
-                            // Pass attribute key/value list to symbol preview.
-                            String val;
-                            if (part.getValue() == null) {
-                                String supplyPin = symbol.supplyPin();
-                                if (supplyPin != null) {
-                                    val = supplyPin;
-                                } // Check if it's a global value
-                                // >LAST_DATE_TIME  -  File mod date
-                                // >SHEET (n of 99)  -  sheet num / num sheets
-                                // >DRAWING_NAME   - file.getName()
-                                // Match any attributes:
-                                // >DOCUMENT_NUMBER - schem.attribute
-                                // >FOO    schem.attribute
-                                // >BAR    schem.attribute
-                                else {
-                                    val = gate.getName(); // Maybe it's the gate name?
-                                }
-                            } else {
-                                val = part.getValue();
-                            }
-                            vars.put("VALUE", val);
-                            Node symbolPreview = LibraryElementNode.createSymbolNode(
-                                    device, symbol, inst, part, vars, layers, palette
-                            );
-                            symbolPreview.setLayoutX(inst.getX());
-                            symbolPreview.setLayoutY(-inst.getY());
-                            // Can't just rotate part since sub-texts need to be upright.
-                            // Rotation direction is negative versus Eagle.
-                            //symbolPreview.getTransforms().add(new Rotate(-inst.getRot(), 0, 0));
-                            getChildren().add(symbolPreview);
-                        }
-                    });
+            Part part = inst.getPartObj();
+            Gate gate = inst.getGateObj();
+            Symbol symbol = inst.getSymbolObj();
+            if (part == null || gate == null || symbol == null) {
+                LOGGER.log(Level.FINE, "Unresolved instance: {0}{1}", new Object[]{inst.getPart(), inst.getGate()});
+                continue;
+            }
+            Device device = part.getDeviceObj();
+            // Pass attribute key/value list to symbol preview.
+            String val;
+            if (part.getValue() == null) {
+                String supplyPin = symbol.supplyPin();
+                if (supplyPin != null) {
+                    val = supplyPin;
+                } // Check if it's a global value
+                // >LAST_DATE_TIME  -  File mod date
+                // >SHEET (n of 99)  -  sheet num / num sheets
+                // >DRAWING_NAME   - file.getName()
+                // Match any attributes:
+                // >DOCUMENT_NUMBER - schem.attribute
+                // >FOO    schem.attribute
+                // >BAR    schem.attribute
+                else {
+                    val = gate.getName(); // Maybe it's the gate name?
                 }
+            } else {
+                val = part.getValue();
             }
-
+            // Graphics are shared by every instance of the gate.
+            Node symbolPreview = new Group(
+                    SymbolTemplates.getInstance().create(device, symbol, inst, layers, palette),
+                    LibraryElementNode.createSymbolTexts(symbol, inst,
+                            (text) -> textVars.resolve(text, inst, part, val, sheetLabel),
+                            layers, palette
+                    )
+            );
+            symbolPreview.setLayoutX(inst.getX());
+            symbolPreview.setLayoutY(-inst.getY());
+            // Can't just rotate part since sub-texts need to be upright.
+            // Rotation direction is negative versus Eagle.
+            //symbolPreview.getTransforms().add(new Rotate(-inst.getRot(), 0, 0));
+            getChildren().add(symbolPreview);
         }
         // Nets
         for (Net inst : sheet.getNetInsts()) {
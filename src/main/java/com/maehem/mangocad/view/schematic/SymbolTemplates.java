@@ -0,0 +1,227 @@
+/*
+    Licensed to the Apache Software Foundation (ASF) under one or more
+    contributor license agreements.  See the NOTICE file distributed with this
+    work for additional information regarding copyright ownership.  The ASF
+    licenses this file to you under the Apache License, Version 2.0
+    (the "License"); you may not use this file except in compliance with the
+    License.  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+    WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+    License for the specific language governing permissions and limitations
+    under the License.
+ */
+package com.maehem.mangocad.view.schematic;
+
+import com.maehem.mangocad.model.ColorPalette;
+import com.maehem.mangocad.model.element.basic.Instance;
+import com.maehem.mangocad.model.element.drawing.Layers;
+import com.maehem.mangocad.model.element.highlevel.Device;
+import com.maehem.mangocad.model.element.highlevel.Symbol;
+import com.maehem.mangocad.view.ControlPanel;
+import com.maehem.mangocad.view.library.LibraryElementNode;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javafx.geometry.Point2D;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.Paint;
+import javafx.scene.shape.ClosePath;
+import javafx.scene.shape.CubicCurveTo;
+import javafx.scene.shape.LineTo;
+import javafx.scene.shape.MoveTo;
+import javafx.scene.shape.Path;
+import javafx.scene.shape.PathElement;
+import javafx.scene.shape.QuadCurveTo;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.shape.Shape;
+import javafx.scene.transform.Transform;
+
+/**
+ * Symbol graphics shared by every instance of a gate, on every sheet.
+ *
+ * A schematic places the same resistor or capacitor symbol hundreds of
+ * times. Its wires, pins and pin names are the same for each instance of a
+ * gate at one rotation, so they are built once, merged into one outline
+ * per colour, and each instance gets a few paths sharing those outlines.
+ * Only the instance's own texts are built for it.
+ *
+ * Templates are kept while their symbol is. Use only on the FX thread:
+ * merging uses JavaFX shape ops, which are not safe across threads.
+ *
+ * @author Mark J Koch ( @maehem on GitHub )
+ */
+public class SymbolTemplates {
+
+    private static final Logger LOGGER = ControlPanel.LOGGER;
+
+    private static SymbolTemplates instance = null;
+
+    /**
+     * What the graphics of a symbol depend on. Pads shown on the pins come
+     * from the device and gate.
+     */
+    private record Key(Device device, String gate, double rot, boolean mirror, ColorPalette.Style style) {
+
+    }
+
+    /**
+     * One colour of a template: its merged outline.
+     */
+    private record Layer(Paint paint, List<PathElement> outline) {
+
+    }
+
+    // Marks a symbol whose graphics can't be shared.
+    private static final List<Layer> NOT_SHARED = new ArrayList<>();
+
+    // Symbols don't override equals(), so these are keyed by identity.
+    private final Map<Symbol, Map<Key, List<Layer>>> templates = new WeakHashMap<>();
+
+    private SymbolTemplates() {
+    }
+
+    public static synchronized SymbolTemplates getInstance() {
+        if (instance == null) {
+            instance = new SymbolTemplates();
+        }
+        return instance;
+    }
+
+    /**
+     * Graphics of a symbol placed as an instance, without its texts.
+     *
+     * @param device sets the pad numbers shown on the pins, or null.
+     * @param symbol to draw.
+     * @param inst placement of the symbol.
+     * @return a new group sharing the symbol's outlines.
+     */
+    public Group create(Device device, Symbol symbol, Instance inst, Layers layers, ColorPalette palette) {
+        Key key = new Key(device, inst.getGate(), inst.getRotation().get(), inst.getRotation().isMirror(), palette.getStyle());
+        Map<Key, List<Layer>> forSymbol = templates.computeIfAbsent(symbol, (s) -> new LinkedHashMap<>());
+        List<Layer> template = forSymbol.get(key);
+        if (template == NOT_SHARED) {
+            return LibraryElementNode.createSymbolGraphics(device, symbol, inst, layers, palette);
+        }
+        if (template == null) {
+            long start = System.nanoTime();
+            Group built = LibraryElementNode.createSymbolGraphics(device, symbol, inst, layers, palette);
+            template = merge(built);
+            LOGGER.log(Level.FINER, "Symbol template {0}: {1} colours in {2}ms", new Object[]{
+                symbol.getName(), template == null ? 0 : template.size(), (System.nanoTime() - start) / 1000000
+            });
+            forSymbol.put(key, template == null ? NOT_SHARED : template);
+            if (template == null) {
+                // Something only a node can draw.
+                return built;
+            }
+        }
+
+        Group g = new Group();
+        for (Layer layer : template) {
+            Path p = new Path(layer.outline);
+            p.setFill(layer.paint);
+            p.setStroke(null);
+            g.getChildren().add(p);
+        }
+        return g;
+    }
+
+    /**
+     * @return one outline per colour, in the group's parent space, or null
+     * if a node can't be drawn as a plain outline.
+     */
+    private static List<Layer> merge(Group group) {
+        Map<Paint, Shape> merged = new LinkedHashMap<>();
+        if (!merge(group, group.getLocalToParentTransform(), merged)) {
+            return null;
+        }
+        List<Layer> layers = new ArrayList<>(merged.size());
+        merged.forEach((paint, shape) -> layers.add(new Layer(paint, List.copyOf(((Path) shape).getElements()))));
+        return layers;
+    }
+
+    private static boolean merge(Parent parent, Transform toRoot, Map<Paint, Shape> merged) {
+        for (Node n : parent.getChildrenUnmodifiable()) {
+            if (!n.isVisible()) {
+                continue;
+            }
+            if (n.getOpacity() < 1.0 || n.getEffect() != null || n.getClip() != null) {
+                return false;
+            }
+            if (n instanceof Group g) {
+                if (!merge(g, toRoot.createConcatenation(g.getLocalToParentTransform()), merged)) {
+                    return false;
+                }
+            } else if (n instanceof Shape s) {
+                // Boolean ops count a clear fill as area. These nodes are
+                // only traced, so drop it.
+                if (isClear(s.getFill())) {
+                    s.setFill(null);
+                }
+                if (isClear(s.getStroke()) || s.getStrokeWidth() <= 0) {
+                    s.setStroke(null);
+                }
+                Paint paint = s.getFill() != null ? s.getFill() : s.getStroke();
+                if (paint == null) {
+                    continue;
+                }
+                if (s.getStroke() != null && !paint.equals(s.getStroke())) {
+                    return false;
+                }
+                // A boolean op hands back the shape's outline, stroke
+                // included, in its parent's space.
+                Path outline = place(((Path) Shape.union(s, new Rectangle())).getElements(), toRoot);
+                Shape before = merged.get(paint);
+                merged.put(paint, before == null ? outline : Shape.union(before, outline));
+            } else {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isClear(Paint p) {
+        return p instanceof Color c && c.getOpacity() == 0.0;
+    }
+
+    /**
+     * @return a path of the elements moved by a transform.
+     */
+    private static Path place(List<PathElement> elements, Transform t) {
+        List<PathElement> out = new ArrayList<>(elements.size());
+        for (PathElement pe : elements) {
+            if (pe instanceof MoveTo m) {
+                Point2D p = t.transform(m.getX(), m.getY());
+                out.add(new MoveTo(p.getX(), p.getY()));
+            } else if (pe instanceof LineTo l) {
+                Point2D p = t.transform(l.getX(), l.getY());
+                out.add(new LineTo(p.getX(), p.getY()));
+            } else if (pe instanceof QuadCurveTo q) {
+                Point2D c = t.transform(q.getControlX(), q.getControlY());
+                Point2D p = t.transform(q.getX(), q.getY());
+                out.add(new QuadCurveTo(c.getX(), c.getY(), p.getX(), p.getY()));
+            } else if (pe instanceof CubicCurveTo cc) {
+                Point2D c1 = t.transform(cc.getControlX1(), cc.getControlY1());
+                Point2D c2 = t.transform(cc.getControlX2(), cc.getControlY2());
+                Point2D p = t.transform(cc.getX(), cc.getY());
+                out.add(new CubicCurveTo(c1.getX(), c1.getY(), c2.getX(), c2.getY(), p.getX(), p.getY()));
+            } else if (pe instanceof ClosePath) {
+                out.add(new ClosePath());
+            }
+        }
+        Path path = new Path(out);
+        path.setFill(Color.BLACK);
+        return path;
+    }
+}
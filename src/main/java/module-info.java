@@ -3,6 +3,7 @@ module com.maehem.mangocad {
     requires javafx.controls;
     requires javafx.graphics;
     requires java.base;
+    requires java.desktop;
     requires jdk.xml.dom;
     requires java.net.http;
 